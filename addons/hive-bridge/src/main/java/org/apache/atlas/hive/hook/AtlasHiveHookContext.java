@@ -33,7 +33,8 @@ public class AtlasHiveHookContext {
     private final HiveOperation            hiveOperation;
     private final HookContext              hiveContext;
     private final Hive                     hive;
-    private final Map<String, AtlasEntity> qNameEntityMap = new HashMap<>();
+    private final Map<String, AtlasEntity> qNameEntityMap      = new HashMap<>();
+    private final Map<String, Long>        qNameFingerprintMap = new HashMap<>();
 
     public AtlasHiveHookContext(HiveHook hook, HiveOperation hiveOperation, HookContext hiveContext) throws Exception {
         this.hook          = hook;
@@ -64,21 +65,25 @@ public class AtlasHiveHookContext {
 
     public Collection<AtlasEntity> getEntities() { return qNameEntityMap.values(); }
 
+    public void putFingerprint(String qualifiedName, long fingerprint) {
+        qNameFingerprintMap.put(qualifiedName, fingerprint);
+    }
+
 
     public String getClusterName() {
         return hook.getClusterName();
     }
 
-    public boolean isKnownDatabase(String dbQualifiedName) {
-        return hook.isKnownDatabase(dbQualifiedName);
+    public boolean isKnownDatabase(String dbQualifiedName, long fingerprint) {
+        return hook.isKnownDatabase(dbQualifiedName, fingerprint);
     }
 
-    public boolean isKnownTable(String tblQualifiedName) {
-        return hook.isKnownTable(tblQualifiedName);
+    public boolean isKnownTable(String tblQualifiedName, long fingerprint) {
+        return hook.isKnownTable(tblQualifiedName, fingerprint);
     }
 
     public void addToKnownEntities(Collection<AtlasEntity> entities) {
-        hook.addToKnownEntities(entities);
+        hook.addToKnownEntities(entities, qNameFingerprintMap);
     }
 
     public void removeFromKnownDatabase(String dbQualifiedName) {
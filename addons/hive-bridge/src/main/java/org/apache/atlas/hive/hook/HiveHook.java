@@ -52,8 +52,8 @@ public class HiveHook extends AtlasHook implements ExecuteWithHookContext {
 
     private static final Map<String, HiveOperation> OPERATION_MAP = new HashMap<>();
     private static final String                     clusterName;
-    private static final Map<String, Long>          knownDatabases;
-    private static final Map<String, Long>          knownTables;
+    private static final Map<String, Long>          knownDatabases; // qualifiedName => fingerprint of the entity last sent
+    private static final Map<String, Long>          knownTables;    // qualifiedName => fingerprint of the entity last sent
 
     static {
         for (HiveOperation hiveOperation : HiveOperation.values()) {
@@ -164,37 +164,54 @@ public class HiveHook extends AtlasHook implements ExecuteWithHookContext {
         return clusterName;
     }
 
-    public boolean isKnownDatabase(String dbQualifiedName) {
-        return knownDatabases != null && dbQualifiedName != null ? knownDatabases.containsKey(dbQualifiedName) : false;
+    /**
+     * @return true if the database was sent in an earlier notification, and is unchanged since - i.e. has the same fingerprint
+     */
+    public boolean isKnownDatabase(String dbQualifiedName, long fingerprint) {
+        Long knownFingerprint = knownDatabases != null && dbQualifiedName != null ? knownDatabases.get(dbQualifiedName) : null;
+
+        return knownFingerprint != null && knownFingerprint == fingerprint;
     }
 
-    public boolean isKnownTable(String tblQualifiedName) {
-        return knownTables != null && tblQualifiedName != null ? knownTables.containsKey(tblQualifiedName) : false;
+    /**
+     * @return true if the table was sent in an earlier notification, and is unchanged since - i.e. has the same fingerprint
+     */
+    public boolean isKnownTable(String tblQualifiedName, long fingerprint) {
+        Long knownFingerprint = knownTables != null && tblQualifiedName != null ? knownTables.get(tblQualifiedName) : null;
+
+        return knownFingerprint != null && knownFingerprint == fingerprint;
     }
 
-    public void addToKnownEntities(Collection<AtlasEntity> entities) {
+    public void addToKnownEntities(Collection<AtlasEntity> entities, Map<String, Long> fingerprints) {
         if (knownDatabases != null || knownTables != null) { // caching should be enabled at least for one
             if (entities != null) {
                 for (AtlasEntity entity : entities) {
+                    String qualifiedName = (String) entity.getAttribute(ATTRIBUTE_QUALIFIED_NAME);
+                    Long   fingerprint   = fingerprints.get(qualifiedName);
+
+                    if (fingerprint == null) {
+                        continue;
+                    }
+
                     if (StringUtils.equalsIgnoreCase(entity.getTypeName(), HIVE_TYPE_DB)) {
-                        addToKnownDatabase((String) entity.getAttribute(ATTRIBUTE_QUALIFIED_NAME));
+                        addToKnownDatabase(qualifiedName, fingerprint);
                     } else if (StringUtils.equalsIgnoreCase(entity.getTypeName(), HIVE_TYPE_TABLE)) {
-                        addToKnwnTable((String) entity.getAttribute(ATTRIBUTE_QUALIFIED_NAME));
+                        addToKnwnTable(qualifiedName, fingerprint);
                     }
                 }
             }
         }
     }
 
-    public void addToKnownDatabase(String dbQualifiedName) {
+    public void addToKnownDatabase(String dbQualifiedName, long fingerprint) {
         if (knownDatabases != null && dbQualifiedName != null) {
-            knownDatabases.put(dbQualifiedName, System.currentTimeMillis());
+            knownDatabases.put(dbQualifiedName, fingerprint);
         }
     }
 
-    public void addToKnwnTable(String tblQualifiedName) {
+    public void addToKnwnTable(String tblQualifiedName, long fingerprint) {
         if (knownTables != null && tblQualifiedName != null) {
-            knownTables.put(tblQualifiedName, System.currentTimeMillis());
+            knownTables.put(tblQualifiedName, fingerprint);
         }
     }
 
@@ -133,6 +133,9 @@ public abstract class BaseHiveEvent {
 
     public static final Map<Integer, String> OWNER_TYPE_TO_ENUM_VALUE = new HashMap<>();
 
+    // lastAccessTime changes on every read of the table; an update of only this attribute is not worth sending
+    private static final Set<String> TABLE_FINGERPRINT_EXCLUDED_ATTRIBUTES = Collections.singleton(ATTRIBUTE_LAST_ACCESS_TIME);
+
 
     static {
         OWNER_TYPE_TO_ENUM_VALUE.put(1, "USER");
@@ -248,21 +251,12 @@ public abstract class BaseHiveEvent {
     }
 
     protected AtlasEntity toDbEntity(Database db) throws Exception {
-        String  dbQualifiedName = getQualifiedName(db);
-        boolean isKnownDatabase = context.isKnownDatabase(dbQualifiedName);
-
-        AtlasEntity ret = context.getEntity(dbQualifiedName);
+        String      dbQualifiedName = getQualifiedName(db);
+        AtlasEntity ret             = context.getEntity(dbQualifiedName);
 
         if (ret == null) {
             ret = new AtlasEntity(HIVE_TYPE_DB);
 
-            // if this DB was sent in an earlier notification, set 'guid' to null - which will:
-            //  - result in this entity to be not included in 'referredEntities'
-            //  - cause Atlas server to resolve the entity by its qualifiedName
-            if (isKnownDatabase) {
-                ret.setGuid(null);
-            }
-
             ret.setAttribute(ATTRIBUTE_QUALIFIED_NAME, dbQualifiedName);
             ret.setAttribute(ATTRIBUTE_NAME, db.getName().toLowerCase());
             ret.setAttribute(ATTRIBUTE_DESCRIPTION, db.getDescription());
@@ -276,6 +270,16 @@ public abstract class BaseHiveEvent {
                 ret.setAttribute(ATTRIBUTE_OWNER_TYPE, OWNER_TYPE_TO_ENUM_VALUE.get(db.getOwnerType().getValue()));
             }
 
+            long fingerprint = new EntityFingerprint().add(ret).getValue();
+
+            // if this DB was sent in an earlier notification and is unchanged since, set 'guid' to null - which will:
+            //  - result in this entity to be not included in 'referredEntities'
+            //  - cause Atlas server to resolve the entity by its qualifiedName
+            if (context.isKnownDatabase(dbQualifiedName, fingerprint)) {
+                ret.setGuid(null);
+            }
+
+            context.putFingerprint(dbQualifiedName, fingerprint);
             context.putEntity(dbQualifiedName, ret);
         }
 
@@ -315,21 +319,12 @@ public abstract class BaseHiveEvent {
     }
 
     protected AtlasEntity toTableEntity(AtlasObjectId dbId, Table table, AtlasEntityExtInfo entityExtInfo) throws Exception {
-        String  tblQualifiedName = getQualifiedName(table);
-        boolean isKnownTable     = context.isKnownTable(tblQualifiedName);
-
-        AtlasEntity ret = context.getEntity(tblQualifiedName);
+        String      tblQualifiedName = getQualifiedName(table);
+        AtlasEntity ret              = context.getEntity(tblQualifiedName);
 
         if (ret == null) {
             ret = new AtlasEntity(HIVE_TYPE_TABLE);
 
-            // if this table was sent in an earlier notification, set 'guid' to null - which will:
-            //  - result in this entity to be not included in 'referredEntities'
-            //  - cause Atlas server to resolve the entity by its qualifiedName
-            if (isKnownTable && !isAlterTableOperation()) {
-                ret.setGuid(null);
-            }
-
             long createTime     = getTableCreateTime(table);
             long lastAccessTime = table.getLastAccessTime() > 0 ? (table.getLastAccessTime() * MILLIS_CONVERT_FACTOR) : createTime;
 
@@ -357,6 +352,23 @@ public abstract class BaseHiveEvent {
             AtlasEntity       sd            = getStorageDescEntity(tableId, table);
             List<AtlasEntity> partitionKeys = getColumnEntities(tableId, table, table.getPartitionKeys());
             List<AtlasEntity> columns       = getColumnEntities(tableId, table, table.getCols());
+            long              fingerprint   = new EntityFingerprint().add(ret, TABLE_FINGERPRINT_EXCLUDED_ATTRIBUTES).add(sd).add(partitionKeys).add(columns).getValue();
+
+            // if this table was sent in an earlier notification and is unchanged since, set 'guid' to null for the table,
+            // its storage-descriptor and columns - which will:
+            //  - result in these entities to be not included in 'referredEntities'
+            //  - cause Atlas server to resolve these entities by their qualifiedName
+            if (!isAlterTableOperation() && context.isKnownTable(tblQualifiedName, fingerprint)) {
+                ret.setGuid(null);
+
+                tableId = getObjectId(ret);
+
+                setAsReference(sd, tableId);
+                setAsReference(partitionKeys, tableId);
+                setAsReference(columns, tableId);
+            }
+
+            context.putFingerprint(tblQualifiedName, fingerprint);
 
             if (entityExtInfo != null) {
                 entityExtInfo.addReferredEntity(sd);
@@ -385,21 +397,12 @@ public abstract class BaseHiveEvent {
     }
 
     protected AtlasEntity getStorageDescEntity(AtlasObjectId tableId, Table table) {
-        String  sdQualifiedName = getQualifiedName(table, table.getSd());
-        boolean isKnownTable    = tableId.getGuid() == null;
-
-        AtlasEntity ret = context.getEntity(sdQualifiedName);
+        String      sdQualifiedName = getQualifiedName(table, table.getSd());
+        AtlasEntity ret             = context.getEntity(sdQualifiedName);
 
         if (ret == null) {
             ret = new AtlasEntity(HIVE_TYPE_STORAGEDESC);
 
-            // if sd's table was sent in an earlier notification, set 'guid' to null - which will:
-            //  - result in this entity to be not included in 'referredEntities'
-            //  - cause Atlas server to resolve the entity by its qualifiedName
-            if (isKnownTable) {
-                ret.setGuid(null);
-            }
-
             StorageDescriptor sd = table.getSd();
 
             ret.setAttribute(ATTRIBUTE_TABLE, tableId);
@@ -449,8 +452,7 @@ public abstract class BaseHiveEvent {
     }
 
     protected List<AtlasEntity> getColumnEntities(AtlasObjectId tableId, Table table, List<FieldSchema> fieldSchemas) {
-        List<AtlasEntity> ret          = new ArrayList<>();
-        boolean           isKnownTable = tableId.getGuid() == null;
+        List<AtlasEntity> ret = new ArrayList<>();
 
         int columnPosition = 0;
         for (FieldSchema fieldSchema : fieldSchemas) {
@@ -460,13 +462,6 @@ public abstract class BaseHiveEvent {
             if (column == null) {
                 column = new AtlasEntity(HIVE_TYPE_COLUMN);
 
-                // if column's table was sent in an earlier notification, set 'guid' to null - which will:
-                //  - result in this entity to be not included in 'referredEntities'
-                //  - cause Atlas server to resolve the entity by its qualifiedName
-                if (isKnownTable) {
-                    column.setGuid(null);
-                }
-
                 column.setAttribute(ATTRIBUTE_TABLE, tableId);
                 column.setAttribute(ATTRIBUTE_QUALIFIED_NAME, colQualifiedName);
                 column.setAttribute(ATTRIBUTE_NAME, fieldSchema.getName());
@@ -484,6 +479,21 @@ public abstract class BaseHiveEvent {
         return ret;
     }
 
+    private static void setAsReference(AtlasEntity entity, AtlasObjectId tableId) {
+        if (entity != null) {
+            entity.setGuid(null);
+            entity.setAttribute(ATTRIBUTE_TABLE, tableId);
+        }
+    }
+
+    private static void setAsReference(List<AtlasEntity> entities, AtlasObjectId tableId) {
+        if (entities != null) {
+            for (AtlasEntity entity : entities) {
+                setAsReference(entity, tableId);
+            }
+        }
+    }
+
     protected AtlasEntity getHDFSPathEntity(Path path) {
         String      strPath           = path.toString().toLowerCase();
         String      nameServiceID     = HdfsNameServiceResolver.getInstance().getNameServiceIDForPath(strPath);
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hive.hook.events;
+
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasStruct;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Computes a fingerprint of entity attributes, used by the hook to detect whether an entity changed since it was last
+ * sent. Guids are not included in the fingerprint, as these are generated afresh for every notification; references
+ * to other entities are included by their type and unique attributes.
+ */
+public class EntityFingerprint {
+    private final MessageDigest digest;
+    private final StringBuilder sb = new StringBuilder();
+
+    public EntityFingerprint() {
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException excp) {
+            throw new IllegalStateException(excp);
+        }
+    }
+
+    public EntityFingerprint add(AtlasEntity entity) {
+        return add(entity, Collections.<String>emptySet());
+    }
+
+    public EntityFingerprint add(AtlasEntity entity, Set<String> excludedAttributes) {
+        if (entity != null) {
+            sb.append(entity.getTypeName());
+
+            appendAttributes(entity.getAttributes(), excludedAttributes);
+
+            update();
+        }
+
+        return this;
+    }
+
+    public EntityFingerprint add(Collection<AtlasEntity> entities) {
+        if (entities != null) {
+            for (AtlasEntity entity : entities) {
+                add(entity);
+            }
+        }
+
+        return this;
+    }
+
+    public long getValue() {
+        byte[] hash = digest.digest();
+        long   ret  = 0;
+
+        for (int i = 0; i < 8; i++) {
+            ret = (ret << 8) | (hash[i] & 0xFF);
+        }
+
+        return ret;
+    }
+
+    private void appendAttributes(Map<String, Object> attributes, Set<String> excludedAttributes) {
+        sb.append('{');
+
+        if (attributes != null) {
+            for (Map.Entry<String, Object> entry : new TreeMap<>(attributes).entrySet()) {
+                if (excludedAttributes.contains(entry.getKey())) {
+                    continue;
+                }
+
+                sb.append(entry.getKey()).append('=');
+
+                appendValue(entry.getValue());
+
+                sb.append(',');
+            }
+        }
+
+        sb.append('}');
+    }
+
+    private void appendValue(Object value) {
+        if (value instanceof AtlasObjectId) {
+            AtlasObjectId objectId = (AtlasObjectId) value;
+
+            sb.append(objectId.getTypeName());
+
+            appendAttributes(objectId.getUniqueAttributes(), Collections.<String>emptySet());
+        } else if (value instanceof AtlasStruct) {
+            AtlasStruct struct = (AtlasStruct) value;
+
+            sb.append(struct.getTypeName());
+
+            appendAttributes(struct.getAttributes(), Collections.<String>emptySet());
+        } else if (value instanceof Map) {
+            sb.append('{');
+
+            for (Map.Entry<?, ?> entry : new TreeMap<>((Map<?, ?>) value).entrySet()) {
+                sb.append(entry.getKey()).append('=');
+
+                appendValue(entry.getValue());
+
+                sb.append(',');
+            }
+
+            sb.append('}');
+        } else if (value instanceof Collection) {
+            sb.append('[');
+
+            for (Object element : (Collection<?>) value) {
+                appendValue(element);
+
+                sb.append(',');
+            }
+
+            sb.append(']');
+        } else {
+            sb.append(value);
+        }
+    }
+
+    private void update() {
+        digest.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        sb.setLength(0);
+    }
+}
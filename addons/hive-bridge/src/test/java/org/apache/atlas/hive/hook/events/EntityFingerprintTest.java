@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hive.hook.events;
+
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.apache.atlas.hive.hook.events.BaseHiveEvent.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+public class EntityFingerprintTest {
+    @Test
+    public void testFingerprintIgnoresGuidsAndAttributeOrder() {
+        AtlasEntity table1 = createTable(new HashMap<String, Object>());
+        AtlasEntity table2 = createTable(new LinkedHashMap<String, Object>());
+        AtlasEntity column = createColumn(table1, "string");
+
+        assertNotEquals(table1.getGuid(), table2.getGuid());
+        assertEquals(new EntityFingerprint().add(table1).add(column).getValue(),
+                     new EntityFingerprint().add(table2).add(createColumn(table2, "string")).getValue());
+    }
+
+    @Test
+    public void testFingerprintChangesWithAttributes() {
+        AtlasEntity table = createTable(new HashMap<String, Object>());
+        long        orig  = new EntityFingerprint().add(table).add(createColumn(table, "string")).getValue();
+
+        assertNotEquals(new EntityFingerprint().add(table).add(createColumn(table, "int")).getValue(), orig);
+
+        table.setAttribute(ATTRIBUTE_PARAMETERS, Collections.singletonMap("numRows", "10"));
+
+        assertNotEquals(new EntityFingerprint().add(table).add(createColumn(table, "string")).getValue(), orig);
+    }
+
+    @Test
+    public void testExcludedAttributes() {
+        AtlasEntity table = createTable(new HashMap<String, Object>());
+        long        orig  = new EntityFingerprint().add(table, Collections.singleton(ATTRIBUTE_LAST_ACCESS_TIME)).getValue();
+
+        table.setAttribute(ATTRIBUTE_LAST_ACCESS_TIME, System.currentTimeMillis() + 1000);
+
+        assertEquals(new EntityFingerprint().add(table, Collections.singleton(ATTRIBUTE_LAST_ACCESS_TIME)).getValue(), orig);
+        assertNotEquals(new EntityFingerprint().add(table).getValue(), orig);
+    }
+
+    private static AtlasEntity createTable(Map<String, Object> parameters) {
+        AtlasEntity ret = new AtlasEntity(HIVE_TYPE_TABLE);
+
+        parameters.put("comment", "test table");
+        parameters.put("transient_lastDdlTime", "1520000000");
+
+        ret.setAttribute(ATTRIBUTE_QUALIFIED_NAME, "default.t1@primary");
+        ret.setAttribute(ATTRIBUTE_NAME, "t1");
+        ret.setAttribute(ATTRIBUTE_OWNER, "hive");
+        ret.setAttribute(ATTRIBUTE_LAST_ACCESS_TIME, 1520000000000L);
+        ret.setAttribute(ATTRIBUTE_PARAMETERS, parameters);
+
+        return ret;
+    }
+
+    private static AtlasEntity createColumn(AtlasEntity table, String type) {
+        AtlasEntity ret = new AtlasEntity(HIVE_TYPE_COLUMN);
+
+        ret.setAttribute(ATTRIBUTE_TABLE, getObjectId(table));
+        ret.setAttribute(ATTRIBUTE_QUALIFIED_NAME, "default.t1.c1@primary");
+        ret.setAttribute(ATTRIBUTE_NAME, "c1");
+        ret.setAttribute(ATTRIBUTE_COL_TYPE, type);
+
+        return ret;
+    }
+}
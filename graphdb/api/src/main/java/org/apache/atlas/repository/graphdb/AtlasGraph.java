@@ -143,6 +143,14 @@ public interface AtlasGraph<V, E> {
      */
     AtlasGraphQuery<V, E> query();
 
+    /**
+     * Creates a traversal over all vertices of the graph, to be executed natively by
+     * the graph database. Supported only by graphs with Gremlin version THREE.
+     *
+     * @return
+     */
+    AtlasGraphTraversal<V, E> traversal();
+
     /**
      * Creates an index query.
      *
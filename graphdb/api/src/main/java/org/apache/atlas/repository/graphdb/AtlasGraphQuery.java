@@ -122,6 +122,16 @@ public interface AtlasGraphQuery<V, E> {
      */
     AtlasGraphQuery<V, E> createChildQuery();
 
+    /**
+     * Orders the vertices/edges returned by the query by the value of the given property.
+     * When the query can be answered by an index, the ordering is done by the index backend.
+     *
+     * @param propertyKey
+     * @param sortOrder
+     * @return
+     */
+    AtlasGraphQuery<V, E> orderBy(String propertyKey, SortOrder sortOrder);
+
 
     interface QueryOperator {}
 
@@ -147,6 +157,14 @@ public interface AtlasGraphQuery<V, E> {
         REGEX
     }
 
+    /**
+     * Sort order of results of an AtlasGraphQuery
+     */
+    enum SortOrder {
+        ASCENDING,
+        DESCENDING
+    }
+
     /**
      * Adds all of the predicates that have been added to this query to the
      * specified query.
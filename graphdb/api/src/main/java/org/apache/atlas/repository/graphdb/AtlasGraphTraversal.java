@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graphdb;
+
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.QueryOperator;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Represents a graph traversal that is built step by step and executed natively by the graph database,
+ * instead of being evaluated as a Gremlin script. Each method adds a step to this traversal and returns it.
+ *
+ * @param <V> vertex class used by the graph
+ * @param <E> edge class used by the graph
+ */
+public interface AtlasGraphTraversal<V, E> {
+    /**
+     * Filters elements having the given property.
+     */
+    AtlasGraphTraversal<V, E> has(String propertyKey);
+
+    /**
+     * Filters elements whose property equals the given value.
+     */
+    AtlasGraphTraversal<V, E> has(String propertyKey, Object value);
+
+    /**
+     * Filters elements whose property satisfies the given comparison or matching operator.
+     */
+    AtlasGraphTraversal<V, E> has(String propertyKey, QueryOperator op, Object value);
+
+    /**
+     * Filters elements whose property equals one of the given values.
+     */
+    AtlasGraphTraversal<V, E> within(String propertyKey, Collection<?> values);
+
+    AtlasGraphTraversal<V, E> out(String edgeLabel);
+
+    AtlasGraphTraversal<V, E> in(String edgeLabel);
+
+    AtlasGraphTraversal<V, E> outE(String edgeLabel);
+
+    AtlasGraphTraversal<V, E> outV();
+
+    AtlasGraphTraversal<V, E> as(String stepLabel);
+
+    AtlasGraphTraversal<V, E> dedup();
+
+    AtlasGraphTraversal<V, E> limit(long limit);
+
+    AtlasGraphTraversal<V, E> range(long low, long high);
+
+    AtlasGraphTraversal<V, E> orderBy(String propertyKey, boolean isDescending);
+
+    /**
+     * Groups the elements by the value of the given property; the traversal then emits a single map.
+     */
+    AtlasGraphTraversal<V, E> groupBy(String propertyKey);
+
+    /**
+     * Filters elements that satisfy all the given child traversals.
+     */
+    AtlasGraphTraversal<V, E> and(List<AtlasGraphTraversal<V, E>> childTraversals);
+
+    /**
+     * Filters elements that satisfy at least one of the given child traversals.
+     */
+    AtlasGraphTraversal<V, E> or(List<AtlasGraphTraversal<V, E>> childTraversals);
+
+    /**
+     * Creates an anonymous traversal, to be used as a child of and()/or() steps of this traversal.
+     */
+    AtlasGraphTraversal<V, E> createChildTraversal();
+
+    /**
+     * Executes the traversal.
+     *
+     * @return the results, with vertices and edges converted to AtlasVertex/AtlasEdge
+     */
+    List<Object> toList();
+}
@@ -43,6 +43,33 @@ public interface AtlasIndexQuery<V, E> {
      */
     Iterator<Result<V, E>> vertices(int offset, int limit);
 
+    /**
+     * Streams the query results, starting at the given offset. Results are read from the index in batches of
+     * the given size; vertices of each batch are loaded from the graph together, instead of one at a time.
+     *
+     * @param offset starting offset
+     * @param batchSize number of results to read from the index, and vertices to load, at a time
+     * @return
+     */
+    Iterator<Result<V, E>> streamVertices(int offset, int batchSize);
+
+    /**
+     * Gets the number of vertices matching the query, as reported by the index. The count is approximate, as
+     * the index might not yet reflect recent updates to the graph.
+     *
+     * @return
+     */
+    long vertexTotals();
+
+    /**
+     * Indicates whether the value last returned by vertexTotals() is an estimate, i.e. a lower bound of the number
+     * of vertices matching the query. This is the case for backends that can't read the total from the index, and
+     * stop counting the hits after a limit.
+     *
+     * @return
+     */
+    boolean isVertexTotalsEstimated();
+
     /**
      * Query result from an index query.
      *
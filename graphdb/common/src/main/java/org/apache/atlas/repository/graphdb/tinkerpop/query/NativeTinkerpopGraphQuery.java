@@ -19,6 +19,7 @@ package org.apache.atlas.repository.graphdb.tinkerpop.query;
 
 import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery.QueryOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.SortOrder;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 
 import java.util.Collection;
@@ -93,4 +94,12 @@ public interface NativeTinkerpopGraphQuery<V, E> {
      * @param value
      */
     void has(String propertyName, QueryOperator op, Object value);
+
+    /**
+     * Orders the results of the query by the given property.
+     *
+     * @param propertyName
+     * @param sortOrder
+     */
+    void orderBy(String propertyName, SortOrder sortOrder);
 }
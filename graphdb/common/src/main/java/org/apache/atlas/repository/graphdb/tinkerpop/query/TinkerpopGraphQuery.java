@@ -19,6 +19,7 @@ package org.apache.atlas.repository.graphdb.tinkerpop.query;
 
 import com.google.common.base.Preconditions;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasElement;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
@@ -29,8 +30,11 @@ import org.apache.atlas.repository.graphdb.tinkerpop.query.expr.OrCondition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -84,7 +88,10 @@ import java.util.Set;
  *
  *               result
  * </pre>
- *
+ * <p>
+ * When an order is specified, it is pushed down to each native GraphQuery.
+ * When there is more than one AndCondition, the union of their results is
+ * sorted in memory.
  *
  */
 public abstract class TinkerpopGraphQuery<V, E> implements AtlasGraphQuery<V, E> {
@@ -93,6 +100,8 @@ public abstract class TinkerpopGraphQuery<V, E> implements AtlasGraphQuery<V, E>
     protected final AtlasGraph<V, E> graph;
     private final OrCondition queryCondition = new OrCondition();
     private final boolean isChildQuery;
+    private String sortKey;
+    private SortOrder sortOrder;
     protected abstract NativeTinkerpopQueryFactory<V, E> getQueryFactory();
 
     /**
@@ -129,14 +138,14 @@ public abstract class TinkerpopGraphQuery<V, E> implements AtlasGraphQuery<V, E>
         }
 
         // Compute the overall result by combining the results of all the AndConditions (nested within OR) together.
-        Set<AtlasVertex<V, E>> result = new HashSet<>();
+        Set<AtlasVertex<V, E>> result = new LinkedHashSet<>();
         for(AndCondition andExpr : queryCondition.getAndTerms()) {
-            NativeTinkerpopGraphQuery<V, E> andQuery = andExpr.create(getQueryFactory());
+            NativeTinkerpopGraphQuery<V, E> andQuery = createNativeQuery(andExpr);
             for(AtlasVertex<V, E> vertex : andQuery.vertices()) {
                 result.add(vertex);
             }
         }
-        return result;
+        return needInMemorySort() ? sort(result, 0, result.size()) : result;
     }
 
     @Override
@@ -146,14 +155,14 @@ public abstract class TinkerpopGraphQuery<V, E> implements AtlasGraphQuery<V, E>
         }
 
         // Compute the overall result by combining the results of all the AndConditions (nested within OR) together.
-        Set<AtlasEdge<V, E>> result = new HashSet<>();
+        Set<AtlasEdge<V, E>> result = new LinkedHashSet<>();
         for(AndCondition andExpr : queryCondition.getAndTerms()) {
-            NativeTinkerpopGraphQuery<V, E> andQuery = andExpr.create(getQueryFactory());
+            NativeTinkerpopGraphQuery<V, E> andQuery = createNativeQuery(andExpr);
             for(AtlasEdge<V, E> edge : andQuery.edges()) {
                 result.add(edge);
             }
         }
-        return result;
+        return needInMemorySort() ? sort(result, 0, result.size()) : result;
     }
 
     @Override
@@ -170,15 +179,27 @@ public abstract class TinkerpopGraphQuery<V, E> implements AtlasGraphQuery<V, E>
         Preconditions.checkArgument(offset >= 0, "Offset must be non-negative");
         Preconditions.checkArgument(limit >= 0, "Limit must be non-negative");
 
+        if (needInMemorySort()) {
+            // top offset+limit edges of the union are within the top offset+limit edges of each AndCondition
+            Set<AtlasEdge<V, E>> result = new LinkedHashSet<>();
+            for(AndCondition andExpr : queryCondition.getAndTerms()) {
+                NativeTinkerpopGraphQuery<V, E> andQuery = createNativeQuery(andExpr);
+                for(AtlasEdge<V, E> edge : andQuery.edges(offset + limit)) {
+                    result.add(edge);
+                }
+            }
+            return sort(result, offset, limit);
+        }
+
         // Compute the overall result by combining the results of all the AndConditions (nested within OR) together.
-        Set<AtlasEdge<V, E>> result = new HashSet<>();
+        Set<AtlasEdge<V, E>> result = new LinkedHashSet<>();
         long resultIdx = 0;
         for(AndCondition andExpr : queryCondition.getAndTerms()) {
             if (result.size() == limit) {
                 break;
             }
 
-            NativeTinkerpopGraphQuery<V, E> andQuery = andExpr.create(getQueryFactory());
+            NativeTinkerpopGraphQuery<V, E> andQuery = createNativeQuery(andExpr);
             for(AtlasEdge<V, E> edge : andQuery.edges(offset + limit)) {
                 if (resultIdx >= offset) {
                     result.add(edge);
@@ -209,15 +230,27 @@ public abstract class TinkerpopGraphQuery<V, E> implements AtlasGraphQuery<V, E>
         Preconditions.checkArgument(offset >= 0, "Offset must be non-negative");
         Preconditions.checkArgument(limit >= 0, "Limit must be non-negative");
 
+        if (needInMemorySort()) {
+            // top offset+limit vertices of the union are within the top offset+limit vertices of each AndCondition
+            Set<AtlasVertex<V, E>> result = new LinkedHashSet<>();
+            for(AndCondition andExpr : queryCondition.getAndTerms()) {
+                NativeTinkerpopGraphQuery<V, E> andQuery = createNativeQuery(andExpr);
+                for(AtlasVertex<V, E> vertex : andQuery.vertices(offset + limit)) {
+                    result.add(vertex);
+                }
+            }
+            return sort(result, offset, limit);
+        }
+
         // Compute the overall result by combining the results of all the AndConditions (nested within OR) together.
-        Set<AtlasVertex<V, E>> result = new HashSet<>();
+        Set<AtlasVertex<V, E>> result = new LinkedHashSet<>();
         long resultIdx = 0;
         for(AndCondition andExpr : queryCondition.getAndTerms()) {
             if (result.size() == limit) {
                 break;
             }
 
-            NativeTinkerpopGraphQuery<V, E> andQuery = andExpr.create(getQueryFactory());
+            NativeTinkerpopGraphQuery<V, E> andQuery = createNativeQuery(andExpr);
             for(AtlasVertex<V, E> vertex : andQuery.vertices(offset + limit)) {
                 if (resultIdx >= offset) {
                     result.add(vertex);
@@ -269,10 +302,64 @@ public abstract class TinkerpopGraphQuery<V, E> implements AtlasGraphQuery<V, E>
         return this;
     }
 
+    @Override
+    public AtlasGraphQuery<V, E> orderBy(String propertyKey, SortOrder sortOrder) {
+        this.sortKey   = propertyKey;
+        this.sortOrder = sortOrder;
+        return this;
+    }
+
     private OrCondition getOrCondition() {
         return queryCondition;
     }
 
+    private NativeTinkerpopGraphQuery<V, E> createNativeQuery(AndCondition andExpr) {
+        NativeTinkerpopGraphQuery<V, E> ret = andExpr.create(getQueryFactory());
+
+        if (sortKey != null) {
+            ret.orderBy(sortKey, sortOrder);
+        }
+
+        return ret;
+    }
+
+    private boolean needInMemorySort() {
+        return sortKey != null && queryCondition.getAndTerms().size() > 1;
+    }
+
+    private <T extends AtlasElement> List<T> sort(Collection<T> elements, int offset, int limit) {
+        List<T> ret = new ArrayList<>(elements);
+
+        Collections.sort(ret, new Comparator<T>() {
+            @Override
+            public int compare(T e1, T e2) {
+                int cmp = compareValues(e1.getProperty(sortKey, Object.class), e2.getProperty(sortKey, Object.class));
+
+                return sortOrder == SortOrder.DESCENDING ? -cmp : cmp;
+            }
+        });
+
+        if (offset >= ret.size()) {
+            return Collections.emptyList();
+        }
+
+        return ret.subList(offset, Math.min(ret.size(), offset + limit));
+    }
+
+    private static int compareValues(Object val1, Object val2) {
+        final int ret;
+
+        if (val1 == null || val2 == null) { // null values last
+            ret = val1 == null ? (val2 == null ? 0 : 1) : -1;
+        } else if (val1 instanceof Comparable && val1.getClass().isInstance(val2)) {
+            ret = ((Comparable) val1).compareTo(val2);
+        } else {
+            ret = val1.toString().compareTo(val2.toString());
+        }
+
+        return ret;
+    }
+
     @Override
     public AtlasGraphQuery<V, E> addConditionsFrom(AtlasGraphQuery<V, E> otherQuery) {
 
@@ -0,0 +1,322 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.repository.graphdb.utils;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe pool of Gremlin script engines, with an LRU cache of compiled scripts keyed by engine and script text.
+ *
+ * Creating a Gremlin Groovy script engine and compiling a script into a Groovy class are expensive, and often cost
+ * more than the traversal itself. eval() compiles a script once per engine and evaluates the compiled script with the
+ * bindings given for each call; a compiled script holds no state of its own, so it can be evaluated concurrently.
+ *
+ * At most poolSize engines are in use at a time; borrowEngine() waits for an engine to be returned when all are in use.
+ * Each compilation loads a class in the classloader of the engine that compiled it; to bound the memory held by an
+ * engine, an engine is discarded, along with its compiled scripts, after it compiles maxCompilesPerEngine scripts.
+ */
+public class GremlinScriptEnginePool {
+    private static final Logger LOG = LoggerFactory.getLogger(GremlinScriptEnginePool.class);
+
+    private static final int  METRICS_LOG_INTERVAL      = 100; // log metrics after every 100 cache misses
+    private static final long DEFAULT_BORROW_TIMEOUT_MS = 60 * 1000;
+
+    public interface EngineFactory {
+        ScriptEngine createEngine() throws AtlasBaseException;
+
+        void closeEngine(ScriptEngine engine);
+    }
+
+    private final EngineFactory                    factory;
+    private final BlockingQueue<ScriptEngine>      idleEngines;
+    private final Semaphore                        borrowPermits;
+    private final Map<ScriptKey, CompiledScript>   compiledScripts;
+    private final Map<ScriptEngine, AtomicLong>    engineCompileCounts = Collections.synchronizedMap(new WeakHashMap<ScriptEngine, AtomicLong>());
+    private final int                              maxEngines;
+    private final int                              maxCompilesPerEngine;
+    private final long                             borrowTimeoutMs;
+
+    private final AtomicLong cacheHits        = new AtomicLong();
+    private final AtomicLong cacheMisses      = new AtomicLong();
+    private final AtomicLong compileTimeMs    = new AtomicLong();
+    private final AtomicLong enginesCreated   = new AtomicLong();
+    private final AtomicLong enginesDiscarded = new AtomicLong();
+
+    public GremlinScriptEnginePool(EngineFactory factory, int poolSize, int cacheSize) {
+        this(factory, poolSize, cacheSize, DEFAULT_BORROW_TIMEOUT_MS);
+    }
+
+    public GremlinScriptEnginePool(EngineFactory factory, int poolSize, final int cacheSize, long borrowTimeoutMs) {
+        this.factory              = factory;
+        this.maxEngines           = Math.max(1, poolSize);
+        this.idleEngines          = new ArrayBlockingQueue<>(maxEngines);
+        this.borrowPermits        = new Semaphore(maxEngines, true);
+        this.maxCompilesPerEngine = Math.max(1, cacheSize);
+        this.borrowTimeoutMs      = borrowTimeoutMs;
+        this.compiledScripts      = Collections.synchronizedMap(new LinkedHashMap<ScriptKey, CompiledScript>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ScriptKey, CompiledScript> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        LOG.info("GremlinScriptEnginePool: poolSize={}, cacheSize={}, borrowTimeoutMs={}", poolSize, cacheSize, borrowTimeoutMs);
+    }
+
+    /**
+     * @return an engine from the pool; a new engine is created if none is idle. When poolSize engines are in use, waits
+     *         up to borrowTimeoutMs for one to be returned. Return the engine with returnEngine().
+     */
+    public ScriptEngine borrowEngine() throws AtlasBaseException {
+        try {
+            if (!borrowPermits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_GREMLIN_SCRIPT_ENGINE, "all " + maxEngines + " engines are in use");
+            }
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_GREMLIN_SCRIPT_ENGINE, excp, "interrupted");
+        }
+
+        ScriptEngine ret = idleEngines.poll();
+
+        if (ret == null) {
+            try {
+                ret = factory.createEngine();
+            } catch (AtlasBaseException | RuntimeException excp) {
+                borrowPermits.release();
+
+                throw excp;
+            }
+
+            engineCompileCounts.put(ret, new AtomicLong());
+
+            enginesCreated.incrementAndGet();
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the engine to the pool; the engine is closed if it was not created by this pool, or if it has compiled
+     * too many scripts.
+     */
+    public void returnEngine(ScriptEngine engine) {
+        if (engine == null) {
+            return;
+        }
+
+        AtomicLong compileCount = engineCompileCounts.get(engine);
+
+        if (compileCount == null) {
+            factory.closeEngine(engine);
+
+            return;
+        }
+
+        try {
+            if (compileCount.get() >= maxCompilesPerEngine || !idleEngines.offer(engine)) {
+                discardEngine(engine);
+            }
+        } finally {
+            borrowPermits.release();
+        }
+    }
+
+    /**
+     * @return true if the given engine was created by this pool
+     */
+    public boolean isPoolEngine(ScriptEngine engine) {
+        return engine != null && engineCompileCounts.containsKey(engine);
+    }
+
+    /**
+     * Evaluates the script with the given bindings, on an engine borrowed from the pool.
+     */
+    public Object eval(String script, Map<String, ?> bindings) throws ScriptException, AtlasBaseException {
+        ScriptEngine engine = borrowEngine();
+
+        try {
+            return eval(engine, script, bindings);
+        } finally {
+            returnEngine(engine);
+        }
+    }
+
+    /**
+     * Evaluates the script with the given bindings on the given engine, using the script compiled by this engine from
+     * the cache when available. Scripts compiled by engines not created by this pool are not cached.
+     */
+    public Object eval(ScriptEngine engine, String script, Map<String, ?> bindings) throws ScriptException {
+        ScriptKey      key            = new ScriptKey(engine, script);
+        CompiledScript compiledScript = compiledScripts.get(key);
+
+        if (compiledScript != null) {
+            cacheHits.incrementAndGet();
+
+            return compiledScript.eval(createBindings(engine, bindings));
+        }
+
+        if (cacheMisses.incrementAndGet() % METRICS_LOG_INTERVAL == 0) {
+            LOG.info("GremlinScriptEnginePool: {}", getMetricsSummary());
+        }
+
+        if (!(engine instanceof Compilable)) {
+            return engine.eval(script, createBindings(engine, bindings));
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        compiledScript = ((Compilable) engine).compile(script);
+
+        long timeTaken = System.currentTimeMillis() - startTime;
+
+        compileTimeMs.addAndGet(timeTaken);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("GremlinScriptEnginePool: compiled script in {} ms: {}", timeTaken, script);
+        }
+
+        AtomicLong compileCount = engineCompileCounts.get(engine);
+
+        if (compileCount != null) {
+            compileCount.incrementAndGet();
+
+            compiledScripts.put(key, compiledScript);
+        }
+
+        return compiledScript.eval(createBindings(engine, bindings));
+    }
+
+    public long getCacheHits() { return cacheHits.get(); }
+
+    public long getCacheMisses() { return cacheMisses.get(); }
+
+    public double getCacheHitRatio() {
+        long hits  = cacheHits.get();
+        long total = hits + cacheMisses.get();
+
+        return total == 0 ? 0 : ((double) hits) / total;
+    }
+
+    public long getCompileTimeMs() { return compileTimeMs.get(); }
+
+    public int getCachedScriptCount() { return compiledScripts.size(); }
+
+    public int getIdleEngineCount() { return idleEngines.size(); }
+
+    public long getEnginesCreated() { return enginesCreated.get(); }
+
+    public long getEnginesDiscarded() { return enginesDiscarded.get(); }
+
+    public String getMetricsSummary() {
+        return "cacheHits=" + getCacheHits() + ", cacheMisses=" + getCacheMisses() + ", cacheHitRatio=" + String.format("%.3f", getCacheHitRatio()) +
+               ", cachedScripts=" + getCachedScriptCount() + ", compileTimeMs=" + getCompileTimeMs() + ", idleEngines=" + getIdleEngineCount() +
+               ", enginesCreated=" + getEnginesCreated() + ", enginesDiscarded=" + getEnginesDiscarded();
+    }
+
+    /**
+     * Closes idle engines and clears the compiled script cache.
+     */
+    public void clear() {
+        compiledScripts.clear();
+
+        for (ScriptEngine engine = idleEngines.poll(); engine != null; engine = idleEngines.poll()) {
+            engineCompileCounts.remove(engine);
+
+            factory.closeEngine(engine);
+        }
+    }
+
+    private void discardEngine(ScriptEngine engine) {
+        engineCompileCounts.remove(engine);
+
+        // compiled scripts of the engine can't be used once it is closed; remove them so they don't hold the engine
+        synchronized (compiledScripts) {
+            for (Iterator<ScriptKey> iter = compiledScripts.keySet().iterator(); iter.hasNext(); ) {
+                if (iter.next().engine == engine) {
+                    iter.remove();
+                }
+            }
+        }
+
+        enginesDiscarded.incrementAndGet();
+
+        factory.closeEngine(engine);
+    }
+
+    private Bindings createBindings(ScriptEngine engine, Map<String, ?> bindings) {
+        Bindings ret = engine.createBindings();
+
+        if (bindings != null) {
+            ret.putAll(bindings);
+        }
+
+        return ret;
+    }
+
+    private static final class ScriptKey {
+        private final ScriptEngine engine;
+        private final String       script;
+
+        ScriptKey(ScriptEngine engine, String script) {
+            this.engine = engine;
+            this.script = script;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof ScriptKey)) {
+                return false;
+            }
+
+            ScriptKey other = (ScriptKey) o;
+
+            return engine == other.engine && script.equals(other.script);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(engine) + script.hashCode();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.repository.graphdb.utils;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.Test;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.SimpleBindings;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class GremlinScriptEnginePoolTest {
+    @Test
+    public void testCompiledScriptIsReused() throws Exception {
+        TestEngineFactory       factory = new TestEngineFactory();
+        GremlinScriptEnginePool pool    = new GremlinScriptEnginePool(factory, 2, 10);
+
+        assertEquals(pool.eval("g.V()", Collections.singletonMap("x", 1)), "result:g.V()");
+        assertEquals(pool.eval("g.V()", Collections.singletonMap("x", 2)), "result:g.V()");
+        assertEquals(pool.eval("g.E()", null), "result:g.E()");
+
+        assertEquals(factory.engines.size(), 1);
+        assertEquals(factory.compileCount, 2);
+        assertEquals(pool.getCacheHits(), 1);
+        assertEquals(pool.getCacheMisses(), 2);
+        assertEquals(pool.getCachedScriptCount(), 2);
+    }
+
+    @Test
+    public void testBindingsArePerInvocation() throws Exception {
+        TestEngineFactory       factory = new TestEngineFactory();
+        GremlinScriptEnginePool pool    = new GremlinScriptEnginePool(factory, 2, 10);
+
+        pool.eval("g.V()", Collections.singletonMap("x", 1));
+        pool.eval("g.V()", Collections.singletonMap("y", 2));
+
+        assertEquals(factory.evalBindings.size(), 2);
+        assertEquals(factory.evalBindings.get(0).get("x"), 1);
+        assertFalse(factory.evalBindings.get(1).containsKey("x"));
+        assertEquals(factory.evalBindings.get(1).get("y"), 2);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedScriptIsEvicted() throws Exception {
+        TestEngineFactory       factory = new TestEngineFactory();
+        GremlinScriptEnginePool pool    = new GremlinScriptEnginePool(factory, 2, 2);
+        ScriptEngine            engine1 = pool.borrowEngine();
+        ScriptEngine            engine2 = pool.borrowEngine();
+
+        pool.eval(engine1, "s1", null);
+        pool.eval(engine2, "s2", null);
+        pool.eval(engine1, "s1", null);
+        pool.eval(engine2, "s3", null); // evicts s2
+        pool.eval(engine1, "s1", null);
+        pool.eval(engine2, "s2", null);
+
+        assertEquals(pool.getCachedScriptCount(), 2);
+        assertEquals(pool.getCacheHits(), 2);
+        assertEquals(factory.compileCount, 4);
+    }
+
+    @Test
+    public void testScriptIsEvaluatedOnGivenEngine() throws Exception {
+        TestEngineFactory       factory = new TestEngineFactory();
+        GremlinScriptEnginePool pool    = new GremlinScriptEnginePool(factory, 2, 10);
+        ScriptEngine            engine1 = pool.borrowEngine();
+        ScriptEngine            engine2 = pool.borrowEngine();
+
+        pool.eval(engine2, "g.V()", null);
+        pool.eval(engine1, "g.V()", null);
+        pool.eval(engine2, "g.V()", null);
+
+        assertEquals(factory.engines.size(), 2);
+        assertEquals(factory.compiledBy, Arrays.asList(engine2, engine1));
+        assertEquals(factory.evalEngines, Arrays.asList(engine2, engine1, engine2));
+        assertEquals(pool.getCacheHits(), 1);
+
+        // engines not created by the pool are used, but their compiled scripts are not cached
+        ScriptEngine other = factory.createEngine();
+
+        pool.eval(other, "g.V()", null);
+        pool.eval(other, "g.V()", null);
+
+        assertEquals(factory.compiledBy.subList(2, 4), Arrays.asList(other, other));
+        assertEquals(pool.getCachedScriptCount(), 2);
+    }
+
+    @Test
+    public void testEnginesArePooled() throws Exception {
+        TestEngineFactory       factory = new TestEngineFactory();
+        GremlinScriptEnginePool pool    = new GremlinScriptEnginePool(factory, 1, 10, 10);
+        ScriptEngine            engine1 = pool.borrowEngine();
+
+        assertTrue(pool.isPoolEngine(engine1));
+        assertFalse(pool.isPoolEngine(mock(ScriptEngine.class)));
+
+        try {
+            pool.borrowEngine(); // all engines are in use
+
+            fail("borrowEngine() should fail when all engines are in use");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.FAILED_TO_OBTAIN_GREMLIN_SCRIPT_ENGINE);
+        }
+
+        pool.returnEngine(engine1);
+
+        assertSame(pool.borrowEngine(), engine1);
+        assertEquals(factory.engines.size(), 1);
+        assertEquals(factory.closedCount, 0);
+    }
+
+    @Test
+    public void testEngineIsDiscardedAfterMaxCompiles() throws Exception {
+        TestEngineFactory       factory = new TestEngineFactory();
+        GremlinScriptEnginePool pool    = new GremlinScriptEnginePool(factory, 1, 2);
+
+        pool.eval("s1", null);
+        pool.eval("s2", null);
+
+        assertEquals(pool.getCachedScriptCount(), 0); // compiled scripts of the discarded engine are evicted
+
+        pool.eval("s3", null);
+
+        assertEquals(factory.engines.size(), 2);
+        assertEquals(factory.closedCount, 1);
+        assertEquals(pool.getCachedScriptCount(), 1);
+        assertEquals(pool.getEnginesDiscarded(), 1);
+    }
+
+    private static class TestEngineFactory implements GremlinScriptEnginePool.EngineFactory {
+        final List<ScriptEngine> engines      = new ArrayList<>();
+        final List<Bindings>     evalBindings = new ArrayList<>();
+        final List<ScriptEngine> compiledBy   = new ArrayList<>();
+        final List<ScriptEngine> evalEngines  = new ArrayList<>();
+        int                      compileCount = 0;
+        int                      closedCount  = 0;
+
+        @Override
+        public ScriptEngine createEngine() {
+            final ScriptEngine engine = mock(ScriptEngine.class, withSettings().extraInterfaces(Compilable.class));
+
+            when(engine.createBindings()).thenAnswer(new Answer<Bindings>() {
+                @Override
+                public Bindings answer(InvocationOnMock invocation) {
+                    return new SimpleBindings();
+                }
+            });
+
+            try {
+                when(((Compilable) engine).compile(anyString())).thenAnswer(new Answer<CompiledScript>() {
+                    @Override
+                    public CompiledScript answer(InvocationOnMock invocation) {
+                        final String script = (String) invocation.getArguments()[0];
+
+                        compileCount++;
+                        compiledBy.add(engine);
+
+                        return new CompiledScript() {
+                            @Override
+                            public Object eval(ScriptContext context) {
+                                return "result:" + script;
+                            }
+
+                            @Override
+                            public Object eval(Bindings bindings) {
+                                evalBindings.add(bindings);
+                                evalEngines.add(engine);
+
+                                return "result:" + script;
+                            }
+
+                            @Override
+                            public ScriptEngine getEngine() {
+                                return engine;
+                            }
+                        };
+                    }
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+
+            engines.add(engine);
+
+            return engine;
+        }
+
+        @Override
+        public void closeEngine(ScriptEngine engine) {
+            closedCount++;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.type.AtlasType;
 import org.apache.commons.configuration.Configuration;
@@ -40,11 +41,13 @@ import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasGraphManagement;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasSchemaViolationException;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.graphdb.GremlinVersion;
 import org.apache.atlas.repository.graphdb.janus.query.AtlasJanusGraphQuery;
+import org.apache.atlas.repository.graphdb.utils.GremlinScriptEnginePool;
 import org.apache.atlas.repository.graphdb.utils.IteratorToIterableAdapter;
 import org.apache.tinkerpop.gremlin.groovy.CompilerCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
@@ -60,12 +63,12 @@ import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
 import org.janusgraph.diskstorage.BackendException;
 
-import javax.script.Bindings;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -91,7 +94,8 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         }
     }
 
-    private final Set<String> multiProperties;
+    private final Set<String>             multiProperties;
+    private final GremlinScriptEnginePool scriptEnginePool;
 
     public AtlasJanusGraph() {
         //determine multi-properties once at startup
@@ -110,6 +114,22 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
                 mgmt.rollback();
             }
         }
+
+        scriptEnginePool = new GremlinScriptEnginePool(new GremlinScriptEnginePool.EngineFactory() {
+            @Override
+            public ScriptEngine createEngine() {
+                return createGremlinScriptEngine();
+            }
+
+            @Override
+            public void closeEngine(ScriptEngine engine) {
+                try {
+                    ((GremlinGroovyScriptEngine) engine).close();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+        }, AtlasConfiguration.GREMLIN_SCRIPT_ENGINE_POOL_SIZE.getInt(), AtlasConfiguration.GREMLIN_COMPILED_SCRIPT_CACHE_SIZE.getInt());
     }
 
     @Override
@@ -132,6 +152,11 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         return new AtlasJanusGraphQuery(this);
     }
 
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> traversal() {
+        return new AtlasJanusGraphTraversal(this, getGraph().traversal().V());
+    }
+
     @Override
     public AtlasEdge<AtlasJanusVertex, AtlasJanusEdge> getEdge(String edgeId) {
         Iterator<Edge> it = getGraph().edges(edgeId);
@@ -255,7 +280,7 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         return query.vertices();
     }
 
-    private Object convertGremlinValue(Object rawValue) {
+    Object convertGremlinValue(Object rawValue) {
 
         if (rawValue instanceof Vertex) {
             return GraphDbObjectFactory.createVertex(this, (Vertex) rawValue);
@@ -309,7 +334,28 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
     }
 
     @Override
-    public GremlinGroovyScriptEngine getGremlinScriptEngine() {
+    public GremlinGroovyScriptEngine getGremlinScriptEngine() throws AtlasBaseException {
+        return (GremlinGroovyScriptEngine) scriptEnginePool.borrowEngine();
+    }
+
+    @Override
+    public void releaseGremlinScriptEngine(ScriptEngine scriptEngine) {
+        if (scriptEnginePool.isPoolEngine(scriptEngine)) {
+            scriptEnginePool.returnEngine(scriptEngine);
+        } else if (scriptEngine instanceof GremlinGroovyScriptEngine) {
+            try {
+                ((GremlinGroovyScriptEngine)scriptEngine).close();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    public GremlinScriptEnginePool getScriptEnginePool() {
+        return scriptEnginePool;
+    }
+
+    private GremlinGroovyScriptEngine createGremlinScriptEngine() {
         Set<String> extraImports = new HashSet<String>();
         extraImports.add(java.util.function.Function.class.getName());
 
@@ -323,17 +369,6 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         return scriptEngine;
     }
 
-    @Override
-    public void releaseGremlinScriptEngine(ScriptEngine scriptEngine) {
-        if (scriptEngine instanceof GremlinGroovyScriptEngine) {
-            try {
-                ((GremlinGroovyScriptEngine)scriptEngine).close();
-            } catch (Exception e) {
-                // ignore
-            }
-        }
-    }
-
     @Override
     public Object executeGremlinScript(String query, boolean isPath) throws AtlasBaseException {
         Object result = executeGremlinScript(query);
@@ -341,21 +376,15 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
     }
 
     private Object executeGremlinScript(String gremlinQuery) throws AtlasBaseException {
-        GremlinGroovyScriptEngine scriptEngine = getGremlinScriptEngine();
-
-        try {
-            Bindings bindings = scriptEngine.createBindings();
+        Map<String, Object> bindings = new HashMap<>();
 
-            bindings.put("graph", getGraph());
-            bindings.put("g", getGraph().traversal());
-
-            Object result = scriptEngine.eval(gremlinQuery, bindings);
+        bindings.put("graph", getGraph());
+        bindings.put("g", getGraph().traversal());
 
-            return result;
+        try {
+            return scriptEnginePool.eval(gremlinQuery, bindings);
         } catch (ScriptException e) {
             throw new AtlasBaseException(AtlasErrorCode.GREMLIN_SCRIPT_EXECUTION_FAILED, e, gremlinQuery);
-        } finally {
-            releaseGremlinScriptEngine(scriptEngine);
         }
     }
 
@@ -363,12 +392,13 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
     public Object executeGremlinScript(ScriptEngine scriptEngine,
             Map<? extends  String, ? extends  Object> userBindings, String query, boolean isPath)
             throws ScriptException {
-        Bindings bindings = scriptEngine.createBindings();
+        Map<String, Object> bindings = new HashMap<>(userBindings);
 
-        bindings.putAll(userBindings);
         bindings.put("g", getGraph().traversal());
 
-        Object result = scriptEngine.eval(query, bindings);
+        // evaluate on the given engine; compiled script is cached when the engine is from the pool
+        Object result = scriptEnginePool.eval(scriptEngine, query, bindings);
+
         return convertGremlinValue(result);
     }
 
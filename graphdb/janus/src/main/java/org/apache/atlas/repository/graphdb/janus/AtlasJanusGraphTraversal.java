@@ -0,0 +1,229 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graphdb.janus;
+
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.ComparisionOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.MatchingOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.QueryOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.janusgraph.core.attribute.Text;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Janus implementation of AtlasGraphTraversal; steps are added to a TinkerPop GraphTraversal.
+ */
+public class AtlasJanusGraphTraversal implements AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> {
+    private static final String REGEX_META_CHARS = "\\.[]{}()<>*+-=!?^$|&~\"#@";
+
+    private final AtlasJanusGraph graph;
+    private final GraphTraversal  traversal;
+
+    public AtlasJanusGraphTraversal(AtlasJanusGraph graph, GraphTraversal traversal) {
+        this.graph     = graph;
+        this.traversal = traversal;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> has(String propertyKey) {
+        traversal.has(propertyKey);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> has(String propertyKey, Object value) {
+        traversal.has(propertyKey, value);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> has(String propertyKey, QueryOperator op, Object value) {
+        traversal.has(propertyKey, getPredicate(op, value));
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> within(String propertyKey, Collection<?> values) {
+        traversal.has(propertyKey, P.within(values));
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> out(String edgeLabel) {
+        traversal.out(edgeLabel);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> in(String edgeLabel) {
+        traversal.in(edgeLabel);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> outE(String edgeLabel) {
+        traversal.outE(edgeLabel);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> outV() {
+        traversal.outV();
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> as(String stepLabel) {
+        traversal.as(stepLabel);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> dedup() {
+        traversal.dedup();
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> limit(long limit) {
+        traversal.limit(limit);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> range(long low, long high) {
+        traversal.range(low, high);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> orderBy(String propertyKey, boolean isDescending) {
+        traversal.order().by(propertyKey, isDescending ? Order.decr : Order.incr);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> groupBy(String propertyKey) {
+        traversal.group().by(propertyKey);
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> and(List<AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge>> childTraversals) {
+        traversal.and(toTraversals(childTraversals));
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> or(List<AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge>> childTraversals) {
+        traversal.or(toTraversals(childTraversals));
+
+        return this;
+    }
+
+    @Override
+    public AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge> createChildTraversal() {
+        return new AtlasJanusGraphTraversal(graph, __.start());
+    }
+
+    @Override
+    public List<Object> toList() {
+        return (List<Object>) graph.convertGremlinValue(traversal.toList());
+    }
+
+    private Traversal[] toTraversals(List<AtlasGraphTraversal<AtlasJanusVertex, AtlasJanusEdge>> childTraversals) {
+        Traversal[] ret = new Traversal[childTraversals.size()];
+
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = ((AtlasJanusGraphTraversal) childTraversals.get(i)).traversal;
+        }
+
+        return ret;
+    }
+
+    private P getPredicate(QueryOperator op, Object value) {
+        if (op instanceof ComparisionOperator) {
+            switch ((ComparisionOperator) op) {
+                case EQUAL:
+                    return P.eq(value);
+                case NOT_EQUAL:
+                    return P.neq(value);
+                case GREATER_THAN:
+                    return P.gt(value);
+                case GREATER_THAN_EQUAL:
+                    return P.gte(value);
+                case LESS_THAN:
+                    return P.lt(value);
+                case LESS_THAN_EQUAL:
+                    return P.lte(value);
+            }
+        } else if (op instanceof MatchingOperator) {
+            switch ((MatchingOperator) op) {
+                case CONTAINS:
+                    return Text.textContains(value);
+                case PREFIX:
+                    return Text.textPrefix(value);
+                case SUFFIX:
+                    return Text.textRegex(".*" + escapeRegex(value));
+                case REGEX:
+                    return Text.textRegex(value);
+            }
+        }
+
+        throw new RuntimeException("Unsupported query operator:" + op);
+    }
+
+    // suffix is matched literally: regex meta-characters in the value are escaped
+    private static String escapeRegex(Object value) {
+        String        str = String.valueOf(value);
+        StringBuilder ret = new StringBuilder(str.length());
+
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+
+            if (REGEX_META_CHARS.indexOf(c) != -1) {
+                ret.append('\\');
+            }
+
+            ret.append(c);
+        }
+
+        return ret.toString();
+    }
+}
@@ -17,9 +17,12 @@
  */
 package org.apache.atlas.repository.graphdb.janus;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 
@@ -60,21 +63,66 @@ public class AtlasJanusIndexQuery implements AtlasIndexQuery<AtlasJanusVertex, A
     public Iterator<Result<AtlasJanusVertex, AtlasJanusEdge>> vertices(int offset, int limit) {
         Preconditions.checkArgument(offset >=0, "Index offset should be greater than or equals to 0");
         Preconditions.checkArgument(limit >=0, "Index limit should be greater than or equals to 0");
-        Iterator<JanusGraphIndexQuery.Result<JanusGraphVertex>> results = query
-                .offset(offset)
-                .limit(limit)
-                .vertices().iterator();
 
-        Function<JanusGraphIndexQuery.Result<JanusGraphVertex>, Result<AtlasJanusVertex, AtlasJanusEdge>> function =
-                new Function<JanusGraphIndexQuery.Result<JanusGraphVertex>, Result<AtlasJanusVertex, AtlasJanusEdge>>() {
+        return getResults(offset, limit).iterator();
+    }
 
-                    @Override
-                    public Result<AtlasJanusVertex, AtlasJanusEdge> apply(JanusGraphIndexQuery.Result<JanusGraphVertex> source) {
-                        return new ResultImpl(source);
+    @Override
+    public Iterator<Result<AtlasJanusVertex, AtlasJanusEdge>> streamVertices(final int offset, final int batchSize) {
+        Preconditions.checkArgument(offset >=0, "Index offset should be greater than or equals to 0");
+        Preconditions.checkArgument(batchSize > 0, "Index batch size should be greater than 0");
+
+        return new AbstractIterator<Result<AtlasJanusVertex, AtlasJanusEdge>>() {
+            private int                                                batchOffset = offset;
+            private Iterator<Result<AtlasJanusVertex, AtlasJanusEdge>> batch       = null;
+            private boolean                                            isLastBatch = false;
+
+            @Override
+            protected Result<AtlasJanusVertex, AtlasJanusEdge> computeNext() {
+                while (batch == null || !batch.hasNext()) {
+                    if (isLastBatch) {
+                        return endOfData();
                     }
-                };
 
-        return Iterators.transform(results, function);
+                    List<Result<AtlasJanusVertex, AtlasJanusEdge>> results = getResults(batchOffset, batchSize);
+
+                    batch        = results.iterator();
+                    batchOffset += batchSize;
+                    isLastBatch  = results.size() < batchSize;
+                }
+
+                return batch.next();
+            }
+        };
+    }
+
+    @Override
+    public long vertexTotals() {
+        Long ret = query.vertexTotals();
+
+        return ret != null ? ret : 0;
+    }
+
+    @Override
+    public boolean isVertexTotalsEstimated() {
+        return false;
+    }
+
+    private List<Result<AtlasJanusVertex, AtlasJanusEdge>> getResults(int offset, int limit) {
+        List<Result<AtlasJanusVertex, AtlasJanusEdge>> ret      = new ArrayList<>();
+        List<JanusGraphVertex>                         vertices = new ArrayList<>();
+
+        for (JanusGraphIndexQuery.Result<JanusGraphVertex> result : query.offset(offset).limit(limit).vertices()) {
+            ret.add(new ResultImpl(result));
+            vertices.add(result.getElement());
+        }
+
+        if (!vertices.isEmpty()) {
+            // load properties of all the vertices in one backend call, rather than one call per vertex on first access
+            AtlasJanusGraphDatabase.getGraphInstance().multiQuery(vertices).properties();
+        }
+
+        return ret;
     }
 
     /**
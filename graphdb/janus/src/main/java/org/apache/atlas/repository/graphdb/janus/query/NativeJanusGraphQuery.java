@@ -28,6 +28,7 @@ import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery.ComparisionOperator;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery.MatchingOperator;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery.QueryOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.SortOrder;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.graphdb.tinkerpop.query.NativeTinkerpopGraphQuery;
 import org.apache.atlas.repository.graphdb.janus.AtlasJanusEdge;
@@ -35,6 +36,7 @@ import org.apache.atlas.repository.graphdb.janus.AtlasJanusGraph;
 import org.apache.atlas.repository.graphdb.janus.AtlasJanusGraphDatabase;
 import org.apache.atlas.repository.graphdb.janus.AtlasJanusVertex;
 import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.*;
@@ -126,6 +128,11 @@ public class NativeJanusGraphQuery implements NativeTinkerpopGraphQuery<AtlasJan
         query.has(propertyName, pred, value);
     }
 
+    @Override
+    public void orderBy(String propertyName, SortOrder sortOrder) {
+        query.orderBy(propertyName, sortOrder == SortOrder.DESCENDING ? Order.decr : Order.incr);
+    }
+
     private Text getGremlinPredicate(MatchingOperator op) {
         switch (op) {
             case CONTAINS:
@@ -32,6 +32,7 @@ import org.apache.atlas.AtlasException;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery.ComparisionOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.SortOrder;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.testng.annotations.Test;
 
@@ -401,6 +402,55 @@ public class GraphQueryTest extends AbstractGraphDatabaseTest {
 
     }
 
+    @Test
+    public void testOrderBy() throws AtlasException {
+        AtlasJanusGraph graph = getAtlasJanusGraph();
+
+        AtlasVertex<AtlasJanusVertex, AtlasJanusEdge> v1 = createVertex(graph);
+        v1.setProperty("typeName", "SortedPerson");
+        v1.setProperty(WEIGHT_PROPERTY, 20);
+
+        AtlasVertex<AtlasJanusVertex, AtlasJanusEdge> v2 = createVertex(graph);
+        v2.setProperty("typeName", "SortedPerson");
+        v2.setProperty(WEIGHT_PROPERTY, 30);
+
+        AtlasVertex<AtlasJanusVertex, AtlasJanusEdge> v3 = createVertex(graph);
+        v3.setProperty("typeName", "SortedManager");
+        v3.setProperty(WEIGHT_PROPERTY, 10);
+
+        graph.commit();
+
+        AtlasGraphQuery q = getGraphQuery();
+        q.has("typeName", "SortedPerson");
+        q.orderBy(WEIGHT_PROPERTY, SortOrder.DESCENDING);
+
+        assertQueryOrder(q, v2, v1);
+
+        //more than one AndCondition: results are merged and sorted in memory
+        AtlasGraphQuery q2 = getGraphQuery();
+        AtlasGraphQuery inner1 = q2.createChildQuery();
+        AtlasGraphQuery inner2 = q2.createChildQuery();
+        inner1.has("typeName", "SortedPerson");
+        inner2.has("typeName", "SortedManager");
+        q2.or(toList(inner1, inner2));
+        q2.orderBy(WEIGHT_PROPERTY, SortOrder.ASCENDING);
+
+        assertQueryOrder(q2, v3, v1, v2);
+        assertEquals(Arrays.asList(v1, v2), toList(q2.vertices(1, 2)));
+    }
+
+    private void assertQueryOrder(AtlasGraphQuery expr, AtlasVertex... expectedResults) {
+        List<AtlasVertex> result = new ArrayList<>();
+
+        for (Object vertex : expr.vertices()) {
+            if (newVertices.contains(vertex)) {
+                result.add((AtlasVertex) vertex);
+            }
+        }
+
+        assertEquals(Arrays.asList(expectedResults), result);
+    }
+
     private static <T> List<T> toList(Iterable<T> itr) {
         List<T> result = new ArrayList<T>();
         for(T object : itr) {
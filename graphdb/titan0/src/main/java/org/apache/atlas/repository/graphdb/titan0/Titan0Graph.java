@@ -32,6 +32,7 @@ import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.io.graphson.GraphSONWriter;
 import com.tinkerpop.pipes.util.structures.Row;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.groovy.GroovyExpression;
@@ -39,17 +40,18 @@ import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasGraphManagement;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasSchemaViolationException;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.graphdb.GremlinVersion;
 import org.apache.atlas.repository.graphdb.titan0.query.Titan0GraphQuery;
+import org.apache.atlas.repository.graphdb.utils.GremlinScriptEnginePool;
 import org.apache.atlas.repository.graphdb.utils.IteratorToIterableAdapter;
 import org.apache.atlas.type.AtlasType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.script.Bindings;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
@@ -73,7 +75,8 @@ import java.util.Set;
 public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
     private static final Logger LOG = LoggerFactory.getLogger(Titan0Graph.class);
 
-    private final Set<String> multiProperties;
+    private final Set<String>             multiProperties;
+    private final GremlinScriptEnginePool scriptEnginePool;
 
     public Titan0Graph() {
         //determine multi-properties once at startup
@@ -92,6 +95,18 @@ public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
                 mgmt.rollback();
             }
         }
+
+        scriptEnginePool = new GremlinScriptEnginePool(new GremlinScriptEnginePool.EngineFactory() {
+            @Override
+            public ScriptEngine createEngine() throws AtlasBaseException {
+                return createGremlinScriptEngine();
+            }
+
+            @Override
+            public void closeEngine(ScriptEngine engine) {
+                // no action needed
+            }
+        }, AtlasConfiguration.GREMLIN_SCRIPT_ENGINE_POOL_SIZE.getInt(), AtlasConfiguration.GREMLIN_COMPILED_SCRIPT_CACHE_SIZE.getInt());
     }
 
     @Override
@@ -113,6 +128,12 @@ public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
         return new Titan0GraphQuery(this);
     }
 
+    @Override
+    public AtlasGraphTraversal<Titan0Vertex, Titan0Edge> traversal() {
+        // Titan 0.5 supports only Gremlin 2, whose pipelines are not compatible with AtlasGraphTraversal steps
+        throw new UnsupportedOperationException("native traversals are not supported by Titan0Graph");
+    }
+
     @Override
     public AtlasEdge<Titan0Vertex, Titan0Edge> getEdge(String edgeId) {
         Edge edge = getGraph().getEdge(edgeId);
@@ -291,6 +312,19 @@ public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
 
     @Override
     public ScriptEngine getGremlinScriptEngine() throws AtlasBaseException {
+        return scriptEnginePool.borrowEngine();
+    }
+
+    @Override
+    public void releaseGremlinScriptEngine(ScriptEngine scriptEngine) {
+        scriptEnginePool.returnEngine(scriptEngine);
+    }
+
+    public GremlinScriptEnginePool getScriptEnginePool() {
+        return scriptEnginePool;
+    }
+
+    private ScriptEngine createGremlinScriptEngine() throws AtlasBaseException {
         ScriptEngineManager manager = new ScriptEngineManager();
         ScriptEngine        engine  = manager.getEngineByName("gremlin-groovy");
 
@@ -298,24 +332,19 @@ public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
             throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_GREMLIN_SCRIPT_ENGINE, "gremlin-groovy");
         }
 
-        //Do not cache script compilations due to memory implications
+        //Do not cache script compilations in the engine due to memory implications; compiled scripts are cached in scriptEnginePool
         engine.getContext().setAttribute("#jsr223.groovy.engine.keep.globals", "phantom", ScriptContext.ENGINE_SCOPE);
 
         return engine;
     }
 
-    @Override
-    public void releaseGremlinScriptEngine(ScriptEngine scriptEngine) {
-        // no action needed
-    }
-
     @Override
     public Object executeGremlinScript(ScriptEngine scriptEngine, Map<? extends  String, ? extends  Object> userBindings, String query, boolean isPath) throws ScriptException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("executeGremlinScript(query={}, userBindings={})", query, userBindings);
         }
 
-        Bindings bindings = scriptEngine.createBindings();
+        Map<String, Object> bindings = new HashMap<>();
 
         if (userBindings != null) {
             bindings.putAll(userBindings);
@@ -323,28 +352,22 @@ public class Titan0Graph implements AtlasGraph<Titan0Vertex, Titan0Edge> {
 
         bindings.put("g", getGraph());
 
-        Object result = scriptEngine.eval(query, bindings);
+        // evaluate on the given engine; compiled script is cached when the engine is from the pool
+        Object result = scriptEnginePool.eval(scriptEngine, query, bindings);
 
         return convertGremlinScriptResult(isPath, result);
     }
 
     private Object executeGremlinScript(String gremlinQuery) throws AtlasBaseException {
-        Object       result = null;
-        ScriptEngine engine = getGremlinScriptEngine();
+        Map<String, Object> bindings = new HashMap<>();
 
-        try {
-            Bindings bindings = engine.createBindings();
-
-            bindings.put("g", getGraph());
+        bindings.put("g", getGraph());
 
-            result = engine.eval(gremlinQuery, bindings);
+        try {
+            return scriptEnginePool.eval(gremlinQuery, bindings);
         } catch (ScriptException e) {
             throw new AtlasBaseException(AtlasErrorCode.GREMLIN_SCRIPT_EXECUTION_FAILED, gremlinQuery);
-        } finally {
-            releaseGremlinScriptEngine(engine);
         }
-
-        return result;
     }
 
     @Override
@@ -17,15 +17,20 @@
  */
 package org.apache.atlas.repository.graphdb.titan0;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import com.google.common.base.Preconditions;
+import org.apache.atlas.AtlasConfiguration;
+import com.google.common.collect.AbstractIterator;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Iterators;
 import com.thinkaurelius.titan.core.TitanIndexQuery;
+import com.thinkaurelius.titan.core.TitanVertex;
 import com.tinkerpop.blueprints.Vertex;
 
 /**
@@ -35,11 +40,20 @@ public class Titan0IndexQuery implements AtlasIndexQuery<Titan0Vertex, Titan0Edg
 
     private Titan0Graph graph;
     private TitanIndexQuery wrappedIndexQuery;
+    private final int maxVertexTotals;
+    private boolean isVertexTotalsEstimated = false;
 
 
     public Titan0IndexQuery(Titan0Graph graph, TitanIndexQuery query) {
+        this(graph, query, AtlasConfiguration.GRAPH_INDEX_SEARCH_MAX_TOTAL_COUNT.getInt());
+    }
+
+    public Titan0IndexQuery(Titan0Graph graph, TitanIndexQuery query, int maxVertexTotals) {
+        Preconditions.checkArgument(maxVertexTotals > 0, "Max vertex totals should be greater than 0");
+
         wrappedIndexQuery = query;
         this.graph = graph;
+        this.maxVertexTotals = maxVertexTotals;
     }
 
     @Override
@@ -61,20 +75,77 @@ public class Titan0IndexQuery implements AtlasIndexQuery<Titan0Vertex, Titan0Edg
     public Iterator<Result<Titan0Vertex, Titan0Edge>> vertices(int offset, int limit) {
         Preconditions.checkArgument(offset >=0, "Index offset should be greater than or equals to 0");
         Preconditions.checkArgument(limit >=0, "Index limit should be greater than or equals to 0");
-        Iterator<TitanIndexQuery.Result<Vertex>> results = wrappedIndexQuery
-                .offset(offset)
-                .limit(limit)
-                .vertices().iterator();
 
-        Function<TitanIndexQuery.Result<Vertex>, AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge>> function =
-                new Function<TitanIndexQuery.Result<Vertex>, AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge>>() {
+        return getResults(offset, limit).iterator();
+    }
 
-                    @Override
-                    public AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge> apply(TitanIndexQuery.Result<Vertex> source) {
-                        return new ResultImpl(source);
+    @Override
+    public Iterator<Result<Titan0Vertex, Titan0Edge>> streamVertices(final int offset, final int batchSize) {
+        Preconditions.checkArgument(offset >=0, "Index offset should be greater than or equals to 0");
+        Preconditions.checkArgument(batchSize > 0, "Index batch size should be greater than 0");
+
+        return new AbstractIterator<Result<Titan0Vertex, Titan0Edge>>() {
+            private int                                        batchOffset = offset;
+            private Iterator<Result<Titan0Vertex, Titan0Edge>> batch       = null;
+            private boolean                                    isLastBatch = false;
+
+            @Override
+            protected Result<Titan0Vertex, Titan0Edge> computeNext() {
+                while (batch == null || !batch.hasNext()) {
+                    if (isLastBatch) {
+                        return endOfData();
                     }
-                };
-        return Iterators.transform(results, function);
+
+                    List<Result<Titan0Vertex, Titan0Edge>> results = getResults(batchOffset, batchSize);
+
+                    batch        = results.iterator();
+                    batchOffset += batchSize;
+                    isLastBatch  = results.size() < batchSize;
+                }
+
+                return batch.next();
+            }
+        };
+    }
+
+    /**
+     * Titan 0.5.4 index queries don't report the total hits; the count is obtained by reading the hits from the
+     * index, without loading the vertices. At most maxVertexTotals hits are read; when the query has more hits,
+     * maxVertexTotals is returned and the count is marked as estimated.
+     */
+    @Override
+    public long vertexTotals() {
+        long ret = 0;
+
+        for (Iterator<TitanIndexQuery.Result<Vertex>> iter = wrappedIndexQuery.offset(0).limit(maxVertexTotals + 1).vertices().iterator(); iter.hasNext(); iter.next()) {
+            ret++;
+        }
+
+        isVertexTotalsEstimated = ret > maxVertexTotals;
+
+        return isVertexTotalsEstimated ? maxVertexTotals : ret;
+    }
+
+    @Override
+    public boolean isVertexTotalsEstimated() {
+        return isVertexTotalsEstimated;
+    }
+
+    private List<Result<Titan0Vertex, Titan0Edge>> getResults(int offset, int limit) {
+        List<Result<Titan0Vertex, Titan0Edge>> ret      = new ArrayList<>();
+        List<TitanVertex>                      vertices = new ArrayList<>();
+
+        for (TitanIndexQuery.Result<Vertex> result : wrappedIndexQuery.offset(offset).limit(limit).vertices()) {
+            ret.add(new ResultImpl(result));
+            vertices.add((TitanVertex) result.getElement());
+        }
+
+        if (!vertices.isEmpty()) {
+            // load properties of all the vertices in one backend call, rather than one call per vertex on first access
+            Titan0GraphDatabase.getGraphInstance().multiQuery(vertices).properties();
+        }
+
+        return ret;
     }
 
     private final class ResultImpl implements AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge> {
@@ -18,6 +18,7 @@
 package org.apache.atlas.repository.graphdb.titan0.query;
 
 import com.google.common.collect.Lists;
+import com.thinkaurelius.titan.core.Order;
 import com.thinkaurelius.titan.core.TitanGraphQuery;
 import com.thinkaurelius.titan.core.attribute.Contain;
 import com.thinkaurelius.titan.core.attribute.Text;
@@ -29,6 +30,7 @@ import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery.ComparisionOperator;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery.MatchingOperator;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery.QueryOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.SortOrder;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.graphdb.tinkerpop.query.NativeTinkerpopGraphQuery;
 import org.apache.atlas.repository.graphdb.titan0.Titan0Edge;
@@ -129,6 +131,11 @@ public class NativeTitan0GraphQuery implements NativeTinkerpopGraphQuery<Titan0V
         query.has(propertyName, pred, value);
     }
 
+    @Override
+    public void orderBy(String propertyName, SortOrder sortOrder) {
+        query.orderBy(propertyName, sortOrder == SortOrder.DESCENDING ? Order.DESC : Order.ASC);
+    }
+
     private Text getGremlinPredicate(MatchingOperator op) {
         switch (op) {
             case CONTAINS:
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.repository.graphdb.titan0;
+
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.commons.lang.RandomStringUtils;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for Titan0IndexQuery.
+ */
+@Test
+public class IndexQueryTest extends AbstractGraphDatabaseTest {
+    private static final String INDEX_NAME   = "backing";
+    private static final int    VERTEX_COUNT = 5;
+
+    @Test
+    public void testStreamVertices() {
+        String      name     = createVertices(VERTEX_COUNT);
+        Set<Object> expected = new HashSet<>();
+
+        for (AtlasVertex vertex : newVertices) {
+            expected.add(vertex.getId());
+        }
+
+        for (int batchSize : new int[] { 1, 2, VERTEX_COUNT, VERTEX_COUNT + 1 }) {
+            Set<Object>                                                actual = new HashSet<>();
+            Iterator<AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge>> iter   = getTitan0Graph().indexQuery(INDEX_NAME, getQuery(name)).streamVertices(0, batchSize);
+
+            while (iter.hasNext()) {
+                assertTrue(actual.add(iter.next().getVertex().getId()), "duplicate vertex for batchSize=" + batchSize);
+            }
+
+            assertEquals(actual, expected, "batchSize=" + batchSize);
+        }
+
+        Iterator<AtlasIndexQuery.Result<Titan0Vertex, Titan0Edge>> iter  = getTitan0Graph().indexQuery(INDEX_NAME, getQuery(name)).streamVertices(2, 2);
+        int                                                        count = 0;
+
+        for (; iter.hasNext(); iter.next()) {
+            count++;
+        }
+
+        assertEquals(count, VERTEX_COUNT - 2);
+    }
+
+    @Test
+    public void testVertexTotals() {
+        String                                    name  = createVertices(VERTEX_COUNT);
+        AtlasIndexQuery<Titan0Vertex, Titan0Edge> query = getTitan0Graph().indexQuery(INDEX_NAME, getQuery(name));
+
+        assertEquals(query.vertexTotals(), VERTEX_COUNT);
+        assertFalse(query.isVertexTotalsEstimated());
+
+        assertEquals(getTitan0Graph().indexQuery(INDEX_NAME, getQuery("noSuchName")).vertexTotals(), 0);
+    }
+
+    @Test
+    public void testVertexTotalsAboveLimitIsEstimated() {
+        String           name  = createVertices(VERTEX_COUNT);
+        Titan0IndexQuery query = new Titan0IndexQuery(getTitan0Graph(), Titan0GraphDatabase.getGraphInstance().indexQuery(INDEX_NAME, getQuery(name)), VERTEX_COUNT - 2);
+
+        assertEquals(query.vertexTotals(), VERTEX_COUNT - 2);
+        assertTrue(query.isVertexTotalsEstimated());
+
+        query = new Titan0IndexQuery(getTitan0Graph(), Titan0GraphDatabase.getGraphInstance().indexQuery(INDEX_NAME, getQuery(name)), VERTEX_COUNT);
+
+        assertEquals(query.vertexTotals(), VERTEX_COUNT);
+        assertFalse(query.isVertexTotalsEstimated());
+    }
+
+    private <V, E> String createVertices(int count) {
+        AtlasGraph<V, E> graph = getGraph();
+        String           name  = "idx" + RandomStringUtils.randomAlphabetic(10).toLowerCase();
+
+        for (int i = 0; i < count; i++) {
+            createVertex(graph).setProperty("name", name);
+        }
+
+        graph.commit();
+        pause(); //pause to let the index get updated
+
+        return name;
+    }
+
+    private static String getQuery(String name) {
+        return "v.\"name\":(" + name + ")";
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(5000);
+        } catch(InterruptedException e) {
+           //ignore
+        }
+    }
+}
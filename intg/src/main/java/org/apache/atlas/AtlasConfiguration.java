@@ -34,12 +34,41 @@ public enum AtlasConfiguration {
     QUERY_PARAM_MAX_LENGTH("atlas.query.param.max.length", 4*1024),
 
     NOTIFICATION_MESSAGE_MAX_LENGTH_BYTES("atlas.notification.message.max.length.bytes", (1000 * 1000)),
+    NOTIFICATION_MESSAGE_MAX_UNCOMPRESSED_LENGTH_BYTES("atlas.notification.message.max.uncompressed.length.bytes", 256 * 1024 * 1024),
     NOTIFICATION_MESSAGE_COMPRESSION_ENABLED("atlas.notification.message.compression.enabled", true),
     NOTIFICATION_SPLIT_MESSAGE_SEGMENTS_WAIT_TIME_SECONDS("atlas.notification.split.message.segments.wait.time.seconds", 15 * 60),
     NOTIFICATION_SPLIT_MESSAGE_BUFFER_PURGE_INTERVAL_SECONDS("atlas.notification.split.message.buffer.purge.interval.seconds", 5 * 60),
+    NOTIFICATION_SPLIT_MESSAGE_BUFFER_MAX_MEMORY_BYTES("atlas.notification.split.message.buffer.max.memory.bytes", 64 * 1024 * 1024),
+    NOTIFICATION_SPLIT_MESSAGE_BUFFER_MAX_SPILL_BYTES("atlas.notification.split.message.buffer.max.spill.bytes", 1024L * 1024 * 1024),
+    NOTIFICATION_SPLIT_MESSAGE_BUFFER_SPILL_DIR("atlas.notification.split.message.buffer.spill.dir", ""),
+    NOTIFICATION_MESSAGE_VERSION("atlas.notification.message.version", "1.0.0"),
+    NOTIFICATION_MESSAGE_CODEC("atlas.notification.message.codec", "deflate"),
+    NOTIFICATION_MESSAGE_CODEC_DICTIONARY("atlas.notification.message.codec.dictionary", ""),
+
+    GREMLIN_SCRIPT_ENGINE_POOL_SIZE("atlas.gremlin.script.engine.pool.size", 8),
+    GREMLIN_COMPILED_SCRIPT_CACHE_SIZE("atlas.gremlin.compiled.script.cache.size", 500),
+
+    DSL_TRANSLATION_CACHE_SIZE("atlas.dsl.translation.cache.size", 1000),
+    DSL_EXECUTOR("atlas.dsl.executor", "script"),
+
+    LINEAGE_MAX_NODES("atlas.lineage.max.nodes", 10000),
+    LINEAGE_TIMEOUT_MS("atlas.lineage.timeout.ms", 60 * 1000),
+
+    IMPORT_WORKER_THREADS("atlas.import.worker.threads", 1),
+    IMPORT_BATCH_SIZE("atlas.import.batch.size", 1),
+    IMPORT_TIER_WINDOW_SIZE("atlas.import.tier.window.size", 10000),
+    IMPORT_READ_AHEAD_SIZE("atlas.import.read.ahead.size", 0),
+    IMPORT_TEMP_DIR("atlas.import.temp.dir", ""),
+    IMPORT_CHECKPOINT_INTERVAL("atlas.import.checkpoint.interval", 1000),
+    IMPORT_CHECKPOINT_EXPIRY_MS("atlas.import.checkpoint.expiry.ms", 7 * 24 * 60 * 60 * 1000L),
+
+    EXPORT_FETCH_THREADS("atlas.export.fetch.threads", 1),
+    EXPORT_FETCH_BATCH_SIZE("atlas.export.fetch.batch.size", 100),
+    EXPORT_CHANGED_SCOPE_CHECK_MAX_VERTICES("atlas.export.changed.scope.check.max.vertices", 10000),
 
     //search configuration
     SEARCH_MAX_LIMIT("atlas.search.maxlimit", 10000),
+    GRAPH_INDEX_SEARCH_MAX_TOTAL_COUNT("atlas.graph.index.search.max.total.count", 10000),
     SEARCH_DEFAULT_LIMIT("atlas.search.defaultlimit", 100);
 
     private static final Configuration APPLICATION_PROPERTIES;
@@ -60,6 +89,10 @@ public enum AtlasConfiguration {
         this.defaultValue = defaultValue;
     }
 
+    public String getPropertyName() {
+        return propertyName;
+    }
+
     public int getInt() {
         return APPLICATION_PROPERTIES.getInt(propertyName, Integer.valueOf(defaultValue.toString()).intValue());
     }
@@ -52,6 +52,9 @@ public class AtlasSearchResult implements Serializable {
     private AttributeSearchResult          attributes;
     private List<AtlasFullTextResult>      fullTextResult;
     private Map<String, AtlasEntityHeader> referredEntities;
+    private String                         continuationToken;
+    private Long                           totalCount;
+    private Boolean                        totalCountEstimated;
 
     public AtlasSearchResult() {}
 
@@ -126,8 +129,23 @@ public class AtlasSearchResult implements Serializable {
         this.referredEntities = referredEntities;
     }
 
+    public String getContinuationToken() { return continuationToken; }
+
+    public void setContinuationToken(String continuationToken) { this.continuationToken = continuationToken; }
+
+    public Long getTotalCount() { return totalCount; }
+
+    public void setTotalCount(Long totalCount) { this.totalCount = totalCount; }
+
+    /**
+     * @return true if totalCount is an estimate, false if it is exact; null if totalCount was not requested
+     */
+    public Boolean getTotalCountEstimated() { return totalCountEstimated; }
+
+    public void setTotalCountEstimated(Boolean totalCountEstimated) { this.totalCountEstimated = totalCountEstimated; }
+
     @Override
-    public int hashCode() { return Objects.hash(queryType, searchParameters, queryText, type, classification, entities, attributes, fullTextResult, referredEntities); }
+    public int hashCode() { return Objects.hash(queryType, searchParameters, queryText, type, classification, entities, attributes, fullTextResult, referredEntities, continuationToken, totalCount, totalCountEstimated); }
 
     @Override
     public boolean equals(Object o) {
@@ -142,7 +160,10 @@ public class AtlasSearchResult implements Serializable {
                Objects.equals(entities, that.entities) &&
                Objects.equals(attributes, that.attributes) &&
                Objects.equals(fullTextResult, that.fullTextResult) &&
-               Objects.equals(referredEntities, that.referredEntities);
+               Objects.equals(referredEntities, that.referredEntities) &&
+               Objects.equals(continuationToken, that.continuationToken) &&
+               Objects.equals(totalCount, that.totalCount) &&
+               Objects.equals(totalCountEstimated, that.totalCountEstimated);
     }
 
     public void addEntity(AtlasEntityHeader newEntity) {
@@ -184,6 +205,9 @@ public class AtlasSearchResult implements Serializable {
                 ", attributes=" + attributes +
                 ", fullTextResult=" + fullTextResult +
                 ", referredEntities=" + referredEntities +
+                ", continuationToken=" + continuationToken +
+                ", totalCount=" + totalCount +
+                ", totalCountEstimated=" + totalCountEstimated +
                 '}';
     }
 
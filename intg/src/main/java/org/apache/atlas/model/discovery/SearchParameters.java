@@ -23,6 +23,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.apache.atlas.SortOrder;
 
 import java.io.Serializable;
 import java.util.HashMap;
@@ -47,9 +48,13 @@ public class SearchParameters implements Serializable {
     private boolean includeClassificationAttributes;
     private boolean includeSubTypes                 = true;
     private boolean includeSubClassifications       = true;
+    private boolean includeTotalCount;
     private int     limit;
     private int     offset;
+    private String  continuationToken;
+    private String  sortBy;
 
+    private SortOrder      sortOrder;
     private FilterCriteria entityFilters;
     private FilterCriteria tagFilters;
     private Set<String>    attributes;
@@ -160,6 +165,22 @@ public class SearchParameters implements Serializable {
         this.includeSubClassifications = includeSubClassifications;
     }
 
+    /**
+     * @return True iff the total number of results is to be returned
+     */
+    public boolean getIncludeTotalCount() {
+        return includeTotalCount;
+    }
+
+    /**
+     * Return the total number of results of the search, along with the requested page. The count is exact when the
+     * search can be resolved by the index alone, or when the last page is returned; otherwise it is an estimate
+     * @param includeTotalCount boolean flag
+     */
+    public void setIncludeTotalCount(boolean includeTotalCount) {
+        this.includeTotalCount = includeTotalCount;
+    }
+
     /**
      * @return Max number of results to be returned
      */
@@ -189,6 +210,51 @@ public class SearchParameters implements Serializable {
         this.offset = offset;
     }
 
+    /**
+     * @return Token returned with the previous page of results, from where this search should continue
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * Continue the search from where the previous page ended; when set, offset is ignored
+     * @param continuationToken token returned in AtlasSearchResult of the previous page
+     */
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * @return Attribute of the entity type by which the results are sorted
+     */
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    /**
+     * Sort the results by the given attribute of the entity type (requires type name). The sort is done by the
+     * index/graph query; hence it is not supported along with full-text query or classification attribute filters
+     * @param sortBy attribute name
+     */
+    public void setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    /**
+     * @return Sort order of the results; ascending if not specified
+     */
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    /**
+     * @param sortOrder
+     */
+    public void setSortOrder(SortOrder sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+
     /**
      * Entity attribute filters for the type (if type name is specified)
      * @return
@@ -244,8 +310,12 @@ public class SearchParameters implements Serializable {
         SearchParameters that = (SearchParameters) o;
         return excludeDeletedEntities == that.excludeDeletedEntities &&
                 includeClassificationAttributes == that.includeClassificationAttributes &&
+                includeTotalCount == that.includeTotalCount &&
                 limit == that.limit &&
                 offset == that.offset &&
+                Objects.equals(continuationToken, that.continuationToken) &&
+                Objects.equals(sortBy, that.sortBy) &&
+                sortOrder == that.sortOrder &&
                 Objects.equals(query, that.query) &&
                 Objects.equals(typeName, that.typeName) &&
                 Objects.equals(classification, that.classification) &&
@@ -256,8 +326,8 @@ public class SearchParameters implements Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(query, typeName, classification, excludeDeletedEntities, includeClassificationAttributes, 
-                            limit, offset, entityFilters, tagFilters, attributes);
+        return Objects.hash(query, typeName, classification, excludeDeletedEntities, includeClassificationAttributes, includeTotalCount,
+                            limit, offset, continuationToken, sortBy, sortOrder, entityFilters, tagFilters, attributes);
     }
 
     public StringBuilder toString(StringBuilder sb) {
@@ -271,8 +341,12 @@ public class SearchParameters implements Serializable {
         sb.append(", classification='").append(classification).append('\'');
         sb.append(", excludeDeletedEntities=").append(excludeDeletedEntities);
         sb.append(", includeClassificationAttributes=").append(includeClassificationAttributes);
+        sb.append(", includeTotalCount=").append(includeTotalCount);
         sb.append(", limit=").append(limit);
         sb.append(", offset=").append(offset);
+        sb.append(", continuationToken='").append(continuationToken).append('\'');
+        sb.append(", sortBy='").append(sortBy).append('\'');
+        sb.append(", sortOrder=").append(sortOrder);
         sb.append(", entityFilters=").append(entityFilters);
         sb.append(", tagFilters=").append(tagFilters);
         sb.append(", attributes=").append(attributes);
@@ -44,6 +44,7 @@ public class AtlasImportRequest implements Serializable {
     private static final String START_GUID_KEY             = "startGuid";
     private static final String FILE_NAME_KEY              = "fileName";
     private static final String UPDATE_TYPE_DEFINITION_KEY = "updateTypeDefinition";
+    private static final String RESUME_KEY                 = "resume";
 
     private Map<String, String> options;
 
@@ -99,6 +100,11 @@ public class AtlasImportRequest implements Serializable {
         return getOptionForKey(UPDATE_TYPE_DEFINITION_KEY);
     }
 
+    @JsonIgnore
+    public boolean isResume() {
+        return Boolean.parseBoolean(getOptionForKey(RESUME_KEY));
+    }
+
     private String getOptionForKey(String key) {
         if (this.options == null || !this.options.containsKey(key)) {
             return null;
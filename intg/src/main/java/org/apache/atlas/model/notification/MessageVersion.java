@@ -49,6 +49,11 @@ public class MessageVersion implements Comparable<MessageVersion>, Serializable
     public static final MessageVersion NO_VERSION = new MessageVersion("0");
     public static final MessageVersion VERSION_1  = new MessageVersion("1.0.0");
 
+    /**
+     * Used for messages sent in binary envelope - see AtlasNotificationBinaryMessage.
+     */
+    public static final MessageVersion VERSION_2  = new MessageVersion("2.0.0");
+
     public static final MessageVersion CURRENT_VERSION = VERSION_1;
 
     private String version;
@@ -27,6 +27,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Objects;
 
@@ -135,6 +136,10 @@ public abstract class AtlasType {
         return AtlasJson.toJson(obj);
     }
 
+    public static void toJson(Object obj, OutputStream outputStream) throws IOException {
+        AtlasJson.toJson(obj, outputStream);
+    }
+
     public static <T> T fromJson(String jsonStr, Class<T> type) {
         return AtlasJson.fromJson(jsonStr, type);
     }
@@ -54,6 +54,7 @@ public class AtlasTypeRegistry {
 
     protected       RegistryData                   registryData;
     private   final TypeRegistryUpdateSynchronizer updateSynchronizer;
+    private volatile long                          version = 0;
 
     public AtlasTypeRegistry() {
         registryData       = new RegistryData();
@@ -68,6 +69,11 @@ public class AtlasTypeRegistry {
 
     public Collection<String> getAllTypeNames() { return registryData.allTypes.getAllTypeNames(); }
 
+    /**
+     * @return number of updates committed to this registry; can be used to detect changes in typedefs
+     */
+    public long getVersion() { return version; }
+
     public Collection<AtlasType> getAllTypes() { return registryData.allTypes.getAllTypes(); }
 
     public boolean isRegisteredType(String typeName) {
@@ -890,6 +896,7 @@ public class AtlasTypeRegistry {
                     } else if (typeRegistryUpdateLock.getHoldCount() == 1) {
                         if (ttr != null && commitUpdates) {
                             typeRegistry.registryData = ttr.registryData;
+                            typeRegistry.version++;
                         }
                     }
 
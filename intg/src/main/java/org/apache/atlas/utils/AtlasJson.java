@@ -47,6 +47,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -117,6 +118,22 @@ public class AtlasJson {
         return ret;
     }
 
+    /**
+     * Writes the JSON of the given object to the stream as UTF-8, with the same mapper used by toJson().
+     * The stream is flushed, but not closed.
+     */
+    public static void toJson(Object obj, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try {
+            mapper.writeValue(generator, obj);
+        } finally {
+            generator.close();
+        }
+    }
+
     public static <T> T fromJson(String jsonStr, Class<T> type) {
         T ret = null;
 
@@ -183,6 +200,17 @@ public class AtlasJson {
         return fromJson(jsonStr, type);
     }
 
+    /**
+     * Creates a streaming parser for the given JSON, that binds values with the same mapper used by fromV1Json().
+     */
+    public static JsonParser createV1JsonParser(String jsonStr) throws IOException {
+        return mapper.getFactory().createParser(jsonStr);
+    }
+
+    public static JsonParser createV1JsonParser(InputStream jsonStream) throws IOException {
+        return mapper.getFactory().createParser(jsonStream);
+    }
+
     public static String toV1SearchJson(Object obj) {
         String ret;
         try {
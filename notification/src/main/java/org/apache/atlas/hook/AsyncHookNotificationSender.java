@@ -0,0 +1,332 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hook;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.AbstractNotification;
+import org.apache.atlas.notification.NotificationInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends hook notifications from background threads, so that operations in the host process (Hive, Storm, Sqoop, ..)
+ * don't wait on the notification system. Notifications are queued in a bounded queue; background threads send queued
+ * notifications in batches, each batch in a single call to the notification interface.
+ *
+ * When the queue is full, the overflow policy determines what happens to the new notification:
+ *   BLOCK       - caller waits for space in the queue, up to blockTimeoutMs; the notification is dropped on timeout
+ *   DROP_OLDEST - the oldest queued notification is dropped to make space
+ *   SPILL       - the notification is written to the spool, if available, else to the failed messages log, for later replay
+ * Dropped notifications are written to the failed messages log as well, when logging of failed messages is enabled.
+ *
+ * With more than one sender thread, notifications can be sent in a different order than they were queued.
+ */
+public class AsyncHookNotificationSender {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncHookNotificationSender.class);
+
+    private static final long POLL_TIMEOUT_MS = 1000;
+
+    public enum OverflowPolicy { BLOCK, DROP_OLDEST, SPILL }
+
+    private final BlockingQueue<QueuedNotification> queue;
+    private final NotificationInterface             notificationInterface;
+    private final int                               batchSize;
+    private final OverflowPolicy                    overflowPolicy;
+    private final long                              blockTimeoutMs;
+    private final boolean                           logFailedMessages;
+    private final FailedMessagesLogger              failedMessagesLogger;
+    private final HookNotificationSpool             spool;
+    private final ExecutorService                   senders;
+    private volatile boolean                        isStopped = false;
+
+    private final AtomicLong queuedCount      = new AtomicLong();
+    private final AtomicLong sentCount        = new AtomicLong();
+    private final AtomicLong failedCount      = new AtomicLong();
+    private final AtomicLong droppedCount     = new AtomicLong();
+    private final AtomicLong spilledCount     = new AtomicLong();
+    private final AtomicLong batchCount       = new AtomicLong();
+    private final AtomicLong totalSendTimeMs  = new AtomicLong();
+    private final AtomicLong maxSendTimeMs    = new AtomicLong();
+    private final AtomicLong totalQueueTimeMs = new AtomicLong();
+
+    public AsyncHookNotificationSender(NotificationInterface notificationInterface, int queueSize, int numThreads, int batchSize,
+                                       OverflowPolicy overflowPolicy, long blockTimeoutMs,
+                                       boolean logFailedMessages, FailedMessagesLogger failedMessagesLogger) {
+        this(notificationInterface, queueSize, numThreads, batchSize, overflowPolicy, blockTimeoutMs, logFailedMessages, failedMessagesLogger, null);
+    }
+
+    public AsyncHookNotificationSender(NotificationInterface notificationInterface, int queueSize, int numThreads, int batchSize,
+                                       OverflowPolicy overflowPolicy, long blockTimeoutMs,
+                                       boolean logFailedMessages, FailedMessagesLogger failedMessagesLogger,
+                                       HookNotificationSpool spool) {
+        this.queue                 = new ArrayBlockingQueue<>(queueSize);
+        this.notificationInterface = notificationInterface;
+        this.batchSize             = Math.max(1, batchSize);
+        this.overflowPolicy        = overflowPolicy;
+        this.blockTimeoutMs        = blockTimeoutMs;
+        this.logFailedMessages     = logFailedMessages;
+        this.failedMessagesLogger  = failedMessagesLogger;
+        this.spool                 = spool;
+        this.senders               = Executors.newFixedThreadPool(numThreads, new ThreadFactoryBuilder().setNameFormat("atlas-hook-sender-%d").setDaemon(true).build());
+
+        for (int i = 0; i < numThreads; i++) {
+            senders.submit(new Runnable() {
+                @Override
+                public void run() {
+                    runSender();
+                }
+            });
+        }
+
+        LOG.info("AsyncHookNotificationSender: queueSize={}, numThreads={}, batchSize={}, overflowPolicy={}", queueSize, numThreads, this.batchSize, overflowPolicy);
+    }
+
+    /**
+     * Queues the given messages to be sent by background threads. Returns without waiting for the messages to be
+     * sent, unless the queue is full and overflow policy is BLOCK.
+     */
+    public void send(List<HookNotification> messages, int maxRetries) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+
+        for (HookNotification message : messages) {
+            QueuedNotification notification = new QueuedNotification(message, maxRetries);
+
+            if (isStopped) {
+                discard(notification, "sender is stopped");
+            } else if (queue.offer(notification)) {
+                queuedCount.incrementAndGet();
+            } else {
+                handleOverflow(notification);
+            }
+        }
+    }
+
+    /**
+     * Stops the sender after sending queued messages, waiting for at most the given time. Messages that could not be
+     * sent within this time are written to the failed messages log.
+     */
+    public void stop(long timeoutMs) {
+        LOG.info("==> AsyncHookNotificationSender.stop(queueDepth={})", queue.size());
+
+        isStopped = true;
+
+        senders.shutdown();
+
+        try {
+            if (!senders.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException excp) {
+            LOG.warn("AsyncHookNotificationSender.stop(): interrupted while waiting for queued messages to be sent");
+
+            senders.shutdownNow();
+        }
+
+        for (QueuedNotification notification = queue.poll(); notification != null; notification = queue.poll()) {
+            discard(notification, "sender is stopped");
+        }
+
+        LOG.info("<== AsyncHookNotificationSender.stop(): {}", getMetricsSummary());
+    }
+
+    public int getQueueDepth() { return queue.size(); }
+
+    public long getQueuedCount() { return queuedCount.get(); }
+
+    public long getSentCount() { return sentCount.get(); }
+
+    public long getFailedCount() { return failedCount.get(); }
+
+    public long getDroppedCount() { return droppedCount.get(); }
+
+    public long getSpilledCount() { return spilledCount.get(); }
+
+    public long getBatchCount() { return batchCount.get(); }
+
+    public long getMaxSendTimeMs() { return maxSendTimeMs.get(); }
+
+    public long getAvgSendTimeMs() {
+        long batches = batchCount.get();
+
+        return batches > 0 ? (totalSendTimeMs.get() / batches) : 0;
+    }
+
+    public long getAvgQueueTimeMs() {
+        long count = sentCount.get() + failedCount.get();
+
+        return count > 0 ? (totalQueueTimeMs.get() / count) : 0;
+    }
+
+    public String getMetricsSummary() {
+        return "queueDepth=" + getQueueDepth() + ", queued=" + getQueuedCount() + ", sent=" + getSentCount() + ", failed=" + getFailedCount() +
+               ", dropped=" + getDroppedCount() + ", spilled=" + getSpilledCount() + ", batches=" + getBatchCount() +
+               ", avgSendTimeMs=" + getAvgSendTimeMs() + ", maxSendTimeMs=" + getMaxSendTimeMs() + ", avgQueueTimeMs=" + getAvgQueueTimeMs();
+    }
+
+    private void runSender() {
+        while (!isStopped || !queue.isEmpty()) {
+            try {
+                QueuedNotification first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                List<QueuedNotification> batch = new ArrayList<>(batchSize);
+
+                batch.add(first);
+
+                queue.drainTo(batch, batchSize - 1);
+
+                sendBatch(batch);
+            } catch (InterruptedException excp) {
+                LOG.info("AsyncHookNotificationSender: sender thread interrupted");
+
+                break;
+            } catch (Throwable t) {
+                LOG.error("AsyncHookNotificationSender: unexpected error in sender thread", t);
+            }
+        }
+    }
+
+    private void sendBatch(List<QueuedNotification> batch) {
+        List<HookNotification> messages   = new ArrayList<>(batch.size());
+        int                    maxRetries = 0;
+        long                   startTime  = System.currentTimeMillis();
+
+        for (QueuedNotification notification : batch) {
+            messages.add(notification.message);
+
+            maxRetries = Math.max(maxRetries, notification.maxRetries);
+
+            totalQueueTimeMs.addAndGet(startTime - notification.queueTime);
+        }
+
+        boolean isSent   = AtlasHook.notifyEntitiesInternal(messages, maxRetries, notificationInterface, logFailedMessages, failedMessagesLogger, spool);
+        long    sendTime = System.currentTimeMillis() - startTime;
+
+        if (isSent) {
+            sentCount.addAndGet(messages.size());
+        } else {
+            failedCount.addAndGet(messages.size());
+        }
+
+        batchCount.incrementAndGet();
+        totalSendTimeMs.addAndGet(sendTime);
+
+        for (long max = maxSendTimeMs.get(); sendTime > max && !maxSendTimeMs.compareAndSet(max, sendTime); max = maxSendTimeMs.get()) {
+            // retry until max is updated
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("AsyncHookNotificationSender: sent batch of {} messages in {} ms; {}", messages.size(), sendTime, getMetricsSummary());
+        }
+    }
+
+    private void handleOverflow(QueuedNotification notification) {
+        switch (overflowPolicy) {
+            case BLOCK: {
+                boolean isQueued = false;
+
+                try {
+                    isQueued = queue.offer(notification, blockTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException excp) {
+                    Thread.currentThread().interrupt();
+                }
+
+                if (isQueued) {
+                    queuedCount.incrementAndGet();
+                } else {
+                    discard(notification, "queue is full");
+                }
+            }
+            break;
+
+            case DROP_OLDEST: {
+                while (!queue.offer(notification)) {
+                    QueuedNotification oldest = queue.poll();
+
+                    if (oldest != null) {
+                        discard(oldest, "queue is full");
+                    }
+                }
+
+                queuedCount.incrementAndGet();
+            }
+            break;
+
+            case SPILL:
+            default:
+                spill(notification);
+            break;
+        }
+    }
+
+    private void discard(QueuedNotification notification, String reason) {
+        droppedCount.incrementAndGet();
+
+        LOG.error("AsyncHookNotificationSender: dropped notification ({}): {}", reason, notification.message);
+
+        if (logFailedMessages && failedMessagesLogger != null) {
+            failedMessagesLogger.log(AbstractNotification.getMessageJson(notification.message));
+        }
+    }
+
+    private void spill(QueuedNotification notification) {
+        if (spool != null && spool.append(Collections.singletonList(notification.message))) {
+            spilledCount.incrementAndGet();
+
+            return;
+        }
+
+        if (failedMessagesLogger == null) {
+            discard(notification, "queue is full, failed messages log is not available to spill");
+
+            return;
+        }
+
+        spilledCount.incrementAndGet();
+
+        failedMessagesLogger.log(AbstractNotification.getMessageJson(notification.message));
+    }
+
+    private static class QueuedNotification {
+        private final HookNotification message;
+        private final int              maxRetries;
+        private final long             queueTime = System.currentTimeMillis();
+
+        QueuedNotification(HookNotification message, int maxRetries) {
+            this.message    = message;
+            this.maxRetries = maxRetries;
+        }
+    }
+}
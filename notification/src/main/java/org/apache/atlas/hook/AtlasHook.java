@@ -20,6 +20,7 @@ package org.apache.atlas.hook;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConstants;
 import org.apache.atlas.kafka.NotificationProvider;
 import org.apache.atlas.model.notification.HookNotification;
 import org.apache.atlas.v1.model.instance.Referenceable;
@@ -30,9 +31,11 @@ import org.apache.atlas.security.InMemoryJAASConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.hadoop.util.ShutdownHookManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -60,6 +63,29 @@ public abstract class AtlasHook {
     public static final String ATLAS_NOTIFICATION_LOG_FAILED_MESSAGES_ENABLED_KEY =
             "atlas.notification.log.failed.messages";
 
+    public static final String ATLAS_NOTIFICATION_ASYNCHRONOUS              = "atlas.notification.hook.asynchronous";
+    public static final String ATLAS_NOTIFICATION_ASYNC_QUEUE_SIZE          = "atlas.notification.hook.async.queue.size";
+    public static final String ATLAS_NOTIFICATION_ASYNC_NUM_THREADS         = "atlas.notification.hook.async.num.threads";
+    public static final String ATLAS_NOTIFICATION_ASYNC_BATCH_SIZE          = "atlas.notification.hook.async.batch.size";
+    public static final String ATLAS_NOTIFICATION_ASYNC_OVERFLOW_POLICY     = "atlas.notification.hook.async.overflow.policy";
+    public static final String ATLAS_NOTIFICATION_ASYNC_BLOCK_TIMEOUT_MS    = "atlas.notification.hook.async.block.timeout.ms";
+    public static final String ATLAS_NOTIFICATION_ASYNC_SHUTDOWN_TIMEOUT_MS = "atlas.notification.hook.async.shutdown.timeout.ms";
+
+    public static final String ATLAS_NOTIFICATION_SPOOL_ENABLED           = "atlas.notification.hook.spool.enabled";
+    public static final String ATLAS_NOTIFICATION_SPOOL_DIR               = "atlas.notification.hook.spool.dir";
+    public static final String ATLAS_NOTIFICATION_SPOOL_SEGMENT_MAX_BYTES = "atlas.notification.hook.spool.segment.max.bytes";
+    public static final String ATLAS_NOTIFICATION_SPOOL_MAX_BYTES         = "atlas.notification.hook.spool.max.bytes";
+    public static final String ATLAS_NOTIFICATION_SPOOL_DRAIN_INTERVAL_MS = "atlas.notification.hook.spool.drain.interval.ms";
+    public static final String ATLAS_NOTIFICATION_SPOOL_DRAIN_BATCH_SIZE  = "atlas.notification.hook.spool.drain.batch.size";
+
+    // shutdown hooks run in descending priority: the async sender is stopped, spooling messages it could not send,
+    // before the spool is closed
+    private static final int ASYNC_SENDER_SHUTDOWN_HOOK_PRIORITY = AtlasConstants.ATLAS_SHUTDOWN_HOOK_PRIORITY;
+    private static final int SPOOL_SHUTDOWN_HOOK_PRIORITY        = AtlasConstants.ATLAS_SHUTDOWN_HOOK_PRIORITY - 1;
+
+    private static AsyncHookNotificationSender asyncSender;
+    private static HookNotificationSpool       spool;
+
     static {
         try {
             atlasProperties = ApplicationProperties.get();
@@ -94,6 +120,14 @@ public abstract class AtlasHook {
 
         notificationInterface.setCurrentUser(currentUser);
 
+        if (atlasProperties.getBoolean(ATLAS_NOTIFICATION_SPOOL_ENABLED, false)) {
+            initSpool();
+        }
+
+        if (atlasProperties.getBoolean(ATLAS_NOTIFICATION_ASYNCHRONOUS, false)) {
+            initAsyncSender();
+        }
+
         LOG.info("Created Atlas Hook");
     }
 
@@ -115,15 +149,51 @@ public abstract class AtlasHook {
      * @param maxRetries maximum number of retries while sending message to messaging system
      */
     public static void notifyEntities(List<HookNotification> messages, int maxRetries) {
-        notifyEntitiesInternal(messages, maxRetries, notificationInterface, logFailedMessages, failedMessagesLogger);
+        if (asyncSender != null) {
+            asyncSender.send(messages, maxRetries);
+        } else {
+            notifyEntitiesInternal(messages, maxRetries, notificationInterface, logFailedMessages, failedMessagesLogger, spool);
+        }
+    }
+
+    /**
+     * @return sender used when asynchronous notification is enabled; null otherwise
+     */
+    public static AsyncHookNotificationSender getAsyncSender() {
+        return asyncSender;
+    }
+
+    /**
+     * @return spool for undeliverable messages, when enabled; null otherwise
+     */
+    public static HookNotificationSpool getSpool() {
+        return spool;
     }
 
     @VisibleForTesting
-    static void notifyEntitiesInternal(List<HookNotification> messages, int maxRetries,
+    static boolean notifyEntitiesInternal(List<HookNotification> messages, int maxRetries,
                                        NotificationInterface notificationInterface,
                                        boolean shouldLogFailedMessages, FailedMessagesLogger logger) {
+        return notifyEntitiesInternal(messages, maxRetries, notificationInterface, shouldLogFailedMessages, logger, null);
+    }
+
+    /**
+     * Sends the messages; messages that could not be sent after maxRetries are written to the spool, if given.
+     * To preserve the order of messages, while the spool has messages to replay new messages are spooled as well.
+     *
+     * @return true if the messages were sent or spooled, false otherwise
+     */
+    @VisibleForTesting
+    static boolean notifyEntitiesInternal(List<HookNotification> messages, int maxRetries,
+                                       NotificationInterface notificationInterface,
+                                       boolean shouldLogFailedMessages, FailedMessagesLogger logger,
+                                       HookNotificationSpool spool) {
         if (messages == null || messages.isEmpty()) {
-            return;
+            return true;
+        }
+
+        if (spool != null && spool.hasPending() && spool.append(messages)) {
+            return true;
         }
 
         final String message = messages.toString();
@@ -131,7 +201,7 @@ public abstract class AtlasHook {
         while (true) {
             try {
                 notificationInterface.send(NotificationInterface.NotificationType.HOOK, messages);
-                return;
+                return true;
             } catch (Exception e) {
                 numRetries++;
                 if (numRetries < maxRetries) {
@@ -144,6 +214,13 @@ public abstract class AtlasHook {
                     }
 
                 } else {
+                    if (spool != null && spool.append(messages)) {
+                        LOG.warn("Failed to notify atlas for entity {} after {} retries; spooled to {}. error={}",
+                                message, maxRetries, spool.getDir(), e.getMessage());
+
+                        return true;
+                    }
+
                     if (shouldLogFailedMessages && e instanceof NotificationException) {
                         List<String> failedMessages = ((NotificationException) e).getFailedMessages();
                         for (String msg : failedMessages) {
@@ -152,7 +229,7 @@ public abstract class AtlasHook {
                     }
                     LOG.error("Failed to notify atlas for entity {} after {} retries. Quitting",
                             message, maxRetries, e);
-                    return;
+                    return false;
                 }
             }
         }
@@ -215,6 +292,58 @@ public abstract class AtlasHook {
         }
     }
 
+    private static void initAsyncSender() {
+        int                                        queueSize       = atlasProperties.getInt(ATLAS_NOTIFICATION_ASYNC_QUEUE_SIZE, 10000);
+        int                                        numThreads      = atlasProperties.getInt(ATLAS_NOTIFICATION_ASYNC_NUM_THREADS, 1);
+        int                                        batchSize       = atlasProperties.getInt(ATLAS_NOTIFICATION_ASYNC_BATCH_SIZE, 100);
+        long                                       blockTimeoutMs  = atlasProperties.getLong(ATLAS_NOTIFICATION_ASYNC_BLOCK_TIMEOUT_MS, 30000);
+        final long                                 shutdownTimeout = atlasProperties.getLong(ATLAS_NOTIFICATION_ASYNC_SHUTDOWN_TIMEOUT_MS, 10000);
+        String                                     policyName      = atlasProperties.getString(ATLAS_NOTIFICATION_ASYNC_OVERFLOW_POLICY, AsyncHookNotificationSender.OverflowPolicy.BLOCK.name());
+        AsyncHookNotificationSender.OverflowPolicy overflowPolicy;
+
+        try {
+            overflowPolicy = AsyncHookNotificationSender.OverflowPolicy.valueOf(policyName.trim().toUpperCase());
+        } catch (IllegalArgumentException excp) {
+            LOG.warn("Invalid value {} for {}; using {}", policyName, ATLAS_NOTIFICATION_ASYNC_OVERFLOW_POLICY, AsyncHookNotificationSender.OverflowPolicy.BLOCK);
+
+            overflowPolicy = AsyncHookNotificationSender.OverflowPolicy.BLOCK;
+        }
+
+        asyncSender = new AsyncHookNotificationSender(notificationInterface, queueSize, numThreads, batchSize, overflowPolicy, blockTimeoutMs, logFailedMessages, failedMessagesLogger, spool);
+
+        ShutdownHookManager.get().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                asyncSender.stop(shutdownTimeout);
+            }
+        }, ASYNC_SENDER_SHUTDOWN_HOOK_PRIORITY);
+    }
+
+    private static void initSpool() {
+        String dir             = atlasProperties.getString(ATLAS_NOTIFICATION_SPOOL_DIR, new File(System.getProperty("java.io.tmpdir"), "atlas-hook-spool").getPath());
+        long   segmentMaxBytes = atlasProperties.getLong(ATLAS_NOTIFICATION_SPOOL_SEGMENT_MAX_BYTES, 16L * 1024 * 1024);
+        long   maxBytes        = atlasProperties.getLong(ATLAS_NOTIFICATION_SPOOL_MAX_BYTES, 1024L * 1024 * 1024);
+        long   drainIntervalMs = atlasProperties.getLong(ATLAS_NOTIFICATION_SPOOL_DRAIN_INTERVAL_MS, 30000);
+        int    drainBatchSize  = atlasProperties.getInt(ATLAS_NOTIFICATION_SPOOL_DRAIN_BATCH_SIZE, 100);
+
+        try {
+            spool = new HookNotificationSpool(new File(dir), segmentMaxBytes, maxBytes);
+
+            spool.startDrainer(notificationInterface, drainIntervalMs, drainBatchSize);
+
+            ShutdownHookManager.get().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    spool.close();
+                }
+            }, SPOOL_SHUTDOWN_HOOK_PRIORITY);
+        } catch (IOException excp) {
+            LOG.error("Failed to initialize hook notification spool in {}; undeliverable messages will not be spooled", dir, excp);
+
+            spool = null;
+        }
+    }
+
     private static boolean isLoginKeytabBased() {
         boolean ret = false;
 
@@ -0,0 +1,573 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hook;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.NotificationInterface;
+import org.apache.atlas.type.AtlasType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Durable spool, on local disk, for hook notifications that could not be sent to Atlas. Spooled notifications are
+ * replayed in the order they were spooled, by a background drainer or by HookNotificationSpoolTool.
+ *
+ * The spool is a directory of append-only segment files. Each record in a segment holds the JSON of one notification,
+ * preceded by its length and CRC32 checksum:
+ * <pre>
+ *   length    4 bytes
+ *   checksum  8 bytes - CRC32 of the payload
+ *   payload   'length' bytes - UTF-8 JSON of the notification
+ * </pre>
+ * Segments are named spool-[creationTime]-[sequence]-[writerId].dat, so that sorting the names orders segments by
+ * creation time. Progress of replaying a segment is recorded in a [segment].offset file, so that a replay resumes
+ * after the last sent record. Segment files are locked while being written or replayed; this allows processes on the
+ * same host to share a spool directory.
+ */
+public class HookNotificationSpool implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(HookNotificationSpool.class);
+
+    public static final String SEGMENT_PREFIX = "spool-";
+    public static final String SEGMENT_SUFFIX = ".dat";
+    public static final String OFFSET_SUFFIX  = ".offset";
+
+    private static final int RECORD_HEADER_LENGTH = 12;
+
+    private final File   dir;
+    private final long   maxSegmentBytes;
+    private final long   maxSpoolBytes;
+    private final String writerId = UUID.randomUUID().toString().substring(0, 8);
+
+    private File             activeSegment;
+    private FileOutputStream activeStream;
+    private DataOutputStream activeOut;
+    private FileLock         activeLock;
+    private long             activeBytes;
+    private int              segmentSeq;
+    private long             spoolBytes;
+    private volatile boolean hasPending;
+
+    private final Object     drainSignal   = new Object();
+    private volatile boolean isStopped     = false;
+    private Thread           drainerThread = null;
+
+    private final AtomicLong appendedCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong corruptCount  = new AtomicLong();
+
+    public HookNotificationSpool(File dir, long maxSegmentBytes, long maxSpoolBytes) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException(dir + ": failed to create spool directory");
+        }
+
+        this.dir             = dir;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSpoolBytes   = maxSpoolBytes;
+
+        List<File> segments = listSegments(dir);
+
+        for (File segment : segments) {
+            spoolBytes += segment.length();
+        }
+
+        hasPending = !segments.isEmpty();
+
+        LOG.info("HookNotificationSpool: dir={}, segments={}, bytes={}", dir, segments.size(), spoolBytes);
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * @return true if the spool has notifications that are yet to be replayed
+     */
+    public boolean hasPending() {
+        return hasPending;
+    }
+
+    /**
+     * Appends the given notifications to the spool; notifications are written to disk before this method returns.
+     *
+     * @return false if the notifications could not be spooled, due to the size cap or an error
+     */
+    public synchronized boolean append(List<HookNotification> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return true;
+        }
+
+        List<byte[]> payloads = new ArrayList<>(messages.size());
+        long         size     = 0;
+
+        for (HookNotification message : messages) {
+            byte[] payload = AtlasNotificationBaseMessage.getBytesUtf8(AtlasType.toV1Json(message));
+
+            payloads.add(payload);
+
+            size += RECORD_HEADER_LENGTH + payload.length;
+        }
+
+        if (spoolBytes + size > maxSpoolBytes) {
+            rejectedCount.addAndGet(messages.size());
+
+            LOG.error("HookNotificationSpool: size cap of {} bytes reached; failed to spool {} notifications", maxSpoolBytes, messages.size());
+
+            return false;
+        }
+
+        try {
+            if (activeSegment != null && activeBytes >= maxSegmentBytes) {
+                roll();
+            }
+
+            if (activeSegment == null) {
+                openSegment();
+            }
+
+            for (byte[] payload : payloads) {
+                writeRecord(activeOut, payload);
+            }
+
+            activeOut.flush();
+            activeStream.getChannel().force(false);
+
+            activeBytes += size;
+            spoolBytes  += size;
+            hasPending   = true;
+
+            appendedCount.addAndGet(messages.size());
+        } catch (IOException excp) {
+            LOG.error("HookNotificationSpool: failed to spool {} notifications in {}", messages.size(), activeSegment, excp);
+
+            rejectedCount.addAndGet(messages.size());
+
+            roll();
+
+            return false;
+        }
+
+        synchronized (drainSignal) {
+            drainSignal.notifyAll();
+        }
+
+        return true;
+    }
+
+    /**
+     * Closes the segment being written to, so that it can be replayed.
+     */
+    public synchronized void roll() {
+        if (activeSegment == null) {
+            return;
+        }
+
+        try {
+            activeLock.release();
+        } catch (IOException excp) {
+            LOG.warn("HookNotificationSpool: failed to release lock on {}", activeSegment, excp);
+        }
+
+        try {
+            activeOut.close();
+        } catch (IOException excp) {
+            LOG.warn("HookNotificationSpool: failed to close {}", activeSegment, excp);
+        }
+
+        if (activeBytes == 0) {
+            activeSegment.delete();
+        }
+
+        activeSegment = null;
+        activeStream  = null;
+        activeOut     = null;
+        activeLock    = null;
+        activeBytes   = 0;
+    }
+
+    /**
+     * Replays spooled notifications, in order, until all are sent or a send fails.
+     *
+     * @return number of notifications replayed
+     */
+    public long drain(NotificationInterface notificationInterface, int batchSize) {
+        long ret = 0;
+
+        roll();
+
+        for (File segment : listSegments(dir)) {
+            try {
+                long count = drainSegment(segment, notificationInterface, batchSize);
+
+                if (count < 0) { // segment in use by another writer or drainer
+                    continue;
+                }
+
+                ret += count;
+            } catch (Exception excp) {
+                LOG.warn("HookNotificationSpool: failed to replay notifications from {}; will retry later. error={}", segment, excp.getMessage());
+
+                break;
+            }
+        }
+
+        synchronized (this) {
+            List<File> segments = listSegments(dir);
+
+            spoolBytes = 0;
+
+            for (File segment : segments) {
+                spoolBytes += segment.length();
+            }
+
+            hasPending = !segments.isEmpty();
+        }
+
+        if (ret > 0) {
+            LOG.info("HookNotificationSpool: replayed {} notifications; {}", ret, getMetricsSummary());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Starts a daemon thread that replays spooled notifications - every drainIntervalMs, and soon after notifications
+     * are spooled.
+     */
+    public synchronized void startDrainer(final NotificationInterface notificationInterface, final long drainIntervalMs, final int batchSize) {
+        if (drainerThread != null) {
+            return;
+        }
+
+        drainerThread = new Thread("atlas-hook-spool-drainer") {
+            @Override
+            public void run() {
+                while (!isStopped) {
+                    try {
+                        synchronized (drainSignal) {
+                            drainSignal.wait(drainIntervalMs);
+                        }
+
+                        if (!isStopped && hasPending) {
+                            long replayed = drain(notificationInterface, batchSize);
+
+                            if (replayed == 0 && hasPending) { // send failed; wait for the interval before retrying
+                                Thread.sleep(drainIntervalMs);
+                            }
+                        }
+                    } catch (InterruptedException excp) {
+                        break;
+                    } catch (Throwable t) {
+                        LOG.error("HookNotificationSpool: error in drainer", t);
+                    }
+                }
+            }
+        };
+
+        drainerThread.setDaemon(true);
+        drainerThread.start();
+    }
+
+    @Override
+    public void close() {
+        isStopped = true;
+
+        Thread drainer;
+
+        synchronized (this) {
+            drainer = drainerThread;
+        }
+
+        if (drainer != null) {
+            drainer.interrupt();
+        }
+
+        roll();
+    }
+
+    public long getAppendedCount() { return appendedCount.get(); }
+
+    public long getReplayedCount() { return replayedCount.get(); }
+
+    public long getRejectedCount() { return rejectedCount.get(); }
+
+    public long getCorruptCount() { return corruptCount.get(); }
+
+    public synchronized long getSpoolBytes() { return spoolBytes; }
+
+    public String getMetricsSummary() {
+        return "spoolBytes=" + getSpoolBytes() + ", appended=" + getAppendedCount() + ", replayed=" + getReplayedCount() +
+               ", rejected=" + getRejectedCount() + ", corrupt=" + getCorruptCount();
+    }
+
+    /**
+     * @return segment files in the given spool directory, in the order they were created
+     */
+    public static List<File> listSegments(File dir) {
+        File[] files = dir.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().startsWith(SEGMENT_PREFIX) && file.getName().endsWith(SEGMENT_SUFFIX);
+            }
+        });
+
+        List<File> ret = files != null ? new ArrayList<>(Arrays.asList(files)) : new ArrayList<File>();
+
+        Collections.sort(ret);
+
+        return ret;
+    }
+
+    /**
+     * Reads records of a segment, starting at the given offset. Records with checksum mismatch are skipped; reading
+     * stops at a truncated record, which can be left by a writer that crashed in the middle of an append.
+     */
+    public static class SegmentReader implements Closeable {
+        private final File            segment;
+        private final DataInputStream in;
+        private long                  offset;
+        private long                  corruptCount = 0;
+
+        public SegmentReader(File segment, long offset) throws IOException {
+            this.segment = segment;
+            this.in      = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)));
+            this.offset  = offset;
+
+            long skipped = 0;
+
+            while (skipped < offset) {
+                long n = in.skip(offset - skipped);
+
+                if (n <= 0) {
+                    break;
+                }
+
+                skipped += n;
+            }
+        }
+
+        /**
+         * @return payload of the next record; null at the end of the segment
+         */
+        public String next() throws IOException {
+            while (true) {
+                final int    length;
+                final long   checksum;
+                final byte[] payload;
+
+                try {
+                    length = in.readInt();
+                } catch (EOFException excp) {
+                    return null;
+                }
+
+                if (length < 0 || length > segment.length()) {
+                    LOG.error("{}: invalid record length {} at offset {}; ignoring rest of the segment", segment, length, offset);
+
+                    corruptCount++;
+
+                    return null;
+                }
+
+                try {
+                    checksum = in.readLong();
+                    payload  = new byte[length];
+
+                    in.readFully(payload);
+                } catch (EOFException excp) {
+                    LOG.error("{}: truncated record at offset {}; ignoring rest of the segment", segment, offset);
+
+                    corruptCount++;
+
+                    return null;
+                }
+
+                offset += RECORD_HEADER_LENGTH + length;
+
+                if (checksum != getChecksum(payload)) {
+                    LOG.error("{}: checksum mismatch for record ending at offset {}; ignoring the record", segment, offset);
+
+                    corruptCount++;
+
+                    continue;
+                }
+
+                return AtlasNotificationBaseMessage.getStringUtf8(payload);
+            }
+        }
+
+        /**
+         * @return offset of the record to be returned by next()
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getCorruptCount() {
+            return corruptCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    public static HookNotification toHookNotification(String json) {
+        return AtlasType.fromV1Json(json, HookNotification.class);
+    }
+
+    public static long readOffset(File segment) {
+        File offsetFile = getOffsetFile(segment);
+
+        if (!offsetFile.exists()) {
+            return 0;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(offsetFile, "r")) {
+            return file.readLong();
+        } catch (IOException excp) {
+            LOG.warn("{}: failed to read offset; replaying from the beginning", offsetFile, excp);
+
+            return 0;
+        }
+    }
+
+    @VisibleForTesting
+    static void writeRecord(DataOutputStream out, byte[] payload) throws IOException {
+        out.writeInt(payload.length);
+        out.writeLong(getChecksum(payload));
+        out.write(payload);
+    }
+
+    private long drainSegment(File segment, NotificationInterface notificationInterface, int batchSize) throws Exception {
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock;
+
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException excp) { // locked by this process
+                lock = null;
+            }
+
+            if (lock == null) {
+                return -1;
+            }
+
+            long ret = 0;
+
+            try (SegmentReader reader = new SegmentReader(segment, readOffset(segment))) {
+                List<HookNotification> batch = new ArrayList<>(batchSize);
+
+                for (String json = reader.next(); json != null; json = reader.next()) {
+                    batch.add(toHookNotification(json));
+
+                    if (batch.size() >= batchSize) {
+                        ret += sendBatch(segment, reader.getOffset(), batch, notificationInterface);
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    ret += sendBatch(segment, reader.getOffset(), batch, notificationInterface);
+                }
+
+                corruptCount.addAndGet(reader.getCorruptCount());
+            } finally {
+                lock.release();
+            }
+
+            LOG.info("HookNotificationSpool: replayed {} notifications from {}", ret, segment);
+
+            getOffsetFile(segment).delete();
+            segment.delete();
+
+            return ret;
+        }
+    }
+
+    private int sendBatch(File segment, long offset, List<HookNotification> batch, NotificationInterface notificationInterface) throws Exception {
+        int ret = batch.size();
+
+        notificationInterface.send(NotificationInterface.NotificationType.HOOK, batch);
+
+        writeOffset(segment, offset);
+
+        replayedCount.addAndGet(ret);
+
+        batch.clear();
+
+        return ret;
+    }
+
+    private void openSegment() throws IOException {
+        String name = String.format("%s%013d-%06d-%s%s", SEGMENT_PREFIX, System.currentTimeMillis(), segmentSeq++, writerId, SEGMENT_SUFFIX);
+
+        activeSegment = new File(dir, name);
+        activeStream  = new FileOutputStream(activeSegment, true);
+        activeLock    = activeStream.getChannel().lock();
+        activeOut     = new DataOutputStream(new BufferedOutputStream(activeStream));
+        activeBytes   = 0;
+    }
+
+    private static void writeOffset(File segment, long offset) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(getOffsetFile(segment), "rw")) {
+            file.setLength(0);
+            file.writeLong(offset);
+            file.getFD().sync();
+        }
+    }
+
+    private static File getOffsetFile(File segment) {
+        return new File(segment.getParentFile(), segment.getName() + OFFSET_SUFFIX);
+    }
+
+    private static long getChecksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+
+        crc.update(payload);
+
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hook;
+
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.kafka.NotificationProvider;
+import org.apache.atlas.notification.NotificationInterface;
+import org.apache.commons.configuration.Configuration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Command line tool to inspect and replay a hook notification spool:
+ *   list   [spool-dir] - lists segments in the spool, with size and replay offset
+ *   dump   [spool-dir] - prints spooled notifications, yet to be replayed
+ *   replay [spool-dir] - sends spooled notifications to the notification system configured in atlas-application.properties
+ */
+public class HookNotificationSpoolTool {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: HookNotificationSpoolTool list|dump|replay [spool-dir]");
+
+            System.exit(1);
+        }
+
+        Configuration atlasProperties = ApplicationProperties.get();
+        String        command         = args[0];
+        File          dir             = new File(args.length > 1 ? args[1] : atlasProperties.getString(AtlasHook.ATLAS_NOTIFICATION_SPOOL_DIR, new File(System.getProperty("java.io.tmpdir"), "atlas-hook-spool").getPath()));
+
+        if (!dir.isDirectory()) {
+            System.err.println(dir + ": spool directory not found");
+
+            System.exit(1);
+        }
+
+        switch (command) {
+            case "list":
+                list(dir);
+            break;
+
+            case "dump":
+                dump(dir);
+            break;
+
+            case "replay":
+                replay(dir, atlasProperties.getInt(AtlasHook.ATLAS_NOTIFICATION_SPOOL_DRAIN_BATCH_SIZE, 100));
+            break;
+
+            default:
+                System.err.println(command + ": unknown command");
+
+                System.exit(1);
+        }
+    }
+
+    private static void list(File dir) {
+        List<File> segments = HookNotificationSpool.listSegments(dir);
+
+        for (File segment : segments) {
+            System.out.println(segment.getName() + "\tsize=" + segment.length() + "\toffset=" + HookNotificationSpool.readOffset(segment));
+        }
+
+        System.out.println(segments.size() + " segments");
+    }
+
+    private static void dump(File dir) throws IOException {
+        for (File segment : HookNotificationSpool.listSegments(dir)) {
+            try (HookNotificationSpool.SegmentReader reader = new HookNotificationSpool.SegmentReader(segment, HookNotificationSpool.readOffset(segment))) {
+                for (String json = reader.next(); json != null; json = reader.next()) {
+                    System.out.println(json);
+                }
+            }
+        }
+    }
+
+    private static void replay(File dir, int batchSize) throws IOException {
+        NotificationInterface notificationInterface = NotificationProvider.get();
+
+        try (HookNotificationSpool spool = new HookNotificationSpool(dir, Long.MAX_VALUE, Long.MAX_VALUE)) {
+            long replayed = spool.drain(notificationInterface, batchSize);
+
+            System.out.println("replayed " + replayed + " notifications; " + (spool.hasPending() ? "some notifications are yet to be replayed" : "spool is empty"));
+        } finally {
+            notificationInterface.close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coalesces offset commits of a Kafka consumer: offsets are recorded per partition and committed asynchronously, once
+ * given number of offsets have been recorded or given interval has elapsed since the last commit. Pending offsets are
+ * committed synchronously when partitions are revoked and when the consumer is closed, which bounds the number of
+ * messages redelivered after a restart or rebalance.
+ *
+ * Like KafkaConsumer, instances of this class are not thread-safe.
+ */
+public class AtlasKafkaCommitManager implements ConsumerRebalanceListener, OffsetCommitCallback {
+    private static final Logger LOG = LoggerFactory.getLogger(AtlasKafkaCommitManager.class);
+
+    private final KafkaConsumer                           kafkaConsumer;
+    private final long                                    commitIntervalMs;
+    private final int                                     commitMaxMessages;
+    private final Map<TopicPartition, OffsetAndMetadata> pendingOffsets = new HashMap<>();
+    private       int                                     pendingCount   = 0;
+    private       long                                    lastCommitTime = System.currentTimeMillis();
+
+    public AtlasKafkaCommitManager(KafkaConsumer kafkaConsumer, long commitIntervalMs, int commitMaxMessages) {
+        this.kafkaConsumer     = kafkaConsumer;
+        this.commitIntervalMs  = commitIntervalMs;
+        this.commitMaxMessages = commitMaxMessages;
+    }
+
+    /**
+     * @return commit manager for the given consumer; null when offsets are committed by Kafka (auto-commit) or
+     *         synchronously after every message (commitIntervalMs is 0 and commitMaxMessages is 1)
+     */
+    public static AtlasKafkaCommitManager create(KafkaConsumer kafkaConsumer, boolean autoCommitEnabled, long commitIntervalMs, int commitMaxMessages) {
+        if (autoCommitEnabled || kafkaConsumer == null || (commitIntervalMs <= 0 && commitMaxMessages <= 1)) {
+            return null;
+        }
+
+        return new AtlasKafkaCommitManager(kafkaConsumer, commitIntervalMs, commitMaxMessages);
+    }
+
+    public void commit(TopicPartition partition, long offset) {
+        OffsetAndMetadata pendingOffset = pendingOffsets.get(partition);
+
+        if (pendingOffset == null || pendingOffset.offset() < offset) {
+            pendingOffsets.put(partition, new OffsetAndMetadata(offset));
+        }
+
+        pendingCount++;
+
+        flushIfDue();
+    }
+
+    public void flushIfDue() {
+        if (pendingCount >= commitMaxMessages || (pendingCount > 0 && (System.currentTimeMillis() - lastCommitTime) >= commitIntervalMs)) {
+            flushAsync();
+        }
+    }
+
+    public void flushAsync() {
+        if (!pendingOffsets.isEmpty()) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("committing offsets asynchronously: {}", pendingOffsets);
+            }
+
+            kafkaConsumer.commitAsync(new HashMap<>(pendingOffsets), this);
+
+            clear();
+        }
+    }
+
+    public void flushSync() {
+        if (!pendingOffsets.isEmpty()) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("committing offsets synchronously: {}", pendingOffsets);
+            }
+
+            try {
+                kafkaConsumer.commitSync(pendingOffsets);
+            } catch (WakeupException excp) {
+                // consumer might have been woken up to shutdown; the commit still needs to go through
+                kafkaConsumer.commitSync(pendingOffsets);
+            }
+
+            clear();
+        }
+    }
+
+    @Override
+    public void onComplete(Map<TopicPartition, OffsetAndMetadata> offsets, Exception exception) {
+        if (exception != null) {
+            // a subsequent commit will include these offsets as well; hence no retry here
+            LOG.warn("failed to commit offsets {}", offsets, exception);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        LOG.info("partitions revoked: {}; committing pending offsets", partitions);
+
+        flushSync();
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        LOG.info("partitions assigned: {}", partitions);
+    }
+
+    private void clear() {
+        pendingOffsets.clear();
+
+        pendingCount   = 0;
+        lastCommitTime = System.currentTimeMillis();
+    }
+}
@@ -41,20 +41,50 @@ import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 public class AtlasKafkaConsumer<T> extends AbstractNotificationConsumer<T> {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasKafkaConsumer.class);
 
-    private final KafkaConsumer kafkaConsumer;
-    private final boolean       autoCommitEnabled;
-    private       long          pollTimeoutMilliSeconds = 1000L;
+    private final KafkaConsumer           kafkaConsumer;
+    private final boolean                 autoCommitEnabled;
+    private final AtlasKafkaCommitManager commitManager;
+    private       long                    pollTimeoutMilliSeconds = 1000L;
 
     public AtlasKafkaConsumer(NotificationInterface.NotificationType notificationType, KafkaConsumer kafkaConsumer, boolean autoCommitEnabled, long pollTimeoutMilliSeconds) {
         this(notificationType.getDeserializer(), kafkaConsumer, autoCommitEnabled, pollTimeoutMilliSeconds);
     }
 
     public AtlasKafkaConsumer(AtlasNotificationMessageDeserializer<T> deserializer, KafkaConsumer kafkaConsumer, boolean autoCommitEnabled, long pollTimeoutMilliSeconds) {
+        this(deserializer, kafkaConsumer, autoCommitEnabled, pollTimeoutMilliSeconds, 0, 1);
+    }
+
+    public AtlasKafkaConsumer(NotificationInterface.NotificationType notificationType, KafkaConsumer kafkaConsumer, boolean autoCommitEnabled, long pollTimeoutMilliSeconds, long commitIntervalMs, int commitMaxMessages) {
+        this(notificationType.getDeserializer(), kafkaConsumer, autoCommitEnabled, pollTimeoutMilliSeconds, commitIntervalMs, commitMaxMessages);
+    }
+
+    /**
+     * @param commitIntervalMs  offsets are committed asynchronously when this interval elapses since the last commit
+     * @param commitMaxMessages offsets are committed asynchronously once this many messages are processed
+     *
+     * Offsets are committed synchronously after every message when commitIntervalMs is 0 and commitMaxMessages is 1.
+     * Pending offsets are committed on partition revocation only if the consumer was subscribed with the commit manager
+     * as rebalance listener; use the constructor taking AtlasKafkaCommitManager for that.
+     */
+    public AtlasKafkaConsumer(AtlasNotificationMessageDeserializer<T> deserializer, KafkaConsumer kafkaConsumer, boolean autoCommitEnabled, long pollTimeoutMilliSeconds, long commitIntervalMs, int commitMaxMessages) {
+        this(deserializer, kafkaConsumer, autoCommitEnabled, pollTimeoutMilliSeconds, AtlasKafkaCommitManager.create(kafkaConsumer, autoCommitEnabled, commitIntervalMs, commitMaxMessages));
+    }
+
+    public AtlasKafkaConsumer(NotificationInterface.NotificationType notificationType, KafkaConsumer kafkaConsumer, boolean autoCommitEnabled, long pollTimeoutMilliSeconds, AtlasKafkaCommitManager commitManager) {
+        this(notificationType.getDeserializer(), kafkaConsumer, autoCommitEnabled, pollTimeoutMilliSeconds, commitManager);
+    }
+
+    /**
+     * @param commitManager commits offsets of kafkaConsumer; null to commit synchronously after every message. The
+     *                      consumer is expected to be subscribed with commitManager as its rebalance listener.
+     */
+    public AtlasKafkaConsumer(AtlasNotificationMessageDeserializer<T> deserializer, KafkaConsumer kafkaConsumer, boolean autoCommitEnabled, long pollTimeoutMilliSeconds, AtlasKafkaCommitManager commitManager) {
         super(deserializer);
 
         this.autoCommitEnabled       = autoCommitEnabled;
         this.kafkaConsumer           = kafkaConsumer;
         this.pollTimeoutMilliSeconds = pollTimeoutMilliSeconds;
+        this.commitManager           = autoCommitEnabled ? null : commitManager;
     }
 
     public List<AtlasKafkaMessage<T>> receive() {
@@ -66,6 +96,10 @@ public class AtlasKafkaConsumer<T> extends AbstractNotificationConsumer<T> {
 
         List<AtlasKafkaMessage<T>> messages = new ArrayList();
 
+        if (commitManager != null) {
+            commitManager.flushIfDue();
+        }
+
         ConsumerRecords<?, ?> records = kafkaConsumer.poll(timeoutMilliSeconds);
 
         if (records != null) {
@@ -75,7 +109,8 @@ public class AtlasKafkaConsumer<T> extends AbstractNotificationConsumer<T> {
                             record.topic(), record.partition(), record.offset(), record.key(), record.value());
                 }
 
-                T message = deserializer.deserialize(record.value().toString());
+                Object value   = record.value();
+                T      message = (value instanceof byte[]) ? deserializer.deserialize((byte[]) value) : deserializer.deserialize(value.toString());
 
                 if (message == null) {
                     continue;
@@ -96,13 +131,26 @@ public class AtlasKafkaConsumer<T> extends AbstractNotificationConsumer<T> {
             if (LOG.isDebugEnabled()) {
                 LOG.info(" commiting the offset ==>> " + offset);
             }
-            kafkaConsumer.commitSync(Collections.singletonMap(partition, new OffsetAndMetadata(offset)));
+
+            if (commitManager != null) {
+                commitManager.commit(partition, offset);
+            } else {
+                kafkaConsumer.commitSync(Collections.singletonMap(partition, new OffsetAndMetadata(offset)));
+            }
         }
     }
 
     @Override
     public void close() {
         if (kafkaConsumer != null) {
+            if (commitManager != null) {
+                try {
+                    commitManager.flushSync();
+                } catch (Exception excp) {
+                    LOG.warn("failed to commit pending offsets while closing the consumer", excp);
+                }
+            }
+
             kafkaConsumer.close();
         }
     }
@@ -113,4 +161,18 @@ public class AtlasKafkaConsumer<T> extends AbstractNotificationConsumer<T> {
             kafkaConsumer.wakeup();
         }
     }
+
+    @Override
+    public void pause() {
+        if (kafkaConsumer != null) {
+            kafkaConsumer.pause(kafkaConsumer.assignment());
+        }
+    }
+
+    @Override
+    public void resume() {
+        if (kafkaConsumer != null) {
+            kafkaConsumer.resume(kafkaConsumer.paused());
+        }
+    }
 }
@@ -20,6 +20,7 @@ package org.apache.atlas.kafka;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
 import org.apache.atlas.notification.AbstractNotification;
 import org.apache.atlas.notification.NotificationConsumer;
 import org.apache.atlas.notification.NotificationException;
@@ -34,6 +35,10 @@ import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
@@ -63,10 +68,13 @@ public class KafkaNotification extends AbstractNotification implements Service {
         }
     };
 
-    private final Properties    properties;
-    private final Long          pollTimeOutMs;
-    private       KafkaConsumer consumer;
-    private       KafkaProducer producer;
+    private final Properties              properties;
+    private final Long                    pollTimeOutMs;
+    private final long                    commitIntervalMs;
+    private final int                     commitMaxMessages;
+    private       KafkaConsumer           consumer;
+    private       AtlasKafkaCommitManager consumerCommitManager;
+    private       KafkaProducer           producer;
 
     // ----- Constructors ----------------------------------------------------
 
@@ -88,6 +96,9 @@ public class KafkaNotification extends AbstractNotification implements Service {
         properties    = ConfigurationConverter.getProperties(kafkaConf);
         pollTimeOutMs = kafkaConf.getLong("poll.timeout.ms", 1000);
 
+        commitIntervalMs  = kafkaConf.getLong("commit.async.interval.ms", 0);
+        commitMaxMessages = kafkaConf.getInt("commit.async.max.messages", 1);
+
         //Override default configs
         properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
         properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
@@ -110,8 +121,10 @@ public class KafkaNotification extends AbstractNotification implements Service {
 
         LOG.info("==> KafkaNotification()");
 
-        this.properties    = properties;
-        this.pollTimeOutMs = 1000L;
+        this.properties        = properties;
+        this.pollTimeOutMs     = 1000L;
+        this.commitIntervalMs  = 0;
+        this.commitMaxMessages = 1;
 
         LOG.info("<== KafkaNotification()");
     }
@@ -149,7 +162,8 @@ public class KafkaNotification extends AbstractNotification implements Service {
         LOG.info("==> KafkaNotification.createConsumers(notificationType={}, numConsumers={}, autoCommitEnabled={})", notificationType, numConsumers, autoCommitEnabled);
 
         Properties         consumerProperties = getConsumerProperties(notificationType);
-        AtlasKafkaConsumer kafkaConsumer      = new AtlasKafkaConsumer(notificationType, getKafkaConsumer(consumerProperties, notificationType, autoCommitEnabled), autoCommitEnabled, pollTimeOutMs);
+        KafkaConsumer      consumer           = getKafkaConsumer(consumerProperties, notificationType, autoCommitEnabled);
+        AtlasKafkaConsumer kafkaConsumer      = new AtlasKafkaConsumer(notificationType, consumer, autoCommitEnabled, pollTimeOutMs, consumerCommitManager);
 
         List<NotificationConsumer<T>> consumers = Collections.singletonList(kafkaConsumer);
 
@@ -182,13 +196,89 @@ public class KafkaNotification extends AbstractNotification implements Service {
         sendInternalToProducer(producer, type, messages);
     }
 
+    @Override
+    protected void sendInternalBinary(NotificationType type, List<byte[]> messages) throws NotificationException {
+        if (producer == null) {
+            createProducer();
+        }
+
+        sendInternalToProducer(producer, type, messages);
+    }
+
+    /**
+     * Sends the given messages to the given topic, with the given headers added to each Kafka record. Messages are
+     * wrapped in the same envelope as hook notifications, so they can be read with the hook notification deserializer.
+     *
+     * @param topic    name of the topic
+     * @param messages messages to send
+     * @param headers  headers to add to each record; can be null
+     * @throws NotificationException if an error occurs while sending
+     */
+    public <T> void sendToTopic(String topic, List<T> messages, Map<String, String> headers) throws NotificationException {
+        if (producer == null) {
+            createProducer();
+        }
+
+        List<Object> envelopes = new ArrayList<>(messages.size());
+
+        if (isBinaryMessagesEnabled()) {
+            List<byte[]> binMessages = new ArrayList<>(messages.size());
+
+            for (T message : messages) {
+                createBinaryNotificationMessages(message, binMessages);
+            }
+
+            envelopes.addAll(binMessages);
+        } else {
+            List<String> strMessages = new ArrayList<>(messages.size());
+
+            for (T message : messages) {
+                createNotificationMessages(message, strMessages);
+            }
+
+            envelopes.addAll(strMessages);
+        }
+
+        sendInternalToProducer(producer, topic, envelopes, headers);
+    }
+
+    /**
+     * Creates a consumer of the given topic, with offsets committed only explicitly by the caller. Unlike consumers
+     * returned by createConsumers(), the returned consumer is not shared; caller should close it after use.
+     */
+    public KafkaConsumer createKafkaConsumer(String topic, String groupId) {
+        Properties consumerProperties = new Properties();
+
+        consumerProperties.putAll(properties);
+        consumerProperties.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        consumerProperties.put("enable.auto.commit", false);
+
+        KafkaConsumer ret = new KafkaConsumer(consumerProperties, new StringDeserializer(), new NotificationValueDeserializer());
+
+        ret.subscribe(Collections.singletonList(topic));
+
+        return ret;
+    }
+
     @VisibleForTesting
-    void sendInternalToProducer(Producer p, NotificationType type, List<String> messages) throws NotificationException {
-        String               topic           = TOPIC_MAP.get(type);
+    void sendInternalToProducer(Producer p, NotificationType type, List<?> messages) throws NotificationException {
+        sendInternalToProducer(p, TOPIC_MAP.get(type), messages, null);
+    }
+
+    private void sendInternalToProducer(Producer p, String topic, List<?> messages, Map<String, String> headers) throws NotificationException {
         List<MessageContext> messageContexts = new ArrayList<>();
+        List<Header>         recordHeaders   = null;
 
-        for (String message : messages) {
-            ProducerRecord record = new ProducerRecord(topic, message);
+        if (headers != null && !headers.isEmpty()) {
+            recordHeaders = new ArrayList<>(headers.size());
+
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                recordHeaders.add(new RecordHeader(header.getKey(), AtlasNotificationBaseMessage.getBytesUtf8(header.getValue())));
+            }
+        }
+
+        for (Object message : messages) {
+            ProducerRecord record = recordHeaders == null ? new ProducerRecord(topic, message) : new ProducerRecord(topic, null, null, null, message, recordHeaders);
 
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Sending message for topic {}: {}", topic, message);
@@ -229,9 +319,15 @@ public class KafkaNotification extends AbstractNotification implements Service {
 
                 consumerProperties.put("enable.auto.commit", autoCommitEnabled);
 
-                this.consumer = new KafkaConsumer(consumerProperties);
+                this.consumer              = new KafkaConsumer(consumerProperties, new StringDeserializer(), new NotificationValueDeserializer());
+                this.consumerCommitManager = AtlasKafkaCommitManager.create(this.consumer, autoCommitEnabled, commitIntervalMs, commitMaxMessages);
 
-                this.consumer.subscribe(Arrays.asList(topic));
+                if (consumerCommitManager != null) {
+                    // commit pending offsets when partitions get revoked
+                    this.consumer.subscribe(Arrays.asList(topic), consumerCommitManager);
+                } else {
+                    this.consumer.subscribe(Arrays.asList(topic));
+                }
             } catch (Exception ee) {
                 LOG.error("Exception in getKafkaConsumer ", ee);
             }
@@ -262,7 +358,7 @@ public class KafkaNotification extends AbstractNotification implements Service {
         LOG.info("==> KafkaNotification.createProducer()");
 
         if (producer == null) {
-            producer = new KafkaProducer(properties);
+            producer = new KafkaProducer(properties, new StringSerializer(), new NotificationValueSerializer());
         }
 
         LOG.info("<== KafkaNotification.createProducer()");
@@ -270,9 +366,9 @@ public class KafkaNotification extends AbstractNotification implements Service {
 
     private class MessageContext {
         private final Future<RecordMetadata> future;
-        private final String                 message;
+        private final Object                 message;
 
-        public MessageContext(Future<RecordMetadata> future, String message) {
+        public MessageContext(Future<RecordMetadata> future, Object message) {
             this.future  = future;
             this.message = message;
         }
@@ -282,7 +378,11 @@ public class KafkaNotification extends AbstractNotification implements Service {
         }
 
         public String getMessage() {
-            return message;
+            if (message instanceof byte[]) {
+                return AtlasNotificationBaseMessage.getStringUtf8(AtlasNotificationBaseMessage.encodeBase64((byte[]) message));
+            }
+
+            return (String) message;
         }
     }
 }
@@ -38,6 +38,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.apache.atlas.AtlasConfiguration.NOTIFICATION_MESSAGE_VERSION;
 import static org.apache.atlas.model.notification.AtlasNotificationBaseMessage.MESSAGE_COMPRESSION_ENABLED;
 import static org.apache.atlas.model.notification.AtlasNotificationBaseMessage.MESSAGE_MAX_LENGTH_BYTES;
 
@@ -67,19 +68,34 @@ public abstract class AbstractNotification implements NotificationInterface {
      */
     private static String currentUser = "";
 
+    /**
+     * Hook notifications are sent in binary envelope when configured message version is 2.0.0 or later.
+     */
+    private final boolean binaryMessagesEnabled;
+
     // ----- Constructors ----------------------------------------------------
 
     public AbstractNotification(Configuration applicationProperties) throws AtlasException {
+        String msgVersion = applicationProperties != null ? applicationProperties.getString(NOTIFICATION_MESSAGE_VERSION.getPropertyName()) : null;
+
+        this.binaryMessagesEnabled = isBinaryMessageVersion(msgVersion);
     }
 
     @VisibleForTesting
     protected AbstractNotification() {
+        this.binaryMessagesEnabled = isBinaryMessageVersion(NOTIFICATION_MESSAGE_VERSION.getString());
     }
 
     // ----- NotificationInterface -------------------------------------------
 
     @Override
     public <T> void send(NotificationType type, List<T> messages) throws NotificationException {
+        if (type == NotificationType.HOOK && binaryMessagesEnabled) {
+            sendBinary(type, messages);
+
+            return;
+        }
+
         List<String> strMessages = new ArrayList<>(messages.size());
 
         for (int index = 0; index < messages.size(); index++) {
@@ -100,6 +116,11 @@ public abstract class AbstractNotification implements NotificationInterface {
     }
 
     // ----- AbstractNotification --------------------------------------------
+
+    public boolean isBinaryMessagesEnabled() {
+        return binaryMessagesEnabled;
+    }
+
     /**
      * Send the given messages.
      *
@@ -110,6 +131,37 @@ public abstract class AbstractNotification implements NotificationInterface {
      */
     protected abstract void sendInternal(NotificationType type, List<String> messages) throws NotificationException;
 
+    /**
+     * Send the given messages in binary envelope; used when message version is 2.0.0 or later.
+     *
+     * @param type      the message type
+     * @param messages  the messages to send
+     *
+     * @throws NotificationException if an error occurs while sending
+     */
+    protected abstract void sendInternalBinary(NotificationType type, List<byte[]> messages) throws NotificationException;
+
+    private <T> void sendBinary(NotificationType type, List<T> messages) throws NotificationException {
+        List<byte[]> binMessages = new ArrayList<>(messages.size());
+
+        for (T message : messages) {
+            createBinaryNotificationMessages(message, binMessages);
+        }
+
+        try {
+            sendInternalBinary(type, binMessages);
+        } catch (NotificationException excp) {
+            // report failed messages as JSON, so that these can be logged and replayed like other failed messages
+            List<String> failedMessages = new ArrayList<>(messages.size());
+
+            for (T message : messages) {
+                failedMessages.add(getMessageJson(message));
+            }
+
+            throw new NotificationException(excp, failedMessages);
+        }
+    }
+
 
     // ----- utility methods -------------------------------------------------
 
@@ -119,6 +171,10 @@ public abstract class AbstractNotification implements NotificationInterface {
         return AtlasType.toV1Json(notificationMsg);
     }
 
+    private static boolean isBinaryMessageVersion(String msgVersion) {
+        return StringUtils.isNotEmpty(msgVersion) && new MessageVersion(msgVersion).compareTo(MessageVersion.VERSION_2) >= 0;
+    }
+
     private static String getHostAddress() {
         if (StringUtils.isEmpty(localHostAddress)) {
             try {
@@ -214,6 +270,19 @@ public abstract class AbstractNotification implements NotificationInterface {
         }
     }
 
+    /**
+     * Create binary messages, in the envelope described in AtlasNotificationBinaryMessage, for the given object.
+     *
+     * @param message     the message in object form
+     * @param msgBytesList list to add the created messages to
+     */
+    public static void createBinaryNotificationMessages(Object message, List<byte[]> msgBytesList) {
+        AtlasNotificationMessage<?> notificationMsg = new AtlasNotificationMessage<>(CURRENT_MESSAGE_VERSION, message, getHostAddress(), getCurrentUser());
+        String                      msgJson         = AtlasType.toV1Json(notificationMsg);
+
+        msgBytesList.addAll(AtlasNotificationBinaryMessage.createMessages(msgJson, getNextMessageId(), AtlasNotificationBinaryMessage.getConfiguredCodec(), MESSAGE_MAX_LENGTH_BYTES));
+    }
+
     private static String getNextMessageId() {
         String nextMsgIdPrefix = msgIdPrefix;
         int    nextMsgIdSuffix = msgIdSuffix.getAndIncrement();
@@ -31,4 +31,12 @@ public abstract class AbstractNotificationConsumer<T> implements NotificationCon
     }
 
     public abstract void commit(TopicPartition partition, long offset);
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
 }
@@ -0,0 +1,242 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary envelope for notification messages, used with message version 2.0.0. Layout of the message:
+ * <pre>
+ *   magic              2 bytes
+ *   format version     1 byte
+ *   codec id           1 byte
+ *   header length      2 bytes - length of the rest of the header
+ *   dictionary id      4 bytes - id of the dictionary used by the codec, 0 when no dictionary is used
+ *   uncompressed size  4 bytes - size of the message JSON, before compression
+ *   split index        4 bytes
+ *   split count        4 bytes
+ *   message id         2 bytes length, followed by UTF-8 bytes
+ *   body               rest of the message - raw compressed message JSON, or a segment of it for split messages
+ * </pre>
+ * Since magic bytes can't appear at the beginning of a UTF-8 JSON string, consumers can receive messages in this format
+ * and JSON messages from the same topic.
+ */
+public class AtlasNotificationBinaryMessage {
+    private static final Logger LOG = LoggerFactory.getLogger(AtlasNotificationBinaryMessage.class);
+
+    public static final byte MAGIC_0        = (byte) 0xA7;
+    public static final byte MAGIC_1        = (byte) 0x1A;
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final int PREAMBLE_LENGTH     = 6; // magic, format version, codec id, header length
+    private static final int FIXED_HEADER_LENGTH = 18; // dictionary id, uncompressed size, split index, split count, message id length
+
+    private static final int MAX_UNCOMPRESSED_LENGTH = AtlasConfiguration.NOTIFICATION_MESSAGE_MAX_UNCOMPRESSED_LENGTH_BYTES.getInt();
+
+    private static final NotificationMessageCodec[] CODECS = new NotificationMessageCodec[] { new NotificationMessageCodec.NoneCodec(),
+                                                                                               new NotificationMessageCodec.GzipCodec(),
+                                                                                               new NotificationMessageCodec.DeflateCodec(loadDictionary()) };
+
+    private final byte   codecId;
+    private final int    dictionaryId;
+    private final int    uncompressedLength;
+    private final int    splitIdx;
+    private final int    splitCount;
+    private final String msgId;
+    private final byte[] body;
+
+    public AtlasNotificationBinaryMessage(byte codecId, int dictionaryId, int uncompressedLength, int splitIdx, int splitCount, String msgId, byte[] body) {
+        this.codecId            = codecId;
+        this.dictionaryId       = dictionaryId;
+        this.uncompressedLength = uncompressedLength;
+        this.splitIdx           = splitIdx;
+        this.splitCount         = splitCount;
+        this.msgId              = msgId;
+        this.body               = body;
+    }
+
+    public byte getCodecId() { return codecId; }
+
+    public int getDictionaryId() { return dictionaryId; }
+
+    public int getUncompressedLength() { return uncompressedLength; }
+
+    public int getSplitIdx() { return splitIdx; }
+
+    public int getSplitCount() { return splitCount; }
+
+    public String getMsgId() { return msgId; }
+
+    public byte[] getBody() { return body; }
+
+    public byte[] toBytes() {
+        byte[]     msgIdBytes   = msgId != null ? AtlasNotificationBaseMessage.getBytesUtf8(msgId) : new byte[0];
+        int        headerLength = FIXED_HEADER_LENGTH + msgIdBytes.length;
+        ByteBuffer buffer       = ByteBuffer.allocate(PREAMBLE_LENGTH + headerLength + body.length);
+
+        buffer.put(MAGIC_0).put(MAGIC_1).put(FORMAT_VERSION).put(codecId).putShort((short) headerLength);
+        buffer.putInt(dictionaryId).putInt(uncompressedLength).putInt(splitIdx).putInt(splitCount);
+        buffer.putShort((short) msgIdBytes.length).put(msgIdBytes);
+        buffer.put(body);
+
+        return buffer.array();
+    }
+
+    public static AtlasNotificationBinaryMessage fromBytes(byte[] bytes) {
+        if (!isBinaryMessage(bytes)) {
+            throw new IllegalArgumentException("not a binary notification message");
+        }
+
+        ByteBuffer buffer        = ByteBuffer.wrap(bytes);
+        byte       formatVersion = buffer.get(2);
+
+        if (formatVersion > FORMAT_VERSION) {
+            throw new IncompatibleVersionException("binary notification message format version " + formatVersion + " is not supported; supported version: " + FORMAT_VERSION);
+        }
+
+        buffer.position(3);
+
+        byte   codecId      = buffer.get();
+        int    headerLength = buffer.getShort() & 0xFFFF;
+        int    headerEnd    = buffer.position() + headerLength;
+        int    dictionaryId = buffer.getInt();
+        int    uncompressed = buffer.getInt();
+        int    splitIdx     = buffer.getInt();
+        int    splitCount   = buffer.getInt();
+
+        // uncompressed size is used to allocate the buffer to uncompress the body; reject before allocating anything
+        if (uncompressed < 0 || uncompressed > MAX_UNCOMPRESSED_LENGTH) {
+            throw new IllegalArgumentException("binary notification message uncompressed size " + uncompressed + " is not in range [0, " + MAX_UNCOMPRESSED_LENGTH + "]");
+        }
+
+        byte[] msgIdBytes   = new byte[buffer.getShort() & 0xFFFF];
+
+        buffer.get(msgIdBytes);
+        buffer.position(headerEnd); // skip header fields added in later format versions
+
+        byte[] body = new byte[buffer.remaining()];
+
+        buffer.get(body);
+
+        return new AtlasNotificationBinaryMessage(codecId, dictionaryId, uncompressed, splitIdx, splitCount, msgIdBytes.length > 0 ? AtlasNotificationBaseMessage.getStringUtf8(msgIdBytes) : null, body);
+    }
+
+    public static boolean isBinaryMessage(byte[] bytes) {
+        return bytes != null && bytes.length > PREAMBLE_LENGTH && bytes[0] == MAGIC_0 && bytes[1] == MAGIC_1;
+    }
+
+    /**
+     * Creates binary messages for the given message JSON; the compressed body is split into multiple messages when
+     * it exceeds maxLength.
+     */
+    public static List<byte[]> createMessages(String msgJson, String msgId, NotificationMessageCodec codec, int maxLength) {
+        byte[]       msgBytes   = AtlasNotificationBaseMessage.getBytesUtf8(msgJson);
+        byte[]       compressed = codec.compress(msgBytes);
+        int          splitCount = Math.max(1, (compressed.length + maxLength - 1) / maxLength);
+        List<byte[]> ret        = new ArrayList<>(splitCount);
+
+        for (int i = 0, offset = 0; i < splitCount; i++, offset += maxLength) {
+            int    length  = Math.min(maxLength, compressed.length - offset);
+            byte[] segment = new byte[length];
+
+            System.arraycopy(compressed, offset, segment, 0, length);
+
+            ret.add(new AtlasNotificationBinaryMessage(codec.getId(), codec.getDictionaryId(), msgBytes.length, i, splitCount, msgId, segment).toBytes());
+        }
+
+        if (splitCount > 1) {
+            LOG.info("Split large message: msgID={}, splitCount={}, uncompressed={} bytes, compressed={} bytes", msgId, splitCount, msgBytes.length, compressed.length);
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return message JSON, from the given body of a complete (i.e. not split) message
+     */
+    public String getMessageJson(byte[] body) {
+        return AtlasNotificationBaseMessage.getStringUtf8(getMessageCodec().uncompress(body, uncompressedLength));
+    }
+
+    /**
+     * @return stream of message JSON, from the given stream of the body - i.e. concatenation of all segments
+     */
+    public InputStream getMessageStream(InputStream body) throws IOException {
+        return getMessageCodec().uncompress(body);
+    }
+
+    public static NotificationMessageCodec getCodec(byte codecId) {
+        if (codecId < 0 || codecId >= CODECS.length) {
+            throw new IllegalArgumentException("unknown notification message codec: " + codecId);
+        }
+
+        return CODECS[codecId];
+    }
+
+    public static NotificationMessageCodec getCodec(String name) {
+        for (NotificationMessageCodec codec : CODECS) {
+            if (StringUtils.equalsIgnoreCase(codec.getName(), name)) {
+                return codec;
+            }
+        }
+
+        throw new IllegalArgumentException("unknown notification message codec: " + name);
+    }
+
+    public static NotificationMessageCodec getConfiguredCodec() {
+        return getCodec(AtlasConfiguration.NOTIFICATION_MESSAGE_CODEC.getString());
+    }
+
+    private NotificationMessageCodec getMessageCodec() {
+        NotificationMessageCodec ret = getCodec(codecId);
+
+        if (ret.getDictionaryId() != dictionaryId) {
+            throw new IllegalStateException("msgID=" + msgId + ": dictionary mismatch - message uses dictionary " + dictionaryId + ", configured dictionary is " + ret.getDictionaryId());
+        }
+
+        return ret;
+    }
+
+    private static byte[] loadDictionary() {
+        String dictionaryPath = AtlasConfiguration.NOTIFICATION_MESSAGE_CODEC_DICTIONARY.getString();
+
+        if (StringUtils.isEmpty(dictionaryPath)) {
+            return null;
+        }
+
+        try {
+            return Files.readAllBytes(Paths.get(dictionaryPath));
+        } catch (IOException excp) {
+            LOG.error("failed to read notification message dictionary from {}; messages will be compressed without dictionary", dictionaryPath, excp);
+
+            return null;
+        }
+    }
+}
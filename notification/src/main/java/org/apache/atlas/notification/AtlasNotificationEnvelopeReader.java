@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
+import org.apache.atlas.model.notification.AtlasNotificationStringMessage;
+import org.apache.atlas.model.notification.MessageVersion;
+import org.apache.atlas.utils.AtlasJson;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the envelope of a notification message - i.e. version, compression and split details - in a single pass over
+ * the message JSON, using a streaming parser. When the payload is not compressed or split, it is bound directly to the
+ * message type; otherwise the encoded payload is retained as a string.
+ */
+public class AtlasNotificationEnvelopeReader<T> {
+    private final TypeReference<T> messageType;
+
+    public AtlasNotificationEnvelopeReader(TypeReference<T> messageType) {
+        this.messageType = messageType;
+    }
+
+    /**
+     * @return the envelope; version will be null for legacy messages, which are not wrapped in an envelope
+     */
+    public Envelope<T> read(String json) throws IOException {
+        try (JsonParser parser = AtlasJson.createV1JsonParser(json)) {
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads the envelope from the given stream of UTF-8 encoded JSON; the stream is not closed.
+     */
+    public Envelope<T> read(InputStream json) throws IOException {
+        try (JsonParser parser = AtlasJson.createV1JsonParser(json)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+            return read(parser);
+        }
+    }
+
+    private Envelope<T> read(JsonParser parser) throws IOException {
+        Envelope<T> ret = new Envelope<>();
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return ret;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String    fieldName = parser.getCurrentName();
+            JsonToken token     = parser.nextToken();
+
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (fieldName) {
+                case "version":
+                    ret.setVersion(parser.readValueAs(MessageVersion.class));
+                break;
+
+                case "msgId":
+                    ret.setMsgId(parser.getValueAsString());
+                break;
+
+                case "msgCompressionKind":
+                    ret.setMsgCompressed(AtlasNotificationBaseMessage.CompressionKind.valueOf(parser.getValueAsString()));
+                break;
+
+                case "msgSplitIdx":
+                    ret.setMsgSplitIdx(parser.getValueAsInt());
+                break;
+
+                case "msgSplitCount":
+                    ret.setMsgSplitCount(parser.getValueAsInt());
+                break;
+
+                case "message":
+                    if (token == JsonToken.VALUE_STRING) { // compressed or split message
+                        ret.setEncodedMessage(parser.getText());
+                    } else {
+                        ret.setMessage(parser.<T>readValueAs(messageType));
+                    }
+                break;
+
+                default:
+                    parser.skipChildren();
+                break;
+            }
+        }
+
+        return ret;
+    }
+
+    public static class Envelope<T> extends AtlasNotificationBaseMessage {
+        private T      message;
+        private String encodedMessage;
+
+        public T getMessage() {
+            return message;
+        }
+
+        public void setMessage(T message) {
+            this.message = message;
+        }
+
+        public String getEncodedMessage() {
+            return encodedMessage;
+        }
+
+        public void setEncodedMessage(String encodedMessage) {
+            this.encodedMessage = encodedMessage;
+        }
+
+        public AtlasNotificationStringMessage toStringMessage() {
+            AtlasNotificationStringMessage ret = new AtlasNotificationStringMessage(encodedMessage, getMsgId(), getMsgCompressionKind(), getMsgSplitIdx(), getMsgSplitCount());
+
+            ret.setVersion(getVersion());
+
+            return ret;
+        }
+    }
+}
@@ -24,17 +24,20 @@ import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
 import org.apache.atlas.model.notification.AtlasNotificationBaseMessage.CompressionKind;
 import org.apache.atlas.model.notification.AtlasNotificationMessage;
 import org.apache.atlas.model.notification.AtlasNotificationStringMessage;
+import org.apache.atlas.notification.AtlasNotificationEnvelopeReader.Envelope;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.model.notification.MessageVersion;
+import org.apache.commons.codec.binary.Base64InputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
 import static org.apache.atlas.AtlasConfiguration.NOTIFICATION_SPLIT_MESSAGE_BUFFER_PURGE_INTERVAL_SECONDS;
 import static org.apache.atlas.AtlasConfiguration.NOTIFICATION_SPLIT_MESSAGE_SEGMENTS_WAIT_TIME_SECONDS;
@@ -54,14 +57,15 @@ public abstract class AtlasNotificationMessageDeserializer<T> implements Message
     private final TypeReference<AtlasNotificationMessage<T>> notificationMessageType;
     private final MessageVersion                             expectedVersion;
     private final Logger                                     notificationLogger;
+    private final AtlasNotificationEnvelopeReader<T>         envelopeReader;
 
 
-    private final Map<String, SplitMessageAggregator> splitMsgBuffer = new HashMap<>();
-    private final long                                splitMessageBufferPurgeIntervalMs;
-    private final long                                splitMessageSegmentsWaitTimeMs;
-    private long                                      splitMessagesLastPurgeTime    = System.currentTimeMillis();
-    private final AtomicLong                          messageCountTotal             = new AtomicLong(0);
-    private final AtomicLong                          messageCountSinceLastInterval = new AtomicLong(0);
+    private final SplitMessageBuffer splitMsgBuffer;
+    private final long               splitMessageBufferPurgeIntervalMs;
+    private final long               splitMessageSegmentsWaitTimeMs;
+    private long                     splitMessagesLastPurgeTime    = System.currentTimeMillis();
+    private final AtomicLong         messageCountTotal             = new AtomicLong(0);
+    private final AtomicLong         messageCountSinceLastInterval = new AtomicLong(0);
     // ----- Constructors ----------------------------------------------------
 
     /**
@@ -88,8 +92,10 @@ public abstract class AtlasNotificationMessageDeserializer<T> implements Message
         this.notificationMessageType           = notificationMessageType;
         this.expectedVersion                   = expectedVersion;
         this.notificationLogger                = notificationLogger;
+        this.envelopeReader                    = new AtlasNotificationEnvelopeReader<>(messageType);
         this.splitMessageSegmentsWaitTimeMs    = splitMessageSegmentsWaitTimeMs;
         this.splitMessageBufferPurgeIntervalMs = splitMessageBufferPurgeIntervalMs;
+        this.splitMsgBuffer                    = new SplitMessageBuffer();
     }
 
     public TypeReference<T> getMessageType() {
@@ -100,6 +106,10 @@ public abstract class AtlasNotificationMessageDeserializer<T> implements Message
         return notificationMessageType;
     }
 
+    public SplitMessageBuffer getSplitMessageBuffer() {
+        return splitMsgBuffer;
+    }
+
     // ----- MessageDeserializer ---------------------------------------------
     @Override
     public T deserialize(String messageJson) {
@@ -108,15 +118,17 @@ public abstract class AtlasNotificationMessageDeserializer<T> implements Message
         messageCountTotal.incrementAndGet();
         messageCountSinceLastInterval.incrementAndGet();
 
-        AtlasNotificationBaseMessage msg = AtlasType.fromV1Json(messageJson, AtlasNotificationBaseMessage.class);
+        Envelope<T> msg = readEnvelope(messageJson);
 
-        if (msg == null || msg.getVersion() == null) { // older style messages not wrapped with AtlasNotificationMessage
+        if (msg == null) {
+            ret = null;
+        } else if (msg.getVersion() == null) { // older style messages not wrapped with AtlasNotificationMessage
             ret = AtlasType.fromV1Json(messageJson, messageType);
         } else  {
             String msgJson = messageJson;
 
             if (msg.getMsgSplitCount() > 1) { // multi-part message
-                AtlasNotificationStringMessage splitMsg = AtlasType.fromV1Json(msgJson, AtlasNotificationStringMessage.class);
+                AtlasNotificationStringMessage splitMsg = msg.toStringMessage();
 
                 checkVersion(splitMsg, msgJson);
 
@@ -127,156 +139,166 @@ public abstract class AtlasNotificationMessageDeserializer<T> implements Message
 
                     msg = null;
                 } else {
-                    final int splitIdx   = splitMsg.getMsgSplitIdx();
-                    final int splitCount = splitMsg.getMsgSplitCount();
-
-                    final SplitMessageAggregator splitMsgs;
-
-                    if (splitIdx == 0) {
-                        splitMsgs = new SplitMessageAggregator(splitMsg);
-
-                        splitMsgBuffer.put(splitMsgs.getMsgId(), splitMsgs);
-                    } else {
-                        splitMsgs = splitMsgBuffer.get(msgId);
+                    final int                    splitIdx   = splitMsg.getMsgSplitIdx();
+                    final int                    splitCount = splitMsg.getMsgSplitCount();
+                    final SplitMessageAggregator splitMsgs  = splitMsgBuffer.add(msgId, splitIdx, splitCount, AtlasNotificationBaseMessage.getBytesUtf8(splitMsg.getMessage()));
+
+                    if (splitMsgs != null) { // last message
+                        msgJson = "msgID=" + msgId;
+                        msg     = readSplitMessage(splitMsgs, CompressionKind.GZIP.equals(splitMsg.getMsgCompressionKind()));
+                    } else { // more messages to arrive, or an invalid segment
+                        msg = null;
                     }
+                }
+            }
 
-                    if (splitMsgs == null) {
-                        LOG.error("Received msgID={}: {} of {}, but first message didn't arrive. Ignoring message", msgId, splitIdx + 1, splitCount);
+            if (msg != null && CompressionKind.GZIP.equals(msg.getMsgCompressionKind())) {
+                byte[] encodedBytes = AtlasNotificationBaseMessage.getBytesUtf8(msg.getEncodedMessage());
+                byte[] bytes        = AtlasNotificationBaseMessage.decodeBase64AndGzipUncompress(encodedBytes);
 
-                        msg = null;
-                    } else if (splitMsgs.getTotalSplitCount() <= splitIdx) {
-                        LOG.error("Received msgID={}: {} of {} - out of bounds. Ignoring message", msgId, splitIdx + 1, splitCount);
+                msgJson = AtlasNotificationBaseMessage.getStringUtf8(bytes);
 
-                        msg = null;
-                    } else {
-                        LOG.info("Received msgID={}: {} of {}", msgId, splitIdx + 1, splitCount);
+                LOG.info("Received msgID={}: compressed={} bytes, uncompressed={} bytes", msg.getMsgId(), encodedBytes.length, bytes.length);
 
-                        boolean isReady = splitMsgs.add(splitMsg);
+                msg = readEnvelope(msgJson);
+            }
 
-                        if (isReady) { // last message
-                            splitMsgBuffer.remove(msgId);
+            if (msg != null && msg.getVersion() != null) {
+                checkVersion(msg, msgJson);
 
-                            boolean isValidMessage = true;
+                ret = msg.getMessage();
+            } else {
+                ret = null;
+            }
+        }
 
-                            StringBuilder sb = new StringBuilder();
 
-                            for (int i = 0; i < splitMsgs.getTotalSplitCount(); i++) {
-                                splitMsg = splitMsgs.get(i);
+        purgeStaleMessagesIfDue();
 
-                                if (splitMsg == null) {
-                                    LOG.warn("MsgID={}: message {} of {} is missing. Ignoring message", msgId, i + 1, splitCount);
+        return ret;
+    }
 
-                                    isValidMessage = false;
+    /**
+     * Get a message of type T from the given message bytes, which can either be in binary envelope (see
+     * AtlasNotificationBinaryMessage) or be UTF-8 bytes of a JSON message.
+     */
+    public T deserialize(byte[] messageBytes) {
+        if (!AtlasNotificationBinaryMessage.isBinaryMessage(messageBytes)) {
+            return deserialize(AtlasNotificationBaseMessage.getStringUtf8(messageBytes));
+        }
 
-                                    break;
-                                }
+        final T ret;
 
-                                sb.append(splitMsg.getMessage());
-                            }
+        messageCountTotal.incrementAndGet();
+        messageCountSinceLastInterval.incrementAndGet();
 
-                            if (isValidMessage) {
-                                msgJson = sb.toString();
+        final AtlasNotificationBinaryMessage msg;
 
-                                if (CompressionKind.GZIP.equals(splitMsg.getMsgCompressionKind())) {
-                                    byte[] encodedBytes = AtlasNotificationBaseMessage.getBytesUtf8(msgJson);
-                                    byte[] bytes        = AtlasNotificationBaseMessage.decodeBase64AndGzipUncompress(encodedBytes);
+        try {
+            msg = AtlasNotificationBinaryMessage.fromBytes(messageBytes);
+        } catch (IllegalArgumentException excp) {
+            LOG.error("Received invalid binary message of {} bytes. Ignoring message", messageBytes.length, excp);
 
-                                    msgJson = AtlasNotificationBaseMessage.getStringUtf8(bytes);
+            return null;
+        }
 
-                                    LOG.info("Received msgID={}: splitCount={}, compressed={} bytes, uncompressed={} bytes", msgId, splitCount, encodedBytes.length, bytes.length);
-                                } else {
-                                    byte[] encodedBytes = AtlasNotificationBaseMessage.getBytesUtf8(msgJson);
-                                    byte[] bytes        = AtlasNotificationBaseMessage.decodeBase64(encodedBytes);
+        if (msg.getSplitCount() > 1) {
+            String msgId = msg.getMsgId();
 
-                                    msgJson = AtlasNotificationBaseMessage.getStringUtf8(bytes);
+            if (StringUtils.isEmpty(msgId)) {
+                LOG.error("Received multi-part message with no message ID. Ignoring message");
 
-                                    LOG.info("Received msgID={}: splitCount={}, length={} bytes", msgId, splitCount, bytes.length);
-                                }
+                ret = null;
+            } else {
+                SplitMessageAggregator splitMsgs = splitMsgBuffer.add(msgId, msg.getSplitIdx(), msg.getSplitCount(), msg.getBody());
 
-                                msg = AtlasType.fromV1Json(msgJson, AtlasNotificationBaseMessage.class);
-                            } else {
-                                msg = null;
-                            }
-                        } else { // more messages to arrive
-                            msg = null;
-                        }
-                    }
-                }
+                ret = splitMsgs != null ? readBinaryMessage(msg, splitMsgs) : null;
             }
+        } else {
+            ret = readBinaryMessage(msg, null);
+        }
 
-            if (msg != null) {
-                if (CompressionKind.GZIP.equals(msg.getMsgCompressionKind())) {
-                    AtlasNotificationStringMessage compressedMsg = AtlasType.fromV1Json(msgJson, AtlasNotificationStringMessage.class);
-
-                    byte[] encodedBytes = AtlasNotificationBaseMessage.getBytesUtf8(compressedMsg.getMessage());
-                    byte[] bytes        = AtlasNotificationBaseMessage.decodeBase64AndGzipUncompress(encodedBytes);
-
-                    msgJson = AtlasNotificationBaseMessage.getStringUtf8(bytes);
-
-                    LOG.info("Received msgID={}: compressed={} bytes, uncompressed={} bytes", compressedMsg.getMsgId(), encodedBytes.length, bytes.length);
-                }
-
-                AtlasNotificationMessage<T> atlasNotificationMessage = AtlasType.fromV1Json(msgJson, notificationMessageType);
+        purgeStaleMessagesIfDue();
 
-                checkVersion(atlasNotificationMessage, msgJson);
+        return ret;
+    }
 
-                ret = atlasNotificationMessage.getMessage();
-            } else {
-                ret = null;
-            }
-        }
+    @VisibleForTesting
+    static void purgeStaleMessages(Map<String, SplitMessageAggregator> splitMsgBuffer, long now, long maxWaitTime) {
+        SplitMessageBuffer.purgeStaleMessages(splitMsgBuffer, now, maxWaitTime);
+    }
 
+    // ----- helper methods --------------------------------------------------
 
+    private void purgeStaleMessagesIfDue() {
         long now                = System.currentTimeMillis();
         long timeSinceLastPurge = now - splitMessagesLastPurgeTime;
 
         if(timeSinceLastPurge >= splitMessageBufferPurgeIntervalMs) {
-            purgeStaleMessages(splitMsgBuffer, now, splitMessageSegmentsWaitTimeMs);
+            splitMsgBuffer.purgeStaleMessages(now, splitMessageSegmentsWaitTimeMs);
 
-            LOG.info("Notification processing stats: total={}, sinceLastStatsReport={}", messageCountTotal.get(), messageCountSinceLastInterval.getAndSet(0));
+            LOG.info("Notification processing stats: total={}, sinceLastStatsReport={}, splitMessages: open={}, memoryBytes={}, spilledBytes={}, spilled={}, evicted={}",
+                     messageCountTotal.get(), messageCountSinceLastInterval.getAndSet(0), splitMsgBuffer.getOpenMessageCount(),
+                     splitMsgBuffer.getMemoryBytes(), splitMsgBuffer.getSpilledBytes(), splitMsgBuffer.getSpilledCount(), splitMsgBuffer.getEvictedCount());
 
             splitMessagesLastPurgeTime = now;
         }
-
-        return ret;
     }
 
-    @VisibleForTesting
-    static void purgeStaleMessages(Map<String, SplitMessageAggregator> splitMsgBuffer, long now, long maxWaitTime) {
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("==> purgeStaleMessages(bufferedMessageCount=" + splitMsgBuffer.size() + ")");
+    // segments of split string messages are base64 encoded; decode and uncompress while reading the envelope
+    private Envelope<T> readSplitMessage(SplitMessageAggregator splitMsgs, boolean isCompressed) {
+        try (InputStream encoded = splitMsgs.openStream();
+             InputStream decoded = new Base64InputStream(encoded);
+             InputStream json    = isCompressed ? new GZIPInputStream(decoded) : decoded) {
+            Envelope<T> ret = envelopeReader.read(json);
+
+            LOG.info("Received msgID={}: splitCount={}, compressed={}", splitMsgs.getMsgId(), splitMsgs.getTotalSplitCount(), isCompressed);
+
+            return ret;
+        } catch (IOException excp) {
+            LOG.error("Failed to read multi-part message msgID={}. Ignoring message", splitMsgs.getMsgId(), excp);
+
+            return null;
+        } finally {
+            splitMsgs.close();
         }
+    }
 
-        List<SplitMessageAggregator> evictionList = null;
+    private T readBinaryMessage(AtlasNotificationBinaryMessage msg, SplitMessageAggregator splitMsgs) {
+        try (InputStream body = splitMsgs != null ? splitMsgs.openStream() : new ByteArrayInputStream(msg.getBody());
+             InputStream json = msg.getMessageStream(body)) {
+            Envelope<T> envelope = envelopeReader.read(json);
 
-        for (SplitMessageAggregator aggregrator : splitMsgBuffer.values()) {
-            long waitTime = now - aggregrator.getFirstSplitTimestamp();
+            if (envelope.getVersion() == null) {
+                LOG.error("msgID={}: binary message has no version. Ignoring message", msg.getMsgId());
 
-            if (waitTime < maxWaitTime) {
-                continue;
+                return null;
             }
 
-            if(evictionList == null) {
-                evictionList = new ArrayList<>();
-            }
+            checkVersion(envelope, "msgID=" + msg.getMsgId());
 
-             evictionList.add(aggregrator);
-        }
+            return envelope.getMessage();
+        } catch (IOException excp) {
+            LOG.error("Failed to read binary message msgID={}. Ignoring message", msg.getMsgId(), excp);
 
-        if(evictionList != null) {
-            for (SplitMessageAggregator aggregrator : evictionList) {
-                LOG.error("evicting notification msgID={}, totalSplitCount={}, receivedSplitCount={}", aggregrator.getMsgId(), aggregrator.getTotalSplitCount(), aggregrator.getReceivedSplitCount());
-                splitMsgBuffer.remove(aggregrator.getMsgId());
+            return null;
+        } finally {
+            if (splitMsgs != null) {
+                splitMsgs.close();
             }
         }
+    }
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("<== purgeStaleMessages(bufferedMessageCount=" + splitMsgBuffer.size() + ")");
+    private Envelope<T> readEnvelope(String json) {
+        try {
+            return envelopeReader.read(json);
+        } catch (IOException excp) {
+            LOG.error("Failed to parse notification message. Ignoring message: {}", json, excp);
+
+            return null;
         }
     }
 
-    // ----- helper methods --------------------------------------------------
-
     /**
      * Check the message version against the expected version.
      *
@@ -54,6 +54,14 @@ public interface NotificationConsumer<T> {
      */
     List<AtlasKafkaMessage<T>> receive(long timeoutMilliSeconds);
 
+    /**
+     * Suspend fetching from the partitions currently assigned to this consumer. {@link #receive()} can still be called
+     * while paused, to keep the consumer alive, and will not return messages from the paused partitions.
+     */
+    void pause();
 
-
+    /**
+     * Resume fetching from the partitions suspended by {@link #pause()}.
+     */
+    void resume();
 }
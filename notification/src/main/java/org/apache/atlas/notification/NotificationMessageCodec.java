@@ -0,0 +1,285 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses the body of notification messages sent in binary envelope. The id of the codec is recorded in the message
+ * header, so that the consumer can pick the same codec to uncompress the body.
+ */
+public interface NotificationMessageCodec {
+    byte CODEC_ID_NONE    = 0;
+    byte CODEC_ID_GZIP    = 1;
+    byte CODEC_ID_DEFLATE = 2;
+
+    byte getId();
+
+    String getName();
+
+    /**
+     * @return id of the dictionary used by this codec, 0 if no dictionary is used
+     */
+    int getDictionaryId();
+
+    byte[] compress(byte[] bytes);
+
+    byte[] uncompress(byte[] bytes, int uncompressedLength);
+
+    /**
+     * @return stream of uncompressed bytes read from the given stream of compressed bytes
+     */
+    InputStream uncompress(InputStream compressed) throws IOException;
+
+
+    class NoneCodec implements NotificationMessageCodec {
+        @Override
+        public byte getId() { return CODEC_ID_NONE; }
+
+        @Override
+        public String getName() { return "none"; }
+
+        @Override
+        public int getDictionaryId() { return 0; }
+
+        @Override
+        public byte[] compress(byte[] bytes) { return bytes; }
+
+        @Override
+        public byte[] uncompress(byte[] bytes, int uncompressedLength) { return bytes; }
+
+        @Override
+        public InputStream uncompress(InputStream compressed) { return compressed; }
+    }
+
+    class GzipCodec implements NotificationMessageCodec {
+        private static final int BUFFER_SIZE = 8 * 1024;
+
+        @Override
+        public byte getId() { return CODEC_ID_GZIP; }
+
+        @Override
+        public String getName() { return "gzip"; }
+
+        @Override
+        public int getDictionaryId() { return 0; }
+
+        @Override
+        public byte[] compress(byte[] bytes) {
+            return AtlasNotificationBaseMessage.gzipCompress(bytes);
+        }
+
+        @Override
+        public byte[] uncompress(byte[] bytes, int uncompressedLength) {
+            return AtlasNotificationBaseMessage.gzipUncompress(bytes);
+        }
+
+        @Override
+        public InputStream uncompress(InputStream compressed) throws IOException {
+            return new GZIPInputStream(compressed, BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Deflate codec, with an optional preset dictionary shared by producers and consumers. A dictionary containing
+     * frequently used type and attribute names improves compression of small messages considerably.
+     */
+    class DeflateCodec implements NotificationMessageCodec {
+        private static final int BUFFER_SIZE = 8 * 1024;
+
+        private final byte[] dictionary;
+        private final int    dictionaryId;
+
+        public DeflateCodec() {
+            this(null);
+        }
+
+        public DeflateCodec(byte[] dictionary) {
+            this.dictionary   = (dictionary != null && dictionary.length > 0) ? dictionary : null;
+            this.dictionaryId = this.dictionary != null ? getDictionaryId(this.dictionary) : 0;
+        }
+
+        @Override
+        public byte getId() { return CODEC_ID_DEFLATE; }
+
+        @Override
+        public String getName() { return "deflate"; }
+
+        @Override
+        public int getDictionaryId() { return dictionaryId; }
+
+        @Override
+        public byte[] compress(byte[] bytes) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+            try {
+                if (dictionary != null) {
+                    deflater.setDictionary(dictionary);
+                }
+
+                deflater.setInput(bytes);
+                deflater.finish();
+
+                ByteArrayOutputStream out    = new ByteArrayOutputStream(Math.max(bytes.length / 4, 64));
+                byte[]                buffer = new byte[BUFFER_SIZE];
+
+                while (!deflater.finished()) {
+                    int len = deflater.deflate(buffer);
+
+                    out.write(buffer, 0, len);
+                }
+
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte[] uncompress(byte[] bytes, int uncompressedLength) {
+            Inflater inflater = new Inflater();
+
+            try {
+                byte[] ret    = new byte[uncompressedLength];
+                int    offset = 0;
+
+                inflater.setInput(bytes);
+
+                while (offset < ret.length) {
+                    int len = inflater.inflate(ret, offset, ret.length - offset);
+
+                    if (len == 0) {
+                        if (inflater.needsDictionary()) {
+                            if (dictionary == null) {
+                                throw new IllegalStateException("message was compressed with a dictionary, but no dictionary is configured");
+                            }
+
+                            inflater.setDictionary(dictionary);
+                        } else if (inflater.finished() || inflater.needsInput()) {
+                            break;
+                        }
+                    }
+
+                    offset += len;
+                }
+
+                if (offset != ret.length) {
+                    throw new IllegalStateException("uncompressed length mismatch: expected " + ret.length + " bytes, found " + offset + " bytes");
+                }
+
+                return ret;
+            } catch (DataFormatException excp) {
+                throw new IllegalStateException("failed to uncompress message", excp);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        @Override
+        public InputStream uncompress(InputStream compressed) {
+            return new InflaterStream(compressed, dictionary);
+        }
+
+        private static int getDictionaryId(byte[] dictionary) {
+            CRC32 crc = new CRC32();
+
+            crc.update(dictionary);
+
+            return (int) crc.getValue();
+        }
+
+        /**
+         * InflaterInputStream stops at the point where a preset dictionary is needed; this stream sets the
+         * dictionary and continues.
+         */
+        private static class InflaterStream extends InputStream {
+            private final InputStream in;
+            private final byte[]      dictionary;
+            private final Inflater    inflater = new Inflater();
+            private final byte[]      buffer   = new byte[BUFFER_SIZE];
+
+            InflaterStream(InputStream in, byte[] dictionary) {
+                this.in         = in;
+                this.dictionary = dictionary;
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                int    n = read(b, 0, 1);
+
+                return n == -1 ? -1 : (b[0] & 0xFF);
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+
+                try {
+                    while (true) {
+                        int n = inflater.inflate(b, off, len);
+
+                        if (n > 0) {
+                            return n;
+                        }
+
+                        if (inflater.finished()) {
+                            return -1;
+                        }
+
+                        if (inflater.needsDictionary()) {
+                            if (dictionary == null) {
+                                throw new IOException("message was compressed with a dictionary, but no dictionary is configured");
+                            }
+
+                            inflater.setDictionary(dictionary);
+                        } else if (inflater.needsInput()) {
+                            int count = in.read(buffer, 0, buffer.length);
+
+                            if (count == -1) {
+                                throw new EOFException("unexpected end of compressed message");
+                            }
+
+                            inflater.setInput(buffer, 0, count);
+                        }
+                    }
+                } catch (DataFormatException excp) {
+                    throw new IOException("failed to uncompress message", excp);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                inflater.end();
+                in.close();
+            }
+        }
+    }
+}
@@ -18,34 +18,61 @@
 package org.apache.atlas.notification;
 
 
+import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
 import org.apache.atlas.model.notification.AtlasNotificationStringMessage;
 
-public class SplitMessageAggregator {
-    private final String                           msgId;
-    private final AtlasNotificationStringMessage[] splitMessagesBuffer;
-    private final long                             firstSplitTimestamp;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * Collects segments of a split message. Segments are held in memory until spill() is called, which moves them to a
+ * temporary file; segments are read back one at a time by the stream returned from openStream().
+ */
+public class SplitMessageAggregator implements Closeable {
+    private final String           msgId;
+    private final byte[][]         segments;
+    private final long[]           spillOffsets;
+    private final int[]            spillLengths;
+    private final long             firstSplitTimestamp;
+    private       File             spillFile;
+    private       RandomAccessFile spillStore;
+    private       long             memoryBytes;
+    private       long             spilledBytes;
 
     public SplitMessageAggregator(AtlasNotificationStringMessage message) {
-        msgId               = message.getMsgId();
-        splitMessagesBuffer = new AtlasNotificationStringMessage[message.getMsgSplitCount()];
-        firstSplitTimestamp = System.currentTimeMillis();
+        this(message.getMsgId(), message.getMsgSplitCount());
 
         add(message);
     }
 
+    public SplitMessageAggregator(String msgId, int splitCount) {
+        this.msgId               = msgId;
+        this.segments            = new byte[splitCount][];
+        this.spillOffsets        = new long[splitCount];
+        this.spillLengths        = new int[splitCount];
+        this.firstSplitTimestamp = System.currentTimeMillis();
+
+        Arrays.fill(spillOffsets, -1);
+    }
+
     public String getMsgId() {
         return msgId;
     }
 
     public long getTotalSplitCount() {
-        return splitMessagesBuffer.length;
+        return segments.length;
     }
 
     public long getReceivedSplitCount() {
         long ret = 0;
 
-        for (AtlasNotificationStringMessage split : splitMessagesBuffer) {
-            if (split != null) {
+        for (int i = 0; i < segments.length; i++) {
+            if (isReceived(i)) {
                 ret++;
             }
         }
@@ -57,15 +84,168 @@ public class SplitMessageAggregator {
         return firstSplitTimestamp;
     }
 
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    public boolean isComplete() {
+        return getReceivedSplitCount() == segments.length;
+    }
+
     public boolean add(AtlasNotificationStringMessage message) {
-        if (message.getMsgSplitIdx() < splitMessagesBuffer.length) {
-            splitMessagesBuffer[message.getMsgSplitIdx()] = message;
+        return add(message.getMsgSplitIdx(), AtlasNotificationBaseMessage.getBytesUtf8(message.getMessage()));
+    }
+
+    /**
+     * @return true if the given segment is the last segment of the message
+     */
+    public boolean add(int splitIdx, byte[] segment) {
+        if (splitIdx < segments.length) {
+            if (segments[splitIdx] != null) { // redelivered segment
+                memoryBytes -= segments[splitIdx].length;
+            } else if (spillOffsets[splitIdx] != -1) {
+                spilledBytes -= spillLengths[splitIdx];
+
+                spillOffsets[splitIdx] = -1;
+            }
+
+            segments[splitIdx] = segment;
+            memoryBytes       += segment.length;
+        }
+
+        return splitIdx == (segments.length - 1);
+    }
+
+    /**
+     * Moves segments held in memory to the spill file, which is created in the given directory if necessary.
+     *
+     * @return number of bytes moved
+     */
+    public long spill(File spillDir) throws IOException {
+        if (spillStore == null) {
+            spillFile  = File.createTempFile("atlas-split-msg-", ".tmp", spillDir);
+            spillStore = new RandomAccessFile(spillFile, "rw");
+        }
+
+        long ret = 0;
+
+        for (int i = 0; i < segments.length; i++) {
+            byte[] segment = segments[i];
+
+            if (segment == null) {
+                continue;
+            }
+
+            long offset = spillStore.length();
+
+            spillStore.seek(offset);
+            spillStore.write(segment);
+
+            spillOffsets[i] = offset;
+            spillLengths[i] = segment.length;
+            segments[i]     = null;
+            ret            += segment.length;
+        }
+
+        memoryBytes  -= ret;
+        spilledBytes += ret;
+
+        return ret;
+    }
+
+    /**
+     * @return stream of the message, i.e. concatenation of all segments
+     */
+    public InputStream openStream() {
+        return new SegmentsInputStream();
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = null;
+        }
+
+        memoryBytes  = 0;
+        spilledBytes = 0;
+
+        if (spillStore != null) {
+            try {
+                spillStore.close();
+            } catch (IOException excp) {
+                // ignore
+            }
+
+            spillStore = null;
+        }
+
+        if (spillFile != null) {
+            spillFile.delete();
+
+            spillFile = null;
+        }
+    }
+
+    private boolean isReceived(int splitIdx) {
+        return segments[splitIdx] != null || spillOffsets[splitIdx] != -1;
+    }
+
+    private byte[] getSegment(int splitIdx) throws IOException {
+        byte[] ret = segments[splitIdx];
+
+        if (ret == null) {
+            if (spillOffsets[splitIdx] == -1 || spillStore == null) {
+                throw new IOException("msgID=" + msgId + ": segment " + (splitIdx + 1) + " of " + segments.length + " is missing");
+            }
+
+            ret = new byte[spillLengths[splitIdx]];
+
+            spillStore.seek(spillOffsets[splitIdx]);
+            spillStore.readFully(ret);
         }
 
-        return message.getMsgSplitIdx() == (message.getMsgSplitCount() - 1);
+        return ret;
     }
 
-    public AtlasNotificationStringMessage get(int i) {
-        return splitMessagesBuffer[i];
+    private class SegmentsInputStream extends InputStream {
+        private int         nextSplitIdx = 0;
+        private InputStream current      = null;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int    n = read(b, 0, 1);
+
+            return n == -1 ? -1 : (b[0] & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            while (true) {
+                if (current == null) {
+                    if (nextSplitIdx >= segments.length) {
+                        return -1;
+                    }
+
+                    current = new ByteArrayInputStream(getSegment(nextSplitIdx++));
+                }
+
+                int n = current.read(b, off, len);
+
+                if (n > 0) {
+                    return n;
+                }
+
+                current = null;
+            }
+        }
     }
 }
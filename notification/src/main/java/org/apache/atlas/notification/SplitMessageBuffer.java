@@ -0,0 +1,292 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.atlas.AtlasConfiguration.NOTIFICATION_SPLIT_MESSAGE_BUFFER_MAX_MEMORY_BYTES;
+import static org.apache.atlas.AtlasConfiguration.NOTIFICATION_SPLIT_MESSAGE_BUFFER_MAX_SPILL_BYTES;
+import static org.apache.atlas.AtlasConfiguration.NOTIFICATION_SPLIT_MESSAGE_BUFFER_SPILL_DIR;
+
+/**
+ * Buffer for segments of split messages, until all segments of a message are received. Memory used by the buffer is
+ * bounded: when segments in memory exceed the budget, segments of the oldest messages are spilled to temporary files;
+ * when spilled segments exceed their budget as well, the oldest messages are evicted.
+ *
+ * Not thread-safe: expected to be used by a single consumer thread. Metrics can be read from any thread.
+ */
+public class SplitMessageBuffer {
+    private static final Logger LOG = LoggerFactory.getLogger(SplitMessageBuffer.class);
+
+    private final Map<String, SplitMessageAggregator> aggregators = new LinkedHashMap<>();
+    private final long                                maxMemoryBytes;
+    private final long                                maxSpillBytes;
+    private final File                                spillDir;
+    private volatile long                             memoryBytes   = 0;
+    private volatile long                             spilledBytes  = 0;
+    private volatile long                             spilledCount  = 0;
+    private volatile long                             evictedCount  = 0;
+    private volatile long                             bufferedCount = 0;
+
+    public SplitMessageBuffer() {
+        this(NOTIFICATION_SPLIT_MESSAGE_BUFFER_MAX_MEMORY_BYTES.getLong(),
+             NOTIFICATION_SPLIT_MESSAGE_BUFFER_MAX_SPILL_BYTES.getLong(),
+             getSpillDir(NOTIFICATION_SPLIT_MESSAGE_BUFFER_SPILL_DIR.getString()));
+    }
+
+    public SplitMessageBuffer(long maxMemoryBytes, long maxSpillBytes, File spillDir) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxSpillBytes  = maxSpillBytes;
+        this.spillDir       = spillDir;
+    }
+
+    /**
+     * Adds the given segment to the buffer.
+     *
+     * @return aggregator with all segments of the message, after the last segment is added; null otherwise. Caller
+     *         should close the returned aggregator after reading the message.
+     */
+    public SplitMessageAggregator add(String msgId, int splitIdx, int splitCount, byte[] segment) {
+        final SplitMessageAggregator aggregator;
+
+        if (splitIdx == 0) {
+            aggregator = new SplitMessageAggregator(msgId, splitCount);
+
+            SplitMessageAggregator existing = aggregators.put(msgId, aggregator);
+
+            if (existing != null) { // first segment redelivered; restart the message
+                release(existing);
+
+                existing.close();
+            }
+        } else {
+            aggregator = aggregators.get(msgId);
+        }
+
+        if (aggregator == null) {
+            LOG.error("Received msgID={}: {} of {}, but first message didn't arrive. Ignoring message", msgId, splitIdx + 1, splitCount);
+
+            return null;
+        }
+
+        if (splitIdx < 0 || aggregator.getTotalSplitCount() <= splitIdx) {
+            LOG.error("Received msgID={}: {} of {} - out of bounds. Ignoring message", msgId, splitIdx + 1, splitCount);
+
+            return null;
+        }
+
+        LOG.info("Received msgID={}: {} of {}", msgId, splitIdx + 1, splitCount);
+
+        long    prevMemoryBytes  = aggregator.getMemoryBytes();
+        long    prevSpilledBytes = aggregator.getSpilledBytes();
+        boolean isLast           = aggregator.add(splitIdx, segment);
+
+        memoryBytes  += (aggregator.getMemoryBytes() - prevMemoryBytes);
+        spilledBytes += (aggregator.getSpilledBytes() - prevSpilledBytes);
+
+        if (isLast) {
+            aggregators.remove(msgId);
+
+            release(aggregator);
+
+            if (!aggregator.isComplete()) {
+                LOG.warn("MsgID={}: received {} of {} messages. Ignoring message", msgId, aggregator.getReceivedSplitCount(), splitCount);
+
+                aggregator.close();
+
+                return null;
+            }
+
+            return aggregator;
+        }
+
+        bufferedCount++;
+
+        enforceBudget();
+
+        return null;
+    }
+
+    public void purgeStaleMessages(long now, long maxWaitTime) {
+        int evicted = purgeStaleMessages(aggregators, now, maxWaitTime);
+
+        if (evicted > 0) {
+            long memoryBytes  = 0;
+            long spilledBytes = 0;
+
+            for (SplitMessageAggregator aggregator : aggregators.values()) {
+                memoryBytes  += aggregator.getMemoryBytes();
+                spilledBytes += aggregator.getSpilledBytes();
+            }
+
+            this.memoryBytes   = memoryBytes;
+            this.spilledBytes  = spilledBytes;
+            this.evictedCount += evicted;
+        }
+    }
+
+    public void clear() {
+        for (SplitMessageAggregator aggregator : aggregators.values()) {
+            aggregator.close();
+        }
+
+        aggregators.clear();
+
+        memoryBytes  = 0;
+        spilledBytes = 0;
+    }
+
+    public int getOpenMessageCount() {
+        return aggregators.size();
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    public long getSpilledCount() {
+        return spilledCount;
+    }
+
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * @return number of segments added to the buffer so far to wait for the remaining segments of their messages
+     */
+    public long getBufferedCount() {
+        return bufferedCount;
+    }
+
+    /**
+     * @return number of messages evicted
+     */
+    static int purgeStaleMessages(Map<String, SplitMessageAggregator> splitMsgBuffer, long now, long maxWaitTime) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> purgeStaleMessages(bufferedMessageCount=" + splitMsgBuffer.size() + ")");
+        }
+
+        List<SplitMessageAggregator> evictionList = null;
+
+        for (SplitMessageAggregator aggregator : splitMsgBuffer.values()) {
+            long waitTime = now - aggregator.getFirstSplitTimestamp();
+
+            if (waitTime < maxWaitTime) {
+                continue;
+            }
+
+            if (evictionList == null) {
+                evictionList = new ArrayList<>();
+            }
+
+            evictionList.add(aggregator);
+        }
+
+        if (evictionList != null) {
+            for (SplitMessageAggregator aggregator : evictionList) {
+                LOG.error("evicting notification msgID={}, totalSplitCount={}, receivedSplitCount={}", aggregator.getMsgId(), aggregator.getTotalSplitCount(), aggregator.getReceivedSplitCount());
+
+                splitMsgBuffer.remove(aggregator.getMsgId());
+
+                aggregator.close();
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== purgeStaleMessages(bufferedMessageCount=" + splitMsgBuffer.size() + ")");
+        }
+
+        return evictionList != null ? evictionList.size() : 0;
+    }
+
+    private void enforceBudget() {
+        if (memoryBytes <= maxMemoryBytes) {
+            return;
+        }
+
+        // oldest messages first
+        for (SplitMessageAggregator aggregator : new ArrayList<>(aggregators.values())) {
+            if (memoryBytes <= maxMemoryBytes) {
+                break;
+            }
+
+            long aggregatorMemoryBytes = aggregator.getMemoryBytes();
+
+            if (aggregatorMemoryBytes == 0) {
+                continue;
+            }
+
+            if (spilledBytes + aggregatorMemoryBytes > maxSpillBytes) {
+                evict(aggregator, "spill budget of " + maxSpillBytes + " bytes exceeded");
+
+                continue;
+            }
+
+            try {
+                long bytes = aggregator.spill(spillDir);
+
+                memoryBytes  -= bytes;
+                spilledBytes += bytes;
+                spilledCount++;
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("spilled {} bytes of msgID={}: memoryBytes={}, spilledBytes={}", bytes, aggregator.getMsgId(), memoryBytes, spilledBytes);
+                }
+            } catch (IOException excp) {
+                LOG.error("failed to spill segments of msgID={} to {}", aggregator.getMsgId(), spillDir, excp);
+
+                evict(aggregator, "spill failed");
+            }
+        }
+    }
+
+    private void evict(SplitMessageAggregator aggregator, String reason) {
+        LOG.error("evicting notification msgID={}, totalSplitCount={}, receivedSplitCount={}: {}", aggregator.getMsgId(), aggregator.getTotalSplitCount(), aggregator.getReceivedSplitCount(), reason);
+
+        aggregators.remove(aggregator.getMsgId());
+
+        release(aggregator);
+
+        aggregator.close();
+
+        evictedCount++;
+    }
+
+    private void release(SplitMessageAggregator aggregator) {
+        memoryBytes  -= aggregator.getMemoryBytes();
+        spilledBytes -= aggregator.getSpilledBytes();
+    }
+
+    private static File getSpillDir(String spillDir) {
+        return new File(StringUtils.isEmpty(spillDir) ? System.getProperty("java.io.tmpdir") : spillDir);
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.atlas.model.notification.AtlasNotificationMessage;
 import org.apache.atlas.model.notification.HookNotification;
 import org.apache.atlas.notification.AbstractMessageDeserializer;
 import org.apache.atlas.notification.AbstractNotification;
+import org.apache.atlas.notification.AtlasNotificationBinaryMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,4 +61,15 @@ public class HookMessageDeserializer extends AbstractMessageDeserializer<HookNot
 
         return ret;
     }
+
+    @Override
+    public HookNotification deserialize(byte[] messageBytes) {
+        final HookNotification ret = super.deserialize(messageBytes);
+
+        if (ret != null && AtlasNotificationBinaryMessage.isBinaryMessage(messageBytes)) { // JSON messages are normalized in deserialize(String)
+            ret.normalize();
+        }
+
+        return ret;
+    }
 }
@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hook;
+
+import org.apache.atlas.hook.AsyncHookNotificationSender.OverflowPolicy;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.NotificationInterface;
+import org.apache.atlas.notification.NotificationInterface.NotificationType;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class AsyncHookNotificationSenderTest {
+    @Mock
+    private NotificationInterface notificationInterface;
+
+    @Mock
+    private FailedMessagesLogger failedMessagesLogger;
+
+    private CountDownLatch sendStarted;
+    private CountDownLatch sendReleased;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        sendStarted  = new CountDownLatch(1);
+        sendReleased = new CountDownLatch(1);
+
+        // first send waits until released by the test, so that subsequent messages stay in the queue
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                sendStarted.countDown();
+                sendReleased.await(10, TimeUnit.SECONDS);
+
+                return null;
+            }
+        }).when(notificationInterface).send(eq(NotificationType.HOOK), anyList());
+    }
+
+    @Test(timeOut = 10000)
+    public void testQueuedMessagesAreSentInBatchAndOldestDroppedOnOverflow() throws Exception {
+        AsyncHookNotificationSender sender = createSender(2, OverflowPolicy.DROP_OLDEST);
+
+        sender.send(messages("msg1"), 3);
+
+        sendStarted.await();
+
+        sender.send(messages("msg2", "msg3", "msg4"), 3); // msg2 is dropped
+
+        assertEquals(sender.getQueueDepth(), 2);
+        assertEquals(sender.getDroppedCount(), 1);
+
+        sendReleased.countDown();
+
+        sender.stop(5000);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+
+        verify(notificationInterface, times(2)).send(eq(NotificationType.HOOK), captor.capture());
+
+        assertEquals(getUsers(captor.getAllValues().get(0)), Arrays.asList("msg1"));
+        assertEquals(getUsers(captor.getAllValues().get(1)), Arrays.asList("msg3", "msg4"));
+        assertEquals(sender.getSentCount(), 3);
+        assertEquals(sender.getBatchCount(), 2);
+        verify(failedMessagesLogger, times(1)).log(anyString());
+    }
+
+    @Test(timeOut = 10000)
+    public void testMessageIsSpilledOnOverflow() throws Exception {
+        AsyncHookNotificationSender sender = createSender(1, OverflowPolicy.SPILL);
+
+        sender.send(messages("msg1"), 3);
+
+        sendStarted.await();
+
+        sender.send(messages("msg2", "msg3"), 3); // msg3 is spilled
+
+        assertEquals(sender.getSpilledCount(), 1);
+        assertEquals(sender.getDroppedCount(), 0);
+
+        sendReleased.countDown();
+
+        sender.stop(5000);
+
+        assertEquals(sender.getSentCount(), 2);
+        verify(failedMessagesLogger, times(1)).log(anyString());
+    }
+
+    @Test(timeOut = 10000)
+    public void testBlockedCallerTimesOut() throws Exception {
+        AsyncHookNotificationSender sender = createSender(1, OverflowPolicy.BLOCK);
+
+        sender.send(messages("msg1"), 3);
+
+        sendStarted.await();
+
+        long startTime = System.currentTimeMillis();
+
+        sender.send(messages("msg2", "msg3"), 3); // caller blocks for msg3, which is then dropped
+
+        assertTrue(System.currentTimeMillis() - startTime >= 100);
+        assertEquals(sender.getDroppedCount(), 1);
+
+        sendReleased.countDown();
+
+        sender.stop(5000);
+
+        assertEquals(sender.getSentCount(), 2);
+        verify(failedMessagesLogger, times(1)).log(anyString());
+    }
+
+    private AsyncHookNotificationSender createSender(int queueSize, OverflowPolicy overflowPolicy) {
+        return new AsyncHookNotificationSender(notificationInterface, queueSize, 1, 10, overflowPolicy, 100, true, failedMessagesLogger);
+    }
+
+    private static List<HookNotification> messages(String... users) {
+        List<HookNotification> ret = new ArrayList<>();
+
+        for (String user : users) {
+            ret.add(new EntityCreateRequest(user));
+        }
+
+        return ret;
+    }
+
+    private static List<String> getUsers(List<?> messages) {
+        List<String> ret = new ArrayList<>();
+
+        for (Object message : messages) {
+            ret.add(((HookNotification) message).getUser());
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hook;
+
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.NotificationException;
+import org.apache.atlas.notification.NotificationInterface;
+import org.apache.atlas.notification.NotificationInterface.NotificationType;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class HookNotificationSpoolTest {
+    @Mock
+    private NotificationInterface notificationInterface;
+
+    private File dir;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        dir = Files.createTempDirectory("atlas-hook-spool").toFile();
+    }
+
+    @AfterMethod
+    public void cleanup() throws Exception {
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+
+        dir.delete();
+    }
+
+    @Test
+    public void testAppendAndRead() throws Exception {
+        HookNotificationSpool spool = new HookNotificationSpool(dir, 1024 * 1024, 10 * 1024 * 1024);
+
+        assertFalse(spool.hasPending());
+        assertTrue(spool.append(Arrays.asList(createMessage("t1"), createMessage("t2"))));
+        assertTrue(spool.hasPending());
+
+        spool.close();
+
+        List<File> segments = HookNotificationSpool.listSegments(dir);
+
+        assertEquals(segments.size(), 1);
+
+        try (HookNotificationSpool.SegmentReader reader = new HookNotificationSpool.SegmentReader(segments.get(0), 0)) {
+            assertEquals(getName(HookNotificationSpool.toHookNotification(reader.next())), "t1");
+            assertEquals(getName(HookNotificationSpool.toHookNotification(reader.next())), "t2");
+            assertNull(reader.next());
+        }
+
+        // pending notifications are detected by a new instance, for example after the process restarts
+        assertTrue(new HookNotificationSpool(dir, 1024 * 1024, 10 * 1024 * 1024).hasPending());
+    }
+
+    @Test
+    public void testCorruptRecordIsSkipped() throws Exception {
+        HookNotificationSpool spool = new HookNotificationSpool(dir, 1024 * 1024, 10 * 1024 * 1024);
+
+        spool.append(Collections.singletonList(createMessage("t1")));
+        spool.append(Collections.singletonList(createMessage("t2")));
+        spool.close();
+
+        File segment = HookNotificationSpool.listSegments(dir).get(0);
+
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(20); // in payload of the first record
+
+            file.write('#');
+        }
+
+        try (HookNotificationSpool.SegmentReader reader = new HookNotificationSpool.SegmentReader(segment, 0)) {
+            assertEquals(getName(HookNotificationSpool.toHookNotification(reader.next())), "t2");
+            assertNull(reader.next());
+            assertEquals(reader.getCorruptCount(), 1);
+        }
+    }
+
+    @Test
+    public void testAppendIsRejectedBeyondSizeCap() throws Exception {
+        HookNotificationSpool spool = new HookNotificationSpool(dir, 1024, 1024);
+
+        int count = 0;
+
+        while (spool.append(Collections.singletonList(createMessage("t" + count)))) {
+            count++;
+        }
+
+        assertTrue(count > 0);
+        assertTrue(spool.getSpoolBytes() <= 1024);
+        assertEquals(spool.getRejectedCount(), 1);
+
+        spool.close();
+    }
+
+    @Test
+    public void testDrainSendsInOrderAndDeletesSegments() throws Exception {
+        HookNotificationSpool spool = new HookNotificationSpool(dir, 1, 10 * 1024 * 1024); // a segment per append
+
+        for (int i = 0; i < 5; i++) {
+            spool.append(Collections.singletonList(createMessage("t" + i)));
+        }
+
+        assertEquals(HookNotificationSpool.listSegments(dir).size(), 5);
+
+        assertEquals(spool.drain(notificationInterface, 2), 5);
+        assertFalse(spool.hasPending());
+        assertTrue(HookNotificationSpool.listSegments(dir).isEmpty());
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+
+        verify(notificationInterface, times(5)).send(eq(NotificationType.HOOK), captor.capture());
+
+        List<String> names = new ArrayList<>();
+
+        for (List batch : captor.getAllValues()) {
+            for (Object message : batch) {
+                names.add(getName((HookNotification) message));
+            }
+        }
+
+        assertEquals(names, Arrays.asList("t0", "t1", "t2", "t3", "t4"));
+    }
+
+    @Test
+    public void testDrainResumesAfterLastSentBatch() throws Exception {
+        HookNotificationSpool spool = new HookNotificationSpool(dir, 1024 * 1024, 10 * 1024 * 1024);
+
+        for (int i = 0; i < 4; i++) {
+            spool.append(Collections.singletonList(createMessage("t" + i)));
+        }
+
+        doNothing().doThrow(new NotificationException(new Exception("send failed"))).when(notificationInterface).send(eq(NotificationType.HOOK), anyList());
+
+        assertEquals(spool.drain(notificationInterface, 2), 0);
+        assertTrue(spool.hasPending());
+        assertEquals(spool.getReplayedCount(), 2);
+
+        doNothing().when(notificationInterface).send(eq(NotificationType.HOOK), anyList());
+
+        assertEquals(spool.drain(notificationInterface, 2), 2);
+        assertFalse(spool.hasPending());
+        assertEquals(spool.getReplayedCount(), 4);
+
+        spool.close();
+    }
+
+    private static HookNotification createMessage(String name) {
+        return new EntityCreateRequest("user1", new Referenceable("hive_table", Collections.<String, Object>singletonMap("name", name)));
+    }
+
+    private static String getName(HookNotification message) {
+        return (String) ((EntityCreateRequest) message).getEntities().get(0).get("name");
+    }
+}
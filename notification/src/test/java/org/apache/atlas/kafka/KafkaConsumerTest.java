@@ -28,10 +28,12 @@ import org.apache.atlas.notification.entity.EntityNotificationTest;
 import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityUpdateRequest;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.model.notification.MessageVersion;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
 import org.apache.kafka.common.TopicPartition;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -41,7 +43,12 @@ import org.testng.annotations.Test;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -137,6 +144,76 @@ public class KafkaConsumerTest {
         verify(kafkaConsumer, never()).commitSync(Collections.singletonMap(tp, new OffsetAndMetadata(1)));
     }
 
+    @Test
+    public void testCommitsAreCoalesced() {
+        TopicPartition     tp       = new TopicPartition("ATLAS_HOOK",0);
+        AtlasKafkaConsumer consumer = new AtlasKafkaConsumer(NotificationType.HOOK, kafkaConsumer, false, 100L, 60000L, 3);
+
+        consumer.commit(tp, 1);
+        consumer.commit(tp, 2);
+
+        verify(kafkaConsumer, never()).commitAsync(anyMap(), any(OffsetCommitCallback.class));
+
+        consumer.commit(tp, 3);
+
+        verify(kafkaConsumer).commitAsync(eq(Collections.singletonMap(tp, new OffsetAndMetadata(3))), any(OffsetCommitCallback.class));
+        verify(kafkaConsumer, never()).commitSync(anyMap());
+    }
+
+    @Test
+    public void testConsumerIsNotResubscribed() {
+        AtlasKafkaCommitManager commitManager = AtlasKafkaCommitManager.create(kafkaConsumer, false, 60000L, 3);
+
+        assertNotNull(commitManager);
+        assertNull(AtlasKafkaCommitManager.create(kafkaConsumer, true, 60000L, 3));
+        assertNull(AtlasKafkaCommitManager.create(kafkaConsumer, false, 0L, 1));
+
+        new AtlasKafkaConsumer(NotificationType.HOOK, kafkaConsumer, false, 100L, commitManager);
+        new AtlasKafkaConsumer(NotificationType.HOOK, kafkaConsumer, false, 100L, 60000L, 3);
+
+        verify(kafkaConsumer, never()).subscribe(anyCollection());
+        verify(kafkaConsumer, never()).subscribe(anyCollection(), any(ConsumerRebalanceListener.class));
+    }
+
+    @Test
+    public void testPendingCommitIsFlushedOnClose() {
+        TopicPartition     tp       = new TopicPartition("ATLAS_HOOK",0);
+        AtlasKafkaConsumer consumer = new AtlasKafkaConsumer(NotificationType.HOOK, kafkaConsumer, false, 100L, 60000L, 100);
+
+        consumer.commit(tp, 1);
+        consumer.commit(tp, 2);
+        consumer.close();
+
+        verify(kafkaConsumer).commitSync(Collections.singletonMap(tp, new OffsetAndMetadata(2)));
+        verify(kafkaConsumer).close();
+    }
+
+    @Test
+    public void testPauseAndResumeAssignedPartitions() {
+        Set<TopicPartition> partitions = Collections.singleton(new TopicPartition("ATLAS_HOOK", 0));
+        AtlasKafkaConsumer  consumer   = new AtlasKafkaConsumer(NotificationType.HOOK, kafkaConsumer, false, 100L);
+
+        when(kafkaConsumer.assignment()).thenReturn(partitions);
+        when(kafkaConsumer.paused()).thenReturn(partitions);
+
+        consumer.pause();
+        consumer.resume();
+
+        verify(kafkaConsumer).pause(partitions);
+        verify(kafkaConsumer).resume(partitions);
+    }
+
+    @Test
+    public void testPendingCommitIsFlushedOnRebalance() {
+        TopicPartition          tp            = new TopicPartition("ATLAS_HOOK",0);
+        AtlasKafkaCommitManager commitManager = new AtlasKafkaCommitManager(kafkaConsumer, 60000L, 100);
+
+        commitManager.commit(tp, 5);
+        commitManager.onPartitionsRevoked(Collections.singletonList(tp));
+
+        verify(kafkaConsumer).commitSync(Collections.singletonMap(tp, new OffsetAndMetadata(5)));
+    }
+
     private Referenceable getEntity(String traitName) {
         return EntityNotificationTest.getEntity("id", new Struct(traitName, Collections.<String, Object>emptyMap()));
     }
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.*;
 
 /**
@@ -85,6 +86,36 @@ public class AbstractNotificationTest {
         }
     }
 
+    @org.testng.annotations.Test
+    public void testSendBinary() throws Exception {
+        Configuration    configuration = mock(Configuration.class);
+
+        when(configuration.getString("atlas.notification.message.version")).thenReturn("2.0.0");
+
+        TestNotification notification  = new TestNotification(configuration);
+        Test             message1      = new Test(HookNotificationType.ENTITY_CREATE, "user1");
+        Test             message2      = new Test(HookNotificationType.ENTITY_FULL_UPDATE, "user1");
+
+        assertTrue(notification.isBinaryMessagesEnabled());
+        assertFalse(new TestNotification(mock(Configuration.class)).isBinaryMessagesEnabled());
+
+        notification.send(NotificationType.HOOK, message1, message2);
+
+        assertEquals(notification.type, NotificationType.HOOK);
+        assertNull(notification.messages);
+        assertEquals(notification.binMessages.size(), 2);
+
+        for (byte[] binMessage : notification.binMessages) {
+            assertTrue(AtlasNotificationBinaryMessage.isBinaryMessage(binMessage));
+        }
+
+        // binary envelope is used only for hook notifications
+        notification.send(NotificationType.ENTITIES, message1);
+
+        assertEquals(notification.type, NotificationType.ENTITIES);
+        assertEquals(notification.messages.size(), 1);
+    }
+
     public static class Test extends HookNotification {
 
         public Test(HookNotificationType type, String user) {
@@ -106,6 +137,7 @@ public class AbstractNotificationTest {
     public static class TestNotification extends AbstractNotification {
         private NotificationType type;
         private List<String>     messages;
+        private List<byte[]>     binMessages;
 
         public TestNotification(Configuration applicationProperties) throws AtlasException {
             super(applicationProperties);
@@ -119,6 +151,12 @@ public class AbstractNotificationTest {
             messages = notificationMessages;
         }
 
+        @Override
+        protected void sendInternalBinary(NotificationType notificationType, List<byte[]> notificationMessages) {
+            type        = notificationType;
+            binMessages = notificationMessages;
+        }
+
         @Override
         public <T> List<NotificationConsumer<T>> createConsumers(NotificationType notificationType, int numConsumers) {
             return null;
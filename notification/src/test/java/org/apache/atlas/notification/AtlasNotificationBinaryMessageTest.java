@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.hook.HookMessageDeserializer;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.apache.commons.lang.RandomStringUtils;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * AtlasNotificationBinaryMessage tests.
+ */
+public class AtlasNotificationBinaryMessageTest {
+    private static final String MSG_JSON = "{\"version\":{\"version\":\"1.0.0\"},\"message\":{\"type\":\"ENTITY_DELETE_V2\",\"user\":\"user1\",\"entities\":[]}}";
+
+    @Test
+    public void testRoundTrip() {
+        for (String codecName : new String[] { "none", "gzip", "deflate" }) {
+            NotificationMessageCodec codec    = AtlasNotificationBinaryMessage.getCodec(codecName);
+            List<byte[]>             messages = AtlasNotificationBinaryMessage.createMessages(MSG_JSON, "msg1", codec, 1024 * 1024);
+
+            assertEquals(messages.size(), 1);
+            assertTrue(AtlasNotificationBinaryMessage.isBinaryMessage(messages.get(0)));
+
+            AtlasNotificationBinaryMessage msg = AtlasNotificationBinaryMessage.fromBytes(messages.get(0));
+
+            assertEquals(msg.getCodecId(), codec.getId());
+            assertEquals(msg.getMsgId(), "msg1");
+            assertEquals(msg.getSplitCount(), 1);
+            assertEquals(msg.getMessageJson(msg.getBody()), MSG_JSON);
+        }
+    }
+
+    @Test
+    public void testJsonIsNotBinaryMessage() {
+        assertFalse(AtlasNotificationBinaryMessage.isBinaryMessage(AtlasNotificationBaseMessage.getBytesUtf8(MSG_JSON)));
+        assertFalse(AtlasNotificationBinaryMessage.isBinaryMessage(null));
+    }
+
+    @Test
+    public void testSplitMessage() {
+        String                   msgJson  = "{\"message\":\"" + RandomStringUtils.randomAlphanumeric(4096) + "\"}";
+        NotificationMessageCodec codec    = AtlasNotificationBinaryMessage.getCodec("none");
+        List<byte[]>             messages = AtlasNotificationBinaryMessage.createMessages(msgJson, "msg2", codec, 1000);
+
+        assertEquals(messages.size(), 5);
+
+        byte[] body   = new byte[msgJson.length()];
+        int    offset = 0;
+
+        for (int i = 0; i < messages.size(); i++) {
+            AtlasNotificationBinaryMessage msg = AtlasNotificationBinaryMessage.fromBytes(messages.get(i));
+
+            assertEquals(msg.getSplitIdx(), i);
+            assertEquals(msg.getSplitCount(), messages.size());
+
+            System.arraycopy(msg.getBody(), 0, body, offset, msg.getBody().length);
+
+            offset += msg.getBody().length;
+        }
+
+        assertEquals(offset, body.length);
+        assertEquals(AtlasNotificationBinaryMessage.fromBytes(messages.get(0)).getMessageJson(body), msgJson);
+    }
+
+    @Test
+    public void testDeflateWithDictionary() {
+        byte[]                   dictionary = AtlasNotificationBaseMessage.getBytesUtf8("\"version\":{\"version\":\"1.0.0\"},\"message\":{\"type\":\"ENTITY_");
+        NotificationMessageCodec codec      = new NotificationMessageCodec.DeflateCodec(dictionary);
+        NotificationMessageCodec noDict     = new NotificationMessageCodec.DeflateCodec(null);
+        byte[]                   msgBytes   = AtlasNotificationBaseMessage.getBytesUtf8(MSG_JSON);
+        byte[]                   compressed = codec.compress(msgBytes);
+
+        assertNotEquals(codec.getDictionaryId(), 0);
+        assertTrue(compressed.length < noDict.compress(msgBytes).length);
+        assertEquals(codec.uncompress(compressed, msgBytes.length), msgBytes);
+    }
+
+    @Test(expectedExceptions = IncompatibleVersionException.class)
+    public void testNewerFormatVersion() {
+        byte[] bytes = AtlasNotificationBinaryMessage.createMessages(MSG_JSON, "msg3", AtlasNotificationBinaryMessage.getCodec("none"), 1024).get(0);
+
+        bytes[2] = AtlasNotificationBinaryMessage.FORMAT_VERSION + 1;
+
+        AtlasNotificationBinaryMessage.fromBytes(bytes);
+    }
+
+    @Test
+    public void testInvalidUncompressedLength() {
+        byte[] body = AtlasNotificationBaseMessage.getBytesUtf8(MSG_JSON);
+
+        for (int uncompressedLength : new int[] { -1, Integer.MAX_VALUE }) {
+            byte[] bytes = new AtlasNotificationBinaryMessage(NotificationMessageCodec.CODEC_ID_DEFLATE, 0, uncompressedLength, 0, 1, "msg4", body).toBytes();
+
+            try {
+                AtlasNotificationBinaryMessage.fromBytes(bytes);
+
+                fail("expected IllegalArgumentException for uncompressed length " + uncompressedLength);
+            } catch (IllegalArgumentException excp) {
+                // expected
+            }
+
+            assertNull(new HookMessageDeserializer().deserialize(bytes));
+        }
+    }
+
+    @Test
+    public void testDeserializeBinaryMessages() {
+        HookMessageDeserializer deserializer = new HookMessageDeserializer();
+        List<byte[]>            messages     = new ArrayList<>();
+        EntityCreateRequest     request      = new EntityCreateRequest("user1", new Referenceable("hive_table", Collections.<String, Object>singletonMap("name", RandomStringUtils.randomAlphanumeric(8192))));
+
+        AbstractNotification.createBinaryNotificationMessages(request, messages);
+
+        HookNotification ret = null;
+
+        for (byte[] message : messages) {
+            ret = deserializer.deserialize(message);
+        }
+
+        assertNotNull(ret);
+        assertEquals(ret.getUser(), "user1");
+        assertEquals(((EntityCreateRequest) ret).getEntities().get(0).get("name"), request.getEntities().get(0).get("name"));
+    }
+}
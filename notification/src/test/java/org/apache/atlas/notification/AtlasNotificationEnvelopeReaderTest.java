@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.atlas.model.notification.AtlasNotificationBaseMessage.CompressionKind;
+import org.apache.atlas.model.notification.AtlasNotificationStringMessage;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.MessageVersion;
+import org.apache.atlas.notification.AtlasNotificationEnvelopeReader.Envelope;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * AtlasNotificationEnvelopeReader tests.
+ */
+public class AtlasNotificationEnvelopeReaderTest {
+    private final AtlasNotificationEnvelopeReader<HookNotification> reader = new AtlasNotificationEnvelopeReader<>(new TypeReference<HookNotification>() {});
+
+    @Test
+    public void testReadMessage() throws Exception {
+        EntityCreateRequest        message  = new EntityCreateRequest("user1", new Referenceable("hive_table"));
+        Envelope<HookNotification> envelope = reader.read(AbstractNotification.getMessageJson(message));
+
+        assertEquals(envelope.getVersion(), AbstractNotification.CURRENT_MESSAGE_VERSION);
+        assertEquals(envelope.getMsgCompressionKind(), CompressionKind.NONE);
+        assertNull(envelope.getEncodedMessage());
+        assertTrue(envelope.getMessage() instanceof EntityCreateRequest);
+        assertEquals(envelope.getMessage().getUser(), "user1");
+    }
+
+    @Test
+    public void testReadMessageWithPayloadBeforeVersion() throws Exception {
+        String                     json     = "{\"message\":{\"type\":\"ENTITY_DELETE_V2\",\"user\":\"user1\",\"entities\":[]},\"unknownField\":{\"a\":[1,2]},\"version\":{\"version\":\"1.0.0\"}}";
+        Envelope<HookNotification> envelope = reader.read(json);
+
+        assertEquals(envelope.getVersion(), new MessageVersion("1.0.0"));
+        assertEquals(envelope.getMessage().getType(), HookNotification.HookNotificationType.ENTITY_DELETE_V2);
+    }
+
+    @Test
+    public void testReadSplitMessage() throws Exception {
+        AtlasNotificationStringMessage splitMsg = new AtlasNotificationStringMessage("abcd", "msg1", CompressionKind.GZIP, 1, 3);
+        Envelope<HookNotification>     envelope = reader.read(AtlasType.toV1Json(splitMsg));
+
+        assertNull(envelope.getMessage());
+        assertEquals(envelope.getEncodedMessage(), "abcd");
+        assertEquals(envelope.getMsgId(), "msg1");
+        assertEquals(envelope.getMsgCompressionKind(), CompressionKind.GZIP);
+        assertEquals(envelope.getMsgSplitIdx(), 1);
+        assertEquals(envelope.getMsgSplitCount(), 3);
+    }
+
+    @Test
+    public void testReadLegacyMessage() throws Exception {
+        EntityCreateRequest        message  = new EntityCreateRequest("user1", new Referenceable("hive_table"));
+        Envelope<HookNotification> envelope = reader.read(AtlasType.toV1Json(message));
+
+        assertNull(envelope.getVersion());
+        assertNull(envelope.getMessage());
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.model.notification.AtlasNotificationBaseMessage;
+import org.apache.commons.lang.RandomStringUtils;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.testng.Assert.*;
+
+/**
+ * SplitMessageBuffer tests.
+ */
+public class SplitMessageBufferTest {
+    private static final File SPILL_DIR = new File(System.getProperty("java.io.tmpdir"));
+
+    @Test
+    public void testReassembleInMemory() throws IOException {
+        SplitMessageBuffer buffer = new SplitMessageBuffer(1024 * 1024, 1024 * 1024, SPILL_DIR);
+        String             msg    = RandomStringUtils.randomAlphanumeric(300);
+
+        assertNull(buffer.add("msg1", 0, 3, getBytes(msg.substring(0, 100))));
+        assertNull(buffer.add("msg1", 1, 3, getBytes(msg.substring(100, 200))));
+        assertEquals(buffer.getOpenMessageCount(), 1);
+        assertEquals(buffer.getMemoryBytes(), 200);
+        assertEquals(buffer.getBufferedCount(), 2);
+
+        SplitMessageAggregator aggregator = buffer.add("msg1", 2, 3, getBytes(msg.substring(200)));
+
+        assertNotNull(aggregator);
+        assertEquals(buffer.getBufferedCount(), 2);
+        assertEquals(read(aggregator), msg);
+        assertEquals(buffer.getOpenMessageCount(), 0);
+        assertEquals(buffer.getMemoryBytes(), 0);
+        assertEquals(buffer.getSpilledCount(), 0);
+    }
+
+    @Test
+    public void testSpillWhenMemoryBudgetExceeded() throws IOException {
+        SplitMessageBuffer buffer = new SplitMessageBuffer(150, 1024 * 1024, SPILL_DIR);
+        String             msg1   = RandomStringUtils.randomAlphanumeric(300);
+        String             msg2   = RandomStringUtils.randomAlphanumeric(200);
+
+        buffer.add("msg1", 0, 3, getBytes(msg1.substring(0, 100)));
+        buffer.add("msg2", 0, 2, getBytes(msg2.substring(0, 100)));
+
+        // older message, msg1, should be spilled to disk
+        assertEquals(buffer.getSpilledCount(), 1);
+        assertEquals(buffer.getSpilledBytes(), 100);
+        assertEquals(buffer.getMemoryBytes(), 100);
+
+        buffer.add("msg1", 1, 3, getBytes(msg1.substring(100, 200)));
+
+        SplitMessageAggregator aggregator1 = buffer.add("msg1", 2, 3, getBytes(msg1.substring(200)));
+        SplitMessageAggregator aggregator2 = buffer.add("msg2", 1, 2, getBytes(msg2.substring(100)));
+
+        assertEquals(read(aggregator1), msg1);
+        assertEquals(read(aggregator2), msg2);
+        assertEquals(buffer.getMemoryBytes(), 0);
+        assertEquals(buffer.getSpilledBytes(), 0);
+        assertEquals(buffer.getEvictedCount(), 0);
+    }
+
+    @Test
+    public void testEvictWhenSpillBudgetExceeded() {
+        SplitMessageBuffer buffer = new SplitMessageBuffer(100, 100, SPILL_DIR);
+
+        buffer.add("msg1", 0, 2, new byte[100]);
+        buffer.add("msg2", 0, 2, new byte[100]); // msg1 is spilled
+        buffer.add("msg3", 0, 2, new byte[100]); // no room to spill msg2: it is evicted
+
+        assertEquals(buffer.getOpenMessageCount(), 2);
+        assertEquals(buffer.getEvictedCount(), 1);
+        assertEquals(buffer.getSpilledBytes(), 100);
+        assertEquals(buffer.getMemoryBytes(), 100);
+
+        // remaining segment of the evicted message is ignored
+        assertNull(buffer.add("msg2", 1, 2, new byte[10]));
+    }
+
+    @Test
+    public void testMissingSegment() {
+        SplitMessageBuffer buffer = new SplitMessageBuffer(1024, 1024, SPILL_DIR);
+
+        buffer.add("msg1", 0, 3, new byte[10]);
+
+        assertNull(buffer.add("msg1", 2, 3, new byte[10]));
+        assertEquals(buffer.getOpenMessageCount(), 0);
+        assertEquals(buffer.getMemoryBytes(), 0);
+    }
+
+    @Test
+    public void testPurgeStaleMessages() throws InterruptedException {
+        SplitMessageBuffer buffer = new SplitMessageBuffer(10, 1024, SPILL_DIR);
+
+        buffer.add("msg1", 0, 2, new byte[20]);
+
+        Thread.sleep(100);
+
+        buffer.purgeStaleMessages(System.currentTimeMillis(), 50);
+
+        assertEquals(buffer.getOpenMessageCount(), 0);
+        assertEquals(buffer.getEvictedCount(), 1);
+        assertEquals(buffer.getSpilledBytes(), 0);
+    }
+
+    private static byte[] getBytes(String str) {
+        return AtlasNotificationBaseMessage.getBytesUtf8(str);
+    }
+
+    private static String read(SplitMessageAggregator aggregator) throws IOException {
+        ByteArrayOutputStream out    = new ByteArrayOutputStream();
+        byte[]                buffer = new byte[64];
+
+        try (InputStream in = aggregator.openStream()) {
+            for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                out.write(buffer, 0, n);
+            }
+        } finally {
+            aggregator.close();
+        }
+
+        return AtlasNotificationBaseMessage.getStringUtf8(out.toByteArray());
+    }
+}
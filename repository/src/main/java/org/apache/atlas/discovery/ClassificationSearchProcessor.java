@@ -183,6 +183,24 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         }
     }
 
+    @Override
+    public long getIndexResultCount() {
+        // hits are classification vertices, not entities; an entity can have more than one matching classification
+        return indexQuery != null ? indexQuery.vertexTotals() : -1;
+    }
+
+    @Override
+    public boolean isIndexResultCountEstimated() {
+        return indexQuery != null && indexQuery.isVertexTotalsEstimated();
+    }
+
+    @Override
+    public boolean isContinuationSupported() {
+        // entities reached from classification vertices are de-duplicated against entities returned earlier in the
+        // same request; a page continued from a token would not know of entities returned in previous pages
+        return indexQuery == null && context.getSearchParameters().getTagFilters() == null;
+    }
+
     @Override
     public List<AtlasVertex> execute() {
         if (LOG.isDebugEnabled()) {
@@ -198,17 +216,19 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         }
 
         try {
-            final int     startIdx   = context.getSearchParameters().getOffset();
-            final int     limit      = context.getSearchParameters().getLimit();
-            final boolean activeOnly = context.getSearchParameters().getExcludeDeletedEntities();
+            final SearchContinuationToken continuation = context.getContinuationToken();
+            final int                     startIdx     = continuation != null ? continuation.getSkipCount() : context.getSearchParameters().getOffset();
+            final int                     limit        = context.getSearchParameters().getLimit();
+            final boolean                 activeOnly   = context.getSearchParameters().getExcludeDeletedEntities();
 
             // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
             // have been dropped: like non-active-entities or duplicate-entities (same entity pointed to by multiple
-            // classifications in the result)
+            // classifications in the result). With a continuation token, query starts at the batch where the previous
+            // page ended
             //
             // first 'startIdx' number of entries will be ignored
-            int qryOffset = 0;
-            int resultIdx = qryOffset;
+            int qryOffset = continuation != null ? continuation.getQueryOffset() : 0;
+            int resultIdx = 0;
 
             final Set<String>       processedGuids         = new HashSet<>();
             final List<AtlasVertex> entityVertices         = new ArrayList<>();
@@ -287,7 +307,7 @@ public class ClassificationSearchProcessor extends SearchProcessor {
 
                 super.filter(entityVertices);
 
-                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices, qryOffset);
             }
         } finally {
             AtlasPerfTracer.log(perf);
@@ -308,26 +328,34 @@ public class ClassificationSearchProcessor extends SearchProcessor {
 
         if (gremlinTagFilterQuery != null && gremlinQueryBindings != null) {
             // Now filter on the tag attributes
-            Set<String> guids = getGuids(entityVertices);
-
-            // Clear prior results
-            entityVertices.clear();
+            Set<String>      guids            = getGuids(entityVertices);
+            Set<AtlasVertex> filteredVertices = new HashSet<>();
 
             if (CollectionUtils.isNotEmpty(guids)) {
                 gremlinQueryBindings.put("guids", guids);
 
+                AtlasGraph   graph               = context.getGraph();
+                ScriptEngine gremlinScriptEngine = null;
+
                 try {
-                    AtlasGraph        graph               = context.getGraph();
-                    ScriptEngine      gremlinScriptEngine = graph.getGremlinScriptEngine();
-                    List<AtlasVertex> atlasVertices       = (List<AtlasVertex>) graph.executeGremlinScript(gremlinScriptEngine, gremlinQueryBindings, gremlinTagFilterQuery, false);
+                    gremlinScriptEngine = graph.getGremlinScriptEngine();
+
+                    List<AtlasVertex> atlasVertices = (List<AtlasVertex>) graph.executeGremlinScript(gremlinScriptEngine, gremlinQueryBindings, gremlinTagFilterQuery, false);
 
                     if (CollectionUtils.isNotEmpty(atlasVertices)) {
-                        entityVertices.addAll(atlasVertices);
+                        filteredVertices.addAll(atlasVertices);
                     }
                 } catch (AtlasBaseException | ScriptException e) {
                     LOG.warn(e.getMessage(), e);
+                } finally {
+                    if (gremlinScriptEngine != null) {
+                        graph.releaseGremlinScriptEngine(gremlinScriptEngine);
+                    }
                 }
             }
+
+            // retain the vertices in the same order, as the results might have been sorted
+            entityVertices.retainAll(filteredVertices);
         } else if (entityPredicateTraitNames != null) {
             CollectionUtils.filter(entityVertices, entityPredicateTraitNames);
         }
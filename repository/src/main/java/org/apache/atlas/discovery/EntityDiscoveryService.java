@@ -19,6 +19,7 @@ package org.apache.atlas.discovery;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.SortOrder;
@@ -42,6 +43,7 @@ import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
 import org.apache.atlas.repository.graphdb.AtlasIndexQuery.Result;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.graphdb.GremlinVersion;
 import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
 import org.apache.atlas.repository.store.graph.v1.EntityGraphRetriever;
 import org.apache.atlas.repository.userprofile.UserProfileService;
@@ -98,6 +100,8 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
     private final int                             maxTagsLengthInIdxQuery;
     private final String                          indexSearchPrefix;
     private final UserProfileService              userProfileService;
+    private final AtlasDSL.TranslationCache       dslTranslationCache;
+    private       AtlasDSL.Executor               dslExecutor;
 
     @Inject
     EntityDiscoveryService(AtlasTypeRegistry typeRegistry,
@@ -114,6 +118,20 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         this.maxTagsLengthInIdxQuery  = ApplicationProperties.get().getInt(Constants.INDEX_SEARCH_TAGS_MAX_QUERY_STR_LENGTH, 512);
         this.indexSearchPrefix        = AtlasGraphUtilsV1.getIndexSearchPrefix();
         this.userProfileService       = userProfileService;
+        this.dslTranslationCache      = new AtlasDSL.TranslationCache(typeRegistry, AtlasConfiguration.DSL_TRANSLATION_CACHE_SIZE.getInt());
+
+        setDslExecutor(AtlasDSL.Executor.fromString(AtlasConfiguration.DSL_EXECUTOR.getString()));
+    }
+
+    @VisibleForTesting
+    public void setDslExecutor(AtlasDSL.Executor dslExecutor) {
+        if (dslExecutor == AtlasDSL.Executor.TRAVERSAL && graph.getSupportedGremlinVersion() != GremlinVersion.THREE) {
+            LOG.warn("DSL queries can't be executed as traversals with Gremlin version {}; Gremlin scripts will be used", graph.getSupportedGremlinVersion());
+
+            dslExecutor = AtlasDSL.Executor.SCRIPT;
+        }
+
+        this.dslExecutor = dslExecutor;
     }
 
     @Override
@@ -124,10 +142,24 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         String            queryStr     = gremlinQuery.queryStr();
 
         if (LOG.isDebugEnabled()) {
-            LOG.debug("Executing DSL: query={}, gremlinQuery={}", dslQuery, queryStr);
+            LOG.debug("Executing DSL: query={}, gremlinQuery={}, bindings={}", dslQuery, queryStr, gremlinQuery.bindings());
         }
 
-        Object result = graph.executeGremlinScript(queryStr, false);
+        final Object result;
+
+        if (dslExecutor == AtlasDSL.Executor.TRAVERSAL && gremlinQuery.traversalQuery() != null) {
+            result = gremlinQuery.traversalQuery().execute(graph);
+        } else {
+            ScriptEngine scriptEngine = graph.getGremlinScriptEngine();
+
+            try {
+                result = graph.executeGremlinScript(scriptEngine, gremlinQuery.bindings(), queryStr, false);
+            } catch (ScriptException e) {
+                throw new AtlasBaseException(AtlasErrorCode.GREMLIN_SCRIPT_EXECUTION_FAILED, e, queryStr);
+            } finally {
+                graph.releaseGremlinScriptEngine(scriptEngine);
+            }
+        }
 
         if (result instanceof List && CollectionUtils.isNotEmpty((List)result)) {
             List   queryResult  = (List) result;
@@ -284,67 +316,58 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
             final int    resultSize = params.limit();
             int          resultIdx  = 0;
 
-            for (int indexQueryOffset = 0; ; indexQueryOffset += getMaxResultSetSize()) {
-                final Iterator<Result<?, ?>> qryResult = graph.indexQuery(Constants.FULLTEXT_INDEX, idxQuery, indexQueryOffset).vertices();
+            // results are read from the index, and their vertices loaded, in batches of max-result-set-size
+            final Iterator<Result<?, ?>> qryResult = graph.indexQuery(Constants.FULLTEXT_INDEX, idxQuery).streamVertices(0, getMaxResultSetSize());
 
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("indexQuery: query=" + idxQuery + "; offset=" + indexQueryOffset);
-                }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("indexQuery: query=" + idxQuery);
+            }
 
-                if(!qryResult.hasNext()) {
-                    break;
+            while (qryResult.hasNext()) {
+                AtlasVertex<?, ?> vertex         = qryResult.next().getVertex();
+                String            vertexTypeName = GraphHelper.getTypeName(vertex);
+
+                // skip non-entity vertices
+                if (StringUtils.isEmpty(vertexTypeName) || StringUtils.isEmpty(GraphHelper.getGuid(vertex))) {
+                    continue;
                 }
 
-                while (qryResult.hasNext()) {
-                    AtlasVertex<?, ?> vertex         = qryResult.next().getVertex();
-                    String            vertexTypeName = GraphHelper.getTypeName(vertex);
+                if (typeNames != null && !typeNames.contains(vertexTypeName)) {
+                    continue;
+                }
 
-                    // skip non-entity vertices
-                    if (StringUtils.isEmpty(vertexTypeName) || StringUtils.isEmpty(GraphHelper.getGuid(vertex))) {
-                        continue;
-                    }
+                if (classificationNames != null) {
+                    List<String> traitNames = GraphHelper.getTraitNames(vertex);
 
-                    if (typeNames != null && !typeNames.contains(vertexTypeName)) {
+                    if (CollectionUtils.isEmpty(traitNames) ||
+                            !CollectionUtils.containsAny(classificationNames, traitNames)) {
                         continue;
                     }
+                }
 
-                    if (classificationNames != null) {
-                        List<String> traitNames = GraphHelper.getTraitNames(vertex);
-
-                        if (CollectionUtils.isEmpty(traitNames) ||
-                                !CollectionUtils.containsAny(classificationNames, traitNames)) {
-                            continue;
-                        }
-                    }
-
-                    if (isAttributeSearch) {
-                        String vertexAttrValue = vertex.getProperty(attrQualifiedName, String.class);
+                if (isAttributeSearch) {
+                    String vertexAttrValue = vertex.getProperty(attrQualifiedName, String.class);
 
-                        if (StringUtils.isNotEmpty(vertexAttrValue) && !vertexAttrValue.startsWith(attrValuePrefix)) {
-                            continue;
-                        }
-                    }
-
-                    if (skipDeletedEntities(excludeDeletedEntities, vertex)) {
+                    if (StringUtils.isNotEmpty(vertexAttrValue) && !vertexAttrValue.startsWith(attrValuePrefix)) {
                         continue;
                     }
+                }
 
-                    resultIdx++;
+                if (skipDeletedEntities(excludeDeletedEntities, vertex)) {
+                    continue;
+                }
 
-                    if (resultIdx <= startIdx) {
-                        continue;
-                    }
+                resultIdx++;
 
-                    AtlasEntityHeader header = entityRetriever.toAtlasEntityHeader(vertex);
+                if (resultIdx <= startIdx) {
+                    continue;
+                }
 
-                    ret.addEntity(header);
+                AtlasEntityHeader header = entityRetriever.toAtlasEntityHeader(vertex);
 
-                    if (ret.getEntities().size() == resultSize) {
-                        break;
-                    }
-                }
+                ret.addEntity(header);
 
-                if (ret.getEntities() != null && ret.getEntities().size() == resultSize) {
+                if (ret.getEntities().size() == resultSize) {
                     break;
                 }
             }
@@ -500,6 +523,14 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
                     }
                 }
             }
+
+            if (context.getNextContinuationToken() != null && context.getSearchProcessor().isContinuationSupported()) {
+                ret.setContinuationToken(context.getNextContinuationToken().encode());
+            }
+
+            if (searchParameters.getIncludeTotalCount()) {
+                setTotalCount(ret, context, resultList);
+            }
         } finally {
             searchTracker.remove(searchID);
         }
@@ -507,6 +538,41 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         return ret;
     }
 
+    @VisibleForTesting
+    static void setTotalCount(AtlasSearchResult ret, SearchContext context, List<AtlasVertex> resultList) {
+        final SearchProcessor processor    = context.getSearchProcessor();
+        final boolean         isTerminated = context.terminateSearch(); // search stopped before reading all results
+        final boolean         isLastPage   = !isTerminated && context.getNextContinuationToken() == null && context.getContinuationToken() == null &&
+                                             (CollectionUtils.isNotEmpty(resultList) || context.getSearchParameters().getOffset() == 0);
+        final long            totalCount;
+        final boolean         isEstimated;
+
+        if (isLastPage) { // all results have been read - count is exact
+            totalCount  = context.getSearchParameters().getOffset() + resultList.size();
+            isEstimated = false;
+        } else if (!isTerminated && processor.isIndexResolvable()) { // numFound of the index query
+            totalCount  = processor.getIndexResultCount();
+            isEstimated = processor.isIndexResultCountEstimated();
+        } else {
+            long idxCount = processor.getIndexResultCount();
+
+            if (idxCount >= 0) {
+                totalCount = idxCount;
+            } else { // no index query to consult; return the number of results seen so far
+                totalCount = (context.getContinuationToken() != null ? 0 : context.getSearchParameters().getOffset()) + CollectionUtils.size(resultList);
+            }
+
+            isEstimated = true;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("searchWithParameters(): totalCount={}, isEstimated={}, isTerminated={}", totalCount, isEstimated, isTerminated);
+        }
+
+        ret.setTotalCount(totalCount);
+        ret.setTotalCountEstimated(isEstimated);
+    }
+
     @Override
     @GraphTransaction
     public AtlasSearchResult searchRelatedEntities(String guid, String relation, String sortByAttributeName, SortOrder sortOrder,
@@ -650,7 +716,7 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
 
     private List<AtlasFullTextResult> getIndexQueryResults(AtlasIndexQuery query, QueryParams params, boolean excludeDeletedEntities) throws AtlasBaseException {
         List<AtlasFullTextResult> ret  = new ArrayList<>();
-        Iterator<Result>          iter = query.vertices();
+        Iterator<Result>          iter = query.streamVertices(0, params.limit());
 
         while (iter.hasNext() && ret.size() < params.limit()) {
             Result      idxQueryResult = iter.next();
@@ -674,7 +740,7 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
 
     private GremlinQuery toGremlinQuery(String query, int limit, int offset) throws AtlasBaseException {
         QueryParams                 params       = QueryParams.getNormalizedParams(limit, offset);
-        GremlinQuery                gremlinQuery = new AtlasDSL.Translator(query, typeRegistry, params.offset(), params.limit()).translate();
+        GremlinQuery                gremlinQuery = dslTranslationCache.translate(query, params.offset(), params.limit());
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("Translated Gremlin Query: {}", gremlinQuery.queryStr());
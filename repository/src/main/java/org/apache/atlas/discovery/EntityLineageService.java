@@ -19,7 +19,9 @@
 package org.apache.atlas.discovery;
 
 
+import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.AtlasClient;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.authorize.AtlasAuthorizationUtils;
@@ -35,6 +37,7 @@ import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection;
 import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageRelation;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
@@ -42,10 +45,7 @@ import org.apache.atlas.repository.store.graph.v1.EntityGraphRetriever;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.type.AtlasTypeUtil;
-import org.apache.atlas.util.AtlasGremlinQueryProvider;
-import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
 import org.apache.atlas.v1.model.lineage.SchemaResponse.SchemaDetails;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
@@ -56,6 +56,7 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -70,23 +71,28 @@ public class EntityLineageService implements AtlasLineageService {
     private static final String COLUMNS              = "columns";
 
     private final AtlasGraph                graph;
-    private final AtlasGremlinQueryProvider gremlinQueryProvider;
     private final EntityGraphRetriever      entityRetriever;
     private final AtlasTypeRegistry         atlasTypeRegistry;
+    private final int                       maxNodes;
+    private final long                      timeoutMs;
 
     @Inject
     EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph) {
-        this.graph = atlasGraph;
-        this.gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
-        this.entityRetriever = new EntityGraphRetriever(typeRegistry);
+        this(typeRegistry, atlasGraph, new EntityGraphRetriever(typeRegistry), AtlasConfiguration.LINEAGE_MAX_NODES.getInt(), AtlasConfiguration.LINEAGE_TIMEOUT_MS.getLong());
+    }
+
+    @VisibleForTesting
+    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph, EntityGraphRetriever entityRetriever, int maxNodes, long timeoutMs) {
+        this.graph             = atlasGraph;
+        this.entityRetriever   = entityRetriever;
         this.atlasTypeRegistry = typeRegistry;
+        this.maxNodes          = maxNodes;
+        this.timeoutMs         = timeoutMs;
     }
 
     @Override
     @GraphTransaction
     public AtlasLineageInfo getAtlasLineageInfo(String guid, LineageDirection direction, int depth) throws AtlasBaseException {
-        AtlasLineageInfo lineageInfo;
-
         AtlasEntityHeader entity = entityRetriever.toAtlasEntityHeaderWithClassifications(guid);
 
         AtlasAuthorizationUtils.verifyAccess(new AtlasEntityAccessRequest(atlasTypeRegistry, AtlasPrivilege.ENTITY_READ, entity), "read entity lineage: guid=", guid);
@@ -97,13 +103,21 @@ public class EntityLineageService implements AtlasLineageService {
             throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_DATASET, guid);
         }
 
+        return getLineageInfo(guid, direction, depth);
+    }
+
+    @VisibleForTesting
+    AtlasLineageInfo getLineageInfo(String guid, LineageDirection direction, int depth) throws AtlasBaseException {
+        final AtlasLineageInfo lineageInfo;
+        final long             deadline = System.currentTimeMillis() + timeoutMs;
+
         if (direction != null) {
             if (direction.equals(LineageDirection.INPUT)) {
-                lineageInfo = getLineageInfo(guid, LineageDirection.INPUT, depth);
+                lineageInfo = getLineageInfo(guid, LineageDirection.INPUT, depth, deadline);
             } else if (direction.equals(LineageDirection.OUTPUT)) {
-                lineageInfo = getLineageInfo(guid, LineageDirection.OUTPUT, depth);
+                lineageInfo = getLineageInfo(guid, LineageDirection.OUTPUT, depth, deadline);
             } else if (direction.equals(LineageDirection.BOTH)) {
-                lineageInfo = getBothLineageInfo(guid, depth);
+                lineageInfo = getBothLineageInfo(guid, depth, deadline);
             } else {
                 throw new AtlasBaseException(AtlasErrorCode.INSTANCE_LINEAGE_INVALID_PARAMS, "direction", direction.toString());
             }
@@ -182,41 +196,87 @@ public class EntityLineageService implements AtlasLineageService {
         return columnIds.contains(e.getValue().getGuid());
     }
 
-    private AtlasLineageInfo getLineageInfo(String guid, LineageDirection direction, int depth) throws AtlasBaseException {
-        Map<String, AtlasEntityHeader> entities     = new HashMap<>();
-        Set<LineageRelation>           relations    = new HashSet<>();
-        String                         lineageQuery = getLineageQuery(guid, direction, depth);
-
-        List edgeMapList = (List) graph.executeGremlinScript(lineageQuery, false);
-
-        if (CollectionUtils.isNotEmpty(edgeMapList)) {
-            for (Object edgeMap : edgeMapList) {
-                if (edgeMap instanceof Map) {
-                    for (final Object o : ((Map) edgeMap).entrySet()) {
-                        final Map.Entry entry = (Map.Entry) o;
-                        Object          value = entry.getValue();
-
-                        if (value instanceof List) {
-                            for (Object elem : (List) value) {
-                                if (elem instanceof AtlasEdge) {
-                                    processEdge((AtlasEdge) elem, entities, relations);
-                                } else {
-                                    LOG.warn("Invalid value of type {} found, ignoring", (elem != null ? elem.getClass().getSimpleName() : "null"));
-                                }
-                            }
-                        } else if (value instanceof AtlasEdge) {
-                            processEdge((AtlasEdge) value, entities, relations);
-                        } else {
-                            LOG.warn("Invalid value of type {} found, ignoring", (value != null ? value.getClass().getSimpleName() : "null"));
+    /**
+     * Breadth-first walk over process input/output edges, starting from the given dataset. Each hop goes from a
+     * dataset to the processes it is an input (or output) of, and from there to the output (or input) datasets of
+     * these processes. Each vertex is expanded at most once, hence diamond-shaped lineage is walked only once.
+     * Limits are checked before each edge is added, so the walk stops early when the number of entities reaches
+     * maxNodes or when the deadline passes, even within a single process with many inputs/outputs; in such case
+     * lineage collected so far is returned.
+     */
+    private AtlasLineageInfo getLineageInfo(String guid, LineageDirection direction, int depth, long deadline) throws AtlasBaseException {
+        final Map<String, AtlasEntityHeader> entities     = new LinkedHashMap<>();
+        final Set<LineageRelation>           relations    = new HashSet<>();
+        final String                         incomingFrom = direction == LineageDirection.INPUT ? PROCESS_OUTPUTS_EDGE : PROCESS_INPUTS_EDGE;
+        final String                         outgoingTo   = direction == LineageDirection.INPUT ? PROCESS_INPUTS_EDGE : PROCESS_OUTPUTS_EDGE;
+        final Set<Object>                    visited      = new HashSet<>();
+        List<AtlasVertex>                    currentLevel = new ArrayList<>();
+        AtlasVertex                          startVertex  = entityRetriever.getEntityVertex(guid);
+        String                               stopReason   = null;
+
+        visited.add(startVertex.getId());
+        currentLevel.add(startVertex);
+
+        walk:
+        for (int level = 0; (depth < 1 || level < depth) && !currentLevel.isEmpty(); level++) {
+            List<AtlasVertex> nextLevel = new ArrayList<>();
+
+            for (AtlasVertex datasetVertex : currentLevel) {
+                for (AtlasEdge processEdge : (Iterable<AtlasEdge>) datasetVertex.getEdges(AtlasEdgeDirection.IN, incomingFrom)) {
+                    stopReason = getStopReason(entities, deadline);
+
+                    if (stopReason != null) {
+                        break walk;
+                    }
+
+                    AtlasVertex processVertex = processEdge.getOutVertex();
+
+                    processEdge(processEdge, entities, relations);
+
+                    if (!visited.add(processVertex.getId())) { // edges of this process have already been added
+                        continue;
+                    }
+
+                    for (AtlasEdge datasetEdge : (Iterable<AtlasEdge>) processVertex.getEdges(AtlasEdgeDirection.OUT, outgoingTo)) {
+                        stopReason = getStopReason(entities, deadline);
+
+                        if (stopReason != null) {
+                            break walk;
+                        }
+
+                        AtlasVertex nextVertex = datasetEdge.getInVertex();
+
+                        processEdge(datasetEdge, entities, relations);
+
+                        if (visited.add(nextVertex.getId())) {
+                            nextLevel.add(nextVertex);
                         }
                     }
                 }
             }
+
+            currentLevel = nextLevel;
+        }
+
+        if (stopReason != null) {
+            LOG.warn("getLineageInfo(guid={}, direction={}, depth={}): {}; returning partial lineage with {} entities", guid, direction, depth, stopReason, entities.size());
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug("getLineageInfo(guid={}, direction={}, depth={}): {} entities, {} relations", guid, direction, depth, entities.size(), relations.size());
         }
 
         return new AtlasLineageInfo(guid, entities, relations, direction, depth);
     }
 
+    private String getStopReason(Map<String, AtlasEntityHeader> entities, long deadline) {
+        if (entities.size() >= maxNodes) {
+            return "number of entities reached limit " + maxNodes;
+        } else if (System.currentTimeMillis() > deadline) {
+            return "timed out after " + timeoutMs + "ms";
+        }
+
+        return null;
+    }
+
     private void processEdge(final AtlasEdge edge, final Map<String, AtlasEntityHeader> entities, final Set<LineageRelation> relations) throws AtlasBaseException {
         AtlasVertex inVertex     = edge.getInVertex();
         AtlasVertex outVertex    = edge.getOutVertex();
@@ -242,9 +302,9 @@ public class EntityLineageService implements AtlasLineageService {
         }
     }
 
-    private AtlasLineageInfo getBothLineageInfo(String guid, int depth) throws AtlasBaseException {
-        AtlasLineageInfo inputLineage  = getLineageInfo(guid, LineageDirection.INPUT, depth);
-        AtlasLineageInfo outputLineage = getLineageInfo(guid, LineageDirection.OUTPUT, depth);
+    private AtlasLineageInfo getBothLineageInfo(String guid, int depth, long deadline) throws AtlasBaseException {
+        AtlasLineageInfo inputLineage  = getLineageInfo(guid, LineageDirection.INPUT, depth, deadline);
+        AtlasLineageInfo outputLineage = getLineageInfo(guid, LineageDirection.OUTPUT, depth, deadline);
         AtlasLineageInfo ret           = inputLineage;
 
         ret.getRelations().addAll(outputLineage.getRelations());
@@ -253,29 +313,4 @@ public class EntityLineageService implements AtlasLineageService {
 
         return ret;
     }
-
-    private String getLineageQuery(String entityGuid, LineageDirection direction, int depth) {
-        String lineageQuery = null;
-
-        if (direction.equals(LineageDirection.INPUT)) {
-            lineageQuery = generateLineageQuery(entityGuid, depth, PROCESS_OUTPUTS_EDGE, PROCESS_INPUTS_EDGE);
-
-        } else if (direction.equals(LineageDirection.OUTPUT)) {
-            lineageQuery = generateLineageQuery(entityGuid, depth, PROCESS_INPUTS_EDGE, PROCESS_OUTPUTS_EDGE);
-        }
-
-        return lineageQuery;
-    }
-
-    private String generateLineageQuery(String entityGuid, int depth, String incomingFrom, String outgoingTo) {
-        String lineageQuery;
-        if (depth < 1) {
-            String query = gremlinQueryProvider.getQuery(AtlasGremlinQuery.FULL_LINEAGE);
-            lineageQuery = String.format(query, entityGuid, incomingFrom, outgoingTo);
-        } else {
-            String query = gremlinQueryProvider.getQuery(AtlasGremlinQuery.PARTIAL_LINEAGE);
-            lineageQuery = String.format(query, entityGuid, incomingFrom, outgoingTo, depth);
-        }
-        return lineageQuery;
-    }
-}
\ No newline at end of file
+}
@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.discovery;
 
+import org.apache.atlas.SortOrder;
 import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
@@ -48,6 +49,7 @@ public class EntitySearchProcessor extends SearchProcessor {
 
     private final AtlasIndexQuery indexQuery;
     private final AtlasGraphQuery graphQuery;
+    private final boolean         isIndexQueryExact;
     private       Predicate       graphQueryPredicate;
     private       Predicate       filterGraphQueryPredicate;
 
@@ -103,8 +105,15 @@ public class EntitySearchProcessor extends SearchProcessor {
 
         processSearchAttributes(entityType, filterCriteria, indexAttributes, graphAttributes, allAttributes);
 
-        final boolean typeSearchByIndex = !filterClassification && typeAndSubTypesQryStr.length() <= MAX_QUERY_STR_LENGTH_TYPES;
-        final boolean attrSearchByIndex = !filterClassification && CollectionUtils.isNotEmpty(indexAttributes) && canApplyIndexFilter(entityType, filterCriteria, false);
+        // index query can't order the results; graph query is used instead, which is answered by the index, with
+        // ordering done by the index backend, when the sort attribute is indexed
+        final String  sortKey           = context.getSortKey();
+        final boolean typeSearchByIndex = !filterClassification && sortKey == null && typeAndSubTypesQryStr.length() <= MAX_QUERY_STR_LENGTH_TYPES;
+        final boolean attrSearchByIndex = !filterClassification && sortKey == null && CollectionUtils.isNotEmpty(indexAttributes) && canApplyIndexFilter(entityType, filterCriteria, false);
+
+        if (sortKey != null && (context.getIndexedKeys() == null || !context.getIndexedKeys().contains(sortKey))) {
+            LOG.warn("not using index to sort by attribute '{}'; might cause poor performance", sortKey);
+        }
 
         StringBuilder indexQuery = new StringBuilder();
 
@@ -174,6 +183,10 @@ public class EntitySearchProcessor extends SearchProcessor {
 
             graphQuery = toGraphFilterQuery(entityType, filterCriteria, graphAttributes, query);
 
+            if (sortKey != null) {
+                graphQuery.orderBy(sortKey, context.getSortOrder() == SortOrder.DESCENDING ? AtlasGraphQuery.SortOrder.DESCENDING : AtlasGraphQuery.SortOrder.ASCENDING);
+            }
+
             // Prepare in-memory predicate for attribute filtering
             Predicate attributePredicate = constructInMemoryPredicate(entityType, filterCriteria, graphAttributes);
 
@@ -199,6 +212,10 @@ public class EntitySearchProcessor extends SearchProcessor {
             graphQueryPredicate = null;
         }
 
+        // hits of the index query are the results, when attribute filters aren't rechecked in-memory and there is no
+        // graph query; the in-memory typeName check (ATLAS-2121) only drops hits of types differing just in case
+        isIndexQueryExact = this.indexQuery != null && graphQuery == null && !attrSearchByIndex;
+
 
         // Prepare the graph query and in-memory filter for the filtering phase
         filterGraphQueryPredicate = typeNamePredicate;
@@ -234,14 +251,24 @@ public class EntitySearchProcessor extends SearchProcessor {
         }
 
         try {
-            final int startIdx = context.getSearchParameters().getOffset();
-            final int limit    = context.getSearchParameters().getLimit();
+            final SearchContinuationToken continuation = context.getContinuationToken();
+            final int                     startIdx     = continuation != null ? continuation.getSkipCount() : context.getSearchParameters().getOffset();
+            final int                     limit        = context.getSearchParameters().getLimit();
 
-            // when subsequent filtering stages are involved, query should start at 0 even though startIdx can be higher
-            //
-            // first 'startIdx' number of entries will be ignored
-            int qryOffset = (nextProcessor != null || (graphQuery != null && indexQuery != null)) ? 0 : startIdx;
-            int resultIdx = qryOffset;
+            int qryOffset;
+            int resultIdx;
+
+            if (continuation != null) {
+                // continue from the batch where the previous page ended; first 'startIdx' entries of it will be ignored
+                qryOffset = continuation.getQueryOffset();
+                resultIdx = 0;
+            } else {
+                // when subsequent filtering stages are involved, query should start at 0 even though startIdx can be higher
+                //
+                // first 'startIdx' number of entries will be ignored
+                qryOffset = (nextProcessor != null || (graphQuery != null && indexQuery != null)) ? 0 : startIdx;
+                resultIdx = qryOffset;
+            }
 
             final List<AtlasVertex> entityVertices = new ArrayList<>();
 
@@ -281,7 +308,7 @@ public class EntitySearchProcessor extends SearchProcessor {
 
                 super.filter(entityVertices);
 
-                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices, qryOffset);
             }
         } finally {
             AtlasPerfTracer.log(perf);
@@ -294,6 +321,21 @@ public class EntitySearchProcessor extends SearchProcessor {
         return ret;
     }
 
+    @Override
+    public long getIndexResultCount() {
+        return indexQuery != null ? indexQuery.vertexTotals() : -1;
+    }
+
+    @Override
+    public boolean isIndexResultCountEstimated() {
+        return indexQuery != null && indexQuery.isVertexTotalsEstimated();
+    }
+
+    @Override
+    public boolean isIndexResolvable() {
+        return isIndexQueryExact && nextProcessor == null;
+    }
+
     @Override
     public void filter(List<AtlasVertex> entityVertices) {
         if (LOG.isDebugEnabled()) {
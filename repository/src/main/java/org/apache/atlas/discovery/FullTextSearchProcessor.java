@@ -77,6 +77,17 @@ public class FullTextSearchProcessor extends SearchProcessor {
         indexQuery = context.getGraph().indexQuery(Constants.FULLTEXT_INDEX, queryString.toString());
     }
 
+    @Override
+    public long getIndexResultCount() {
+        // full-text hits are not filtered for type/state yet, so this is an upper bound rather than an exact count
+        return indexQuery != null ? indexQuery.vertexTotals() : -1;
+    }
+
+    @Override
+    public boolean isIndexResultCountEstimated() {
+        return indexQuery != null && indexQuery.isVertexTotalsEstimated();
+    }
+
     @Override
     public List<AtlasVertex> execute() {
         if (LOG.isDebugEnabled()) {
@@ -92,16 +103,18 @@ public class FullTextSearchProcessor extends SearchProcessor {
         }
 
         try {
-            final int     startIdx   = context.getSearchParameters().getOffset();
-            final int     limit      = context.getSearchParameters().getLimit();
-            final boolean activeOnly = context.getSearchParameters().getExcludeDeletedEntities();
+            final SearchContinuationToken continuation = context.getContinuationToken();
+            final int                     startIdx     = continuation != null ? continuation.getSkipCount() : context.getSearchParameters().getOffset();
+            final int                     limit        = context.getSearchParameters().getLimit();
+            final boolean                 activeOnly   = context.getSearchParameters().getExcludeDeletedEntities();
 
             // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
-            // have been dropped: like vertices of non-entity or non-active-entity
+            // have been dropped: like vertices of non-entity or non-active-entity. With a continuation token, query
+            // starts at the batch where the previous page ended
             //
             // first 'startIdx' number of entries will be ignored
-            int qryOffset = 0;
-            int resultIdx = qryOffset;
+            int qryOffset = continuation != null ? continuation.getQueryOffset() : 0;
+            int resultIdx = 0;
 
             final List<AtlasVertex> entityVertices = new ArrayList<>();
 
@@ -141,7 +154,7 @@ public class FullTextSearchProcessor extends SearchProcessor {
 
                 super.filter(entityVertices);
 
-                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
+                resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices, qryOffset);
             }
         } finally {
             AtlasPerfTracer.log(perf);
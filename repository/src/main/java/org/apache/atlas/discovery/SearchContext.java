@@ -19,6 +19,7 @@ package org.apache.atlas.discovery;
 
 
 import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.SortOrder;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.SearchParameters;
 import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
@@ -47,7 +48,10 @@ public class SearchContext {
     private final Set<String>             entityAttributes;
     private final AtlasEntityType         entityType;
     private final AtlasClassificationType classificationType;
+    private final String                  sortKey;
     private       SearchProcessor         searchProcessor;
+    private       SearchContinuationToken continuationToken;
+    private       SearchContinuationToken nextContinuationToken;
     private       boolean                 terminateSearch = false;
 
     public final static AtlasClassificationType MATCH_ALL_CLASSIFICATION = new AtlasClassificationType(new AtlasClassificationDef("*"));
@@ -79,6 +83,9 @@ public class SearchContext {
         // Invalid attributes will raise an exception with 400 error code
         validateAttributes(classificationType, searchParameters.getTagFilters());
 
+        // Invalid sort attribute will raise an exception with 400 error code
+        this.sortKey = getSortKey(entityType, searchParameters.getSortBy());
+
         if (needFullTextProcessor()) {
             addProcessor(new FullTextSearchProcessor(this));
         }
@@ -90,6 +97,20 @@ public class SearchContext {
         if (needEntityProcessor()) {
             addProcessor(new EntitySearchProcessor(this));
         }
+
+        // sort can be pushed down to the graph/index query only when the entity processor drives the search; sorting
+        // just the page returned by full-text/classification processors would give inconsistent order across pages
+        if (sortKey != null && !(searchProcessor instanceof EntitySearchProcessor)) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "SortBy is not supported with full-text query or classification attribute filters");
+        }
+
+        if (StringUtils.isNotEmpty(searchParameters.getContinuationToken())) {
+            if (searchProcessor != null && !searchProcessor.isContinuationSupported()) {
+                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "continuationToken is not supported for this classification search; use offset");
+            }
+
+            continuationToken = SearchContinuationToken.decode(searchParameters.getContinuationToken(), getFingerprint());
+        }
     }
 
     public SearchParameters getSearchParameters() { return searchParameters; }
@@ -108,6 +129,29 @@ public class SearchContext {
 
     public SearchProcessor getSearchProcessor() { return searchProcessor; }
 
+    /**
+     * @return vertex property by which the results are to be sorted; null if results need not be sorted
+     */
+    public String getSortKey() { return sortKey; }
+
+    public SortOrder getSortOrder() {
+        return searchParameters.getSortOrder() != null ? searchParameters.getSortOrder() : SortOrder.ASCENDING;
+    }
+
+    /**
+     * @return position from where the search should continue; null to start from the offset in search parameters
+     */
+    public SearchContinuationToken getContinuationToken() { return continuationToken; }
+
+    /**
+     * @return position from where the next page of results should continue; null if there are no more results
+     */
+    public SearchContinuationToken getNextContinuationToken() { return nextContinuationToken; }
+
+    public void setNextContinuation(int queryOffset, int skipCount) {
+        this.nextContinuationToken = new SearchContinuationToken(getFingerprint(), queryOffset, skipCount);
+    }
+
     public boolean terminateSearch() { return terminateSearch; }
 
     public void terminateSearch(boolean terminateSearch) { this.terminateSearch = terminateSearch; }
@@ -166,6 +210,24 @@ public class SearchContext {
                (CollectionUtils.isNotEmpty(filterCriteria.getCriterion()) || StringUtils.isNotEmpty(filterCriteria.getAttributeName()));
     }
 
+    private String getSortKey(AtlasEntityType entityType, String sortBy) throws AtlasBaseException {
+        String ret = null;
+
+        if (StringUtils.isNotEmpty(sortBy)) {
+            if (entityType == null) {
+                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "SortBy specified without Type name");
+            }
+
+            ret = entityType.getQualifiedAttributeName(sortBy);
+        }
+
+        return ret;
+    }
+
+    private String getFingerprint() {
+        return SearchContinuationToken.getFingerprint(searchParameters, searchProcessor);
+    }
+
     private void addProcessor(SearchProcessor processor) {
         if (searchProcessor == null) {
             searchProcessor = processor;
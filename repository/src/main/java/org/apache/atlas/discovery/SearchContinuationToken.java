@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.commons.lang.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.CRC32;
+
+/*
+ * Position in the results of the first search processor of a basic search, from where the next page continues.
+ *
+ * The position is the offset, in the index/graph query of the processor, of the batch that returned the last result
+ * of a page; and the number of results from that batch, after in-memory filtering and filtering by chained processors,
+ * that were already returned. Unlike offset based paging, which re-reads and re-filters all earlier results, the next
+ * page reads from this batch onwards.
+ *
+ * The token includes a fingerprint of the search, so that it is not used with a different search.
+ */
+public class SearchContinuationToken {
+    private static final String VERSION   = "1";
+    private static final String SEPARATOR = ":";
+
+    private final String fingerprint;
+    private final int    queryOffset;
+    private final int    skipCount;
+
+    public SearchContinuationToken(String fingerprint, int queryOffset, int skipCount) {
+        this.fingerprint = fingerprint;
+        this.queryOffset = queryOffset;
+        this.skipCount   = skipCount;
+    }
+
+    public String getFingerprint() { return fingerprint; }
+
+    public int getQueryOffset() { return queryOffset; }
+
+    public int getSkipCount() { return skipCount; }
+
+    public String encode() {
+        String str = VERSION + SEPARATOR + fingerprint + SEPARATOR + queryOffset + SEPARATOR + skipCount;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchContinuationToken decode(String token, String fingerprint) throws AtlasBaseException {
+        SearchContinuationToken ret = null;
+
+        try {
+            String   str   = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = StringUtils.splitPreserveAllTokens(str, SEPARATOR);
+
+            if (parts.length == 4 && VERSION.equals(parts[0]) && StringUtils.equals(fingerprint, parts[1])) {
+                int queryOffset = Integer.parseInt(parts[2]);
+                int skipCount   = Integer.parseInt(parts[3]);
+
+                if (queryOffset >= 0 && skipCount >= 0) {
+                    ret = new SearchContinuationToken(fingerprint, queryOffset, skipCount);
+                }
+            }
+        } catch (IllegalArgumentException excp) { // invalid Base64 or number
+            ret = null;
+        }
+
+        if (ret == null) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_SEARCH_CONTINUATION_TOKEN, token);
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return fingerprint of the search; parameters that don't change the order of results, like offset, limit and
+     *         attributes to return, are not included
+     */
+    public static String getFingerprint(SearchParameters searchParameters, SearchProcessor searchProcessor) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(searchProcessor != null ? searchProcessor.getClass().getSimpleName() : null);
+        sb.append(SEPARATOR).append(searchParameters.getQuery());
+        sb.append(SEPARATOR).append(searchParameters.getTypeName());
+        sb.append(SEPARATOR).append(searchParameters.getClassification());
+        sb.append(SEPARATOR).append(searchParameters.getExcludeDeletedEntities());
+        sb.append(SEPARATOR).append(searchParameters.getIncludeSubTypes());
+        sb.append(SEPARATOR).append(searchParameters.getIncludeSubClassifications());
+        sb.append(SEPARATOR).append(searchParameters.getEntityFilters());
+        sb.append(SEPARATOR).append(searchParameters.getTagFilters());
+        sb.append(SEPARATOR).append(searchParameters.getSortBy());
+        sb.append(SEPARATOR).append(searchParameters.getSortOrder());
+
+        CRC32 crc = new CRC32();
+
+        crc.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        return Long.toHexString(crc.getValue());
+    }
+
+    @Override
+    public String toString() {
+        return "SearchContinuationToken{fingerprint=" + fingerprint + ", queryOffset=" + queryOffset + ", skipCount=" + skipCount + "}";
+    }
+}
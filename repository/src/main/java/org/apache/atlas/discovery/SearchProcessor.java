@@ -141,7 +141,40 @@ public abstract class SearchProcessor {
 
     public abstract List<AtlasVertex> execute();
 
-    protected int collectResultVertices(final List<AtlasVertex> ret, final int startIdx, final int limit, int resultIdx, final List<AtlasVertex> entityVertices) {
+    /**
+     * @return number of hits of the index query of this processor, as reported by the index; -1 if not available
+     */
+    public long getIndexResultCount() {
+        return -1;
+    }
+
+    /**
+     * @return true if the value last returned by getIndexResultCount() is an estimate made by the graph backend,
+     *         rather than the number of hits of the index query
+     */
+    public boolean isIndexResultCountEstimated() {
+        return false;
+    }
+
+    /**
+     * @return true if results of this search are determined entirely by the index query, i.e. getIndexResultCount()
+     *         is the exact number of results of the search
+     */
+    public boolean isIndexResolvable() {
+        return false;
+    }
+
+    /**
+     * @return true if a page of results of this search can be continued from a SearchContinuationToken, i.e. the
+     *         results of a batch don't depend on batches read earlier in the same request
+     */
+    public boolean isContinuationSupported() {
+        return true;
+    }
+
+    protected int collectResultVertices(final List<AtlasVertex> ret, final int startIdx, final int limit, int resultIdx, final List<AtlasVertex> entityVertices, final int qryOffset) {
+        final int batchResultIdx = resultIdx;
+
         for (AtlasVertex entityVertex : entityVertices) {
             resultIdx++;
 
@@ -156,6 +189,11 @@ public abstract class SearchProcessor {
             }
         }
 
+        // page is full: next page should continue from this batch, skipping the entries of the batch already seen
+        if (ret.size() == limit) {
+            context.setNextContinuation(qryOffset, resultIdx - batchResultIdx);
+        }
+
         return resultIdx;
     }
 
@@ -165,7 +203,6 @@ public abstract class SearchProcessor {
         }
     }
 
-
     protected void processSearchAttributes(AtlasStructType structType, FilterCriteria filterCriteria, Set<String> indexFiltered, Set<String> graphFiltered, Set<String> allAttributes) {
         if (structType == null || filterCriteria == null) {
             return;
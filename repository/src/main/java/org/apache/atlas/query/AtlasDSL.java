@@ -18,12 +18,16 @@
 package org.apache.atlas.query;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.query.antlr4.AtlasDSLLexer;
@@ -38,11 +42,33 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AtlasDSL {
 
+    /**
+     * How translated DSL queries are executed: as Gremlin scripts, or as native graph traversals where supported.
+     */
+    public enum Executor {
+        SCRIPT,
+        TRAVERSAL;
+
+        public static Executor fromString(String name) {
+            for (Executor executor : values()) {
+                if (executor.name().equalsIgnoreCase(StringUtils.trim(name))) {
+                    return executor;
+                }
+            }
+
+            return SCRIPT;
+        }
+    }
+
     public static class Parser {
         private static final Logger LOG = LoggerFactory.getLogger(Parser.class);
 
@@ -67,10 +93,29 @@ public class AtlasDSL {
                 AtlasDSLParser parser           = new AtlasDSLParser(inputTokenStream);
 
                 parser.removeErrorListeners();
-                parser.addErrorListener(validator);
 
-                // Validate the syntax of the query here
-                ret = parser.query();
+                // Try the faster SLL prediction first; it either succeeds with the same result as LL or fails.
+                // On failure, parse again with full LL prediction, which reports the actual syntax errors if any
+                parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+                parser.setErrorHandler(new BailErrorStrategy());
+
+                try {
+                    ret = parser.query();
+                } catch (ParseCancellationException excp) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("SLL parsing failed for query {}; retrying with LL prediction", queryStr);
+                    }
+
+                    inputTokenStream.seek(0);
+                    parser.reset();
+                    parser.addErrorListener(validator);
+                    parser.setErrorHandler(new DefaultErrorStrategy());
+                    parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+
+                    // Validate the syntax of the query here
+                    ret = parser.query();
+                }
+
                 if (!validator.isValid()) {
                     LOG.error("Invalid DSL: {} Reason: {}", queryStr, validator.getErrorMsg());
                     throw new AtlasBaseException(AtlasErrorCode.INVALID_DSL_QUERY, queryStr, validator.getErrorMsg());
@@ -129,9 +174,10 @@ public class AtlasDSL {
 
             processErrorList(gremlinQueryComposer);
 
-            String gremlinQuery = gremlinQueryComposer.get();
+            String         gremlinQuery   = gremlinQueryComposer.get();
+            TraversalQuery traversalQuery = TraversalQuery.create(gremlinQueryComposer);
 
-            return new GremlinQuery(gremlinQuery, queryMetadata.hasSelect());
+            return new GremlinQuery(gremlinQuery, Collections.unmodifiableMap(gremlinQueryComposer.getBindings()), queryMetadata.hasSelect(), traversalQuery);
         }
 
         private void processErrorList(GremlinQueryComposer gremlinQueryComposer) throws AtlasBaseException {
@@ -145,6 +191,131 @@ public class AtlasDSL {
         }
     }
 
+    /**
+     * Bounded cache of translated queries, keyed by the normalized query text, offset and limit. Cached translations
+     * are discarded when the version of the type-registry changes, i.e. after typedefs are created, updated or deleted.
+     */
+    public static class TranslationCache {
+        private static final Logger LOG = LoggerFactory.getLogger(TranslationCache.class);
+
+        private final AtlasTypeRegistry         typeRegistry;
+        private final int                       maxSize;
+        private final Map<String, GremlinQuery> translations;
+        private final AtomicLong                hitCount  = new AtomicLong();
+        private final AtomicLong                missCount = new AtomicLong();
+        private       long                      typeRegistryVersion;
+
+        public TranslationCache(AtlasTypeRegistry typeRegistry, final int maxSize) {
+            this.typeRegistry        = typeRegistry;
+            this.maxSize             = maxSize;
+            this.typeRegistryVersion = typeRegistry.getVersion();
+            this.translations        = new LinkedHashMap<String, GremlinQuery>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, GremlinQuery> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        public GremlinQuery translate(String query, int offset, int limit) throws AtlasBaseException {
+            if (maxSize <= 0) {
+                return new Translator(query, typeRegistry, offset, limit).translate();
+            }
+
+            long         version = typeRegistry.getVersion();
+            String       key     = getCacheKey(query, offset, limit);
+            GremlinQuery ret     = get(key, version);
+
+            if (ret == null) {
+                missCount.incrementAndGet();
+
+                ret = new Translator(query, typeRegistry, offset, limit).translate();
+
+                put(key, version, ret);
+            } else {
+                hitCount.incrementAndGet();
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("translate({}): found in cache", query);
+                }
+            }
+
+            return ret;
+        }
+
+        public synchronized void clear() {
+            translations.clear();
+        }
+
+        public synchronized int size() {
+            return translations.size();
+        }
+
+        public long getHitCount() {
+            return hitCount.get();
+        }
+
+        public long getMissCount() {
+            return missCount.get();
+        }
+
+        private synchronized GremlinQuery get(String key, long version) {
+            if (version != typeRegistryVersion) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("type-registry version changed from {} to {}; clearing {} cached translations", typeRegistryVersion, version, translations.size());
+                }
+
+                translations.clear();
+
+                typeRegistryVersion = version;
+
+                return null;
+            }
+
+            return translations.get(key);
+        }
+
+        private synchronized void put(String key, long version, GremlinQuery query) {
+            if (version == typeRegistryVersion) { // don't cache translations made with an older version of typedefs
+                translations.put(key, query);
+            }
+        }
+
+        @VisibleForTesting
+        static String getCacheKey(String query, int offset, int limit) {
+            StringBuilder sb        = new StringBuilder().append(offset).append(':').append(limit).append(':');
+            char          quoteChar = 0;
+            boolean       inSpace   = false;
+
+            // collapse whitespaces outside of quoted strings, so that queries differing only in formatting share the entry
+            for (char c : StringUtils.trim(query).toCharArray()) {
+                if (quoteChar == 0 && Character.isWhitespace(c)) {
+                    inSpace = true;
+
+                    continue;
+                }
+
+                if (inSpace) {
+                    sb.append(' ');
+
+                    inSpace = false;
+                }
+
+                if (quoteChar != 0) {
+                    if (c == quoteChar) {
+                        quoteChar = 0;
+                    }
+                } else if (c == '\'' || c == '"' || c == '`') {
+                    quoteChar = c;
+                }
+
+                sb.append(c);
+            }
+
+            return sb.toString();
+        }
+    }
+
     public static class QueryMetadata {
         private boolean hasSelect;
         private boolean hasGroupBy;
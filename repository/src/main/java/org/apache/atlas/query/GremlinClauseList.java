@@ -46,11 +46,11 @@ class GremlinClauseList {
     }
 
     public void add(GremlinClause clause, String... args) {
-        list.add(new GremlinQueryComposer.GremlinClauseValue(clause, clause.get(args)));
+        list.add(new GremlinQueryComposer.GremlinClauseValue(clause, args));
     }
 
     public void add(int i, GremlinClause clause, String... args) {
-        list.add(i, new GremlinQueryComposer.GremlinClauseValue(clause, clause.get(args)));
+        list.add(i, new GremlinQueryComposer.GremlinClauseValue(clause, args));
     }
 
     public GremlinQueryComposer.GremlinClauseValue getAt(int i) {
@@ -17,14 +17,29 @@
  */
 package org.apache.atlas.query;
 
+import java.util.Collections;
+import java.util.Map;
+
 public class GremlinQuery {
 
-    private final String queryStr;
-    private final boolean hasSelect;
+    private final String              queryStr;
+    private final Map<String, Object> bindings;
+    private final boolean             hasSelect;
+    private final TraversalQuery      traversalQuery;
 
     public GremlinQuery(String text, boolean hasSelect) {
-        this.queryStr = text;
-        this.hasSelect = hasSelect;
+        this(text, Collections.<String, Object>emptyMap(), hasSelect);
+    }
+
+    public GremlinQuery(String text, Map<String, Object> bindings, boolean hasSelect) {
+        this(text, bindings, hasSelect, null);
+    }
+
+    public GremlinQuery(String text, Map<String, Object> bindings, boolean hasSelect, TraversalQuery traversalQuery) {
+        this.queryStr       = text;
+        this.bindings       = bindings;
+        this.hasSelect      = hasSelect;
+        this.traversalQuery = traversalQuery;
     }
 
 
@@ -35,4 +50,18 @@ public class GremlinQuery {
     public String queryStr() {
         return queryStr;
     }
+
+    /**
+     * Values referenced by the parameters in queryStr(); to be passed as script bindings when executing the query.
+     */
+    public Map<String, Object> bindings() {
+        return bindings;
+    }
+
+    /**
+     * @return the query as a native graph traversal; null if the query can only be executed as a script
+     */
+    public TraversalQuery traversalQuery() {
+        return traversalQuery;
+    }
 }
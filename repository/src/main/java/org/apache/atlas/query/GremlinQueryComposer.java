@@ -32,12 +32,15 @@ import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -83,7 +86,7 @@ public class GremlinQueryComposer {
 
     public GremlinQueryComposer(AtlasTypeRegistry typeRegistry, final AtlasDSL.QueryMetadata qmd, int limit, int offset) {
         this(new RegistryBasedLookup(typeRegistry), qmd, false);
-        this.context = new Context(lookup);
+        this.context = new Context(lookup, true);
 
         providedLimit = limit;
         providedOffset = offset < 0 ? DEFAULT_QUERY_RESULT_OFFSET : offset;
@@ -174,11 +177,11 @@ public class GremlinQueryComposer {
         rhs = addQuotesIfNecessary(lhsI, rhs);
         SearchParameters.Operator op = SearchParameters.Operator.fromString(operator);
         if (op == SearchParameters.Operator.LIKE) {
-            add(GremlinClause.TEXT_CONTAINS, lhsI.getQualifiedName(), IdentifierHelper.getFixedRegEx(rhs));
+            add(GremlinClause.TEXT_CONTAINS, lhsI.getQualifiedName(), bindLiteral(IdentifierHelper.getFixedRegEx(rhs)));
         } else if (op == SearchParameters.Operator.IN) {
-            add(GremlinClause.HAS_OPERATOR, lhsI.getQualifiedName(), "within", rhs);
+            add(GremlinClause.HAS_OPERATOR, lhsI.getQualifiedName(), "within", bindLiterals(rhs));
         } else {
-            add(GremlinClause.HAS_OPERATOR, lhsI.getQualifiedName(), op.getSymbols()[1], rhs);
+            add(GremlinClause.HAS_OPERATOR, lhsI.getQualifiedName(), op.getSymbols()[1], bindLiteral(rhs));
         }
         // record that the attribute has been processed so that the select clause doesn't add a attr presence check
         attributesProcessed.add(lhsI.getQualifiedName());
@@ -194,12 +197,12 @@ public class GremlinQueryComposer {
         return rhs.replace("'", "").replace("\"", "");
     }
 
-    public void addAndClauses(List<String> clauses) {
-        add(GremlinClause.AND, String.join(",", clauses));
+    public void addAndClauses(List<GremlinQueryComposer> clauses) {
+        addNestedClauses(GremlinClause.AND, clauses);
     }
 
-    public void addOrClauses(List<String> clauses) {
-        add(GremlinClause.OR, String.join(",", clauses));
+    public void addOrClauses(List<GremlinQueryComposer> clauses) {
+        addNestedClauses(GremlinClause.OR, clauses);
     }
 
     public Set<String> getAttributesProcessed() {
@@ -285,12 +288,24 @@ public class GremlinQueryComposer {
                            String.join(".", items);
 
         if (LOG.isDebugEnabled()) {
-            LOG.debug("Gremlin: {}", s);
+            LOG.debug("Gremlin: {}, bindings: {}", s, getBindings());
         }
 
         return s;
     }
 
+    public Map<String, Object> getBindings() {
+        return context.getBindings();
+    }
+
+    public boolean isParameterized() {
+        return context.isParameterized();
+    }
+
+    GremlinClauseList getQueryClauses() {
+        return queryClauses;
+    }
+
     public List<String> getErrorList() {
         return context.getErrorList();
     }
@@ -405,9 +420,11 @@ public class GremlinQueryComposer {
 
     private void addLimitHelper(final String limit, final String offset) {
         if (offset.equalsIgnoreCase("0")) {
-            add(GremlinClause.LIMIT, limit, limit);
+            String limitParam = bindLiteral(limit);
+
+            add(GremlinClause.LIMIT, limitParam, limitParam);
         } else {
-            addRangeClause(offset, limit);
+            addRangeClause(bindLiteral(offset), bindLiteral(limit));
         }
     }
 
@@ -477,6 +494,85 @@ public class GremlinQueryComposer {
         return IdentifierHelper.getQuoted(rhs);
     }
 
+    /**
+     * Returns the script text to use for the given literal: when the context is parameterized, the value is added to
+     * the bindings and the name of the binding is returned, so that queries differing only in their literals produce
+     * the same script; otherwise the literal is returned as is, to be inlined in the script.
+     */
+    private String bindLiteral(String literal) {
+        return context.isParameterized() ? context.addBinding(getLiteralValue(literal)) : literal;
+    }
+
+    private String bindLiterals(String literals) {
+        return context.isParameterized() ? context.addBinding(getLiteralValues(literals)) : literals;
+    }
+
+    // value of the literal as Groovy would evaluate it when inlined in the script
+    private static Object getLiteralValue(String literal) {
+        if (IdentifierHelper.isQuoted(literal)) {
+            return literal.substring(1, literal.length() - 1);
+        }
+
+        if (IdentifierHelper.isTrueOrFalse(literal)) {
+            return Boolean.valueOf(literal);
+        }
+
+        try {
+            return getNumericValue(literal);
+        } catch (NumberFormatException excp) {
+            return literal;
+        }
+    }
+
+    private static List<Object> getLiteralValues(String literals) {
+        List<Object>  ret       = new ArrayList<>();
+        StringBuilder literal   = new StringBuilder();
+        char          quoteChar = 0;
+
+        for (char c : literals.toCharArray()) {
+            if (quoteChar != 0) {
+                if (c == quoteChar) {
+                    quoteChar = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quoteChar = c;
+            } else if (c == ',') {
+                ret.add(getLiteralValue(literal.toString().trim()));
+                literal.setLength(0);
+
+                continue;
+            }
+
+            literal.append(c);
+        }
+
+        if (StringUtils.isNotBlank(literal.toString())) {
+            ret.add(getLiteralValue(literal.toString().trim()));
+        }
+
+        return ret;
+    }
+
+    private static Number getNumericValue(String literal) {
+        if (StringUtils.containsAny(literal, ".eE")) {
+            return new BigDecimal(literal);
+        }
+
+        try {
+            return Integer.valueOf(literal);
+        } catch (NumberFormatException excp) {
+            // too large for an int
+        }
+
+        try {
+            return Long.valueOf(literal);
+        } catch (NumberFormatException excp) {
+            // too large for a long
+        }
+
+        return new BigInteger(literal);
+    }
+
     private String parseDate(String rhs) {
         String s = IdentifierHelper.isQuoted(rhs) ?
                            IdentifierHelper.removeQuotes(rhs) :
@@ -584,11 +680,22 @@ public class GremlinQueryComposer {
     }
 
     private void add(GremlinClause clause, String... args) {
-        queryClauses.add(new GremlinClauseValue(clause, clause.get(args)));
+        queryClauses.add(new GremlinClauseValue(clause, args));
     }
 
     private void add(int idx, GremlinClause clause, String... args) {
-        queryClauses.add(idx, new GremlinClauseValue(clause, clause.get(args)));
+        queryClauses.add(idx, new GremlinClauseValue(clause, args));
+    }
+
+    private void addNestedClauses(GremlinClause clause, List<GremlinQueryComposer> nestedQueries) {
+        List<GremlinQueryComposer> queries = new ArrayList<>(nestedQueries);
+        List<String>               items   = new ArrayList<>(queries.size());
+
+        for (GremlinQueryComposer query : queries) {
+            items.add(query.get());
+        }
+
+        queryClauses.add(new GremlinClauseValue(clause, queries, String.join(",", items)));
     }
 
     private void addTrait(GremlinClause clause, IdentifierHelper.Info idInfo) {
@@ -600,12 +707,23 @@ public class GremlinQueryComposer {
     }
 
     static class GremlinClauseValue {
-        private final GremlinClause clause;
-        private final String        value;
+        private final GremlinClause              clause;
+        private final String                     value;
+        private final String[]                   args;
+        private final List<GremlinQueryComposer> nestedQueries;
+
+        public GremlinClauseValue(GremlinClause clause, String... args) {
+            this.clause        = clause;
+            this.value         = clause.get(args);
+            this.args          = args;
+            this.nestedQueries = null;
+        }
 
-        public GremlinClauseValue(GremlinClause clause, String value) {
-            this.clause = clause;
-            this.value = value;
+        public GremlinClauseValue(GremlinClause clause, List<GremlinQueryComposer> nestedQueries, String... args) {
+            this.clause        = clause;
+            this.value         = clause.get(args);
+            this.args          = args;
+            this.nestedQueries = nestedQueries;
         }
 
         public GremlinClause getClause() {
@@ -615,20 +733,36 @@ public class GremlinQueryComposer {
         public String getValue() {
             return value;
         }
+
+        public String[] getArgs() {
+            return args;
+        }
+
+        public List<GremlinQueryComposer> getNestedQueries() {
+            return nestedQueries;
+        }
     }
 
     @VisibleForTesting
     static class Context {
-        private static final AtlasStructType UNKNOWN_TYPE = new AtlasStructType(new AtlasStructDef());
+        private static final AtlasStructType UNKNOWN_TYPE        = new AtlasStructType(new AtlasStructDef());
+        private static final String          BINDING_NAME_PREFIX = "__p";
 
         private final Lookup lookup;
         private final Map<String, String> aliasMap = new HashMap<>();
+        private final Map<String, Object> bindings = new LinkedHashMap<>();
+        private final boolean             parameterized;
         private AtlasType            activeType;
         private SelectClauseComposer selectClauseComposer;
         private ClauseValidator      validator;
 
         public Context(Lookup lookup) {
-            this.lookup = lookup;
+            this(lookup, false);
+        }
+
+        public Context(Lookup lookup, boolean parameterized) {
+            this.lookup        = lookup;
+            this.parameterized = parameterized;
             validator = new ClauseValidator(lookup);
         }
 
@@ -710,6 +844,22 @@ public class GremlinQueryComposer {
             return validator.getErrorList();
         }
 
+        public boolean isParameterized() {
+            return parameterized;
+        }
+
+        public String addBinding(Object value) {
+            String name = BINDING_NAME_PREFIX + bindings.size();
+
+            bindings.put(name, value);
+
+            return name;
+        }
+
+        public Map<String, Object> getBindings() {
+            return bindings;
+        }
+
         public boolean error(AtlasBaseException e, AtlasErrorCode ec, String t, String name) {
             return validator.check(e, ec, t, name);
         }
@@ -0,0 +1,273 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import org.apache.atlas.query.GremlinQueryComposer.GremlinClauseValue;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.ComparisionOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.MatchingOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DSL query to be executed as a native graph traversal, instead of as a Gremlin script. The traversal steps are built
+ * from the clauses collected by GremlinQueryComposer, with literals taken from the bindings of the composer. Queries
+ * that need Groovy transformations of the results, like select and aggregations, can't be executed as traversals.
+ */
+public class TraversalQuery {
+    private static final Logger LOG = LoggerFactory.getLogger(TraversalQuery.class);
+
+    private static final String                           OPERATOR_WITHIN = "within";
+    private static final Map<String, ComparisionOperator> OPERATORS       = new HashMap<>();
+
+    static {
+        OPERATORS.put("eq", ComparisionOperator.EQUAL);
+        OPERATORS.put("neq", ComparisionOperator.NOT_EQUAL);
+        OPERATORS.put("lt", ComparisionOperator.LESS_THAN);
+        OPERATORS.put("lte", ComparisionOperator.LESS_THAN_EQUAL);
+        OPERATORS.put("gt", ComparisionOperator.GREATER_THAN);
+        OPERATORS.put("gte", ComparisionOperator.GREATER_THAN_EQUAL);
+    }
+
+    private final GremlinClauseList   clauses;
+    private final Map<String, Object> bindings;
+
+    private TraversalQuery(GremlinClauseList clauses, Map<String, Object> bindings) {
+        this.clauses  = clauses;
+        this.bindings = bindings;
+    }
+
+    /**
+     * @return traversal query for the query composed by the given composer; null if the query can't be executed as a traversal
+     */
+    public static TraversalQuery create(GremlinQueryComposer composer) {
+        TraversalQuery ret = null;
+
+        if (composer.isParameterized() && isSupported(composer.getQueryClauses(), composer.getBindings())) {
+            ret = new TraversalQuery(composer.getQueryClauses(), composer.getBindings());
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug("query uses clauses not supported by traversals; it will be executed as a Gremlin script");
+        }
+
+        return ret;
+    }
+
+    public List<Object> execute(AtlasGraph graph) {
+        AtlasGraphTraversal traversal = graph.traversal();
+
+        addSteps(traversal, clauses);
+
+        return traversal.toList();
+    }
+
+    private void addSteps(AtlasGraphTraversal traversal, GremlinClauseList clauses) {
+        for (int i = 0; i < clauses.size(); i++) {
+            GremlinClauseValue clauseValue = clauses.get(i);
+            String[]           args        = clauseValue.getArgs();
+
+            switch (clauseValue.getClause()) {
+                case AS:
+                    traversal.as(args[0]);
+                    break;
+
+                case DEDUP:
+                    traversal.dedup();
+                    break;
+
+                case GROUP_BY:
+                    traversal.groupBy(args[0]);
+                    break;
+
+                case HAS_OPERATOR:
+                    if (OPERATOR_WITHIN.equals(args[1])) {
+                        traversal.within(args[0], (Collection<?>) bindings.get(args[2]));
+                    } else {
+                        traversal.has(args[0], OPERATORS.get(args[1]), bindings.get(args[2]));
+                    }
+                    break;
+
+                case HAS_PROPERTY:
+                    traversal.has(args[0]);
+                    break;
+
+                case HAS_TYPE:
+                    traversal.has(Constants.TYPE_NAME_PROPERTY_KEY, args[0]);
+                    break;
+
+                case HAS_TYPE_WITHIN:
+                    traversal.within(Constants.TYPE_NAME_PROPERTY_KEY, getTypeNames(args[0]));
+                    break;
+
+                case IN:
+                    traversal.in(args[0]);
+                    break;
+
+                case OUT:
+                    traversal.out(args[0]);
+                    break;
+
+                case LIMIT:
+                    traversal.limit(getLong(args[0]));
+                    break;
+
+                case RANGE: {
+                    long low = getLong(args[0]);
+
+                    traversal.range(low, low + getLong(args[2]));
+                }
+                break;
+
+                case ORDER_BY:
+                    traversal.orderBy(args[0], false);
+                    break;
+
+                case ORDER_BY_DESC:
+                    traversal.orderBy(args[0], true);
+                    break;
+
+                case TEXT_CONTAINS:
+                    traversal.has(args[0], MatchingOperator.REGEX, bindings.get(args[1]));
+                    break;
+
+                case TRAIT:
+                    traversal.outE(Constants.CLASSIFICATION_LABEL);
+                    traversal.within(Constants.CLASSIFICATION_EDGE_NAME_PROPERTY_KEY, Collections.singletonList(args[0]));
+                    traversal.outV();
+                    break;
+
+                case AND:
+                    traversal.and(getChildTraversals(traversal, clauseValue.getNestedQueries()));
+                    break;
+
+                case OR:
+                    traversal.or(getChildTraversals(traversal, clauseValue.getNestedQueries()));
+                    break;
+
+                default: // G, V, NESTED_START, TO_LIST: nothing to add
+                    break;
+            }
+        }
+    }
+
+    private List<AtlasGraphTraversal> getChildTraversals(AtlasGraphTraversal traversal, List<GremlinQueryComposer> nestedQueries) {
+        List<AtlasGraphTraversal> ret = new ArrayList<>(nestedQueries.size());
+
+        for (GremlinQueryComposer nestedQuery : nestedQueries) {
+            AtlasGraphTraversal childTraversal = traversal.createChildTraversal();
+
+            addSteps(childTraversal, nestedQuery.getQueryClauses());
+
+            ret.add(childTraversal);
+        }
+
+        return ret;
+    }
+
+    private long getLong(String bindingName) {
+        return ((Number) bindings.get(bindingName)).longValue();
+    }
+
+    private static List<String> getTypeNames(String quotedTypeNames) {
+        List<String> ret = new ArrayList<>();
+
+        for (String typeName : StringUtils.split(quotedTypeNames, ',')) {
+            ret.add(IdentifierHelper.removeQuotes(typeName.trim()));
+        }
+
+        return ret;
+    }
+
+    private static boolean isSupported(GremlinClauseList clauses, Map<String, Object> bindings) {
+        for (int i = 0; i < clauses.size(); i++) {
+            GremlinClauseValue clauseValue = clauses.get(i);
+            String[]           args        = clauseValue.getArgs();
+
+            switch (clauseValue.getClause()) {
+                case G:
+                case V:
+                case NESTED_START:
+                case AS:
+                case DEDUP:
+                case GROUP_BY:
+                case HAS_PROPERTY:
+                case HAS_TYPE:
+                case HAS_TYPE_WITHIN:
+                case IN:
+                case OUT:
+                case ORDER_BY:
+                case ORDER_BY_DESC:
+                case TRAIT:
+                case TO_LIST:
+                    break;
+
+                case HAS_OPERATOR:
+                    if (!bindings.containsKey(args[2])) {
+                        return false;
+                    }
+
+                    if (OPERATOR_WITHIN.equals(args[1])) {
+                        if (!(bindings.get(args[2]) instanceof Collection)) {
+                            return false;
+                        }
+                    } else if (!OPERATORS.containsKey(args[1])) {
+                        return false;
+                    }
+                    break;
+
+                case TEXT_CONTAINS:
+                    if (!bindings.containsKey(args[1])) {
+                        return false;
+                    }
+                    break;
+
+                case LIMIT:
+                case RANGE:
+                    for (String arg : args) {
+                        if (!(bindings.get(arg) instanceof Number)) {
+                            return false;
+                        }
+                    }
+                    break;
+
+                case AND:
+                case OR:
+                    for (GremlinQueryComposer nestedQuery : clauseValue.getNestedQueries()) {
+                        if (!isSupported(nestedQuery.getQueryClauses(), bindings)) {
+                            return false;
+                        }
+                    }
+                    break;
+
+                default: // select and inline transformations need the script engine
+                    return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -18,9 +18,12 @@
 package org.apache.atlas.repository.impexp;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.AtlasServiceException;
+import org.apache.atlas.discovery.SearchProcessor;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TypeCategory;
 import org.apache.atlas.model.impexp.AtlasExportRequest;
@@ -36,9 +39,16 @@ import org.apache.atlas.model.typedef.AtlasEnumDef;
 import org.apache.atlas.model.typedef.AtlasStructDef;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
 import org.apache.atlas.repository.store.graph.v1.EntityGraphRetriever;
 import org.apache.atlas.type.AtlasArrayType;
+import org.apache.atlas.type.AtlasBuiltInTypes.AtlasObjectIdType;
 import org.apache.atlas.type.AtlasClassificationType;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasEnumType;
@@ -61,12 +71,20 @@ import javax.inject.Inject;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.atlas.model.impexp.AtlasExportRequest.*;
 
@@ -74,17 +92,30 @@ import static org.apache.atlas.model.impexp.AtlasExportRequest.*;
 public class ExportService {
     private static final Logger LOG = LoggerFactory.getLogger(ExportService.class);
 
+    private static final int CHANGED_ENTITIES_QUERY_BATCH_SIZE = 1000;
+
     private final AtlasTypeRegistry         typeRegistry;
     private final AtlasGraph                atlasGraph;
     private final EntityGraphRetriever      entityGraphRetriever;
     private final AtlasGremlinQueryProvider gremlinQueryProvider;
+    private final int                       fetchThreads;
+    private final int                       fetchBatchSize;
+    private final int                       scopeCheckMaxVertices;
 
     @Inject
     public ExportService(final AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph) throws AtlasBaseException {
-        this.typeRegistry         = typeRegistry;
-        this.entityGraphRetriever = new EntityGraphRetriever(this.typeRegistry);
-        this.atlasGraph           = atlasGraph;
-        this.gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
+        this(typeRegistry, atlasGraph, AtlasConfiguration.EXPORT_FETCH_THREADS.getInt(), AtlasConfiguration.EXPORT_FETCH_BATCH_SIZE.getInt());
+    }
+
+    @VisibleForTesting
+    ExportService(final AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph, int fetchThreads, int fetchBatchSize) throws AtlasBaseException {
+        this.typeRegistry          = typeRegistry;
+        this.entityGraphRetriever  = new EntityGraphRetriever(this.typeRegistry);
+        this.atlasGraph            = atlasGraph;
+        this.gremlinQueryProvider  = AtlasGremlinQueryProvider.INSTANCE;
+        this.fetchThreads          = Math.max(fetchThreads, 1);
+        this.fetchBatchSize        = Math.max(fetchBatchSize, 1);
+        this.scopeCheckMaxVertices = AtlasConfiguration.EXPORT_CHANGED_SCOPE_CHECK_MAX_VERTICES.getInt();
     }
 
     public AtlasExportResult run(ZipSink exportSink, AtlasExportRequest request, String userName, String hostName,
@@ -103,7 +134,6 @@ public class ExportService {
         } catch(Exception ex) {
             LOG.error("Operation failed: ", ex);
         } finally {
-            atlasGraph.releaseGremlinScriptEngine(context.scriptEngine);
             LOG.info("<== export(user={}, from={}): status {}", userName, requestingIP, context.result.getOperationStatus());
             context.clear();
             result.clear();
@@ -161,6 +191,11 @@ public class ExportService {
     private AtlasExportResult.OperationStatus[] processItems(AtlasExportRequest request, ExportContext context) throws AtlasServiceException, AtlasException, AtlasBaseException {
         AtlasExportResult.OperationStatus statuses[] = new AtlasExportResult.OperationStatus[request.getItemsToExport().size()];
         List<AtlasObjectId> itemsToExport = request.getItemsToExport();
+
+        if (context.isIncremental()) {
+            return processItemsChangedSince(itemsToExport, context);
+        }
+
         for (int i = 0; i < itemsToExport.size(); i++) {
             AtlasObjectId item = itemsToExport.get(i);
             statuses[i] = processObjectId(item, context);
@@ -199,8 +234,9 @@ public class ExportService {
 
             while (!context.guidsToProcess.isEmpty()) {
                 while (!context.guidsToProcess.isEmpty()) {
-                    String guid = context.guidsToProcess.remove(0);
-                    processEntity(guid, context);
+                    List<String> guids = context.removeGuidsToProcess(fetchBatchSize);
+
+                    processEntities(guids, context);
                 }
 
                 if (!context.lineageToProcess.isEmpty()) {
@@ -289,14 +325,422 @@ public class ExportService {
         return ret;
     }
 
+    /*
+     * An incremental export looks up the entities changed since the given time with an index range query on the
+     * modification timestamp, limited to the entity types the requested items can reach; each entity found is checked
+     * to be in the export scope by walking from it towards the requested items. Export cost thus scales with the
+     * number of changes, rather than with the size of the scope.
+     */
+    private AtlasExportResult.OperationStatus[] processItemsChangedSince(List<AtlasObjectId> itemsToExport, ExportContext context) {
+        AtlasExportResult.OperationStatus statuses[] = new AtlasExportResult.OperationStatus[itemsToExport.size()];
+        Set<String>                       startTypes = new HashSet<>();
+
+        for (int i = 0; i < itemsToExport.size(); i++) {
+            AtlasObjectId item = itemsToExport.get(i);
+
+            try {
+                List<AtlasEntityWithExtInfo> entities = getStartingEntity(item, context);
+
+                for (AtlasEntityWithExtInfo entityWithExtInfo : entities) {
+                    context.startGuids.add(entityWithExtInfo.getEntity().getGuid());
+                    startTypes.add(entityWithExtInfo.getEntity().getTypeName());
+                }
+
+                statuses[i] = entities.isEmpty() ? AtlasExportResult.OperationStatus.FAIL : AtlasExportResult.OperationStatus.SUCCESS;
+            } catch (AtlasBaseException excp) {
+                LOG.error("Fetching entity failed for: {}", item, excp);
+
+                statuses[i] = AtlasExportResult.OperationStatus.FAIL;
+            }
+        }
+
+        if (context.startGuids.isEmpty()) {
+            return statuses;
+        }
+
+        try {
+            processChangedEntities(getScopeEntityTypes(startTypes), context);
+        } catch (AtlasBaseException excp) {
+            LOG.error("export(changedSince={}): failed to process changed entities", context.changedSince, excp);
+
+            Arrays.fill(statuses, AtlasExportResult.OperationStatus.FAIL);
+        }
+
+        return statuses;
+    }
+
+    private void processChangedEntities(Set<String> scopeTypes, ExportContext context) throws AtlasBaseException {
+        String       query        = getChangedEntitiesQuery(scopeTypes, context.changedSince);
+        List<String> guids        = new ArrayList<>();
+        int          changedCount = 0;
+        int          inScopeCount = 0;
+
+        Iterator<AtlasIndexQuery.Result> iter = atlasGraph.indexQuery(Constants.VERTEX_INDEX, query).streamVertices(0, CHANGED_ENTITIES_QUERY_BATCH_SIZE);
+
+        while (iter.hasNext()) {
+            AtlasVertex vertex = iter.next().getVertex();
+            String      guid   = AtlasGraphUtilsV1.getIdFromVertex(vertex);
+
+            if (guid == null) { // not an entity vertex
+                continue;
+            }
+
+            changedCount++;
+
+            context.changedStatus.put(guid, Boolean.TRUE);
+
+            if (!isInExportScope(vertex, guid, context)) {
+                continue;
+            }
+
+            inScopeCount++;
+
+            // an entity owned by a changed entity in the scope is written with the owner, as its referred entity
+            if (context.guidsProcessed.contains(guid) || hasChangedOwnerInExportScope(vertex, context)) {
+                continue;
+            }
+
+            guids.add(guid);
+
+            if (guids.size() >= fetchBatchSize) {
+                addChangedEntities(guids, context);
+
+                guids.clear();
+            }
+        }
+
+        if (!guids.isEmpty()) {
+            addChangedEntities(guids, context);
+        }
+
+        LOG.info("export(changedSince={}): found {} changed entities, {} of them in export scope", context.changedSince, changedCount, inScopeCount);
+    }
+
+    private void addChangedEntities(List<String> guids, ExportContext context) throws AtlasBaseException {
+        for (AtlasEntityWithExtInfo entityWithExtInfo : fetchEntities(guids, context)) {
+            AtlasEntity entity = entityWithExtInfo.getEntity();
+            String      guid   = entity.getGuid();
+
+            if (context.guidsProcessed.contains(guid)) {
+                continue;
+            }
+
+            if (isProcessEntity(entity)) { // lineage is added to the creation order after other entities
+                context.lineageProcessed.add(guid);
+            } else {
+                context.result.getData().getEntityCreationOrder().add(guid);
+            }
+
+            addEntity(getChangedEntitiesOnly(entityWithExtInfo, context), context);
+            addTypes(entity, context);
+
+            context.guidsProcessed.add(guid);
+
+            if (entityWithExtInfo.getReferredEntities() != null) {
+                for (AtlasEntity e : entityWithExtInfo.getReferredEntities().values()) {
+                    if (context.isChanged(e)) {
+                        addTypes(e, context);
+                    }
+                }
+
+                context.guidsProcessed.addAll(entityWithExtInfo.getReferredEntities().keySet());
+            }
+        }
+    }
+
+    private String getChangedEntitiesQuery(Set<String> scopeTypes, long changedSince) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(AtlasGraphUtilsV1.getIndexSearchPrefix()).append("\"").append(Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY).append("\": {").append(changedSince).append(" TO *]");
+
+        String typesQryStr = AtlasAttribute.escapeIndexQueryValue(scopeTypes);
+
+        // when the scope reaches too many types, entities of all types are looked up and checked for scope membership
+        if (typesQryStr.length() <= SearchProcessor.MAX_QUERY_STR_LENGTH_TYPES) {
+            sb.append(" AND ").append(AtlasGraphUtilsV1.getIndexSearchPrefix()).append("\"").append(Constants.TYPE_NAME_PROPERTY_KEY).append("\": ").append(typesQryStr);
+        }
+
+        return sb.toString();
+    }
+
+    /*
+     * Entity types, with their sub-types, that can be reached from the given types through references in either
+     * direction; the export scope of the requested items can have entities only of these types.
+     */
+    private Set<String> getScopeEntityTypes(Set<String> startTypes) {
+        Set<String> ret = new HashSet<>();
+
+        for (String typeName : startTypes) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+            if (entityType != null) {
+                ret.addAll(entityType.getTypeAndAllSubTypes());
+            }
+        }
+
+        for (boolean isChanged = true; isChanged; ) {
+            isChanged = false;
+
+            for (AtlasEntityType entityType : typeRegistry.getAllEntityTypes()) {
+                boolean isInScope = ret.contains(entityType.getTypeName());
+
+                for (AtlasAttribute attribute : getReferenceAttributes(entityType)) {
+                    AtlasEntityType referredType = getReferredEntityType(attribute.getAttributeType());
+
+                    if (referredType == null) {
+                        continue;
+                    }
+
+                    if (isInScope) {
+                        isChanged |= ret.addAll(referredType.getTypeAndAllSubTypes());
+                    } else if (CollectionUtils.containsAny(ret, referredType.getTypeAndAllSubTypes())) {
+                        isChanged |= ret.addAll(entityType.getTypeAndAllSubTypes());
+                        isInScope  = true;
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private List<AtlasAttribute> getReferenceAttributes(AtlasEntityType entityType) {
+        List<AtlasAttribute> ret = new ArrayList<>(entityType.getAllAttributes().values());
+
+        ret.addAll(entityType.getRelationshipAttributes().values());
+
+        return ret;
+    }
+
+    private AtlasEntityType getReferredEntityType(AtlasType attrType) {
+        if (attrType instanceof AtlasArrayType) {
+            attrType = ((AtlasArrayType) attrType).getElementType();
+        } else if (attrType instanceof AtlasMapType) {
+            attrType = ((AtlasMapType) attrType).getValueType();
+        }
+
+        if (attrType instanceof AtlasObjectIdType) {
+            return typeRegistry.getEntityTypeByName(((AtlasObjectIdType) attrType).getObjectType());
+        }
+
+        return attrType instanceof AtlasEntityType ? (AtlasEntityType) attrType : null;
+    }
+
+    /*
+     * Walks the graph from the given entity towards the requested items, reversing the traversal of a full export:
+     * a full fetch follows edges in both directions; a connected fetch follows edges in the direction an entity was
+     * reached in (processes are always followed outward), and entities owned by an entity in the same direction as
+     * their owner. The walk stops at scopeCheckMaxVertices; the entity is then considered to be in scope, so that a
+     * change is not left out of the export.
+     */
+    private boolean isInExportScope(AtlasVertex vertex, String guid, ExportContext context) {
+        Boolean ret = context.scopeStatus.get(guid);
+
+        if (ret != null) {
+            return ret;
+        }
+
+        ret = context.startGuids.contains(guid);
+
+        if (!ret) {
+            Set<String>           visited = new HashSet<>();
+            LinkedList<ScopeStep> steps   = new LinkedList<>();
+
+            if (context.fetchType == ExportFetchType.FULL) {
+                steps.add(new ScopeStep(vertex, guid, TraversalDirection.BOTH));
+            } else {
+                steps.add(new ScopeStep(vertex, guid, TraversalDirection.UNKNOWN));
+                steps.add(new ScopeStep(vertex, guid, TraversalDirection.OUTWARD));
+                steps.add(new ScopeStep(vertex, guid, TraversalDirection.INWARD));
+            }
+
+            while (!ret && !steps.isEmpty()) {
+                ScopeStep step = steps.removeFirst();
+
+                if (!visited.add(step.getKey())) {
+                    continue;
+                }
+
+                if (visited.size() > scopeCheckMaxVertices) {
+                    LOG.warn("export(changedSince={}): scope check of entity {} stopped after {} steps; the entity will be exported", context.changedSince, guid, scopeCheckMaxVertices);
+
+                    ret = true;
+
+                    break;
+                }
+
+                for (ScopeStep previous : getPreviousSteps(step, context)) {
+                    if (context.startGuids.contains(previous.guid) || Boolean.TRUE.equals(context.scopeStatus.get(previous.guid))) {
+                        ret = true;
+
+                        break;
+                    }
+
+                    steps.add(previous);
+                }
+            }
+        }
+
+        context.scopeStatus.put(guid, ret);
+
+        return ret;
+    }
+
+    private List<ScopeStep> getPreviousSteps(ScopeStep step, ExportContext context) {
+        List<ScopeStep> ret = new ArrayList<>();
+
+        Iterable<AtlasEdge> inEdges  = step.vertex.getEdges(AtlasEdgeDirection.IN);
+        Iterable<AtlasEdge> outEdges = step.vertex.getEdges(AtlasEdgeDirection.OUT);
+
+        for (AtlasEdge edge : inEdges) {
+            addPreviousSteps(step, edge, edge.getOutVertex(), false, ret, context);
+        }
+
+        for (AtlasEdge edge : outEdges) {
+            addPreviousSteps(step, edge, edge.getInVertex(), true, ret, context);
+        }
+
+        return ret;
+    }
+
+    private void addPreviousSteps(ScopeStep step, AtlasEdge edge, AtlasVertex other, boolean isOutEdge, List<ScopeStep> steps, ExportContext context) {
+        String otherGuid = AtlasGraphUtilsV1.getIdFromVertex(other);
+
+        if (otherGuid == null) { // not an entity vertex
+            return;
+        }
+
+        if (step.direction == TraversalDirection.BOTH) {
+            steps.add(new ScopeStep(other, otherGuid, TraversalDirection.BOTH));
+
+            return;
+        }
+
+        String typeName = AtlasGraphUtilsV1.getTypeName(other);
+
+        if (getOwnedEdgeLabels(typeName, context).contains(edge.getLabel())) { // owned entities are traversed in the owner's direction
+            steps.add(new ScopeStep(other, otherGuid, step.direction));
+        }
+
+        boolean isProcess = isProcessType(typeName, context);
+
+        switch (step.direction) {
+            case OUTWARD: // reached over an out-edge of an item, or of an entity traversed outward; processes are always traversed outward
+                if (!isOutEdge) {
+                    steps.add(new ScopeStep(other, otherGuid, TraversalDirection.UNKNOWN));
+                    steps.add(new ScopeStep(other, otherGuid, TraversalDirection.OUTWARD));
+
+                    if (isProcess) {
+                        steps.add(new ScopeStep(other, otherGuid, TraversalDirection.INWARD));
+                    }
+                }
+                break;
+
+            case INWARD: // reached over an in-edge of an item, or of a non-process entity traversed inward
+                if (isOutEdge) {
+                    steps.add(new ScopeStep(other, otherGuid, TraversalDirection.UNKNOWN));
+
+                    if (!isProcess) {
+                        steps.add(new ScopeStep(other, otherGuid, TraversalDirection.INWARD));
+                    }
+                }
+                break;
+
+            default: // an item, or an entity owned by an item: reached only through its owner
+                break;
+        }
+    }
+
+    private boolean hasChangedOwnerInExportScope(AtlasVertex vertex, ExportContext context) {
+        Set<String>             visited = new HashSet<>();
+        LinkedList<AtlasVertex> owned   = new LinkedList<>();
+
+        visited.add(AtlasGraphUtilsV1.getIdFromVertex(vertex));
+        owned.add(vertex);
+
+        while (!owned.isEmpty()) {
+            AtlasVertex         current     = owned.removeFirst();
+            String              currentGuid = AtlasGraphUtilsV1.getIdFromVertex(current);
+            Iterable<AtlasEdge> edges       = current.getEdges(AtlasEdgeDirection.BOTH);
+
+            for (AtlasEdge edge : edges) {
+                AtlasVertex owner     = StringUtils.equals(currentGuid, AtlasGraphUtilsV1.getIdFromVertex(edge.getOutVertex())) ? edge.getInVertex() : edge.getOutVertex();
+                String      ownerGuid = AtlasGraphUtilsV1.getIdFromVertex(owner);
+
+                if (ownerGuid == null || !visited.add(ownerGuid) || !getOwnedEdgeLabels(AtlasGraphUtilsV1.getTypeName(owner), context).contains(edge.getLabel())) {
+                    continue;
+                }
+
+                if (context.isChanged(ownerGuid) && isInExportScope(owner, ownerGuid, context)) {
+                    return true;
+                }
+
+                owned.add(owner);
+            }
+        }
+
+        return false;
+    }
+
+    private Set<String> getOwnedEdgeLabels(String typeName, ExportContext context) {
+        Set<String> ret = context.ownedEdgeLabels.get(typeName);
+
+        if (ret == null) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+            ret = new HashSet<>();
+
+            if (entityType != null) {
+                for (AtlasAttribute attribute : getReferenceAttributes(entityType)) {
+                    if (attribute.isOwnedRef()) {
+                        ret.add(attribute.getRelationshipEdgeLabel());
+                    }
+                }
+            }
+
+            context.ownedEdgeLabels.put(typeName, ret);
+        }
+
+        return ret;
+    }
+
+    private boolean isProcessType(String typeName, ExportContext context) {
+        Boolean ret = context.processTypes.get(typeName);
+
+        if (ret == null) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+            ret = entityType != null && entityType.isSubTypeOf(AtlasBaseTypeDef.ATLAS_TYPE_PROCESS);
+
+            context.processTypes.put(typeName, ret);
+        }
+
+        return ret;
+    }
+
+    private void processEntities(List<String> guids, ExportContext context) throws AtlasBaseException {
+        List<AtlasEntityWithExtInfo> entities = fetchEntities(guids, context);
+
+        for (AtlasEntityWithExtInfo entityWithExtInfo : entities) {
+            processEntity(entityWithExtInfo, context);
+        }
+    }
+
     private void processEntity(String guid, ExportContext context) throws AtlasBaseException {
+        if (!context.guidsProcessed.contains(guid)) {
+            processEntity(entityGraphRetriever.toAtlasEntityWithExtInfo(guid), context);
+        }
+    }
+
+    private void processEntity(AtlasEntityWithExtInfo entityWithExtInfo, ExportContext context) throws AtlasBaseException {
+        String guid = entityWithExtInfo.getEntity().getGuid();
+
         if (LOG.isDebugEnabled()) {
             LOG.debug("==> processEntity({})", guid);
         }
 
         if (!context.guidsProcessed.contains(guid)) {
             TraversalDirection      direction         = context.guidDirection.get(guid);
-            AtlasEntityWithExtInfo  entityWithExtInfo = entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
 
             if(!context.lineageProcessed.contains(guid)) {
                 context.result.getData().getEntityCreationOrder().add(entityWithExtInfo.getEntity().getGuid());
@@ -323,6 +767,84 @@ public class ExportService {
         }
     }
 
+    /*
+     * Unchanged entities are left out of the referred entities written with an entity; the references to them in
+     * the entity attributes remain, as object-ids.
+     */
+    private AtlasEntityWithExtInfo getChangedEntitiesOnly(AtlasEntityWithExtInfo entityWithExtInfo, ExportContext context) {
+        if (!context.isIncremental() || MapUtils.isEmpty(entityWithExtInfo.getReferredEntities())) {
+            return entityWithExtInfo;
+        }
+
+        AtlasEntityWithExtInfo ret = new AtlasEntityWithExtInfo(entityWithExtInfo.getEntity());
+
+        for (AtlasEntity e : entityWithExtInfo.getReferredEntities().values()) {
+            if (context.isChanged(e)) {
+                ret.addReferredEntity(e);
+            }
+        }
+
+        return ret;
+    }
+
+    /*
+     * Entities are fetched on the export threads, in chunks of the given guids; the connected-entity queries and
+     * writes to the sink stay on the calling thread. The returned list is in the order of the given guids.
+     */
+    private List<AtlasEntityWithExtInfo> fetchEntities(List<String> guids, ExportContext context) throws AtlasBaseException {
+        List<AtlasEntityWithExtInfo> ret = new ArrayList<>(guids.size());
+
+        if (context.fetchExecutor == null || guids.size() < 2) {
+            for (String guid : guids) {
+                ret.add(entityGraphRetriever.toAtlasEntityWithExtInfo(guid));
+            }
+
+            return ret;
+        }
+
+        int                                        chunkSize = (guids.size() + fetchThreads - 1) / fetchThreads;
+        List<Future<List<AtlasEntityWithExtInfo>>> futures   = new ArrayList<>();
+
+        for (int i = 0; i < guids.size(); i += chunkSize) {
+            final List<String> chunk = guids.subList(i, Math.min(i + chunkSize, guids.size()));
+
+            futures.add(context.fetchExecutor.submit(new Callable<List<AtlasEntityWithExtInfo>>() {
+                @Override
+                public List<AtlasEntityWithExtInfo> call() throws Exception {
+                    List<AtlasEntityWithExtInfo> entities = new ArrayList<>(chunk.size());
+
+                    try {
+                        for (String guid : chunk) {
+                            entities.add(entityGraphRetriever.toAtlasEntityWithExtInfo(guid));
+                        }
+                    } finally {
+                        atlasGraph.rollback(); // release the read transaction of this thread
+                    }
+
+                    return entities;
+                }
+            }));
+        }
+
+        try {
+            for (Future<List<AtlasEntityWithExtInfo>> future : futures) {
+                ret.addAll(future.get());
+            }
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(excp);
+        } catch (ExecutionException excp) {
+            if (excp.getCause() instanceof AtlasBaseException) {
+                throw (AtlasBaseException) excp.getCause();
+            }
+
+            throw new AtlasBaseException(excp.getCause());
+        }
+
+        return ret;
+    }
+
     private void getConntedEntitiesBasedOnOption(AtlasEntity entity, ExportContext context, TraversalDirection direction) throws AtlasBaseException {
         switch (context.fetchType) {
             case CONNECTED:
@@ -567,20 +1089,29 @@ public class ExportService {
     }
 
     private List<Map<String, Object>> executeGremlinQuery(String query, ExportContext context) {
-        try {
-            return (List<Map<String, Object>>) atlasGraph.executeGremlinScript(context.scriptEngine, context.bindings, query, false);
-        } catch (ScriptException e) {
-            LOG.error("Script execution failed for query: ", query, e);
-            return null;
-        }
+        return (List<Map<String, Object>>) executeGremlinScript(query, context);
     }
 
     private List<String> executeGremlinQueryForGuids(String query, ExportContext context) {
+        return (List<String>) executeGremlinScript(query, context);
+    }
+
+    // script engine is borrowed for each query, as engines are pooled and an export can run for long
+    private Object executeGremlinScript(String query, ExportContext context) {
+        ScriptEngine scriptEngine = null;
+
         try {
-            return (List<String>) atlasGraph.executeGremlinScript(context.scriptEngine, context.bindings, query, false);
-        } catch (ScriptException e) {
-            LOG.error("Script execution failed for query: ", query, e);
+            scriptEngine = atlasGraph.getGremlinScriptEngine();
+
+            return atlasGraph.executeGremlinScript(scriptEngine, context.bindings, query, false);
+        } catch (AtlasBaseException | ScriptException e) {
+            LOG.error("Script execution failed for query: {}", query, e);
+
             return null;
+        } finally {
+            if (scriptEngine != null) {
+                atlasGraph.releaseGremlinScriptEngine(scriptEngine);
+            }
         }
     }
 
@@ -663,6 +1194,22 @@ public class ExportService {
     }
 
 
+    private static class ScopeStep {
+        final AtlasVertex        vertex;
+        final String             guid;
+        final TraversalDirection direction;
+
+        ScopeStep(AtlasVertex vertex, String guid, TraversalDirection direction) {
+            this.vertex    = vertex;
+            this.guid      = guid;
+            this.direction = direction;
+        }
+
+        String getKey() {
+            return guid + ":" + direction;
+        }
+    }
+
     private class ExportContext {
         final Set<String>                     guidsProcessed = new HashSet<>();
         final UniqueList<String>              guidsToProcess = new UniqueList<>();
@@ -675,8 +1222,14 @@ public class ExportService {
         final Set<String>                     enumTypes           = new HashSet<>();
         final AtlasExportResult               result;
         final ZipSink                         sink;
+        final ExecutorService                 fetchExecutor;
+        final long                            changedSince;
+        final Map<String, Boolean>            changedStatus  = new HashMap<>();
+        final Set<String>                     startGuids     = new HashSet<>();
+        final Map<String, Boolean>            scopeStatus    = new HashMap<>();
+        final Map<String, Set<String>>        ownedEdgeLabels = new HashMap<>();
+        final Map<String, Boolean>            processTypes    = new HashMap<>();
 
-        private final ScriptEngine        scriptEngine;
         private final Map<String, Object> bindings;
         private final ExportFetchType     fetchType;
         private final String              matchType;
@@ -687,10 +1240,16 @@ public class ExportService {
             this.result = result;
             this.sink   = sink;
 
-            scriptEngine = atlasGraph.getGremlinScriptEngine();
             bindings     = new HashMap<>();
             fetchType    = getFetchType(result.getRequest());
             matchType    = getMatchType(result.getRequest());
+            changedSince = getChangedSince(result.getRequest());
+
+            if (fetchThreads > 1) {
+                fetchExecutor = Executors.newFixedThreadPool(fetchThreads, new ThreadFactoryBuilder().setNameFormat("atlas-export-%d").setDaemon(true).build());
+            } else {
+                fetchExecutor = null;
+            }
         }
 
         private ExportFetchType getFetchType(AtlasExportRequest request) {
@@ -717,10 +1276,90 @@ public class ExportService {
             return matchType;
         }
 
+        private long getChangedSince(AtlasExportRequest request) throws AtlasBaseException {
+            Object changedSince = request.getOptions() != null ? request.getOptions().get(OPTION_CHANGED_SINCE) : null;
+
+            if (changedSince instanceof Number) {
+                return ((Number) changedSince).longValue();
+            } else if (changedSince != null) {
+                try {
+                    return Long.parseLong(changedSince.toString());
+                } catch (NumberFormatException excp) {
+                    throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, OPTION_CHANGED_SINCE + "=" + changedSince);
+                }
+            }
+
+            return 0;
+        }
+
+        public boolean isIncremental() {
+            return changedSince > 0;
+        }
+
+        /*
+         * An entity is changed if it was modified after changedSince. Entities found by the index query on the
+         * modification time are marked changed; for others, the modification time is read from the entity vertex.
+         */
+        public boolean isChanged(String guid) {
+            if (!isIncremental()) {
+                return true;
+            }
+
+            Boolean ret = changedStatus.get(guid);
+
+            if (ret == null) {
+                AtlasVertex vertex       = AtlasGraphUtilsV1.findByGuid(guid);
+                Long        modifiedTime = vertex != null ? vertex.getProperty(Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY, Long.class) : null;
+
+                ret = modifiedTime != null && modifiedTime > changedSince;
+
+                changedStatus.put(guid, ret);
+            }
+
+            return ret;
+        }
+
+        public boolean isChanged(AtlasEntity entity) {
+            if (!isIncremental()) {
+                return true;
+            }
+
+            if (entity.getUpdateTime() == null) {
+                return isChanged(entity.getGuid());
+            }
+
+            boolean ret = entity.getUpdateTime().getTime() > changedSince;
+
+            changedStatus.put(entity.getGuid(), ret);
+
+            return ret;
+        }
+
         public void clear() {
             guidsToProcess.clear();
             guidsProcessed.clear();
             guidDirection.clear();
+            changedStatus.clear();
+            startGuids.clear();
+            scopeStatus.clear();
+
+            if (fetchExecutor != null) {
+                fetchExecutor.shutdownNow();
+            }
+        }
+
+        public List<String> removeGuidsToProcess(int maxCount) {
+            List<String> ret = new ArrayList<>();
+
+            while (ret.size() < maxCount && !guidsToProcess.isEmpty()) {
+                String guid = guidsToProcess.remove(0);
+
+                if (!guidsProcessed.contains(guid)) {
+                    ret.add(guid);
+                }
+            }
+
+            return ret;
         }
 
         public void addToBeProcessed(boolean isSuperTypeProcess, String guid, TraversalDirection direction) {
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of an import of an archive: number of entities read from the archive, and guids to be retried.
+ */
+public class ImportCheckpoint implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String       archiveId;
+    private int          position;
+    private List<String> residualGuids;
+    private long         updateTime;
+
+    public ImportCheckpoint() {
+        this(null);
+    }
+
+    public ImportCheckpoint(String archiveId) {
+        this.archiveId     = archiveId;
+        this.position      = 0;
+        this.residualGuids = new ArrayList<>();
+    }
+
+    public String getArchiveId() { return archiveId; }
+
+    public void setArchiveId(String archiveId) { this.archiveId = archiveId; }
+
+    public int getPosition() { return position; }
+
+    public void setPosition(int position) { this.position = position; }
+
+    public List<String> getResidualGuids() { return residualGuids; }
+
+    public void setResidualGuids(List<String> residualGuids) { this.residualGuids = residualGuids; }
+
+    public long getUpdateTime() { return updateTime; }
+
+    public void setUpdateTime(long updateTime) { this.updateTime = updateTime; }
+
+    @Override
+    public String toString() {
+        return "ImportCheckpoint{" +
+                "archiveId=" + archiveId +
+                ", position=" + position +
+                ", residualGuids=" + (residualGuids != null ? residualGuids.size() : 0) +
+                ", updateTime=" + updateTime +
+                "}";
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
+import org.apache.atlas.type.AtlasType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Persists import checkpoints in the graph, one vertex per archive. Checkpoints not updated within the expiry interval,
+ * like those of imports that are never resumed, are ignored and deleted when the next import starts.
+ */
+@Component
+public class ImportCheckpointStore {
+    private static final Logger LOG = LoggerFactory.getLogger(ImportCheckpointStore.class);
+
+    private static final String CHECKPOINT_VERTEX_TYPE    = "importCheckpoint";
+    private static final String CHECKPOINT_ARCHIVE_ID_KEY = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "importCheckpoint.archiveId";
+    private static final String CHECKPOINT_DATA_KEY       = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "importCheckpoint.data";
+
+    private final AtlasGraph atlasGraph;
+    private final long       expiryMs;
+
+    @Inject
+    public ImportCheckpointStore(AtlasGraph atlasGraph) {
+        this(atlasGraph, AtlasConfiguration.IMPORT_CHECKPOINT_EXPIRY_MS.getLong());
+    }
+
+    @VisibleForTesting
+    ImportCheckpointStore(AtlasGraph atlasGraph, long expiryMs) {
+        this.atlasGraph = atlasGraph;
+        this.expiryMs   = expiryMs;
+    }
+
+    public ImportCheckpoint get(String archiveId) {
+        ImportCheckpoint ret = null;
+
+        try {
+            AtlasVertex vertex = findCheckpointVertex(archiveId);
+
+            if (vertex != null) {
+                ret = toCheckpoint(vertex);
+
+                if (isExpired(ret, System.currentTimeMillis())) {
+                    LOG.info("ignoring expired {}", ret);
+
+                    atlasGraph.removeVertex(vertex);
+
+                    ret = null;
+                }
+            }
+
+            atlasGraph.commit();
+        } catch (Exception excp) {
+            LOG.warn("failed to read import checkpoint for archive {}", archiveId, excp);
+
+            atlasGraph.rollback();
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("get({}): {}", archiveId, ret);
+        }
+
+        return ret;
+    }
+
+    public void save(ImportCheckpoint checkpoint) {
+        try {
+            AtlasVertex vertex = findCheckpointVertex(checkpoint.getArchiveId());
+
+            if (vertex == null) {
+                deleteExpired(); // a new import is starting: a good time to remove checkpoints of abandoned imports
+
+                vertex = atlasGraph.addVertex();
+
+                vertex.setProperty(Constants.VERTEX_TYPE_PROPERTY_KEY, CHECKPOINT_VERTEX_TYPE);
+                vertex.setProperty(CHECKPOINT_ARCHIVE_ID_KEY, checkpoint.getArchiveId());
+            }
+
+            checkpoint.setUpdateTime(System.currentTimeMillis());
+
+            vertex.setProperty(CHECKPOINT_DATA_KEY, AtlasType.toJson(checkpoint));
+
+            atlasGraph.commit();
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("saved {}", checkpoint);
+            }
+        } catch (Exception excp) {
+            LOG.warn("failed to save {}", checkpoint, excp);
+
+            atlasGraph.rollback();
+        }
+    }
+
+    public void delete(String archiveId) {
+        try {
+            AtlasVertex vertex = findCheckpointVertex(archiveId);
+
+            if (vertex != null) {
+                atlasGraph.removeVertex(vertex);
+            }
+
+            atlasGraph.commit();
+        } catch (Exception excp) {
+            LOG.warn("failed to delete import checkpoint for archive {}", archiveId, excp);
+
+            atlasGraph.rollback();
+        }
+    }
+
+    /**
+     * Deletes checkpoints that have not been updated within the expiry interval. Caller is expected to commit.
+     * @return number of checkpoints deleted
+     */
+    @VisibleForTesting
+    int deleteExpired() {
+        List<AtlasVertex> expired = new ArrayList<>();
+        long              now     = System.currentTimeMillis();
+
+        for (AtlasVertex vertex : (Iterable<AtlasVertex>) atlasGraph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, CHECKPOINT_VERTEX_TYPE).vertices()) {
+            ImportCheckpoint checkpoint = toCheckpoint(vertex);
+
+            if (checkpoint == null || isExpired(checkpoint, now)) {
+                LOG.info("deleting expired import checkpoint {}", checkpoint);
+
+                expired.add(vertex);
+            }
+        }
+
+        for (AtlasVertex vertex : expired) {
+            atlasGraph.removeVertex(vertex);
+        }
+
+        return expired.size();
+    }
+
+    private boolean isExpired(ImportCheckpoint checkpoint, long now) {
+        return expiryMs > 0 && (now - checkpoint.getUpdateTime()) > expiryMs;
+    }
+
+    private ImportCheckpoint toCheckpoint(AtlasVertex vertex) {
+        return AtlasType.fromJson(AtlasGraphUtilsV1.getProperty(vertex, CHECKPOINT_DATA_KEY, String.class), ImportCheckpoint.class);
+    }
+
+    private AtlasVertex findCheckpointVertex(String archiveId) {
+        Iterator<AtlasVertex> vertices = atlasGraph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, CHECKPOINT_VERTEX_TYPE)
+                                                           .has(CHECKPOINT_ARCHIVE_ID_KEY, archiveId)
+                                                           .vertices().iterator();
+
+        return vertices.hasNext() ? vertices.next() : null;
+    }
+}
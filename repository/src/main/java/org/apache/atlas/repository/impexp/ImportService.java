@@ -17,26 +17,28 @@
  */
 package org.apache.atlas.repository.impexp;
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasImportRequest;
 import org.apache.atlas.model.impexp.AtlasImportResult;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.store.graph.BulkImporter;
+import org.apache.atlas.repository.store.graph.ImportCheckpointer;
 import org.apache.atlas.store.AtlasTypeDefStore;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.collections.MapUtils;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class ImportService {
@@ -45,15 +47,18 @@ public class ImportService {
     private final AtlasTypeDefStore typeDefStore;
     private final AtlasTypeRegistry typeRegistry;
     private final BulkImporter bulkImporter;
+    private final ImportCheckpointStore checkpointStore;
 
     private long startTimestamp;
     private long endTimestamp;
 
     @Inject
-    public ImportService(AtlasTypeDefStore typeDefStore, AtlasTypeRegistry typeRegistry, BulkImporter bulkImporter) {
-        this.typeDefStore = typeDefStore;
-        this.typeRegistry = typeRegistry;
-        this.bulkImporter = bulkImporter;
+    public ImportService(AtlasTypeDefStore typeDefStore, AtlasTypeRegistry typeRegistry, BulkImporter bulkImporter,
+                         ImportCheckpointStore checkpointStore) {
+        this.typeDefStore    = typeDefStore;
+        this.typeRegistry    = typeRegistry;
+        this.bulkImporter    = bulkImporter;
+        this.checkpointStore = checkpointStore;
     }
 
     public AtlasImportResult run(ZipSource source, String userName,
@@ -78,8 +83,11 @@ public class ImportService {
             source.setImportTransform(ImportTransforms.fromJson(transforms));
             startTimestamp = System.currentTimeMillis();
             processTypes(source.getTypesDef(), result);
-            setStartPosition(request, source);
-            processEntities(source, result);
+
+            ArchiveCheckpointer checkpointer = getCheckpointer(request, source);
+
+            setStartPosition(request, source, checkpointer);
+            processEntities(source, result, checkpointer);
 
 
             result.setOperationStatus(AtlasImportResult.OperationStatus.SUCCESS);
@@ -99,8 +107,10 @@ public class ImportService {
         return result;
     }
 
-    private void setStartPosition(AtlasImportRequest request, ZipSource source) throws AtlasBaseException {
-        if (request.getStartGuid() != null) {
+    private void setStartPosition(AtlasImportRequest request, ZipSource source, ArchiveCheckpointer checkpointer) throws AtlasBaseException {
+        if (checkpointer != null && checkpointer.getStartPosition() > 0) {
+            source.setPosition(checkpointer.getStartPosition() - 1); // setPosition(n) positions the source after entity n
+        } else if (request.getStartGuid() != null) {
             source.setPositionUsingEntityGuid(request.getStartGuid());
         } else if (request.getStartPosition() != null) {
             source.setPosition(Integer.parseInt(request.getStartPosition()));
@@ -122,7 +132,7 @@ public class ImportService {
 
             String transforms = MapUtils.isNotEmpty(request.getOptions()) ? request.getOptions().get(AtlasImportRequest.TRANSFORMS_KEY) : null;
             File file = new File(fileName);
-            ZipSource source = new ZipSource(new ByteArrayInputStream(FileUtils.readFileToByteArray(file)), ImportTransforms.fromJson(transforms));
+            ZipSource source = new ZipSource(file, ImportTransforms.fromJson(transforms));
             result = run(source, request, userName, hostName, requestingIP);
         } catch (AtlasBaseException excp) {
             LOG.error("import(user={}, from={}, fileName={}): failed", userName, requestingIP, excp);
@@ -157,10 +167,86 @@ public class ImportService {
         importTypeDefProcessor.processTypes(typeDefinitionMap, result);
     }
 
-    private void processEntities(ZipSource importSource, AtlasImportResult result) throws AtlasBaseException {
-        this.bulkImporter.bulkImport(importSource, result);
+    private void processEntities(ZipSource importSource, AtlasImportResult result, ArchiveCheckpointer checkpointer) throws AtlasBaseException {
+        this.bulkImporter.bulkImport(importSource, result, checkpointer);
+
+        if (checkpointer != null) {
+            checkpointer.clear();
+        }
 
         endTimestamp = System.currentTimeMillis();
         result.incrementMeticsCounter("duration", (int) (this.endTimestamp - this.startTimestamp));
     }
+
+    private ArchiveCheckpointer getCheckpointer(AtlasImportRequest request, ZipSource source) {
+        int    interval  = AtlasConfiguration.IMPORT_CHECKPOINT_INTERVAL.getInt();
+        String archiveId = (checkpointStore != null && interval > 0) ? source.getArchiveId() : null;
+
+        if (archiveId == null) {
+            if (request.isResume()) {
+                LOG.warn("import: checkpoints not available; importing the archive from the start");
+            }
+
+            return null;
+        }
+
+        ImportCheckpoint checkpoint = request.isResume() ? checkpointStore.get(archiveId) : null;
+
+        if (checkpoint != null) {
+            LOG.info("import: resuming from {}", checkpoint);
+        } else if (request.getStartGuid() != null || request.getStartPosition() != null) {
+            return null; // progress is checkpointed only for imports that start at the beginning of the archive
+        } else {
+            if (request.isResume()) {
+                LOG.info("import: no checkpoint found for archive {}; importing the archive from the start", archiveId);
+            }
+
+            checkpoint = new ImportCheckpoint(archiveId);
+        }
+
+        return new ArchiveCheckpointer(checkpoint, interval);
+    }
+
+    /**
+     * Saves the progress of the import after every 'interval' entities read from the archive.
+     */
+    private class ArchiveCheckpointer implements ImportCheckpointer {
+        private final ImportCheckpoint checkpoint;
+        private final int              interval;
+        private final int              startPosition;
+        private final List<String>     startResidualGuids;
+
+        ArchiveCheckpointer(ImportCheckpoint checkpoint, int interval) {
+            this.checkpoint         = checkpoint;
+            this.interval           = interval;
+            this.startPosition      = checkpoint.getPosition();
+            this.startResidualGuids = checkpoint.getResidualGuids() != null ? new ArrayList<>(checkpoint.getResidualGuids()) : new ArrayList<String>();
+        }
+
+        @Override
+        public int getStartPosition() {
+            return startPosition;
+        }
+
+        @Override
+        public List<String> getResidualGuids() {
+            return startResidualGuids;
+        }
+
+        @Override
+        public void onProgress(int position, List<String> residualGuids) {
+            if (position - checkpoint.getPosition() < interval) {
+                return;
+            }
+
+            checkpoint.setPosition(position);
+            checkpoint.setResidualGuids(new ArrayList<>(residualGuids));
+
+            checkpointStore.save(checkpoint);
+        }
+
+        void clear() {
+            checkpointStore.delete(checkpoint.getArchiveId());
+        }
+    }
 }
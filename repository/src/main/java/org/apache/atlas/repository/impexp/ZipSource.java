@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.repository.impexp;
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasExportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
@@ -24,29 +25,54 @@ import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.store.graph.v1.EntityImportStream;
 import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.utils.SHA256Utils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
-
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 
+/**
+ * Reads an export archive for import.
+ *
+ * Only the zip entry index is held in memory; the JSON of an entity is inflated from the archive when it is asked for.
+ * An archive given as a stream is first copied to a temporary file, which is deleted on close().
+ * When readAheadSize is positive, next() reads the given number of upcoming entities, in creation order, into a
+ * buffer that is drained as they are consumed.
+ */
 public class ZipSource implements EntityImportStream {
     private static final Logger LOG = LoggerFactory.getLogger(ZipSource.class);
 
-    private final InputStream    inputStream;
-    private List<String>         creationOrder;
-    private Iterator<String>     iterator;
-    private Map<String, String>  guidEntityJsonMap;
-    private ImportTransforms     importTransform;
+    private static final String TEMP_FILE_PREFIX = "atlas-import-";
+    private static final String TEMP_FILE_SUFFIX = ".zip";
+
+    private final File                   zipFileName;
+    private final boolean                deleteOnClose;
+    private final int                    readAheadSize;
+    private final Map<String, ZipEntry>  zipEntries      = new HashMap<>();
+    private final Map<String, String>    readAheadBuffer = new LinkedHashMap<>();
+    private final Set<String>            completedGuids  = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private ZipFile                      zipFile;
+    private List<String>                 creationOrder;
+    private ImportTransforms             importTransform;
+    private int                          nextIndex;
     private int currentPosition;
 
     public ZipSource(InputStream inputStream) throws IOException {
@@ -54,11 +80,35 @@ public class ZipSource implements EntityImportStream {
     }
 
     public ZipSource(InputStream inputStream, ImportTransforms importTransform) throws IOException {
-        this.inputStream       = inputStream;
-        this.guidEntityJsonMap = new HashMap<>();
-        this.importTransform   = importTransform;
+        this(inputStream, importTransform, AtlasConfiguration.IMPORT_READ_AHEAD_SIZE.getInt());
+    }
+
+    public ZipSource(InputStream inputStream, ImportTransforms importTransform, int readAheadSize) throws IOException {
+        this(copyToTempFile(inputStream), true, importTransform, readAheadSize);
+    }
+
+    public ZipSource(File zipFile, ImportTransforms importTransform) throws IOException {
+        this(zipFile, importTransform, AtlasConfiguration.IMPORT_READ_AHEAD_SIZE.getInt());
+    }
+
+    public ZipSource(File zipFile, ImportTransforms importTransform, int readAheadSize) throws IOException {
+        this(zipFile, false, importTransform, readAheadSize);
+    }
+
+    private ZipSource(File zipFileName, boolean deleteOnClose, ImportTransforms importTransform, int readAheadSize) throws IOException {
+        this.zipFileName     = zipFileName;
+        this.deleteOnClose   = deleteOnClose;
+        this.importTransform = importTransform;
+        this.readAheadSize   = Math.max(readAheadSize, 0);
+
+        try {
+            updateGuidZipEntryMap();
+        } catch (IOException excp) {
+            close();
+
+            throw excp;
+        }
 
-        updateGuidZipEntryMap();
         setCreationOrder();
     }
 
@@ -82,41 +132,71 @@ public class ZipSource implements EntityImportStream {
         return convertFromJson(AtlasExportResult.class, s);
     }
 
+    /**
+     * @return identifier of the archive: SHA-256 of its export-info entry; null if the archive has no such entry
+     */
+    public String getArchiveId() {
+        String exportInfo = getFromCache(ZipExportFileNames.ATLAS_EXPORT_INFO_NAME.toString());
+
+        return exportInfo != null ? SHA256Utils.toString(SHA256Utils.getDigester().digest(exportInfo.getBytes(StandardCharsets.UTF_8))) : null;
+    }
+
     private void setCreationOrder() {
         String fileName = ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME.toString();
 
         try {
             String s = getFromCache(fileName);
             this.creationOrder = convertFromJson(List.class, s);
-            this.iterator = this.creationOrder.iterator();
+            this.nextIndex     = 0;
         } catch (AtlasBaseException e) {
             LOG.error(String.format("Error retrieving '%s' from zip.", fileName), e);
         }
     }
 
+    private static File copyToTempFile(InputStream inputStream) throws IOException {
+        String tempDir  = AtlasConfiguration.IMPORT_TEMP_DIR.getString();
+        File   tempFile = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, StringUtils.isNotBlank(tempDir) ? new File(tempDir) : null);
+
+        try {
+            FileUtils.copyInputStreamToFile(inputStream, tempFile);
+        } catch (IOException excp) {
+            FileUtils.deleteQuietly(tempFile);
+
+            throw excp;
+        }
+
+        return tempFile;
+    }
+
     private void updateGuidZipEntryMap() throws IOException {
+        if (!zipFileName.isFile()) {
+            throw new FileNotFoundException(zipFileName.getPath());
+        }
 
-        ZipInputStream zipInputStream = new ZipInputStream(inputStream);
-        ZipEntry zipEntry = zipInputStream.getNextEntry();
-        while (zipEntry != null) {
-            String entryName = zipEntry.getName().replace(".json", "");
+        try {
+            zipFile = new ZipFile(zipFileName);
+        } catch (ZipException excp) {
+            LOG.error("{}: not a valid zip file", zipFileName, excp);
 
-            if (guidEntityJsonMap.containsKey(entryName)) continue;
+            return;
+        }
 
-            byte[] buf = new byte[1024];
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
 
-            int n = 0;
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            while ((n = zipInputStream.read(buf, 0, 1024)) > -1) {
-                bos.write(buf, 0, n);
-            }
+        while (entries.hasMoreElements()) {
+            ZipEntry zipEntry  = entries.nextElement();
+            String   entryName = zipEntry.getName().replace(".json", "");
 
-            guidEntityJsonMap.put(entryName, bos.toString());
-            zipEntry = zipInputStream.getNextEntry();
+            if (zipEntry.isDirectory() || zipEntries.containsKey(entryName)) {
+                continue;
+            }
 
+            zipEntries.put(entryName, zipEntry);
         }
 
-        zipInputStream.close();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{}: indexed {} zip entries", zipFileName, zipEntries.size());
+        }
     }
 
     public List<String> getCreationOrder() throws AtlasBaseException {
@@ -150,22 +230,101 @@ public class ZipSource implements EntityImportStream {
     }
 
     private String getFromCache(String entryName) {
-        return guidEntityJsonMap.get(entryName);
+        if (completedGuids.contains(entryName)) {
+            return null;
+        }
+
+        String ret;
+
+        synchronized (readAheadBuffer) {
+            ret = readAheadBuffer.get(entryName);
+        }
+
+        if (ret == null) {
+            ret = readZipEntry(entryName);
+        }
+
+        return ret;
+    }
+
+    private String readZipEntry(String entryName) {
+        ZipEntry zipEntry = zipEntries.get(entryName);
+
+        if (zipEntry == null || zipFile == null) {
+            return null;
+        }
+
+        InputStream inputStream = null;
+
+        try {
+            inputStream = zipFile.getInputStream(zipEntry);
+
+            return IOUtils.toString(inputStream, "UTF-8");
+        } catch (IOException excp) {
+            LOG.error("{}: error reading zip entry {}", zipFileName, zipEntry.getName(), excp);
+
+            return null;
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    private void readAhead(String guid, int index) {
+        if (readAheadSize == 0) {
+            return;
+        }
+
+        synchronized (readAheadBuffer) {
+            if (readAheadBuffer.containsKey(guid)) {
+                return;
+            }
+
+            readAheadBuffer.clear();
+
+            for (int i = index; i < creationOrder.size() && readAheadBuffer.size() < readAheadSize; i++) {
+                String nextGuid = creationOrder.get(i);
+
+                if (completedGuids.contains(nextGuid) || readAheadBuffer.containsKey(nextGuid)) {
+                    continue;
+                }
+
+                String json = readZipEntry(nextGuid);
+
+                if (json != null) {
+                    readAheadBuffer.put(nextGuid, json);
+                }
+            }
+        }
+    }
+
+    private void clearReadAheadBuffer() {
+        synchronized (readAheadBuffer) {
+            readAheadBuffer.clear();
+        }
     }
 
     public void close() {
+        clearReadAheadBuffer();
+
         try {
-            inputStream.close();
-            guidEntityJsonMap.clear();
+            if (zipFile != null) {
+                zipFile.close();
+
+                zipFile = null;
+            }
         }
         catch(IOException ex) {
-            LOG.warn("{}: Error closing streams.");
+            LOG.warn("{}: Error closing streams.", zipFileName, ex);
+        }
+
+        if (deleteOnClose) {
+            FileUtils.deleteQuietly(zipFileName);
         }
     }
 
     @Override
     public boolean hasNext() {
-        return this.iterator.hasNext();
+        return this.creationOrder != null && this.nextIndex < this.creationOrder.size();
     }
 
     @Override
@@ -179,7 +338,19 @@ public class ZipSource implements EntityImportStream {
     public AtlasEntityWithExtInfo getNextEntityWithExtInfo() {
         try {
             currentPosition++;
-            return getEntityWithExtInfo(this.iterator.next());
+
+            int    index = nextIndex++;
+            String guid  = this.creationOrder.get(index);
+
+            readAhead(guid, index);
+
+            AtlasEntityWithExtInfo ret = getEntityWithExtInfo(guid);
+
+            synchronized (readAheadBuffer) {
+                readAheadBuffer.remove(guid);
+            }
+
+            return ret;
         } catch (AtlasBaseException e) {
             LOG.error("getNextEntityWithExtInfo", e);
             return null;
@@ -190,7 +361,8 @@ public class ZipSource implements EntityImportStream {
     public void reset() {
         try {
             getCreationOrder();
-            this.iterator = this.creationOrder.iterator();
+            this.nextIndex = 0;
+            clearReadAheadBuffer();
         } catch (AtlasBaseException e) {
             LOG.error("reset", e);
         }
@@ -208,7 +380,7 @@ public class ZipSource implements EntityImportStream {
     }
 
     private AtlasEntity getEntity(String guid) throws AtlasBaseException {
-        if(guidEntityJsonMap.containsKey(guid)) {
+        if(zipEntries.containsKey(guid) && !completedGuids.contains(guid)) {
             AtlasEntityWithExtInfo extInfo = getEntityWithExtInfo(guid);
             return (extInfo != null) ? extInfo.getEntity() : null;
         }
@@ -222,7 +394,11 @@ public class ZipSource implements EntityImportStream {
 
     @Override
     public void onImportComplete(String guid) {
-        guidEntityJsonMap.remove(guid);
+        completedGuids.add(guid);
+
+        synchronized (readAheadBuffer) {
+            readAheadBuffer.remove(guid);
+        }
     }
 
 
@@ -230,9 +406,7 @@ public class ZipSource implements EntityImportStream {
     public void setPosition(int index) {
         currentPosition = index;
         reset();
-        for (int i = 0; i < creationOrder.size() && i <= index; i++) {
-            iterator.next();
-        }
+        nextIndex = Math.min(index + 1, creationOrder.size());
     }
 
     @Override
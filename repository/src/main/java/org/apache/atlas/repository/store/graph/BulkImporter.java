@@ -31,4 +31,13 @@ public interface BulkImporter {
      * @throws AtlasBaseException
      */
     EntityMutationResponse bulkImport(EntityImportStream entityStream, AtlasImportResult importResult) throws AtlasBaseException;
+
+    /**
+     * Create or update entities in the stream, recording progress with the given checkpointer
+     * @param entityStream AtlasEntityStream, positioned at checkpointer.getStartPosition()
+     * @param checkpointer records progress of the import; null to not record progress
+     * @return EntityMutationResponse Entity mutations operations with the corresponding set of entities on which these operations were performed
+     * @throws AtlasBaseException
+     */
+    EntityMutationResponse bulkImport(EntityImportStream entityStream, AtlasImportResult importResult, ImportCheckpointer checkpointer) throws AtlasBaseException;
 }
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph;
+
+import java.util.List;
+
+/**
+ * Records the progress of a bulk import, so that an interrupted import can be resumed.
+ */
+public interface ImportCheckpointer {
+
+    /**
+     * @return number of entities of the stream read by the import being resumed; 0 for a new import
+     */
+    int getStartPosition();
+
+    /**
+     * @return guids of the import being resumed that are yet to be retried, after rest of the stream is imported
+     */
+    List<String> getResidualGuids();
+
+    /**
+     * Called when every entity before the given position in the stream is either imported or in the residual list
+     * @param position number of entities of the stream read so far
+     * @param residualGuids guids to be retried, after rest of the stream is imported
+     */
+    void onProgress(int position, List<String> residualGuids);
+}
@@ -18,98 +18,465 @@
 package org.apache.atlas.repository.store.graph.v1;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.RequestContextV1;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasImportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.BulkImporter;
+import org.apache.atlas.repository.store.graph.ImportCheckpointer;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Component
 public class BulkImporterImpl implements BulkImporter {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasEntityStoreV1.class);
 
+    private static final int DEFERRED_BATCH = -1;
+
     private final AtlasEntityStore entityStore;
+    private final int              workerThreads;
+    private final int              batchSize;
+    private final int              tierWindowSize;
 
     @Inject
     public BulkImporterImpl(AtlasEntityStore entityStore) {
-        this.entityStore = entityStore;
+        this(entityStore, AtlasConfiguration.IMPORT_WORKER_THREADS.getInt(), AtlasConfiguration.IMPORT_BATCH_SIZE.getInt(),
+             AtlasConfiguration.IMPORT_TIER_WINDOW_SIZE.getInt());
+    }
+
+    @VisibleForTesting
+    BulkImporterImpl(AtlasEntityStore entityStore, int workerThreads, int batchSize, int tierWindowSize) {
+        this.entityStore    = entityStore;
+        this.workerThreads  = Math.max(workerThreads, 1);
+        this.batchSize      = Math.max(batchSize, 1);
+        this.tierWindowSize = Math.max(tierWindowSize, this.batchSize);
     }
 
     @Override
     public EntityMutationResponse bulkImport(EntityImportStream entityStream, AtlasImportResult importResult) throws AtlasBaseException {
+        return bulkImport(entityStream, importResult, null);
+    }
+
+    @Override
+    public EntityMutationResponse bulkImport(EntityImportStream entityStream, AtlasImportResult importResult, ImportCheckpointer checkpointer) throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("==> bulkImport()");
         }
 
-        if (entityStream == null || !entityStream.hasNext()) {
+        List<String> residualList = new ArrayList<>();
+
+        if (checkpointer != null && CollectionUtils.isNotEmpty(checkpointer.getResidualGuids())) {
+            residualList.addAll(checkpointer.getResidualGuids());
+        }
+
+        if (entityStream == null || (!entityStream.hasNext() && residualList.isEmpty())) {
             throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "no entities to create/update.");
         }
 
         EntityMutationResponse ret = new EntityMutationResponse();
         ret.setGuidAssignments(new HashMap<String, String>());
 
-        Set<String>  processedGuids = new HashSet<>();
-        float        currentPercent = 0f;
-        List<String> residualList   = new ArrayList<>();
+        Set<String>       processedGuids    = new HashSet<>();
+        float             currentPercent    = 0f;
+        CheckpointTracker checkpointTracker = new CheckpointTracker(checkpointer, residualList);
+
+        if (workerThreads > 1 || batchSize > 1) {
+            currentPercent = importInTiers(entityStream, importResult, ret, processedGuids, residualList, checkpointTracker);
+        }
 
+        // remaining entities are imported one at a time, followed by retry of the residual list
         EntityImportStreamWithResidualList entityImportStreamWithResidualList = new EntityImportStreamWithResidualList(entityStream, residualList);
 
         while (entityImportStreamWithResidualList.hasNext()) {
+            boolean                isFromStream      = !entityImportStreamWithResidualList.isNavigatingResidualList();
             AtlasEntityWithExtInfo entityWithExtInfo = entityImportStreamWithResidualList.getNextEntityWithExtInfo();
             AtlasEntity            entity            = entityWithExtInfo != null ? entityWithExtInfo.getEntity() : null;
 
-            if (entity == null || processedGuids.contains(entity.getGuid())) {
-                continue;
+            if (entity != null && !processedGuids.contains(entity.getGuid())) {
+                AtlasEntityStreamForImport oneEntityStream = new AtlasEntityStreamForImport(entityWithExtInfo, entityStream);
+
+                try {
+                    EntityMutationResponse resp = entityStore.createOrUpdateForImport(oneEntityStream);
+
+                    if (resp.getGuidAssignments() != null) {
+                        ret.getGuidAssignments().putAll(resp.getGuidAssignments());
+                    }
+
+                    currentPercent = updateImportMetrics(entityWithExtInfo, resp, importResult, processedGuids, entityStream.getPosition(), entityImportStreamWithResidualList.getStreamSize(), currentPercent);
+
+                    entityStream.onImportComplete(entity.getGuid());
+                } catch (AtlasBaseException e) {
+                    if (!updateResidualList(e, residualList, entityWithExtInfo.getEntity().getGuid())) {
+                        throw e;
+                    }
+                } catch (Throwable e) {
+                    AtlasBaseException abe = new AtlasBaseException(e);
+
+                    if (!updateResidualList(abe, residualList, entityWithExtInfo.getEntity().getGuid())) {
+                        throw abe;
+                    }
+                } finally {
+                    RequestContextV1.clear();
+                }
             }
 
-            AtlasEntityStreamForImport oneEntityStream = new AtlasEntityStreamForImport(entityWithExtInfo, entityStream);
+            if (isFromStream) {
+                checkpointTracker.onEntitiesRead(1);
+            }
+        }
 
-            try {
-                EntityMutationResponse resp = entityStore.createOrUpdateForImport(oneEntityStream);
+        importResult.getProcessedEntities().addAll(processedGuids);
+        LOG.info("bulkImport(): done. Total number of entities (including referred entities) imported: {}", processedGuids.size());
 
-                if (resp.getGuidAssignments() != null) {
-                    ret.getGuidAssignments().putAll(resp.getGuidAssignments());
+        return ret;
+    }
+
+    /**
+     * Reads the stream in windows of tierWindowSize entities. Entities in a window are grouped into tiers, such that
+     * an entity is in a tier after the tiers of entities it references (that appear earlier in the window). Entities
+     * of a tier are imported in batches of up to batchSize entities per transaction, by workerThreads threads in
+     * parallel; batches of a tier never share an entity they create or reference (see getTieredBatches()).
+     * A failed batch is retried one entity at a time; entities referring to entities not yet imported are added to
+     * the residual list, to be retried after the entire stream is read. Progress is checkpointed after each window.
+     */
+    private float importInTiers(EntityImportStream entityStream, AtlasImportResult importResult, EntityMutationResponse ret,
+                                Set<String> processedGuids, List<String> residualList, CheckpointTracker checkpointTracker) throws AtlasBaseException {
+        final String          userName       = RequestContextV1.get().getUser();
+        final Set<String>     userGroups     = RequestContextV1.get().getUserGroups();
+        final ExecutorService executor       = Executors.newFixedThreadPool(workerThreads, new ThreadFactoryBuilder().setNameFormat("atlas-import-%d").setDaemon(true).build());
+        final int             streamSize     = entityStream.size();
+        float                 currentPercent = 0f;
+
+        LOG.info("bulkImport(): importing in tiers: workerThreads={}, batchSize={}, tierWindowSize={}", workerThreads, batchSize, tierWindowSize);
+
+        try {
+            while (entityStream.hasNext()) {
+                List<AtlasEntityWithExtInfo> window    = new ArrayList<>();
+                Set<String>                  guids     = new HashSet<>();
+                int                          readCount = 0;
+
+                while (window.size() < tierWindowSize && entityStream.hasNext()) {
+                    AtlasEntityWithExtInfo entityWithExtInfo = entityStream.getNextEntityWithExtInfo();
+                    AtlasEntity            entity            = entityWithExtInfo != null ? entityWithExtInfo.getEntity() : null;
+
+                    readCount++;
+
+                    if (entity == null || processedGuids.contains(entity.getGuid()) || !guids.add(entity.getGuid())) {
+                        continue;
+                    }
+
+                    window.add(entityWithExtInfo);
                 }
 
-                currentPercent = updateImportMetrics(entityWithExtInfo, resp, importResult, processedGuids, entityStream.getPosition(), entityImportStreamWithResidualList.getStreamSize(), currentPercent);
+                for (List<List<AtlasEntityWithExtInfo>> batches : getTieredBatches(window, batchSize)) {
+                    List<Future<EntityMutationResponse>> futures = new ArrayList<>();
+
+                    for (final List<AtlasEntityWithExtInfo> batch : batches) {
+                        futures.add(executor.submit(new Callable<EntityMutationResponse>() {
+                            @Override
+                            public EntityMutationResponse call() throws Exception {
+                                try {
+                                    RequestContextV1.get().setUser(userName, userGroups);
+
+                                    return entityStore.createOrUpdateForImport(new AtlasEntityStreamForImport(toEntitiesWithExtInfo(batch), entityStream));
+                                } finally {
+                                    RequestContextV1.clear();
+                                }
+                            }
+                        }));
+                    }
+
+                    // wait for all batches of the tier, before starting the next tier
+                    for (int i = 0; i < batches.size(); i++) {
+                        List<AtlasEntityWithExtInfo> batch = batches.get(i);
+                        EntityMutationResponse       resp  = null;
+
+                        try {
+                            resp = futures.get(i).get();
+                        } catch (ExecutionException e) {
+                            LOG.warn("bulkImport(): batch of {} entities failed; will be retried one entity at a time", batch.size(), e.getCause());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+
+                            throw new AtlasBaseException(e);
+                        }
+
+                        if (resp != null) {
+                            currentPercent = onBatchImported(batch, resp, entityStream, importResult, ret, processedGuids, streamSize, currentPercent);
+                        } else {
+                            for (AtlasEntityWithExtInfo entityWithExtInfo : batch) {
+                                currentPercent = importEntity(entityWithExtInfo, entityStream, importResult, ret, processedGuids, residualList, streamSize, currentPercent);
+                            }
+                        }
+                    }
+                }
+
+                checkpointTracker.onEntitiesRead(readCount);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return currentPercent;
+    }
+
+    private float importEntity(AtlasEntityWithExtInfo entityWithExtInfo, EntityImportStream entityStream, AtlasImportResult importResult,
+                               EntityMutationResponse ret, Set<String> processedGuids, List<String> residualList, int streamSize,
+                               float currentPercent) throws AtlasBaseException {
+        try {
+            EntityMutationResponse resp = entityStore.createOrUpdateForImport(new AtlasEntityStreamForImport(entityWithExtInfo, entityStream));
+
+            return onBatchImported(Collections.singletonList(entityWithExtInfo), resp, entityStream, importResult, ret, processedGuids, streamSize, currentPercent);
+        } catch (AtlasBaseException e) {
+            if (!updateResidualList(e, residualList, entityWithExtInfo.getEntity().getGuid())) {
+                throw e;
+            }
+        } catch (Throwable e) {
+            AtlasBaseException abe = new AtlasBaseException(e);
+
+            if (!updateResidualList(abe, residualList, entityWithExtInfo.getEntity().getGuid())) {
+                throw abe;
+            }
+        } finally {
+            RequestContextV1.clear();
+        }
+
+        return currentPercent;
+    }
+
+    private float onBatchImported(List<AtlasEntityWithExtInfo> batch, EntityMutationResponse resp, EntityImportStream entityStream,
+                                  AtlasImportResult importResult, EntityMutationResponse ret, Set<String> processedGuids,
+                                  int streamSize, float currentPercent) {
+        if (resp.getGuidAssignments() != null) {
+            ret.getGuidAssignments().putAll(resp.getGuidAssignments());
+        }
+
+        AtlasEntityWithExtInfo lastEntity = batch.get(batch.size() - 1);
+
+        currentPercent = updateImportMetrics(lastEntity, resp, importResult, processedGuids, processedGuids.size(), streamSize, currentPercent);
 
-                entityStream.onImportComplete(entity.getGuid());
-            } catch (AtlasBaseException e) {
-                if (!updateResidualList(e, residualList, entityWithExtInfo.getEntity().getGuid())) {
-                    throw e;
+        for (AtlasEntityWithExtInfo entityWithExtInfo : batch) {
+            entityStream.onImportComplete(entityWithExtInfo.getEntity().getGuid());
+        }
+
+        return currentPercent;
+    }
+
+    /**
+     * Groups the given entities into tiers: an entity is placed in the tier after the highest tier of entities it
+     * references. Only references to entities appearing earlier in the list are considered; order of entities in
+     * each tier is retained.
+     */
+    @VisibleForTesting
+    static List<List<AtlasEntityWithExtInfo>> getTiers(List<AtlasEntityWithExtInfo> entities) {
+        List<List<AtlasEntityWithExtInfo>> ret       = new ArrayList<>();
+        Map<String, Integer>               guidTiers = new HashMap<>();
+
+        for (AtlasEntityWithExtInfo entityWithExtInfo : entities) {
+            Set<String> ownGuids = getOwnGuids(entityWithExtInfo);
+            int         tier     = 0;
+
+            for (String referencedGuid : getReferencedGuids(entityWithExtInfo)) {
+                Integer referencedTier = ownGuids.contains(referencedGuid) ? null : guidTiers.get(referencedGuid);
+
+                if (referencedTier != null && referencedTier >= tier) {
+                    tier = referencedTier + 1;
                 }
-            } catch (Throwable e) {
-                AtlasBaseException abe = new AtlasBaseException(e);
+            }
 
-                if (!updateResidualList(abe, residualList, entityWithExtInfo.getEntity().getGuid())) {
-                    throw abe;
+            for (String guid : ownGuids) {
+                if (!guidTiers.containsKey(guid)) {
+                    guidTiers.put(guid, tier);
                 }
-            } finally {
-                RequestContextV1.clear();
             }
+
+            while (ret.size() <= tier) {
+                ret.add(new ArrayList<AtlasEntityWithExtInfo>());
+            }
+
+            ret.get(tier).add(entityWithExtInfo);
         }
 
-        importResult.getProcessedEntities().addAll(processedGuids);
-        LOG.info("bulkImport(): done. Total number of entities (including referred entities) imported: {}", processedGuids.size());
+        return ret;
+    }
+
+    /**
+     * Groups the given entities into tiers (see getTiers()), and entities of each tier into batches of up to batchSize
+     * entities. Batches of a tier are written in parallel, hence must not share any entity they create or reference:
+     * adding a reference updates the inverse reference on the referenced vertex, and concurrent updates of a vertex
+     * would lose one of them. An entity sharing a guid with entities of a batch is added to that batch; when the batch
+     * is full, or guids of the entity are in more than one batch, the entity is moved to the next tier, along with
+     * subsequent entities of the tier sharing a guid with it, to retain their order.
+     */
+    @VisibleForTesting
+    static List<List<List<AtlasEntityWithExtInfo>>> getTieredBatches(List<AtlasEntityWithExtInfo> entities, int batchSize) {
+        List<List<List<AtlasEntityWithExtInfo>>> ret      = new ArrayList<>();
+        List<List<AtlasEntityWithExtInfo>>       tiers    = getTiers(entities);
+        List<AtlasEntityWithExtInfo>             deferred = new ArrayList<>();
+
+        for (int i = 0; i < tiers.size() || !deferred.isEmpty(); i++) {
+            List<AtlasEntityWithExtInfo> tier = new ArrayList<>(deferred);
+
+            if (i < tiers.size()) {
+                tier.addAll(tiers.get(i));
+            }
+
+            deferred.clear();
+
+            ret.add(getBatches(tier, batchSize, deferred));
+        }
 
         return ret;
     }
 
+    private static List<List<AtlasEntityWithExtInfo>> getBatches(List<AtlasEntityWithExtInfo> entities, int batchSize, List<AtlasEntityWithExtInfo> deferred) {
+        List<List<AtlasEntityWithExtInfo>> ret         = new ArrayList<>();
+        Map<String, Integer>               guidBatches = new HashMap<>();
+
+        for (AtlasEntityWithExtInfo entityWithExtInfo : entities) {
+            Set<String>  guids   = getOwnGuids(entityWithExtInfo);
+            Set<Integer> batches = new HashSet<>();
+
+            guids.addAll(getReferencedGuids(entityWithExtInfo));
+
+            for (String guid : guids) {
+                Integer batch = guidBatches.get(guid);
+
+                if (batch != null) {
+                    batches.add(batch);
+                }
+            }
+
+            int batch;
+
+            if (batches.isEmpty()) {
+                if (ret.isEmpty() || ret.get(ret.size() - 1).size() >= batchSize) {
+                    ret.add(new ArrayList<AtlasEntityWithExtInfo>());
+                }
+
+                batch = ret.size() - 1;
+            } else if (batches.size() == 1 && !batches.contains(DEFERRED_BATCH) && ret.get(batches.iterator().next()).size() < batchSize) {
+                batch = batches.iterator().next();
+            } else {
+                batch = DEFERRED_BATCH;
+            }
+
+            if (batch == DEFERRED_BATCH) {
+                deferred.add(entityWithExtInfo);
+            } else {
+                ret.get(batch).add(entityWithExtInfo);
+            }
+
+            for (String guid : guids) {
+                guidBatches.put(guid, batch);
+            }
+        }
+
+        return ret;
+    }
+
+    private static Set<String> getOwnGuids(AtlasEntityWithExtInfo entityWithExtInfo) {
+        Set<String> ret = new HashSet<>();
+
+        ret.add(entityWithExtInfo.getEntity().getGuid());
+
+        if (MapUtils.isNotEmpty(entityWithExtInfo.getReferredEntities())) {
+            ret.addAll(entityWithExtInfo.getReferredEntities().keySet());
+        }
+
+        return ret;
+    }
+
+    private static Set<String> getReferencedGuids(AtlasEntityWithExtInfo entityWithExtInfo) {
+        Set<String> ret = new HashSet<>();
+
+        addReferencedGuids(entityWithExtInfo.getEntity(), ret);
+
+        if (MapUtils.isNotEmpty(entityWithExtInfo.getReferredEntities())) {
+            for (AtlasEntity referredEntity : entityWithExtInfo.getReferredEntities().values()) {
+                addReferencedGuids(referredEntity, ret);
+            }
+        }
+
+        return ret;
+    }
+
+    private static void addReferencedGuids(AtlasEntity entity, Set<String> guids) {
+        if (entity != null) {
+            if (MapUtils.isNotEmpty(entity.getAttributes())) {
+                addReferencedGuids(entity.getAttributes().values(), guids);
+            }
+
+            if (MapUtils.isNotEmpty(entity.getRelationshipAttributes())) {
+                addReferencedGuids(entity.getRelationshipAttributes().values(), guids);
+            }
+        }
+    }
+
+    private static void addReferencedGuids(Object value, Set<String> guids) {
+        if (value instanceof AtlasObjectId) {
+            String guid = ((AtlasObjectId) value).getGuid();
+
+            if (guid != null) {
+                guids.add(guid);
+            }
+        } else if (value instanceof Map) {
+            Object guid = ((Map) value).get(AtlasObjectId.KEY_GUID);
+
+            if (guid instanceof String) {
+                guids.add((String) guid);
+            } else {
+                addReferencedGuids(((Map) value).values(), guids);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection) value) {
+                addReferencedGuids(element, guids);
+            }
+        }
+    }
+
+    private static AtlasEntitiesWithExtInfo toEntitiesWithExtInfo(List<AtlasEntityWithExtInfo> batch) {
+        AtlasEntitiesWithExtInfo ret = new AtlasEntitiesWithExtInfo();
+
+        for (AtlasEntityWithExtInfo entityWithExtInfo : batch) {
+            ret.addEntity(entityWithExtInfo.getEntity());
+
+            if (MapUtils.isNotEmpty(entityWithExtInfo.getReferredEntities())) {
+                for (AtlasEntity referredEntity : entityWithExtInfo.getReferredEntities().values()) {
+                    ret.addReferredEntity(referredEntity);
+                }
+            }
+        }
+
+        return ret;
+    }
 
     private boolean updateResidualList(AtlasBaseException e, List<String> lineageList, String guid) {
         if (!e.getAtlasErrorCode().getErrorCode().equals(AtlasErrorCode.INVALID_OBJECT_ID.getErrorCode())) {
@@ -166,6 +533,26 @@ public class BulkImporterImpl implements BulkImporter {
         }
     }
 
+    private static class CheckpointTracker {
+        private final ImportCheckpointer checkpointer;
+        private final List<String>       residualList;
+        private       int                position;
+
+        public CheckpointTracker(ImportCheckpointer checkpointer, List<String> residualList) {
+            this.checkpointer = checkpointer;
+            this.residualList = residualList;
+            this.position     = checkpointer != null ? checkpointer.getStartPosition() : 0;
+        }
+
+        public void onEntitiesRead(int count) {
+            position += count;
+
+            if (checkpointer != null) {
+                checkpointer.onProgress(position, residualList);
+            }
+        }
+    }
+
     private static class EntityImportStreamWithResidualList {
         private final EntityImportStream stream;
         private final List<String>       residualList;
@@ -199,6 +586,10 @@ public class BulkImporterImpl implements BulkImporter {
             }
         }
 
+        public boolean isNavigatingResidualList() {
+            return navigateResidualList;
+        }
+
         public int getStreamSize() {
             return stream.size() + residualList.size();
         }
@@ -0,0 +1,368 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entity and classification counters, maintained incrementally from entity change notifications.
+ * Counters are sharded per type name and entity status, so that concurrent updates of different types don't contend.
+ */
+@Component
+public class MetricsCounters {
+    private static final String KEY_ACTIVE_ENTITIES  = "activeEntities";
+    private static final String KEY_DELETED_ENTITIES = "deletedEntities";
+    private static final String KEY_TAG_ENTITIES     = "tagEntities";
+    private static final String KEY_TAGGED_ENTITIES  = "taggedEntities";
+    private static final String KEY_DIRECT_TAGS      = "directTags";
+    private static final String KEY_DIRECT_TAGGED    = "directTaggedEntities";
+
+    private volatile ConcurrentMap<String, AtomicLong> activeEntities  = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<String, AtomicLong> deletedEntities = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<String, AtomicLong> tagEntities     = new ConcurrentHashMap<>();
+    private final    AtomicLong                        taggedEntities  = new AtomicLong();
+    private volatile ConcurrentMap<String, AtomicLong> directTags      = new ConcurrentHashMap<>();
+    private final    AtomicLong                        directTagged    = new AtomicLong();
+    private final    Set<String>                       changedTags     = new HashSet<>();
+    private final    AtomicBoolean                     isModified      = new AtomicBoolean();
+    private volatile boolean                           isInitialized   = false;
+
+    public void entityCreated(String typeName) {
+        increment(activeEntities, typeName, 1);
+    }
+
+    public void entityDeleted(String typeName, boolean isSoftDelete) {
+        increment(activeEntities, typeName, -1);
+
+        if (isSoftDelete) {
+            increment(deletedEntities, typeName, 1);
+        }
+    }
+
+    public void classificationAdded(String classificationName) {
+        increment(tagEntities, classificationName, 1);
+    }
+
+    public void classificationDeleted(String classificationName) {
+        increment(tagEntities, classificationName, -1);
+    }
+
+    public void taggedEntityAdded() {
+        taggedEntities.incrementAndGet();
+
+        isModified.set(true);
+    }
+
+    public void taggedEntityDeleted() {
+        taggedEntities.decrementAndGet();
+
+        isModified.set(true);
+    }
+
+    /**
+     * Apply updates collected during a transaction, after the transaction is committed.
+     */
+    public void apply(Updates updates) {
+        for (Map.Entry<String, Long> entry : updates.activeEntities.entrySet()) {
+            increment(activeEntities, entry.getKey(), entry.getValue());
+        }
+
+        for (Map.Entry<String, Long> entry : updates.deletedEntities.entrySet()) {
+            increment(deletedEntities, entry.getKey(), entry.getValue());
+        }
+
+        for (Map.Entry<String, Long> entry : updates.tagEntities.entrySet()) {
+            increment(tagEntities, entry.getKey(), entry.getValue());
+        }
+
+        if (!updates.tagEntities.isEmpty()) {
+            synchronized (changedTags) {
+                changedTags.addAll(updates.tagEntities.keySet());
+            }
+        }
+
+        if (updates.taggedEntities != 0) {
+            taggedEntities.addAndGet(updates.taggedEntities);
+
+            isModified.set(true);
+        }
+    }
+
+    public long getActiveEntityCount(String typeName) {
+        return get(activeEntities, typeName);
+    }
+
+    public long getDeletedEntityCount(String typeName) {
+        return get(deletedEntities, typeName);
+    }
+
+    public long getTagEntityCount(String classificationName) {
+        return get(tagEntities, classificationName);
+    }
+
+    public long getTaggedEntityCount() {
+        return taggedEntities.get();
+    }
+
+    public long getDirectTagCount(String classificationName) {
+        return get(directTags, classificationName);
+    }
+
+    public long getDirectTaggedEntityCount() {
+        return directTagged.get();
+    }
+
+    public Map<String, Long> getActiveEntityCounts() {
+        return toMap(activeEntities);
+    }
+
+    public Map<String, Long> getDeletedEntityCounts() {
+        return toMap(deletedEntities);
+    }
+
+    public Map<String, Long> getTagEntityCounts() {
+        return toMap(tagEntities);
+    }
+
+    public Map<String, Long> getDirectTagCounts() {
+        return toMap(directTags);
+    }
+
+    /**
+     * Direct classification counts can't be tracked from change notifications, which don't tell a direct
+     * classification from a propagated one; these are recounted for the classifications changed since the last call.
+     *
+     * @return names of classifications added to or deleted from entities since the last call to this method
+     */
+    public Set<String> removeChangedClassifications() {
+        synchronized (changedTags) {
+            Set<String> ret = new HashSet<>(changedTags);
+
+            changedTags.clear();
+
+            return ret;
+        }
+    }
+
+    /**
+     * Set the direct classification counts from a recount of the given classifications.
+     */
+    public void setDirectTagCounts(Map<String, Long> directTagCounts, long directTaggedCount) {
+        for (Map.Entry<String, Long> entry : directTagCounts.entrySet()) {
+            increment(directTags, entry.getKey(), entry.getValue() - getDirectTagCount(entry.getKey()));
+        }
+
+        directTagged.set(directTaggedCount);
+
+        isModified.set(true);
+    }
+
+    /**
+     * @return true if counters have been loaded from persisted state or set by a full recount
+     */
+    public boolean isInitialized() {
+        return isInitialized;
+    }
+
+    /**
+     * @return true if counters were updated since the last call to this method
+     */
+    public boolean getAndResetModified() {
+        return isModified.getAndSet(false);
+    }
+
+    /**
+     * Replace all counters with the given values, typically from a full recount. Updates received while the
+     * recount was in progress are lost; the next recount will correct them.
+     */
+    public void reset(Map<String, Long> activeEntities, Map<String, Long> deletedEntities, Map<String, Long> tagEntities, long taggedEntities,
+                      Map<String, Long> directTags, long directTagged) {
+        this.directTags = toCounters(directTags);
+        this.directTagged.set(directTagged);
+
+        reset(activeEntities, deletedEntities, tagEntities, taggedEntities);
+    }
+
+    /**
+     * Replace entity and classification counters, other than direct classification counts, with the given values.
+     */
+    public void reset(Map<String, Long> activeEntities, Map<String, Long> deletedEntities, Map<String, Long> tagEntities, long taggedEntities) {
+        this.activeEntities  = toCounters(activeEntities);
+        this.deletedEntities = toCounters(deletedEntities);
+        this.tagEntities     = toCounters(tagEntities);
+        this.taggedEntities.set(taggedEntities);
+        this.isInitialized   = true;
+
+        synchronized (changedTags) {
+            changedTags.clear();
+        }
+
+        isModified.set(true);
+    }
+
+    public String toJson() {
+        Map<String, Object> ret = new HashMap<>();
+
+        ret.put(KEY_ACTIVE_ENTITIES, getActiveEntityCounts());
+        ret.put(KEY_DELETED_ENTITIES, getDeletedEntityCounts());
+        ret.put(KEY_TAG_ENTITIES, getTagEntityCounts());
+        ret.put(KEY_TAGGED_ENTITIES, getTaggedEntityCount());
+        ret.put(KEY_DIRECT_TAGS, getDirectTagCounts());
+        ret.put(KEY_DIRECT_TAGGED, getDirectTaggedEntityCount());
+
+        return AtlasType.toJson(ret);
+    }
+
+    public void fromJson(String json) {
+        Map map = StringUtils.isNotEmpty(json) ? AtlasType.fromJson(json, Map.class) : null;
+
+        if (map != null) {
+            Object taggedCount       = map.get(KEY_TAGGED_ENTITIES);
+            Object directTaggedCount = map.get(KEY_DIRECT_TAGGED);
+
+            reset(toLongMap(map.get(KEY_ACTIVE_ENTITIES)), toLongMap(map.get(KEY_DELETED_ENTITIES)), toLongMap(map.get(KEY_TAG_ENTITIES)),
+                  taggedCount instanceof Number ? ((Number) taggedCount).longValue() : 0,
+                  toLongMap(map.get(KEY_DIRECT_TAGS)), directTaggedCount instanceof Number ? ((Number) directTaggedCount).longValue() : 0);
+        }
+    }
+
+    private void increment(ConcurrentMap<String, AtomicLong> counters, String key, long delta) {
+        if (StringUtils.isEmpty(key)) {
+            return;
+        }
+
+        AtomicLong counter = counters.get(key);
+
+        if (counter == null) {
+            AtomicLong existing = counters.putIfAbsent(key, counter = new AtomicLong());
+
+            if (existing != null) {
+                counter = existing;
+            }
+        }
+
+        counter.addAndGet(delta);
+
+        isModified.set(true);
+    }
+
+    /**
+     * Counter updates of a single transaction. Not thread-safe: an instance is used only by the thread running the
+     * transaction, and applied to the counters when the transaction commits.
+     */
+    public static class Updates {
+        private final Map<String, Long> activeEntities  = new HashMap<>();
+        private final Map<String, Long> deletedEntities = new HashMap<>();
+        private final Map<String, Long> tagEntities     = new HashMap<>();
+        private       long              taggedEntities  = 0;
+
+        public void entityCreated(String typeName) {
+            add(activeEntities, typeName, 1);
+        }
+
+        public void entityDeleted(String typeName, boolean isSoftDelete) {
+            add(activeEntities, typeName, -1);
+
+            if (isSoftDelete) {
+                add(deletedEntities, typeName, 1);
+            }
+        }
+
+        public void classificationAdded(String classificationName) {
+            add(tagEntities, classificationName, 1);
+        }
+
+        public void classificationDeleted(String classificationName) {
+            add(tagEntities, classificationName, -1);
+        }
+
+        public void taggedEntityAdded() {
+            taggedEntities++;
+        }
+
+        public void taggedEntityDeleted() {
+            taggedEntities--;
+        }
+
+        private static void add(Map<String, Long> deltas, String key, long delta) {
+            if (StringUtils.isNotEmpty(key)) {
+                Long value = deltas.get(key);
+
+                deltas.put(key, value == null ? delta : (value + delta));
+            }
+        }
+    }
+
+    private static long get(Map<String, AtomicLong> counters, String key) {
+        AtomicLong counter = counters.get(key);
+
+        return counter != null ? counter.get() : 0;
+    }
+
+    private static Map<String, Long> toMap(Map<String, AtomicLong> counters) {
+        Map<String, Long> ret = new HashMap<>();
+
+        for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            ret.put(entry.getKey(), entry.getValue().get());
+        }
+
+        return ret;
+    }
+
+    private static ConcurrentMap<String, AtomicLong> toCounters(Map<String, Long> values) {
+        ConcurrentMap<String, AtomicLong> ret = new ConcurrentHashMap<>();
+
+        if (MapUtils.isNotEmpty(values)) {
+            for (Map.Entry<String, Long> entry : values.entrySet()) {
+                if (entry.getValue() != null) {
+                    ret.put(entry.getKey(), new AtomicLong(entry.getValue()));
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private static Map<String, Long> toLongMap(Object obj) {
+        Map<String, Long> ret = new HashMap<>();
+
+        if (obj instanceof Map) {
+            for (Object o : ((Map) obj).entrySet()) {
+                Map.Entry entry = (Map.Entry) o;
+
+                if (entry.getValue() instanceof Number) {
+                    ret.put(String.valueOf(entry.getKey()), ((Number) entry.getValue()).longValue());
+                }
+            }
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.listener.EntityChangeListener;
+import org.apache.atlas.listener.EntityChangeListenerV2;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
+import org.apache.atlas.repository.store.graph.v1.DeleteHandlerV1;
+import org.apache.atlas.repository.store.graph.v1.SoftDeleteHandlerV1;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.instance.Struct;
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Listener on entity create/delete, classification add/delete. Updates MetricsCounters, so that metrics can be
+ * served without counting the entities in the graph. Notifications are received within the transaction making the
+ * change; updates are collected per transaction and applied to the counters only after the transaction commits.
+ */
+@Component
+public class MetricsEntityChangeListener implements EntityChangeListener, EntityChangeListenerV2 {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsEntityChangeListener.class);
+
+    private final MetricsCounters                      counters;
+    private final boolean                              isSoftDelete;
+    private final ThreadLocal<MetricsCounters.Updates> transactionUpdates = new ThreadLocal<>();
+
+    @Inject
+    public MetricsEntityChangeListener(MetricsCounters counters, DeleteHandlerV1 deleteHandler) {
+        this.counters     = counters;
+        this.isSoftDelete = deleteHandler instanceof SoftDeleteHandlerV1;
+    }
+
+    @Override
+    public void onEntitiesAdded(Collection<Referenceable> entities, boolean isImport) throws AtlasException {
+        for (Referenceable entity : entities) {
+            getTransactionUpdates().entityCreated(entity.getTypeName());
+        }
+    }
+
+    @Override
+    public void onEntitiesUpdated(Collection<Referenceable> entities, boolean isImport) throws AtlasException {
+        // no change in counts
+    }
+
+    @Override
+    public void onTraitsAdded(Referenceable entity, Collection<? extends Struct> traits) throws AtlasException {
+        List<String> classificationNames = new ArrayList<>();
+
+        for (Struct trait : traits) {
+            classificationNames.add(trait.getTypeName());
+        }
+
+        classificationsAdded(entity.getId()._getId(), classificationNames);
+    }
+
+    @Override
+    public void onTraitsDeleted(Referenceable entity, Collection<String> traitNames) throws AtlasException {
+        classificationsDeleted(entity.getId()._getId(), traitNames);
+    }
+
+    @Override
+    public void onTraitsUpdated(Referenceable entity, Collection<? extends Struct> traits) throws AtlasException {
+        // no change in counts
+    }
+
+    @Override
+    public void onEntitiesDeleted(Collection<Referenceable> entities, boolean isImport) throws AtlasException {
+        for (Referenceable entity : entities) {
+            entityDeleted(entity.getId()._getId(), entity.getTypeName());
+        }
+    }
+
+    @Override
+    public void onEntitiesAdded(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
+        for (AtlasEntity entity : entities) {
+            getTransactionUpdates().entityCreated(entity.getTypeName());
+        }
+    }
+
+    @Override
+    public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
+        // no change in counts
+    }
+
+    @Override
+    public void onEntitiesDeleted(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
+        for (AtlasEntity entity : entities) {
+            entityDeleted(entity.getGuid(), entity.getTypeName());
+        }
+    }
+
+    @Override
+    public void onClassificationsAdded(AtlasEntity entity, List<AtlasClassification> classifications) throws AtlasBaseException {
+        if (entity == null || CollectionUtils.isEmpty(classifications)) {
+            return;
+        }
+
+        List<String> classificationNames = new ArrayList<>(classifications.size());
+
+        for (AtlasClassification classification : classifications) {
+            classificationNames.add(classification.getTypeName());
+        }
+
+        classificationsAdded(entity.getGuid(), classificationNames);
+    }
+
+    @Override
+    public void onClassificationsUpdated(AtlasEntity entity, List<AtlasClassification> classifications) throws AtlasBaseException {
+        // no change in counts
+    }
+
+    @Override
+    public void onClassificationsDeleted(AtlasEntity entity, List<String> classificationNames) throws AtlasBaseException {
+        if (entity != null) {
+            classificationsDeleted(entity.getGuid(), classificationNames);
+        }
+    }
+
+    private void entityDeleted(String guid, String typeName) {
+        getTransactionUpdates().entityDeleted(typeName, isSoftDelete);
+
+        // on hard-delete the vertex is already removed; tag counts will be corrected by the next recount
+        AtlasVertex vertex = AtlasGraphUtilsV1.findByGuid(guid);
+
+        if (vertex != null) {
+            List<String> classificationNames = getClassificationNames(vertex);
+
+            for (String classificationName : classificationNames) {
+                getTransactionUpdates().classificationDeleted(classificationName);
+            }
+
+            if (!classificationNames.isEmpty()) {
+                getTransactionUpdates().taggedEntityDeleted();
+            }
+        }
+    }
+
+    private void classificationsAdded(String guid, Collection<String> classificationNames) {
+        if (CollectionUtils.isEmpty(classificationNames)) {
+            return;
+        }
+
+        for (String classificationName : classificationNames) {
+            getTransactionUpdates().classificationAdded(classificationName);
+        }
+
+        AtlasVertex vertex = AtlasGraphUtilsV1.findByGuid(guid);
+
+        // entity had no classifications before this update
+        if (vertex != null && getClassificationNames(vertex).size() <= classificationNames.size()) {
+            getTransactionUpdates().taggedEntityAdded();
+        }
+    }
+
+    private void classificationsDeleted(String guid, Collection<String> classificationNames) {
+        if (CollectionUtils.isEmpty(classificationNames)) {
+            return;
+        }
+
+        for (String classificationName : classificationNames) {
+            getTransactionUpdates().classificationDeleted(classificationName);
+        }
+
+        AtlasVertex vertex = AtlasGraphUtilsV1.findByGuid(guid);
+
+        if (vertex != null && getClassificationNames(vertex).isEmpty()) {
+            getTransactionUpdates().taggedEntityDeleted();
+        }
+    }
+
+    private MetricsCounters.Updates getTransactionUpdates() {
+        MetricsCounters.Updates ret = transactionUpdates.get();
+
+        if (ret == null) {
+            ret = new MetricsCounters.Updates();
+
+            transactionUpdates.set(ret);
+
+            new CountersUpdateHook(ret);
+        }
+
+        return ret;
+    }
+
+    private class CountersUpdateHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final MetricsCounters.Updates updates;
+
+        private CountersUpdateHook(MetricsCounters.Updates updates) {
+            super();
+
+            this.updates = updates;
+        }
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            transactionUpdates.remove();
+
+            if (isSuccess) {
+                counters.apply(updates);
+            } else if (LOG.isDebugEnabled()) {
+                LOG.debug("transaction rolled back; metrics counter updates discarded");
+            }
+        }
+    }
+
+    // names of classifications associated with the entity, directly or by propagation
+    private static List<String> getClassificationNames(AtlasVertex vertex) {
+        List<String>       ret             = new ArrayList<>();
+        Collection<String> traitNames      = vertex.getPropertyValues(Constants.TRAIT_NAMES_PROPERTY_KEY, String.class);
+        Collection<String> propagatedNames = vertex.getPropertyValues(Constants.PROPAGATED_TRAIT_NAMES_PROPERTY_KEY, String.class);
+
+        if (CollectionUtils.isNotEmpty(traitNames)) {
+            ret.addAll(traitNames);
+        }
+
+        if (CollectionUtils.isNotEmpty(propagatedNames)) {
+            ret.addAll(propagatedNames);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("classifications of {}: {}", AtlasGraphUtilsV1.getIdFromVertex(vertex), ret);
+        }
+
+        return ret;
+    }
+}
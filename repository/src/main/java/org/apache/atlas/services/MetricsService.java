@@ -18,183 +18,392 @@
 package org.apache.atlas.services;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasClient;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.annotation.AtlasService;
-import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity.Status;
 import org.apache.atlas.model.metrics.AtlasMetrics;
+import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
-import org.apache.atlas.util.AtlasGremlinQueryProvider;
-import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.AtlasGraphUtilsV1;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.configuration.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Serves repository metrics from MetricsCounters, which are updated incrementally on entity changes. Counters are
+ * persisted periodically in the graph, and optionally reconciled with a full recount using the index.
+ */
 @AtlasService
-public class MetricsService {
+public class MetricsService implements Service {
     private static final Logger LOG = LoggerFactory.getLogger(MetricsService.class);
 
     // Query Category constants
-    public static final String TYPE    = "type";
-    public static final String ENTITY  = "entity";
-    public static final String TAG     = "tag";
-    public static final String GENERAL = "general";
+    public static final String TYPE                = "type";
+    public static final String ENTITY              = "entity";
+    public static final String TAG                 = "tag";
+    public static final String GENERAL             = "general";
+    public static final String TAG_ACTIVE_ENTITIES = "tagActiveEntities";
 
     // Query names
     protected static final String METRIC_TYPE_COUNT        = TYPE + "Count";
     protected static final String METRIC_TYPE_UNUSED_COUNT = TYPE + "UnusedCount";
     protected static final String METRIC_TYPE_ENTITIES     = TYPE + "Entities";
 
-    protected static final String METRIC_ENTITY_COUNT    = ENTITY + "Count";
-    protected static final String METRIC_ENTITY_DELETED  = ENTITY + "Deleted";
-    protected static final String METRIC_TAGGED_ENTITIES = ENTITY + "Tagged";
-    protected static final String METRIC_TAGS_PER_ENTITY = ENTITY + "Tags";
+    protected static final String METRIC_ENTITY_COUNT           = ENTITY + "Count";
+    protected static final String METRIC_ENTITY_COUNT_ALL_TYPES = ENTITY + "CountAllTypes";
+    protected static final String METRIC_ENTITY_DELETED         = ENTITY + "Deleted";
+    protected static final String METRIC_TAGGED_ENTITIES        = ENTITY + "Tagged";
+    protected static final String METRIC_TAGGED_ACTIVE_ENTITIES = ENTITY + "TaggedActive";
+    protected static final String METRIC_TAGS_PER_ENTITY        = ENTITY + "Tags";
 
     protected static final String METRIC_TAG_COUNT        = TAG + "Count";
     protected static final String METRIC_ENTITIES_PER_TAG = TAG + "Entities";
 
-    public static final String METRIC_QUERY_PREFIX       = "atlas.metric.query.";
-    public static final String METRIC_QUERY_CACHE_TTL    = "atlas.metric.query.cache.ttlInSecs";
-    public static final int    DEFAULT_CACHE_TTL_IN_SECS = 900;
+    public static final String METRIC_PERSIST_INTERVAL       = "atlas.metric.persist.interval.secs";
+    public static final String METRIC_RECOUNT_INTERVAL       = "atlas.metric.recount.interval.secs";
+    public static final int    DEFAULT_PERSIST_INTERVAL_SECS = 60;
+    public static final int    DEFAULT_RECOUNT_INTERVAL_SECS = 24 * 60 * 60; // 0: recount only when there are no persisted counters
 
     public static final String METRIC_COLLECTION_TIME = "collectionTime";
 
-    private static Configuration            configuration = null;
-    private static AtlasGremlinQueryProvider gremlinQueryProvider = null;
+    private static final String METRICS_VERTEX_TYPE    = "metricsCounters";
+    private static final String METRICS_COUNTERS_KEY   = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "metrics.counters";
+    private static final String METRICS_TIMESTAMP_KEY  = Constants.INTERNAL_PROPERTY_KEY_PREFIX + "metrics.timestamp";
+    private static final String THREADNAME_PREFIX      = MetricsService.class.getSimpleName();
 
-    private final AtlasGraph                atlasGraph;
-    private final int                       cacheTTLInSecs;
+    private final AtlasGraph        atlasGraph;
+    private final AtlasTypeRegistry typeRegistry;
+    private final MetricsCounters   counters;
+    private final int               persistIntervalSecs;
+    private final int               recountIntervalSecs;
 
-    private AtlasMetrics cachedMetrics       = null;
-    private long         cacheExpirationTime = 0;
+    private ScheduledExecutorService executor = null;
 
 
     @Inject
-    public MetricsService(AtlasGraph atlasGraph) throws AtlasException {
-        this(ApplicationProperties.get(), atlasGraph);
+    public MetricsService(AtlasGraph atlasGraph, AtlasTypeRegistry typeRegistry, MetricsCounters counters) throws AtlasException {
+        this(ApplicationProperties.get(), atlasGraph, typeRegistry, counters);
     }
 
     @VisibleForTesting
-    MetricsService(Configuration configuration, AtlasGraph graph) {
-        MetricsService.configuration = configuration;
-
-        atlasGraph        = graph;
-        cacheTTLInSecs    = configuration != null ? configuration.getInt(METRIC_QUERY_CACHE_TTL, DEFAULT_CACHE_TTL_IN_SECS)
-                : DEFAULT_CACHE_TTL_IN_SECS;
-        gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
-    }
-
-    @SuppressWarnings("unchecked")
-    public AtlasMetrics getMetrics(boolean ignoreCache) {
-        if (ignoreCache || !isCacheValid()) {
-            AtlasMetrics metrics = new AtlasMetrics();
-
-            for (MetricQuery metricQuery : MetricQuery.values()) {
-                try {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Executing query: {}", metricQuery);
-                    }
-                    executeGremlinQuery(metrics, metricQuery.group, metricQuery.name, metricQuery.query);
-                } catch (AtlasBaseException e) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Gremlin execution failed for metric {}", metricQuery, e);
-                    } else {
-                        LOG.warn("Gremlin execution failed for metric {}", metricQuery);
-                    }
+    MetricsService(Configuration configuration, AtlasGraph graph, AtlasTypeRegistry typeRegistry, MetricsCounters counters) {
+        this.atlasGraph          = graph;
+        this.typeRegistry        = typeRegistry;
+        this.counters            = counters;
+        this.persistIntervalSecs = configuration != null ? configuration.getInt(METRIC_PERSIST_INTERVAL, DEFAULT_PERSIST_INTERVAL_SECS) : DEFAULT_PERSIST_INTERVAL_SECS;
+        this.recountIntervalSecs = configuration != null ? configuration.getInt(METRIC_RECOUNT_INTERVAL, DEFAULT_RECOUNT_INTERVAL_SECS) : DEFAULT_RECOUNT_INTERVAL_SECS;
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat(THREADNAME_PREFIX + " thread-%d").setDaemon(true).build());
+
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                loadCounters();
+
+                if (!counters.isInitialized()) {
+                    recount();
                 }
             }
+        });
+
+        if (persistIntervalSecs > 0) {
+            executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    recountChangedClassifications();
+                    persistCounters();
+                }
+            }, persistIntervalSecs, persistIntervalSecs, TimeUnit.SECONDS);
+        }
 
-            long collectionTime = System.currentTimeMillis();
+        if (recountIntervalSecs > 0) {
+            executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    recount();
+                }
+            }, recountIntervalSecs, recountIntervalSecs, TimeUnit.SECONDS);
+        }
+    }
 
-            metrics.addData(GENERAL, METRIC_COLLECTION_TIME, collectionTime);
+    @Override
+    public void stop() throws AtlasException {
+        if (executor != null) {
+            executor.shutdownNow();
 
-            this.cachedMetrics       = metrics;
-            this.cacheExpirationTime = (collectionTime + cacheTTLInSecs * 1000);
+            executor = null;
         }
 
-        return cachedMetrics;
+        persistCounters();
     }
 
-    private void executeGremlinQuery(AtlasMetrics metrics, String type, String name, String query) throws AtlasBaseException {
-        Object result = atlasGraph.executeGremlinScript(query, false);
+    /**
+     * Metrics keys existing before incremental counting keep their meaning:
+     * <ul>
+     *     <li>general.entityCount: entities of sub-types of Referenceable, active and deleted</li>
+     *     <li>entity.entityTagged: entities with a direct classification, active and deleted</li>
+     *     <li>tag.&lt;classification&gt;: entities with the classification directly, active and deleted</li>
+     * </ul>
+     * Counts of active entities, including propagated classifications, are published under new keys:
+     * general.entityCountAllTypes, entity.entityTaggedActive and tagActiveEntities.&lt;classification&gt;.
+     *
+     * @param recount when true, counters are recomputed from the index before returning the metrics
+     * @return metrics computed from the current counters
+     */
+    public AtlasMetrics getMetrics(boolean recount) {
+        if (recount) {
+            recount();
+        }
 
-        if (result instanceof Number) {
-            metrics.addData(type, name, ((Number) result).intValue());
-        } else if (result instanceof List) {
-            for (Map<String, Number> resultMap : (List<Map<String, Number>>) result) {
-                for (Map.Entry<String, Number> entry : resultMap.entrySet()) {
-                    metrics.addData(type, entry.getKey(), entry.getValue().intValue());
-                }
+        AtlasMetrics      metrics          = new AtlasMetrics();
+        Map<String, Long> activeCounts     = counters.getActiveEntityCounts();
+        Map<String, Long> deletedCounts    = counters.getDeletedEntityCounts();
+        Map<String, Long> tagCounts        = counters.getTagEntityCounts();
+        long              totalEntities    = 0;
+        long              totalRefEntities = 0;
+        long              totalDeleted     = 0;
+        int               unusedTypes      = 0;
+
+        for (String typeName : typeRegistry.getAllEntityDefNames()) {
+            long activeCount  = getCount(activeCounts, typeName);
+            long deletedCount = getCount(deletedCounts, typeName);
+            long entityCount  = activeCount + deletedCount;
+
+            if (entityCount > 0) {
+                metrics.addData(ENTITY, typeName, entityCount);
+            } else {
+                unusedTypes++;
             }
-        } else {
-            String returnClassName = result != null ? result.getClass().getSimpleName() : "null";
 
-            LOG.warn("Unhandled return type {} for {}. Ignoring", returnClassName, query);
+            totalEntities += entityCount;
+            totalDeleted  += deletedCount;
+
+            if (isReferenceableType(typeName)) {
+                totalRefEntities += entityCount;
+            }
         }
-    }
 
-    private boolean isCacheValid() {
-        boolean valid = cachedMetrics != null && System.currentTimeMillis() < cacheExpirationTime;
+        for (String classificationName : typeRegistry.getAllClassificationDefNames()) {
+            long tagCount       = counters.getDirectTagCount(classificationName);
+            long activeTagCount = getCount(tagCounts, classificationName);
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("cachedMetrics: {}", cachedMetrics != null);
-            LOG.debug("cacheExpirationTime: {}", cacheExpirationTime);
-            LOG.debug("valid: {}", valid);
+            if (tagCount > 0) {
+                metrics.addData(TAG, classificationName, tagCount);
+            }
+
+            if (activeTagCount > 0) {
+                metrics.addData(TAG_ACTIVE_ENTITIES, classificationName, activeTagCount);
+            }
         }
 
-        return valid;
+        int typeCount = typeRegistry.getAllEnumDefs().size() + typeRegistry.getAllStructDefs().size() +
+                        typeRegistry.getAllEntityDefs().size() + typeRegistry.getAllRelationshipDefs().size();
+
+        metrics.addData(GENERAL, METRIC_TYPE_COUNT, typeCount);
+        metrics.addData(GENERAL, METRIC_TYPE_UNUSED_COUNT, unusedTypes);
+        metrics.addData(GENERAL, METRIC_TAG_COUNT, typeRegistry.getAllClassificationDefNames().size());
+        metrics.addData(GENERAL, METRIC_ENTITY_COUNT, totalRefEntities);
+        metrics.addData(GENERAL, METRIC_ENTITY_COUNT_ALL_TYPES, totalEntities);
+        metrics.addData(GENERAL, METRIC_ENTITY_DELETED, totalDeleted);
+        metrics.addData(ENTITY, METRIC_TAGGED_ENTITIES, counters.getDirectTaggedEntityCount());
+        metrics.addData(ENTITY, METRIC_TAGGED_ACTIVE_ENTITIES, counters.getTaggedEntityCount());
+        metrics.addData(GENERAL, METRIC_COLLECTION_TIME, System.currentTimeMillis());
+
+        return metrics;
     }
 
-    private static String getQuery(String type, String name, String defaultQuery) {
-        String ret = configuration != null ? configuration.getString(METRIC_QUERY_PREFIX + type + "." + name, defaultQuery)
-                : defaultQuery;
+    /**
+     * Recompute all counters using index queries: one count per entity-type/status and per classification. Besides
+     * the periodic recount, this corrects counts the incremental updates can't track, like tags of hard-deleted
+     * entities.
+     */
+    @VisibleForTesting
+    synchronized void recount() {
+        LOG.info("==> MetricsService.recount()");
+
+        long startTime = System.currentTimeMillis();
 
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("query for {}.{}: {}", type, name, ret);
+        try {
+            Map<String, Long> activeCounts  = new HashMap<>();
+            Map<String, Long> deletedCounts = new HashMap<>();
+            Map<String, Long> tagCounts     = new HashMap<>();
+            Map<String, Long> directTags    = new HashMap<>();
+
+            for (String typeName : typeRegistry.getAllEntityDefNames()) {
+                activeCounts.put(typeName, getIndexCount(getTypeQuery(Constants.TYPE_NAME_PROPERTY_KEY, typeName, Status.ACTIVE)));
+                deletedCounts.put(typeName, getIndexCount(getTypeQuery(Constants.TYPE_NAME_PROPERTY_KEY, typeName, Status.DELETED)));
+            }
+
+            for (String classificationName : typeRegistry.getAllClassificationDefNames()) {
+                tagCounts.put(classificationName, getIndexCount(getClassificationQuery(classificationName)));
+                directTags.put(classificationName, getIndexCount(getDirectClassificationQuery(classificationName)));
+            }
+
+            long taggedCount = getIndexCount("(" + getIndexKey(Constants.TRAIT_NAMES_PROPERTY_KEY) + "[* TO *] OR " +
+                                             getIndexKey(Constants.PROPAGATED_TRAIT_NAMES_PROPERTY_KEY) + "[* TO *]) AND " +
+                                             getIndexKey(Constants.STATE_PROPERTY_KEY) + Status.ACTIVE.name());
+
+            counters.reset(activeCounts, deletedCounts, tagCounts, taggedCount, directTags, getIndexCount(getDirectTaggedQuery()));
+        } catch (Exception excp) {
+            LOG.error("MetricsService.recount() failed", excp);
         }
 
-        return ret;
+        LOG.info("<== MetricsService.recount(): timeTaken={}ms", System.currentTimeMillis() - startTime);
     }
 
     /**
-     * MetricQuery enum has the capability of reading the queries from the externalized config.
-     *
-     * The default behavior is to read from the properties and override the statically type query if the configured
-     * query is not blank/empty.
+     * Recount direct classifications of the classifications added to or deleted from entities since the last call.
      */
-    private enum MetricQuery {
-        TYPE_COUNT(GENERAL, METRIC_TYPE_COUNT, AtlasGremlinQuery.TYPE_COUNT_METRIC),
-        UNUSED_TYPE_COUNT(GENERAL, METRIC_TYPE_UNUSED_COUNT, AtlasGremlinQuery.TYPE_UNUSED_COUNT_METRIC),
-        ENTITY_COUNT(GENERAL, METRIC_ENTITY_COUNT, AtlasGremlinQuery.ENTITY_COUNT_METRIC),
-        TAGS_COUNT(GENERAL, METRIC_TAG_COUNT, AtlasGremlinQuery.TAG_COUNT_METRIC),
-        DELETED_ENTITY_COUNT(GENERAL, METRIC_ENTITY_DELETED, AtlasGremlinQuery.ENTITY_DELETED_METRIC),
-
-        ENTITIES_PER_TYPE(ENTITY, METRIC_TYPE_ENTITIES, AtlasGremlinQuery.ENTITIES_PER_TYPE_METRIC),
-        TAGGED_ENTITIES(ENTITY, METRIC_TAGGED_ENTITIES, AtlasGremlinQuery.TAGGED_ENTITIES_METRIC),
-
-        ENTITIES_WITH_SPECIFIC_TAG(TAG, METRIC_ENTITIES_PER_TAG, AtlasGremlinQuery.ENTITIES_FOR_TAG_METRIC),
-        ;
-
-        private final String group;
-        private final String name;
-        private final String query;
-
-        MetricQuery(String group, String name, AtlasGremlinQuery gremlinQuery) {
-            this.group          = group;
-            this.name           = name;
-            this.query          = MetricsService.getQuery(group, name, gremlinQueryProvider.getQuery(gremlinQuery));
+    @VisibleForTesting
+    synchronized void recountChangedClassifications() {
+        Set<String> classificationNames = counters.removeChangedClassifications();
+
+        if (classificationNames.isEmpty()) {
+            return;
         }
 
-        @Override
-        public String toString() {
-            return "MetricQuery{" + "group='" + group + '\'' +
-                    ", name='" + name + '\'' +
-                    ", query='" + query + '\'' +
-                    '}';
+        try {
+            Map<String, Long> directTags = new HashMap<>();
+
+            for (String classificationName : classificationNames) {
+                directTags.put(classificationName, getIndexCount(getDirectClassificationQuery(classificationName)));
+            }
+
+            counters.setDirectTagCounts(directTags, getIndexCount(getDirectTaggedQuery()));
+        } catch (Exception excp) {
+            LOG.warn("failed to recount classifications {}", classificationNames, excp);
         }
     }
+
+    @VisibleForTesting
+    void loadCounters() {
+        try {
+            AtlasVertex vertex = findCountersVertex();
+
+            if (vertex != null) {
+                counters.fromJson(AtlasGraphUtilsV1.getProperty(vertex, METRICS_COUNTERS_KEY, String.class));
+
+                LOG.info("loaded metrics counters persisted at {}", AtlasGraphUtilsV1.getProperty(vertex, METRICS_TIMESTAMP_KEY, Long.class));
+            }
+
+            atlasGraph.commit();
+        } catch (Exception excp) {
+            LOG.warn("failed to load persisted metrics counters", excp);
+
+            atlasGraph.rollback();
+        }
+    }
+
+    @VisibleForTesting
+    void persistCounters() {
+        if (!counters.isInitialized() || !counters.getAndResetModified()) {
+            return;
+        }
+
+        try {
+            AtlasVertex vertex = findCountersVertex();
+
+            if (vertex == null) {
+                vertex = atlasGraph.addVertex();
+
+                vertex.setProperty(Constants.VERTEX_TYPE_PROPERTY_KEY, METRICS_VERTEX_TYPE);
+            }
+
+            vertex.setProperty(METRICS_COUNTERS_KEY, counters.toJson());
+            vertex.setProperty(METRICS_TIMESTAMP_KEY, System.currentTimeMillis());
+
+            atlasGraph.commit();
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("persisted metrics counters");
+            }
+        } catch (Exception excp) {
+            LOG.warn("failed to persist metrics counters", excp);
+
+            atlasGraph.rollback();
+        }
+    }
+
+    private AtlasVertex findCountersVertex() {
+        Iterator<AtlasVertex> vertices = atlasGraph.query().has(Constants.VERTEX_TYPE_PROPERTY_KEY, METRICS_VERTEX_TYPE).vertices().iterator();
+
+        return vertices.hasNext() ? vertices.next() : null;
+    }
+
+    private long getIndexCount(String query) {
+        AtlasIndexQuery indexQuery = atlasGraph.indexQuery(Constants.VERTEX_INDEX, query);
+        long            ret        = indexQuery.vertexTotals();
+
+        if (indexQuery.isVertexTotalsEstimated()) {
+            LOG.warn("index count for {} is an estimate: at least {}", query, ret);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("index count for {}: {}", query, ret);
+        }
+
+        return ret;
+    }
+
+    private static String getTypeQuery(String propertyKey, String typeName, Status status) {
+        return getIndexKey(propertyKey) + AtlasAttribute.escapeIndexQueryValue(Collections.singleton(typeName)) + " AND " +
+               getIndexKey(Constants.STATE_PROPERTY_KEY) + status.name();
+    }
+
+    // entities having the classification directly or by propagation; an entity having both is counted once
+    private static String getClassificationQuery(String classificationName) {
+        String value = AtlasAttribute.escapeIndexQueryValue(Collections.singleton(classificationName));
+
+        return "(" + getIndexKey(Constants.TRAIT_NAMES_PROPERTY_KEY) + value + " OR " +
+               getIndexKey(Constants.PROPAGATED_TRAIT_NAMES_PROPERTY_KEY) + value + ") AND " +
+               getIndexKey(Constants.STATE_PROPERTY_KEY) + Status.ACTIVE.name();
+    }
+
+    // entities having the classification directly, active and deleted
+    private static String getDirectClassificationQuery(String classificationName) {
+        return getIndexKey(Constants.TRAIT_NAMES_PROPERTY_KEY) + AtlasAttribute.escapeIndexQueryValue(Collections.singleton(classificationName));
+    }
+
+    // entities having a classification directly, active and deleted
+    private static String getDirectTaggedQuery() {
+        return getIndexKey(Constants.TRAIT_NAMES_PROPERTY_KEY) + "[* TO *]";
+    }
+
+    private boolean isReferenceableType(String typeName) {
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+        return entityType != null && entityType.isSubTypeOf(AtlasClient.REFERENCEABLE_SUPER_TYPE);
+    }
+
+    private static String getIndexKey(String propertyKey) {
+        return AtlasGraphUtilsV1.getIndexSearchPrefix() + "\"" + propertyKey + "\":";
+    }
+
+    private static long getCount(Map<String, Long> counts, String key) {
+        Long ret = counts.get(key);
+
+        return ret != null ? ret : 0;
+    }
 }
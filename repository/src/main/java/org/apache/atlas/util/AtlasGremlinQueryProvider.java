@@ -51,10 +51,6 @@ public abstract class AtlasGremlinQueryProvider {
         EXPORT_TYPE_MATCHES,
         EXPORT_TYPE_DEFAULT,
 
-        // Lineage Queries
-        FULL_LINEAGE,
-        PARTIAL_LINEAGE,
-
         // Discovery Queries
         BASIC_SEARCH_TYPE_FILTER,
         BASIC_SEARCH_CLASSIFICATION_FILTER,
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.lineage.AtlasLineageInfo;
+import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection;
+import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageRelation;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v1.EntityGraphRetriever;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class EntityLineageServiceTest {
+    private static final String PROCESS_INPUTS_EDGE  = "__Process.inputs";
+    private static final String PROCESS_OUTPUTS_EDGE = "__Process.outputs";
+
+    private EntityGraphRetriever                           entityRetriever;
+    private Map<String, AtlasVertex>                       vertices;
+    private Map<AtlasVertex, Map<String, List<AtlasEdge>>> vertexEdges;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        entityRetriever = mock(EntityGraphRetriever.class);
+        vertices        = new HashMap<>();
+        vertexEdges     = new HashMap<>();
+
+        when(entityRetriever.getEntityVertex(anyString())).thenAnswer(new Answer<AtlasVertex>() {
+            @Override
+            public AtlasVertex answer(InvocationOnMock invocation) {
+                return vertices.get((String) invocation.getArguments()[0]);
+            }
+        });
+
+        when(entityRetriever.toAtlasEntityHeader(any(AtlasVertex.class))).thenAnswer(new Answer<AtlasEntityHeader>() {
+            @Override
+            public AtlasEntityHeader answer(InvocationOnMock invocation) {
+                AtlasVertex       vertex = (AtlasVertex) invocation.getArguments()[0];
+                AtlasEntityHeader ret    = new AtlasEntityHeader();
+
+                ret.setGuid((String) vertex.getId());
+
+                return ret;
+            }
+        });
+    }
+
+    @Test
+    public void testDepth() throws Exception {
+        // t0 -> p1 -> t1 -> p2 -> t2 -> p3 -> t3
+        addProcess("p1", "t0", "t1");
+        addProcess("p2", "t1", "t2");
+        addProcess("p3", "t2", "t3");
+
+        AtlasLineageInfo lineage = getService(100, 60000).getLineageInfo("t0", LineageDirection.OUTPUT, 1);
+
+        assertEquals(lineage.getGuidEntityMap().keySet(), asSet("t0", "p1", "t1"));
+        assertEquals(lineage.getRelations().size(), 2);
+
+        lineage = getService(100, 60000).getLineageInfo("t0", LineageDirection.OUTPUT, 2);
+
+        assertEquals(lineage.getGuidEntityMap().keySet(), asSet("t0", "p1", "t1", "p2", "t2"));
+        assertEquals(lineage.getRelations().size(), 4);
+
+        // depth 0: full lineage
+        lineage = getService(100, 60000).getLineageInfo("t0", LineageDirection.OUTPUT, 0);
+
+        assertEquals(lineage.getGuidEntityMap().keySet(), asSet("t0", "p1", "t1", "p2", "t2", "p3", "t3"));
+        assertEquals(lineage.getRelations().size(), 6);
+    }
+
+    @Test
+    public void testDirection() throws Exception {
+        addProcess("p1", "t0", "t1");
+        addProcess("p2", "t1", "t2");
+
+        AtlasLineageInfo lineage = getService(100, 60000).getLineageInfo("t1", LineageDirection.INPUT, 0);
+
+        assertEquals(lineage.getGuidEntityMap().keySet(), asSet("t0", "p1", "t1"));
+        assertTrue(lineage.getRelations().contains(new LineageRelation("t0", "p1", null)));
+        assertTrue(lineage.getRelations().contains(new LineageRelation("p1", "t1", null)));
+
+        lineage = getService(100, 60000).getLineageInfo("t1", LineageDirection.OUTPUT, 0);
+
+        assertEquals(lineage.getGuidEntityMap().keySet(), asSet("t1", "p2", "t2"));
+        assertTrue(lineage.getRelations().contains(new LineageRelation("t1", "p2", null)));
+        assertTrue(lineage.getRelations().contains(new LineageRelation("p2", "t2", null)));
+
+        lineage = getService(100, 60000).getLineageInfo("t1", LineageDirection.BOTH, 0);
+
+        assertEquals(lineage.getLineageDirection(), LineageDirection.BOTH);
+        assertEquals(lineage.getGuidEntityMap().keySet(), asSet("t0", "p1", "t1", "p2", "t2"));
+        assertEquals(lineage.getRelations().size(), 4);
+    }
+
+    @Test
+    public void testCycle() throws Exception {
+        // t0 -> p1 -> t1 -> p2 -> t0
+        addProcess("p1", "t0", "t1");
+        addProcess("p2", "t1", "t0");
+
+        AtlasLineageInfo lineage = getService(100, 60000).getLineageInfo("t0", LineageDirection.OUTPUT, 0);
+
+        assertEquals(lineage.getGuidEntityMap().keySet(), asSet("t0", "p1", "t1", "p2"));
+        assertEquals(lineage.getRelations().size(), 4);
+    }
+
+    @Test
+    public void testMaxNodesWithinProcess() throws Exception {
+        String[] outputs = new String[50];
+
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = "t" + (i + 1);
+        }
+
+        // a single process with many outputs must not be expanded fully
+        addProcess("p1", new String[] { "t0" }, outputs);
+
+        AtlasLineageInfo lineage = getService(10, 60000).getLineageInfo("t0", LineageDirection.OUTPUT, 0);
+
+        assertTrue(lineage.getGuidEntityMap().size() >= 10);
+        assertTrue(lineage.getGuidEntityMap().size() <= 11);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        addProcess("p1", "t0", "t1");
+
+        AtlasLineageInfo lineage = getService(100, -1).getLineageInfo("t0", LineageDirection.OUTPUT, 0);
+
+        assertTrue(lineage.getGuidEntityMap().isEmpty());
+        assertTrue(lineage.getRelations().isEmpty());
+    }
+
+    private EntityLineageService getService(int maxNodes, long timeoutMs) {
+        return new EntityLineageService(mock(AtlasTypeRegistry.class), null, entityRetriever, maxNodes, timeoutMs);
+    }
+
+    private void addProcess(String process, String input, String output) {
+        addProcess(process, new String[] { input }, new String[] { output });
+    }
+
+    private void addProcess(String process, String[] inputs, String[] outputs) {
+        AtlasVertex processVertex = getVertex(process);
+
+        for (String input : inputs) {
+            addEdge(PROCESS_INPUTS_EDGE, processVertex, getVertex(input));
+        }
+
+        for (String output : outputs) {
+            addEdge(PROCESS_OUTPUTS_EDGE, processVertex, getVertex(output));
+        }
+    }
+
+    private void addEdge(String label, AtlasVertex outVertex, AtlasVertex inVertex) {
+        AtlasEdge edge = mock(AtlasEdge.class);
+
+        when(edge.getLabel()).thenReturn(label);
+        when(edge.getOutVertex()).thenReturn(outVertex);
+        when(edge.getInVertex()).thenReturn(inVertex);
+
+        getEdges(outVertex, AtlasEdgeDirection.OUT, label).add(edge);
+        getEdges(inVertex, AtlasEdgeDirection.IN, label).add(edge);
+    }
+
+    private AtlasVertex getVertex(String guid) {
+        AtlasVertex ret = vertices.get(guid);
+
+        if (ret == null) {
+            final Map<String, List<AtlasEdge>> edges = new HashMap<>();
+
+            ret = mock(AtlasVertex.class);
+
+            when(ret.getId()).thenReturn(guid);
+            when(ret.getProperty(Constants.GUID_PROPERTY_KEY, String.class)).thenReturn(guid);
+            when(ret.getEdges(any(AtlasEdgeDirection.class), anyString())).thenAnswer(new Answer<Iterable<AtlasEdge>>() {
+                @Override
+                public Iterable<AtlasEdge> answer(InvocationOnMock invocation) {
+                    List<AtlasEdge> edgeList = edges.get(invocation.getArguments()[0] + ":" + invocation.getArguments()[1]);
+
+                    return edgeList != null ? edgeList : new ArrayList<AtlasEdge>();
+                }
+            });
+
+            vertexEdges.put(ret, edges);
+            vertices.put(guid, ret);
+        }
+
+        return ret;
+    }
+
+    private List<AtlasEdge> getEdges(AtlasVertex vertex, AtlasEdgeDirection direction, String label) {
+        Map<String, List<AtlasEdge>> edges = vertexEdges.get(vertex);
+        String                       key   = direction + ":" + label;
+        List<AtlasEdge>              ret   = edges.get(key);
+
+        if (ret == null) {
+            ret = new ArrayList<>();
+
+            edges.put(key, ret);
+        }
+
+        return ret;
+    }
+
+    private static Set<String> asSet(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.fail;
+
+public class SearchContinuationTokenTest {
+    @Test
+    public void testEncodeDecode() throws AtlasBaseException {
+        String                  fingerprint = SearchContinuationToken.getFingerprint(getSearchParameters("hive_table", 0), null);
+        SearchContinuationToken token       = new SearchContinuationToken(fingerprint, 1200, 7);
+        SearchContinuationToken decoded     = SearchContinuationToken.decode(token.encode(), fingerprint);
+
+        assertEquals(decoded.getQueryOffset(), 1200);
+        assertEquals(decoded.getSkipCount(), 7);
+    }
+
+    @Test
+    public void testFingerprintIgnoresPaging() {
+        assertEquals(SearchContinuationToken.getFingerprint(getSearchParameters("hive_table", 0), null),
+                     SearchContinuationToken.getFingerprint(getSearchParameters("hive_table", 100), null));
+
+        assertNotEquals(SearchContinuationToken.getFingerprint(getSearchParameters("hive_table", 0), null),
+                        SearchContinuationToken.getFingerprint(getSearchParameters("hive_db", 0), null));
+    }
+
+    @Test
+    public void testDecodeForDifferentSearch() {
+        String token = new SearchContinuationToken(SearchContinuationToken.getFingerprint(getSearchParameters("hive_table", 0), null), 100, 0).encode();
+
+        assertInvalid(token, SearchContinuationToken.getFingerprint(getSearchParameters("hive_db", 0), null));
+    }
+
+    @Test
+    public void testDecodeInvalidToken() {
+        String fingerprint = SearchContinuationToken.getFingerprint(getSearchParameters("hive_table", 0), null);
+
+        assertInvalid("not-a-token!", fingerprint);
+        assertInvalid(new SearchContinuationToken(fingerprint, -1, 0).encode(), fingerprint);
+    }
+
+    private void assertInvalid(String token, String fingerprint) {
+        try {
+            SearchContinuationToken.decode(token, fingerprint);
+
+            fail("token should have been rejected: " + token);
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.INVALID_SEARCH_CONTINUATION_TOKEN);
+        }
+    }
+
+    private SearchParameters getSearchParameters(String typeName, int offset) {
+        SearchParameters ret = new SearchParameters();
+
+        ret.setTypeName(typeName);
+        ret.setExcludeDeletedEntities(true);
+        ret.setLimit(25);
+        ret.setOffset(offset);
+
+        return ret;
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasEntityType;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class SearchTotalCountTest {
+    private static final SearchContinuationToken NEXT_PAGE = new SearchContinuationToken("fingerprint", 25, 0);
+
+    @Test
+    public void testLastPageCountIsExact() {
+        SearchProcessor   processor = getProcessor(false, 500, false);
+        SearchContext     context   = getContext(processor, 20, null, false);
+        AtlasSearchResult result    = new AtlasSearchResult();
+
+        EntityDiscoveryService.setTotalCount(result, context, getVertices(7));
+
+        assertEquals(result.getTotalCount().longValue(), 27);
+        assertFalse(result.getTotalCountEstimated());
+    }
+
+    @Test
+    public void testIndexResolvableCountIsExact() {
+        SearchProcessor   processor = getProcessor(true, 500, false);
+        SearchContext     context   = getContext(processor, 0, NEXT_PAGE, false);
+        AtlasSearchResult result    = new AtlasSearchResult();
+
+        EntityDiscoveryService.setTotalCount(result, context, getVertices(25));
+
+        assertEquals(result.getTotalCount().longValue(), 500);
+        assertFalse(result.getTotalCountEstimated());
+    }
+
+    @Test
+    public void testIndexResolvableCountEstimatedByBackend() {
+        SearchProcessor   processor = getProcessor(true, 10000, true);
+        SearchContext     context   = getContext(processor, 0, NEXT_PAGE, false);
+        AtlasSearchResult result    = new AtlasSearchResult();
+
+        EntityDiscoveryService.setTotalCount(result, context, getVertices(25));
+
+        assertEquals(result.getTotalCount().longValue(), 10000);
+        assertTrue(result.getTotalCountEstimated());
+    }
+
+    @Test
+    public void testNotIndexResolvableCountIsEstimated() {
+        SearchProcessor   processor = getProcessor(false, 500, false);
+        SearchContext     context   = getContext(processor, 0, NEXT_PAGE, false);
+        AtlasSearchResult result    = new AtlasSearchResult();
+
+        EntityDiscoveryService.setTotalCount(result, context, getVertices(25));
+
+        assertEquals(result.getTotalCount().longValue(), 500);
+        assertTrue(result.getTotalCountEstimated());
+
+        // no index query: number of results seen so far
+        processor = getProcessor(false, -1, false);
+        context   = getContext(processor, 50, NEXT_PAGE, false);
+        result    = new AtlasSearchResult();
+
+        EntityDiscoveryService.setTotalCount(result, context, getVertices(25));
+
+        assertEquals(result.getTotalCount().longValue(), 75);
+        assertTrue(result.getTotalCountEstimated());
+    }
+
+    @Test
+    public void testTerminatedSearchCountIsEstimated() {
+        // terminated search returns no continuation token, but it did not read all the results
+        SearchProcessor   processor = getProcessor(true, 500, false);
+        SearchContext     context   = getContext(processor, 0, null, true);
+        AtlasSearchResult result    = new AtlasSearchResult();
+
+        EntityDiscoveryService.setTotalCount(result, context, getVertices(3));
+
+        assertEquals(result.getTotalCount().longValue(), 500);
+        assertTrue(result.getTotalCountEstimated());
+
+        processor = getProcessor(false, -1, false);
+        context   = getContext(processor, 0, null, true);
+        result    = new AtlasSearchResult();
+
+        EntityDiscoveryService.setTotalCount(result, context, getVertices(3));
+
+        assertEquals(result.getTotalCount().longValue(), 3);
+        assertTrue(result.getTotalCountEstimated());
+    }
+
+    @Test
+    public void testEntityProcessorWithTypeOnlyIsIndexResolvable() {
+        SearchContext         context   = getEntitySearchContext(null);
+        EntitySearchProcessor processor = new EntitySearchProcessor(context);
+
+        // only the in-memory typeName case check (ATLAS-2121) is applied to the index hits
+        assertTrue(processor.isIndexResolvable());
+        assertEquals(processor.getIndexResultCount(), 500);
+
+        AtlasSearchResult result = new AtlasSearchResult();
+
+        when(context.getSearchProcessor()).thenReturn(processor);
+
+        EntityDiscoveryService.setTotalCount(result, context, getVertices(25));
+
+        assertEquals(result.getTotalCount().longValue(), 500);
+        assertFalse(result.getTotalCountEstimated());
+    }
+
+    @Test
+    public void testEntityProcessorWithGraphQueryIsNotIndexResolvable() {
+        // sort is done by the graph query, hence the index query isn't used
+        EntitySearchProcessor processor = new EntitySearchProcessor(getEntitySearchContext("hive_table.name"));
+
+        assertFalse(processor.isIndexResolvable());
+    }
+
+    @Test
+    public void testEntityProcessorWithNextProcessorIsNotIndexResolvable() {
+        SearchContext         context   = getEntitySearchContext(null);
+        EntitySearchProcessor processor = new EntitySearchProcessor(context);
+
+        processor.addProcessor(mock(SearchProcessor.class));
+
+        assertFalse(processor.isIndexResolvable());
+    }
+
+    private SearchContext getEntitySearchContext(String sortKey) {
+        SearchContext    ret        = mock(SearchContext.class);
+        SearchParameters params     = new SearchParameters();
+        AtlasEntityType  entityType = mock(AtlasEntityType.class);
+        AtlasGraph       graph      = mock(AtlasGraph.class);
+        AtlasIndexQuery  indexQuery = mock(AtlasIndexQuery.class);
+
+        params.setTypeName("hive_table");
+        params.setLimit(25);
+        params.setIncludeTotalCount(true);
+
+        when(entityType.getTypeName()).thenReturn("hive_table");
+        when(entityType.getTypeAndAllSubTypes()).thenReturn(Collections.singleton("hive_table"));
+        when(entityType.getTypeAndAllSubTypesQryStr()).thenReturn("(\"hive_table\")");
+        when(indexQuery.vertexTotals()).thenReturn(500L);
+        when(graph.indexQuery(anyString(), anyString())).thenReturn(indexQuery);
+        when(graph.query()).thenReturn(mock(AtlasGraphQuery.class));
+
+        when(ret.getSearchParameters()).thenReturn(params);
+        when(ret.getEntityType()).thenReturn(entityType);
+        when(ret.getGraph()).thenReturn(graph);
+        when(ret.getSortKey()).thenReturn(sortKey);
+        when(ret.getNextContinuationToken()).thenReturn(NEXT_PAGE);
+
+        return ret;
+    }
+
+    private SearchProcessor getProcessor(boolean isIndexResolvable, long indexResultCount, boolean isIndexResultCountEstimated) {
+        SearchProcessor ret = mock(SearchProcessor.class);
+
+        when(ret.isIndexResolvable()).thenReturn(isIndexResolvable);
+        when(ret.getIndexResultCount()).thenReturn(indexResultCount);
+        when(ret.isIndexResultCountEstimated()).thenReturn(isIndexResultCountEstimated);
+
+        return ret;
+    }
+
+    private SearchContext getContext(SearchProcessor processor, int offset, SearchContinuationToken nextContinuationToken, boolean isTerminated) {
+        SearchContext    ret    = mock(SearchContext.class);
+        SearchParameters params = new SearchParameters();
+
+        params.setTypeName("hive_table");
+        params.setLimit(25);
+        params.setOffset(offset);
+        params.setIncludeTotalCount(true);
+
+        when(ret.getSearchProcessor()).thenReturn(processor);
+        when(ret.getSearchParameters()).thenReturn(params);
+        when(ret.getNextContinuationToken()).thenReturn(nextContinuationToken);
+        when(ret.terminateSearch()).thenReturn(isTerminated);
+
+        return ret;
+    }
+
+    private List<AtlasVertex> getVertices(int count) {
+        List<AtlasVertex> ret = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            ret.add(mock(AtlasVertex.class));
+        }
+
+        return ret;
+    }
+}
@@ -21,6 +21,7 @@ import org.apache.atlas.exception.AtlasBaseException;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.fail;
 
 @Test
@@ -41,6 +42,24 @@ public class DSLParsingTest {
         };
     }
 
+    @DataProvider(name = "goodDSLProvider")
+    public Object[][] getGoodDSLQueries() {
+        return new Object[][] {
+                {"db"},
+                {"db where name = 'Sales' and (owner = 'John' or owner = 'Jane')"},
+                {"db as d where d.name = \"Sales\" select d.name, d.owner orderby d.owner desc limit 10 offset 5"},
+                {"db groupby(owner) select owner, count()"},
+                {"table isa Dimension"},
+                {"table where name like 'sales*'"},
+                {"db where owner = ['hdfs', 'anon']"},
+        };
+    }
+
+    @Test(dataProvider = "goodDSLProvider")
+    public void testValidDSL(String query) throws AtlasBaseException {
+        assertNotNull(AtlasDSL.Parser.parse(query));
+    }
+
     @Test(dataProvider = "badDSLProvider", expectedExceptions = AtlasBaseException.class)
     public void testInvalidDSL(String query) throws AtlasBaseException {
         AtlasDSL.Parser.parse(query);
@@ -52,7 +52,7 @@ public class DSLQueriesTest extends BasicTestSetup {
 
     private final int DEFAULT_LIMIT = 25;
     @Inject
-    private EntityDiscoveryService discoveryService;
+    protected EntityDiscoveryService discoveryService;
 
     @BeforeClass
     public void setup() throws Exception {
@@ -132,7 +132,7 @@ public class DSLQueriesTest extends BasicTestSetup {
     }
 
     @DataProvider(name = "comparisonQueriesProvider")
-    private Object[][] comparisonQueriesProvider() {
+    protected Object[][] comparisonQueriesProvider() {
         return new Object[][] {
                 {"Person where (birthday < \"1950-01-01T02:35:58.440Z\" )", 0},
                 {"Person where (birthday > \"1975-01-01T02:35:58.440Z\" )", 2},
@@ -193,7 +193,7 @@ public class DSLQueriesTest extends BasicTestSetup {
     }
 
     @DataProvider(name = "basicProvider")
-    private Object[][] basicQueries() {
+    protected Object[][] basicQueries() {
         return new Object[][]{
                 {"from hive_db", 3},
                 {"hive_db", 3},
@@ -236,7 +236,7 @@ public class DSLQueriesTest extends BasicTestSetup {
     }
 
     @DataProvider(name = "systemAttributesProvider")
-    private Object[][] systemAttributesQueries() {
+    protected Object[][] systemAttributesQueries() {
         return new Object[][]{
                 {"hive_db has __state", 3},
                 {"hive_db where hive_db has __state", 3},
@@ -257,7 +257,7 @@ public class DSLQueriesTest extends BasicTestSetup {
     }
 
     @DataProvider(name = "limitProvider")
-    private Object[][] limitQueries() {
+    protected Object[][] limitQueries() {
         return new Object[][]{
                 {"hive_column", 17, 40, 0},
                 {"hive_column limit 10", 10, 50, 0},
@@ -275,7 +275,7 @@ public class DSLQueriesTest extends BasicTestSetup {
     }
 
     @DataProvider(name = "syntaxProvider")
-    private Object[][] syntaxQueries() {
+    protected Object[][] syntaxQueries() {
         return new Object[][]{
                 {"hive_column  limit 10 ", 10},
                 {"hive_column select hive_column.qualifiedName limit 10 ", 10},
@@ -370,7 +370,7 @@ public class DSLQueriesTest extends BasicTestSetup {
     }
 
     @DataProvider(name = "orderByProvider")
-    private Object[][] orderByQueries() {
+    protected Object[][] orderByQueries() {
         return new Object[][]{
                 {"from hive_db as h orderby h.owner limit 3", 3, "owner", true},
                 {"hive_column as c select c.qualifiedName orderby hive_column.qualifiedName ", 17, "c.qualifiedName", true},
@@ -451,7 +451,7 @@ public class DSLQueriesTest extends BasicTestSetup {
     }
 
     @DataProvider(name = "likeQueriesProvider")
-    private Object[][] likeQueries() {
+    protected Object[][] likeQueries() {
         return new Object[][]{
                 {"hive_table where name like \"sa?es*\"", 3},
                 {"hive_db where name like \"R*\"", 1},
@@ -471,7 +471,7 @@ public class DSLQueriesTest extends BasicTestSetup {
     }
 
     @DataProvider(name = "minMaxCountProvider")
-    private Object[][] minMaxCountQueries() {
+    protected Object[][] minMaxCountQueries() {
         return new Object[][]{
                 {"from hive_db groupby (owner) select count() ",
                         new FieldValueValidator()
@@ -590,7 +590,7 @@ public class DSLQueriesTest extends BasicTestSetup {
     }
 
     @DataProvider(name = "errorQueriesProvider")
-    private Object[][] errorQueries() {
+    protected Object[][] errorQueries() {
         return new Object[][]{
                 {"`isa`"}, // Tag doesn't exist in the test data
                 {"PIII"},  // same as above
@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import org.apache.atlas.TestModules;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+
+/**
+ * Runs the DSL queries of DSLQueriesTest as native graph traversals, so that the results of both executors are
+ * verified against the same expectations.
+ */
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class DSLQueriesTraversalTest extends DSLQueriesTest {
+    @BeforeClass
+    public void setupExecutor() {
+        discoveryService.setDslExecutor(AtlasDSL.Executor.TRAVERSAL);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void resetExecutor() {
+        discoveryService.setDslExecutor(AtlasDSL.Executor.SCRIPT);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.typedef.AtlasEntityDef;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeRegistry.AtlasTransientTypeRegistry;
+import org.apache.atlas.type.AtlasTypeUtil;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+public class DSLTranslationCacheTest {
+    private AtlasTypeRegistry typeRegistry;
+
+    @BeforeMethod
+    public void setup() throws AtlasBaseException {
+        typeRegistry = new AtlasTypeRegistry();
+
+        addEntityDef(AtlasTypeUtil.createClassTypeDef("DB", Collections.<String>emptySet(),
+                                                      AtlasTypeUtil.createOptionalAttrDef("name", "string"),
+                                                      AtlasTypeUtil.createOptionalAttrDef("owner", "string")));
+    }
+
+    @Test
+    public void testCacheHit() throws AtlasBaseException {
+        AtlasDSL.TranslationCache cache = new AtlasDSL.TranslationCache(typeRegistry, 10);
+
+        GremlinQuery query1 = cache.translate("DB where name = 'Sales'", 0, 25);
+        GremlinQuery query2 = cache.translate("  DB   where name = 'Sales' ", 0, 25);
+        GremlinQuery query3 = cache.translate("DB where name = 'Sales'", 0, 10);
+
+        assertSame(query1, query2);
+        assertNotSame(query1, query3);
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 2);
+        assertEquals(cache.size(), 2);
+    }
+
+    @Test
+    public void testInvalidationOnTypeDefChange() throws AtlasBaseException {
+        AtlasDSL.TranslationCache cache = new AtlasDSL.TranslationCache(typeRegistry, 10);
+
+        GremlinQuery query1 = cache.translate("DB", 0, 25);
+
+        addEntityDef(AtlasTypeUtil.createClassTypeDef("Table", Collections.<String>emptySet(),
+                                                      AtlasTypeUtil.createOptionalAttrDef("name", "string")));
+
+        GremlinQuery query2 = cache.translate("DB", 0, 25);
+
+        assertNotSame(query1, query2);
+        assertEquals(query1.queryStr(), query2.queryStr());
+        assertEquals(cache.getHitCount(), 0);
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void testMaxSize() throws AtlasBaseException {
+        AtlasDSL.TranslationCache cache = new AtlasDSL.TranslationCache(typeRegistry, 2);
+
+        cache.translate("DB where name = 'a'", 0, 25);
+        cache.translate("DB where name = 'b'", 0, 25);
+        cache.translate("DB where name = 'c'", 0, 25);
+
+        assertEquals(cache.size(), 2);
+    }
+
+    @Test
+    public void testCacheKey() {
+        assertEquals(AtlasDSL.TranslationCache.getCacheKey(" DB  where\tname = 'a  b' ", 0, 25), "0:25:DB where name = 'a  b'");
+        assertNotEquals(AtlasDSL.TranslationCache.getCacheKey("DB where name = 'a b'", 0, 25),
+                        AtlasDSL.TranslationCache.getCacheKey("DB where name = 'a  b'", 0, 25));
+    }
+
+    private void addEntityDef(AtlasEntityDef entityDef) throws AtlasBaseException {
+        AtlasTransientTypeRegistry ttr    = typeRegistry.lockTypeRegistryForUpdate();
+        boolean                    commit = false;
+
+        try {
+            ttr.addType(entityDef);
+
+            commit = true;
+        } finally {
+            typeRegistry.releaseTypeRegistryForUpdate(ttr, commit);
+        }
+    }
+}
@@ -21,16 +21,25 @@ import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TypeCategory;
 import org.apache.atlas.query.antlr4.AtlasDSLParser;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery.ComparisionOperator;
+import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.lang.StringUtils;
+import org.mockito.Mockito;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.fail;
 
 public class GremlinQueryComposerTest {
@@ -328,6 +337,77 @@ public class GremlinQueryComposerTest {
         verify("Table where db.name = \"Reporting\" and name =\"sales_fact\"", exMain);
     }
 
+    @Test
+    public void parameterizedLiterals() {
+        GremlinQueryComposer composer = getParameterizedComposer("Table where name = 'sales_fact' and partitionSize = 2048 limit 10 offset 5");
+
+        assertEquals(composer.get(), "g.V().has('__typeName', 'Table').and(__.has('Table.name', eq(__p0)),__.has('Table.partitionSize', eq(__p1))).dedup().range(__p2, __p2 + __p3).toList()");
+
+        Map<String, Object> bindings = composer.getBindings();
+
+        assertEquals(bindings.size(), 4);
+        assertEquals(bindings.get("__p0"), "sales_fact");
+        assertEquals(bindings.get("__p1"), 2048);
+        assertEquals(bindings.get("__p2"), 5);
+        assertEquals(bindings.get("__p3"), 10);
+    }
+
+    @Test
+    public void parameterizedQueriesShareScript() {
+        GremlinQueryComposer composer1 = getParameterizedComposer("DB where name = \"Reporting\" limit 5");
+        GremlinQueryComposer composer2 = getParameterizedComposer("DB where name = 'Sales' limit 50");
+
+        assertEquals(composer1.get(), composer2.get());
+        assertEquals(composer1.getBindings().get("__p0"), "Reporting");
+        assertEquals(composer2.getBindings().get("__p1"), 50);
+    }
+
+    @Test
+    public void parameterizedInAndLike() {
+        GremlinQueryComposer inComposer   = getParameterizedComposer("DB where owner = ['hdfs', 'anon']");
+        GremlinQueryComposer likeComposer = getParameterizedComposer("Table where name like 'Tab*'");
+
+        assertEquals(inComposer.get(), "g.V().has('__typeName', 'DB').has('DB.owner', within(__p0)).dedup().limit(__p1).toList()");
+        assertEquals(inComposer.getBindings().get("__p0"), Arrays.asList("hdfs", "anon"));
+        assertEquals(inComposer.getBindings().get("__p1"), 25);
+
+        assertEquals(likeComposer.get(), "g.V().has('__typeName', 'Table').has('Table.name', org.janusgraph.core.attribute.Text.textRegex(__p0)).dedup().limit(__p1).toList()");
+        assertEquals(likeComposer.getBindings().get("__p0"), "Tab.*");
+    }
+
+    @Test
+    public void traversalQuery() {
+        GremlinQueryComposer composer = getParameterizedComposer("Table where name = 'sales_fact' limit 10 offset 5");
+
+        composer.get();
+
+        TraversalQuery traversalQuery = TraversalQuery.create(composer);
+
+        assertNotNull(traversalQuery);
+
+        AtlasGraph          graph     = mock(AtlasGraph.class);
+        AtlasGraphTraversal traversal = mock(AtlasGraphTraversal.class);
+
+        when(graph.traversal()).thenReturn(traversal);
+
+        traversalQuery.execute(graph);
+
+        Mockito.verify(traversal).has("__typeName", "Table");
+        Mockito.verify(traversal).has("Table.name", ComparisionOperator.EQUAL, "sales_fact");
+        Mockito.verify(traversal).dedup();
+        Mockito.verify(traversal).range(5L, 15L);
+        Mockito.verify(traversal).toList();
+    }
+
+    @Test
+    public void traversalQueryNotSupportedForSelect() {
+        GremlinQueryComposer composer = getParameterizedComposer("Table select name, owner");
+
+        composer.get();
+
+        assertNull(TraversalQuery.create(composer));
+    }
+
     @Test
     public void invalidQueries() {
         verify("hdfs_path like h1", "");
@@ -393,6 +473,20 @@ public class GremlinQueryComposerTest {
         return s;
     }
 
+    private GremlinQueryComposer getParameterizedComposer(String dsl) {
+        AtlasDSLParser.QueryContext   queryContext  = getParsedQuery(dsl);
+        org.apache.atlas.query.Lookup lookup        = new TestLookup(mock(AtlasTypeRegistry.class));
+        GremlinQueryComposer.Context  context       = new GremlinQueryComposer.Context(lookup, true);
+        AtlasDSL.QueryMetadata        queryMetadata = new AtlasDSL.QueryMetadata(queryContext);
+        GremlinQueryComposer          composer      = new GremlinQueryComposer(lookup, context, queryMetadata);
+
+        new DSLVisitor(composer).visit(queryContext);
+
+        assertEquals(composer.getErrorList().size(), 0, dsl);
+
+        return composer;
+    }
+
     private static class TestLookup implements org.apache.atlas.query.Lookup {
         AtlasTypeRegistry registry;
 
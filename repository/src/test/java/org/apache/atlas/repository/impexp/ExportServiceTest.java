@@ -28,6 +28,7 @@ import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
 import org.apache.atlas.repository.store.graph.v1.AtlasEntityChangeNotifier;
 import org.apache.atlas.repository.store.graph.v1.AtlasEntityStoreV1;
@@ -54,7 +55,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -78,6 +81,10 @@ public class ExportServiceTest {
     private EntityGraphMapper graphMapper;
     @Inject
     ExportService exportService;
+
+    @Inject
+    AtlasGraph atlasGraph;
+
     private DeleteHandlerV1 deleteHandler = mock(SoftDeleteHandlerV1.class);;
     private AtlasEntityChangeNotifier mockChangeNotifier = mock(AtlasEntityChangeNotifier.class);
     private AtlasEntityStoreV1 entityStore;
@@ -173,6 +180,10 @@ public class ExportServiceTest {
     }
 
     private ZipSource runExportWithParameters(AtlasExportRequest request) throws AtlasBaseException, IOException {
+        return runExportWithParameters(exportService, request);
+    }
+
+    private ZipSource runExportWithParameters(ExportService exportService, AtlasExportRequest request) throws AtlasBaseException, IOException {
         final String requestingIP = "1.0.0.0";
         final String hostName = "localhost";
         final String userName = "admin";
@@ -265,6 +276,87 @@ public class ExportServiceTest {
         verifyExportForEmployeeData(zipSource);
     }
 
+    @Test
+    public void requestingEntitiesWithParallelFetch_ContainsSameData() throws Exception {
+        ExportService parallelExportService = new ExportService(typeRegistry, atlasGraph, 2, 2);
+
+        ZipSource expected = runExportWithParameters(getRequestForDept(true, "CONNECTED", false, ""));
+        ZipSource actual   = runExportWithParameters(parallelExportService, getRequestForDept(true, "CONNECTED", false, ""));
+
+        assertEquals(actual.getCreationOrder(), expected.getCreationOrder());
+        verifyExportForHrDataForConnected(actual);
+
+        actual   = runExportWithParameters(parallelExportService, getRequestForEmployee());
+        expected = runExportWithParameters(getRequestForEmployee());
+
+        assertEquals(actual.getCreationOrder(), expected.getCreationOrder());
+        verifyExportForEmployeeData(actual);
+    }
+
+    @Test
+    public void requestingEntitiesChangedSince_ContainsOnlyChangedData() throws Exception {
+        AtlasExportRequest request = getRequestForDept(true, "CONNECTED", false, "");
+
+        request.getOptions().put(AtlasExportRequest.OPTION_CHANGED_SINCE, 1L);
+
+        ZipSource expected = runExportWithParameters(getRequestForDept(true, "CONNECTED", false, ""));
+        ZipSource actual   = runExportWithParameters(request);
+
+        // changed entities are found by an index query, so the order can differ from that of a full export
+        assertEquals(new HashSet<>(actual.getCreationOrder()), new HashSet<>(expected.getCreationOrder()));
+        assertEquals(actual.getCreationOrder().size(), 2);
+        verifyTypeDefs(actual);
+
+        request.getOptions().put(AtlasExportRequest.OPTION_CHANGED_SINCE, String.valueOf(System.currentTimeMillis() + 60 * 60 * 1000));
+
+        actual = runExportWithParameters(request);
+
+        assertTrue(actual.getCreationOrder().isEmpty());
+        Assert.assertFalse(actual.hasNext());
+    }
+
+    @Test
+    public void requestingEntitiesChangedSince_ReferencesUnchangedEntitiesById() throws Exception {
+        AtlasEntity max          = entityStore.getByUniqueAttributes(typeRegistry.getEntityTypeByName("Employee"), Collections.<String, Object>singletonMap("name", "Max")).getEntity();
+        String      hrGuid       = getGuid(max.getAttribute("department"));
+        long        changedSince = System.currentTimeMillis();
+
+        Thread.sleep(10);
+
+        entityStore.updateEntityAttributeByGuid(max.getGuid(), "age", 37);
+
+        AtlasExportRequest request = getRequestForEmployee();
+
+        request.getOptions().put(AtlasExportRequest.OPTION_CHANGED_SINCE, changedSince);
+
+        ZipSource    zipSource     = runExportWithParameters(request);
+        List<String> exportedGuids = new ArrayList<>();
+
+        assertEquals(zipSource.getCreationOrder(), Collections.singletonList(max.getGuid()));
+
+        while (zipSource.hasNext()) {
+            exportedGuids.add(zipSource.next().getGuid());
+        }
+
+        assertEquals(exportedGuids, Collections.singletonList(max.getGuid()));
+
+        AtlasEntity.AtlasEntityWithExtInfo exportedMax = zipSource.getEntityWithExtInfo(max.getGuid());
+
+        assertEquals(exportedMax.getEntity().getAttribute("age"), 37);
+        assertEquals(getGuid(exportedMax.getEntity().getAttribute("department")), hrGuid); // unchanged entity is referenced by its object-id
+        assertTrue(exportedMax.getReferredEntities() == null || !exportedMax.getReferredEntities().containsKey(hrGuid));
+    }
+
+    private String getGuid(Object objectId) {
+        if (objectId instanceof AtlasObjectId) {
+            return ((AtlasObjectId) objectId).getGuid();
+        } else if (objectId instanceof Map) {
+            return (String) ((Map) objectId).get("guid");
+        }
+
+        return null;
+    }
+
     @Test
     public void verifyOverallStatus() throws Exception {
 
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import com.google.inject.Inject;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class ImportCheckpointStoreTest {
+    @Inject
+    private AtlasGraph atlasGraph;
+
+    @AfterClass
+    public void clear() throws Exception {
+        AtlasGraphProvider.cleanup();
+
+        if (useLocalSolr()) {
+            LocalSolrRunner.stop();
+        }
+    }
+
+    @Test
+    public void saveGetAndDelete() {
+        ImportCheckpointStore store      = new ImportCheckpointStore(atlasGraph, 0);
+        ImportCheckpoint      checkpoint = new ImportCheckpoint("archive-1");
+
+        assertNull(store.get("archive-1"));
+
+        checkpoint.setPosition(100);
+        checkpoint.setResidualGuids(Arrays.asList("guid-1", "guid-2"));
+        store.save(checkpoint);
+
+        ImportCheckpoint saved = store.get("archive-1");
+
+        assertNotNull(saved);
+        assertEquals(saved.getArchiveId(), "archive-1");
+        assertEquals(saved.getPosition(), 100);
+        assertEquals(saved.getResidualGuids(), Arrays.asList("guid-1", "guid-2"));
+        assertTrue(saved.getUpdateTime() > 0);
+
+        // save again: the same checkpoint is updated
+        checkpoint.setPosition(200);
+        checkpoint.setResidualGuids(Arrays.asList("guid-3"));
+        store.save(checkpoint);
+
+        saved = store.get("archive-1");
+
+        assertEquals(saved.getPosition(), 200);
+        assertEquals(saved.getResidualGuids(), Arrays.asList("guid-3"));
+        assertNull(store.get("archive-2"));
+
+        store.delete("archive-1");
+
+        assertNull(store.get("archive-1"));
+    }
+
+    @Test
+    public void expiredCheckpointIsIgnored() throws Exception {
+        ImportCheckpointStore store = new ImportCheckpointStore(atlasGraph, 1);
+
+        store.save(new ImportCheckpoint("archive-3"));
+
+        Thread.sleep(10);
+
+        assertNull(store.get("archive-3"));
+        assertNull(new ImportCheckpointStore(atlasGraph, 0).get("archive-3"), "expired checkpoint should be deleted");
+    }
+
+    @Test
+    public void expiredCheckpointsAreDeletedWhenImportStarts() throws Exception {
+        ImportCheckpointStore store = new ImportCheckpointStore(atlasGraph, 0);
+
+        store.save(new ImportCheckpoint("archive-4"));
+        store.save(new ImportCheckpoint("archive-5"));
+
+        Thread.sleep(10);
+
+        // saving the checkpoint of a new archive deletes expired checkpoints of other archives
+        new ImportCheckpointStore(atlasGraph, 5).save(new ImportCheckpoint("archive-6"));
+
+        assertNull(store.get("archive-4"));
+        assertNull(store.get("archive-5"));
+        assertNotNull(store.get("archive-6"));
+
+        store.delete("archive-6");
+    }
+}
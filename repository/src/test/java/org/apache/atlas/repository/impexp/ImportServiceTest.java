@@ -24,6 +24,7 @@ import org.apache.atlas.TestModules;
 import org.apache.atlas.TestUtilsV2;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasImportRequest;
+import org.apache.atlas.model.impexp.AtlasImportResult;
 import org.apache.atlas.repository.graph.AtlasGraphProvider;
 import org.apache.atlas.runner.LocalSolrRunner;
 import org.apache.atlas.store.AtlasTypeDefStore;
@@ -50,6 +51,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 @Guice(modules = TestModules.TestOnlyModule.class)
 public class ImportServiceTest {
@@ -62,6 +65,9 @@ public class ImportServiceTest {
     @Inject
     private AtlasTypeDefStore typeDefStore;
 
+    @Inject
+    private ImportCheckpointStore checkpointStore;
+
     @Inject
     public ImportServiceTest(ImportService importService) {
         this.importService = importService;
@@ -104,6 +110,27 @@ public class ImportServiceTest {
         runAndVerifyQuickStart_v1_Import(importService, zipSource);
     }
 
+    @Test(dataProvider = "reporting", dependsOnMethods = "importDB2")
+    public void importResumesFromCheckpoint(ZipSource zipSource) throws AtlasBaseException, IOException {
+        String           archiveId  = zipSource.getArchiveId();
+        ImportCheckpoint checkpoint = new ImportCheckpoint(archiveId);
+
+        // all entities were read from the archive before the interruption
+        checkpoint.setPosition(zipSource.getCreationOrder().size());
+        checkpointStore.save(checkpoint);
+
+        AtlasImportRequest  request = getDefaultImportRequest();
+        Map<String, String> options = new HashMap<>();
+
+        options.put("resume", "true");
+        request.setOptions(options);
+
+        AtlasImportResult result = runImportWithParameters(importService, request, zipSource);
+
+        assertTrue(result.getProcessedEntities().isEmpty());
+        assertNull(checkpointStore.get(archiveId), "checkpoint should be deleted once the import completes");
+    }
+
     private void loadBaseModel() throws IOException, AtlasBaseException {
         loadModelFromJson("0000-Area0/0010-base_model.json", typeDefStore, typeRegistry);
     }
@@ -217,7 +244,7 @@ public class ImportServiceTest {
 
     @Test
     public void importServiceProcessesIOException() {
-        ImportService importService = new ImportService(typeDefStore, typeRegistry, null);
+        ImportService importService = new ImportService(typeDefStore, typeRegistry, null, null);
         AtlasImportRequest req = mock(AtlasImportRequest.class);
 
         Answer<Map> answer = new Answer<Map>() {
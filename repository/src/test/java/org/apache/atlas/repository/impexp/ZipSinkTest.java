@@ -24,6 +24,7 @@ import org.apache.atlas.model.impexp.AtlasExportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.type.AtlasType;
+import org.apache.commons.io.IOUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -188,6 +189,28 @@ public class ZipSinkTest {
         }
     }
 
+    @Test
+    public void entityWithExtInfoStreamedAsJson() throws AtlasBaseException, IOException {
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        ZipSink zs = new ZipSink(byteOutputStream);
+
+        AtlasEntity entity = new AtlasEntity("hive_table", "name", "t\u00e9st");
+        entity.setGuid(String.format(knownEntityGuidFormat, 0));
+
+        AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo = new AtlasEntity.AtlasEntityWithExtInfo(entity);
+        addReferredEntities(entityWithExtInfo, 2);
+
+        zs.add(entityWithExtInfo);
+        zs.close();
+
+        ZipInputStream zis   = new ZipInputStream(new ByteArrayInputStream(byteOutputStream.toByteArray()));
+        ZipEntry       entry = zis.getNextEntry();
+
+        assertEquals(entry.getName(), entity.getGuid() + ".json");
+        assertEquals(IOUtils.toString(zis, "UTF-8"), AtlasType.toJson(entityWithExtInfo));
+        assertNull(zis.getNextEntry());
+    }
+
     @Test
     public void recordsDoesNotRecordEntityEntries() throws AtlasBaseException {
         initZipSinkWithExportOrder();
@@ -20,12 +20,14 @@ package org.apache.atlas.repository.impexp;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.utils.TestResourceFileUtils;
 import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.List;
@@ -56,6 +58,13 @@ public class ZipSourceTest {
         return getZipSource("sales-v1-full.zip");
     }
 
+    @DataProvider(name = "zipFileStocksReadAhead")
+    public static Object[][] getDataFromZipFileWithReadAhead() throws IOException {
+        FileInputStream fs = ZipFileResourceTestUtils.getFileInputStream("stocks.zip");
+
+        return new Object[][] {{ new ZipSource(fs, null, 2) }};
+    }
+
     @Test
     public void improperInit_ReturnsNullCreationOrder() throws IOException, AtlasBaseException {
         byte bytes[] = new byte[10];
@@ -186,4 +195,55 @@ public class ZipSourceTest {
 
         return tr;
     }
+
+    @Test(dataProvider = "zipFileStocksReadAhead")
+    public void readAhead_WorksAsExpected(ZipSource zipSource) throws IOException, AtlasBaseException {
+        List<String> creationOrder = zipSource.getCreationOrder();
+
+        assertEquals(creationOrder.size(), 4);
+        assertNotNull(zipSource.getByGuid(creationOrder.get(3)));
+
+        for (int i = 0; i < creationOrder.size(); i++) {
+            AtlasEntity e = zipSource.next();
+
+            assertNotNull(e);
+            assertEquals(e.getGuid(), creationOrder.get(i));
+            assertNotNull(zipSource.getByGuid(e.getGuid()));
+
+            zipSource.onImportComplete(e.getGuid());
+
+            Assert.assertNull(zipSource.getByGuid(e.getGuid()));
+        }
+
+        assertFalse(zipSource.hasNext());
+
+        zipSource.setPosition(0);
+
+        assertTrue(zipSource.hasNext());
+        Assert.assertNull(zipSource.next());
+
+        zipSource.close();
+    }
+
+    @Test
+    public void fileSource_WorksAsExpected() throws IOException, AtlasBaseException {
+        File      file      = new File(TestResourceFileUtils.getTestFilePath("stocks.zip"));
+        ZipSource zipSource = new ZipSource(file, null);
+
+        List<String> creationOrder = zipSource.getCreationOrder();
+
+        assertNotNull(creationOrder);
+        assertEquals(zipSource.size(), 4);
+        assertNotNull(zipSource.getTypesDef());
+        useCreationOrderToFetchEntitiesWithExtInfo(zipSource, creationOrder);
+
+        zipSource.close();
+
+        assertTrue(file.exists());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void missingFile_Throws() throws IOException {
+        new ZipSource(new File("non-existent-file.zip"), null);
+    }
 }
@@ -0,0 +1,323 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v1;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.impexp.AtlasImportResult;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.ImportCheckpointer;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class BulkImporterImplTest {
+    private static final String TYPE_NAME = "hive_table";
+
+    @Test
+    public void testGetTiers() {
+        AtlasEntityWithExtInfo a = createEntity("a");
+        AtlasEntityWithExtInfo b = createEntity("b", new AtlasObjectId("a", TYPE_NAME));
+        AtlasEntityWithExtInfo c = createEntity("c", Collections.singletonMap(AtlasObjectId.KEY_GUID, "b"));
+        AtlasEntityWithExtInfo d = createEntity("d", Arrays.asList(new AtlasObjectId("a", TYPE_NAME), new AtlasObjectId("c", TYPE_NAME)));
+        AtlasEntityWithExtInfo e = createEntity("e", new AtlasObjectId("z", TYPE_NAME));
+        AtlasEntityWithExtInfo f = createEntity("f", new AtlasObjectId("g", TYPE_NAME));
+
+        // forward reference: g appears after f
+        AtlasEntityWithExtInfo g = createEntity("g");
+
+        List<List<AtlasEntityWithExtInfo>> tiers = BulkImporterImpl.getTiers(Arrays.asList(a, b, c, d, e, f, g));
+
+        assertEquals(tiers.size(), 4);
+        assertEquals(tiers.get(0), Arrays.asList(a, e, f, g));
+        assertEquals(tiers.get(1), Collections.singletonList(b));
+        assertEquals(tiers.get(2), Collections.singletonList(c));
+        assertEquals(tiers.get(3), Collections.singletonList(d));
+    }
+
+    @Test
+    public void testReferredEntitiesInSameTier() {
+        AtlasEntityWithExtInfo a = createEntity("a", new AtlasObjectId("a1", TYPE_NAME));
+        AtlasEntityWithExtInfo b = createEntity("b", new AtlasObjectId("a1", TYPE_NAME));
+
+        // a1 is created along with a; hence b should be in the next tier
+        a.addReferredEntity(createEntity("a1").getEntity());
+
+        List<List<AtlasEntityWithExtInfo>> tiers = BulkImporterImpl.getTiers(Arrays.asList(a, b));
+
+        assertEquals(tiers.size(), 2);
+        assertEquals(tiers.get(0), Collections.singletonList(a));
+        assertEquals(tiers.get(1), Collections.singletonList(b));
+    }
+
+    @Test
+    public void testEntitiesWithSameReferredEntityNotInParallelBatches() {
+        AtlasEntityWithExtInfo a = createEntity("a", new AtlasObjectId("r", TYPE_NAME));
+        AtlasEntityWithExtInfo b = createEntity("b", new AtlasObjectId("r", TYPE_NAME));
+        AtlasEntityWithExtInfo c = createEntity("c");
+
+        a.addReferredEntity(createEntity("r").getEntity());
+        b.addReferredEntity(createEntity("r").getEntity());
+
+        List<List<List<AtlasEntityWithExtInfo>>> tiers = BulkImporterImpl.getTieredBatches(Arrays.asList(a, b, c), 2);
+
+        assertEquals(tiers.size(), 1);
+        assertEquals(tiers.get(0), Arrays.asList(Arrays.asList(a, b), Collections.singletonList(c)));
+
+        // a batch of 1 can't hold both; b is moved to the next tier
+        tiers = BulkImporterImpl.getTieredBatches(Arrays.asList(a, b, c), 1);
+
+        assertEquals(tiers.size(), 2);
+        assertEquals(tiers.get(0), Arrays.asList(Collections.singletonList(a), Collections.singletonList(c)));
+        assertEquals(tiers.get(1), Collections.singletonList(Collections.singletonList(b)));
+    }
+
+    @Test
+    public void testEntitiesReferencingSameEntityNotInParallelBatches() {
+        // db is not in the import; adding references to it updates the same vertex
+        AtlasEntityWithExtInfo a = createEntity("a", new AtlasObjectId("db", TYPE_NAME));
+        AtlasEntityWithExtInfo b = createEntity("b", new AtlasObjectId("db", TYPE_NAME));
+        AtlasEntityWithExtInfo c = createEntity("c");
+        AtlasEntityWithExtInfo d = createEntity("d", new AtlasObjectId("db", TYPE_NAME));
+
+        List<List<List<AtlasEntityWithExtInfo>>> tiers = BulkImporterImpl.getTieredBatches(Arrays.asList(a, b, c, d), 2);
+
+        assertEquals(tiers.size(), 2);
+        assertEquals(tiers.get(0), Arrays.asList(Arrays.asList(a, b), Collections.singletonList(c)));
+        assertEquals(tiers.get(1), Collections.singletonList(Collections.singletonList(d)));
+    }
+
+    @Test
+    public void testBulkImportInBatches() throws AtlasBaseException {
+        List<List<String>> invocations = Collections.synchronizedList(new ArrayList<List<String>>());
+        AtlasEntityStore   entityStore = createEntityStore(invocations);
+        TestImportStream   stream      = createImportStream();
+        AtlasImportResult  result      = new AtlasImportResult();
+        BulkImporterImpl   importer    = new BulkImporterImpl(entityStore, 2, 2, 3);
+
+        importer.bulkImport(stream, result);
+
+        assertEquals(new HashSet<>(result.getProcessedEntities()), new HashSet<>(Arrays.asList("a", "b", "c", "d", "e", "y", "z")));
+        assertEquals(result.getMetrics().get("entity:" + TYPE_NAME + ":created"), Integer.valueOf(7));
+
+        // window 1: tiers [a], [b, c]; window 2: batch [d, e] fails, d & e retried individually - e goes to residual list;
+        // window 3: [z]; finally e is retried from the residual list
+        assertEquals(invocations.get(0), Collections.singletonList("a"));
+        assertEquals(invocations.get(1), Arrays.asList("b", "c"));
+        assertTrue(invocations.contains(Arrays.asList("d", "e")));
+        assertEquals(invocations.get(invocations.size() - 1), Collections.singletonList("e"));
+        assertEquals(stream.completed, new HashSet<>(Arrays.asList("a", "b", "c", "d", "e", "y", "z")));
+    }
+
+    @Test
+    public void testCheckpointsInBatches() throws AtlasBaseException {
+        List<List<String>> invocations  = Collections.synchronizedList(new ArrayList<List<String>>());
+        TestCheckpointer   checkpointer = new TestCheckpointer(0, Collections.<String>emptyList());
+        BulkImporterImpl   importer     = new BulkImporterImpl(createEntityStore(invocations), 2, 2, 3);
+
+        importer.bulkImport(createImportStream(), new AtlasImportResult(), checkpointer);
+
+        // checkpoint after each window of 3 entities
+        assertEquals(checkpointer.positions, Arrays.asList(3, 6, 7));
+        assertEquals(checkpointer.residualGuids.get(0), Collections.emptyList());
+        assertEquals(checkpointer.residualGuids.get(1), Collections.singletonList("e"));
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() throws AtlasBaseException {
+        List<List<String>> invocations  = Collections.synchronizedList(new ArrayList<List<String>>());
+        TestCheckpointer   checkpointer = new TestCheckpointer(2, Collections.singletonList("b"));
+        TestImportStream   stream       = createImportStream();
+        AtlasImportResult  result       = new AtlasImportResult();
+        BulkImporterImpl   importer     = new BulkImporterImpl(createEntityStore(invocations), 1, 1, 1);
+
+        stream.setPosition(checkpointer.getStartPosition());
+
+        importer.bulkImport(stream, result, checkpointer);
+
+        // a is imported before the checkpoint; b, from the residual list of the checkpoint, is retried at the end
+        assertEquals(new HashSet<>(result.getProcessedEntities()), new HashSet<>(Arrays.asList("b", "c", "d", "e", "y", "z")));
+        assertEquals(invocations.get(0), Collections.singletonList("c"));
+        assertEquals(invocations.get(invocations.size() - 2), Collections.singletonList("b"));
+        assertEquals(invocations.get(invocations.size() - 1), Collections.singletonList("e"));
+
+        // checkpoint after each entity read from the stream
+        assertEquals(checkpointer.positions, Arrays.asList(3, 4, 5, 6, 7));
+        assertEquals(checkpointer.residualGuids.get(2), Arrays.asList("b", "e"));
+    }
+
+    private static AtlasEntityStore createEntityStore(final List<List<String>> invocations) throws AtlasBaseException {
+        final Set<String> imported    = Collections.synchronizedSet(new HashSet<String>());
+        AtlasEntityStore  entityStore = mock(AtlasEntityStore.class);
+
+        when(entityStore.createOrUpdateForImport(any(EntityStream.class))).thenAnswer(new Answer<EntityMutationResponse>() {
+            @Override
+            public EntityMutationResponse answer(InvocationOnMock invocation) throws Throwable {
+                EntityStream           stream = (EntityStream) invocation.getArguments()[0];
+                EntityMutationResponse ret    = new EntityMutationResponse();
+                List<String>           guids  = new ArrayList<>();
+
+                for (AtlasEntity entity = stream.next(); entity != null; entity = stream.next()) {
+                    guids.add(entity.getGuid());
+                }
+
+                invocations.add(guids);
+
+                // 'e' refers to 'z', which is available only after 'z' is imported
+                if (guids.contains("e") && !imported.contains("z")) {
+                    throw new AtlasBaseException(AtlasErrorCode.INVALID_OBJECT_ID, "z");
+                }
+
+                for (String guid : guids) {
+                    ret.addEntity(EntityOperation.CREATE, new AtlasEntityHeader(TYPE_NAME, guid, null));
+                }
+
+                imported.addAll(guids);
+
+                return ret;
+            }
+        });
+
+        return entityStore;
+    }
+
+    private static TestImportStream createImportStream() {
+        return new TestImportStream(Arrays.asList(createEntity("a"),
+                                                  createEntity("b", new AtlasObjectId("a", TYPE_NAME)),
+                                                  createEntity("c", new AtlasObjectId("a", TYPE_NAME)),
+                                                  createEntity("d"),
+                                                  createEntity("e", new AtlasObjectId("z", TYPE_NAME)),
+                                                  createEntity("y"),
+                                                  createEntity("z")));
+    }
+
+    private static AtlasEntityWithExtInfo createEntity(String guid) {
+        return createEntity(guid, null);
+    }
+
+    private static AtlasEntityWithExtInfo createEntity(String guid, Object refValue) {
+        AtlasEntity entity = new AtlasEntity(TYPE_NAME);
+
+        entity.setGuid(guid);
+        entity.setAttribute("name", guid);
+
+        if (refValue != null) {
+            entity.setAttribute("ref", refValue);
+        }
+
+        return new AtlasEntityWithExtInfo(entity);
+    }
+
+    private static class TestCheckpointer implements ImportCheckpointer {
+        private final int                startPosition;
+        private final List<String>       startResidualGuids;
+        private final List<Integer>      positions     = new ArrayList<>();
+        private final List<List<String>> residualGuids = new ArrayList<>();
+
+        TestCheckpointer(int startPosition, List<String> startResidualGuids) {
+            this.startPosition      = startPosition;
+            this.startResidualGuids = startResidualGuids;
+        }
+
+        @Override
+        public int getStartPosition() { return startPosition; }
+
+        @Override
+        public List<String> getResidualGuids() { return startResidualGuids; }
+
+        @Override
+        public void onProgress(int position, List<String> residualGuids) {
+            this.positions.add(position);
+            this.residualGuids.add(new ArrayList<>(residualGuids));
+        }
+    }
+
+    private static class TestImportStream implements EntityImportStream {
+        private final List<AtlasEntityWithExtInfo>        entities;
+        private final Map<String, AtlasEntityWithExtInfo> guidEntities = new HashMap<>();
+        private final Set<String>                         completed    = Collections.synchronizedSet(new HashSet<String>());
+        private       int                                 position     = 0;
+
+        TestImportStream(List<AtlasEntityWithExtInfo> entities) {
+            this.entities = entities;
+
+            for (AtlasEntityWithExtInfo entity : entities) {
+                guidEntities.put(entity.getEntity().getGuid(), entity);
+            }
+        }
+
+        @Override
+        public int size() { return entities.size(); }
+
+        @Override
+        public void setPosition(int position) { this.position = position; }
+
+        @Override
+        public int getPosition() { return position; }
+
+        @Override
+        public void setPositionUsingEntityGuid(String guid) { position = entities.indexOf(guidEntities.get(guid)); }
+
+        @Override
+        public AtlasEntityWithExtInfo getNextEntityWithExtInfo() { return position < entities.size() ? entities.get(position++) : null; }
+
+        @Override
+        public void onImportComplete(String guid) { completed.add(guid); }
+
+        @Override
+        public boolean hasNext() { return position < entities.size(); }
+
+        @Override
+        public AtlasEntity next() {
+            AtlasEntityWithExtInfo ret = getNextEntityWithExtInfo();
+
+            return ret != null ? ret.getEntity() : null;
+        }
+
+        @Override
+        public void reset() { position = 0; }
+
+        @Override
+        public AtlasEntity getByGuid(String guid) {
+            AtlasEntityWithExtInfo ret = guidEntities.get(guid);
+
+            return ret != null ? ret.getEntity() : null;
+        }
+    }
+}
@@ -17,66 +17,61 @@
  */
 package org.apache.atlas.services;
 
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.TestModules;
-import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.metrics.AtlasMetrics;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.store.graph.v1.SoftDeleteHandlerV1;
 import org.apache.atlas.runner.LocalSolrRunner;
+import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.configuration.Configuration;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
-import org.testng.SkipException;
 import org.testng.annotations.AfterClass;
-import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Guice;
 import org.testng.annotations.Test;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.contains;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 @Guice(modules = TestModules.TestOnlyModule.class)
 public class MetricsServiceTest {
-    private Configuration mockConfig = mock(Configuration.class);
-    private AtlasTypeRegistry mockTypeRegistry = mock(AtlasTypeRegistry.class);
-    private AtlasGraph mockGraph = mock(AtlasGraph.class);
-    private MetricsService metricsService;
+    private Configuration     mockConfig;
+    private AtlasTypeRegistry mockTypeRegistry;
+    private AtlasGraph        mockGraph;
+    private MetricsCounters   counters;
+    private MetricsService    metricsService;
 
-    private List<Map> mockMapList = new ArrayList<>();
-    private Number mockCount = 10;
-
-    @BeforeClass
+    @BeforeMethod
     public void init() throws Exception {
-        try {
-            Map<String, Object> mockMap = new HashMap<>();
-            mockMap.put("a", 1);
-            mockMap.put("b", 2);
-            mockMap.put("c", 3);
-            mockMapList.add(mockMap);
-
-            when(mockConfig.getInt(anyString(), anyInt())).thenReturn(5);
-            assertEquals(mockConfig.getInt("test", 1), 5);
-            when(mockConfig.getString(anyString(), anyString()))
-                    .thenReturn("count()", "count()", "count()", "count()", "count()", "toList()", "count()", "toList()");
-            when(mockTypeRegistry.getAllEntityDefNames()).thenReturn(Arrays.asList("a", "b", "c"));
-            when(mockTypeRegistry.getAllEntityDefNames()).thenReturn(Arrays.asList("a", "b", "c"));
-            setupMockGraph();
-
-            metricsService = new MetricsService(mockConfig, mockGraph);
-        }
-        catch(Exception e) {
-            throw new SkipException("MetricsServicesTest: init failed!", e);
-        }
+        mockConfig       = mock(Configuration.class);
+        mockTypeRegistry = mock(AtlasTypeRegistry.class);
+        mockGraph        = mock(AtlasGraph.class);
+
+        when(mockConfig.getInt(anyString(), anyInt())).thenReturn(5);
+        when(mockTypeRegistry.getAllEntityDefNames()).thenReturn(Arrays.asList("a", "b", "c"));
+        when(mockTypeRegistry.getAllClassificationDefNames()).thenReturn(Arrays.asList("t1", "t2"));
+
+        counters       = new MetricsCounters();
+        metricsService = new MetricsService(mockConfig, mockGraph, mockTypeRegistry, counters);
     }
 
     @AfterClass
@@ -86,58 +81,187 @@ public class MetricsServiceTest {
         }
     }
 
-    private void setupMockGraph() throws AtlasBaseException {
-        if (mockGraph == null) mockGraph = mock(AtlasGraph.class);
-        when(mockGraph.executeGremlinScript(anyString(), eq(false))).thenAnswer(new Answer<Object>() {
+    @Test
+    public void testGetMetrics() {
+        AtlasEntityType referenceableType = mock(AtlasEntityType.class);
+
+        when(referenceableType.isSubTypeOf("Referenceable")).thenReturn(true);
+        when(mockTypeRegistry.getEntityTypeByName("a")).thenReturn(referenceableType);
+        when(mockTypeRegistry.getEntityTypeByName("b")).thenReturn(mock(AtlasEntityType.class));
+
+        counters.reset(toMap("a", 1L, "b", 2L), toMap("b", 1L), toMap("t1", 3L), 2, toMap("t1", 4L), 3);
+
+        AtlasMetrics metrics = metricsService.getMetrics(false);
+
+        assertNotNull(metrics);
+        assertEquals(metrics.getMetric("entity", "a"), 1L);
+        assertEquals(metrics.getMetric("entity", "b"), 3L);
+        assertNull(metrics.getMetric("entity", "c"));
+        assertEquals(metrics.getMetric("entity", "entityTagged"), 3L); // entities with a direct classification
+        assertEquals(metrics.getMetric("entity", "entityTaggedActive"), 2L);
+        assertEquals(metrics.getMetric("tag", "t1"), 4L); // entities with t1 directly
+        assertNull(metrics.getMetric("tag", "t2"));
+        assertEquals(metrics.getMetric("tagActiveEntities", "t1"), 3L);
+        assertNull(metrics.getMetric("tagActiveEntities", "t2"));
+        assertEquals(metrics.getMetric("general", "entityCount"), 1L); // entities of Referenceable sub-types
+        assertEquals(metrics.getMetric("general", "entityCountAllTypes"), 4L);
+        assertEquals(metrics.getMetric("general", "entityDeleted"), 1L);
+        assertEquals(metrics.getMetric("general", "typeUnusedCount"), 1);
+        assertEquals(metrics.getMetric("general", "tagCount"), 2);
+        assertNotNull(metrics.getMetric("general", "collectionTime"));
+
+        verifyZeroInteractions(mockGraph);
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        counters.entityCreated("a");
+        counters.entityCreated("a");
+        counters.entityCreated("c");
+        counters.entityDeleted("c", true);
+        counters.classificationAdded("t1");
+        counters.classificationAdded("t2");
+        counters.classificationDeleted("t2");
+        counters.taggedEntityAdded();
+
+        assertEquals(counters.getActiveEntityCount("a"), 2);
+        assertEquals(counters.getActiveEntityCount("c"), 0);
+        assertEquals(counters.getDeletedEntityCount("c"), 1);
+        assertEquals(counters.getTagEntityCount("t1"), 1);
+        assertEquals(counters.getTagEntityCount("t2"), 0);
+        assertEquals(counters.getTaggedEntityCount(), 1);
+
+        counters.entityDeleted("a", false);
+
+        assertEquals(counters.getActiveEntityCount("a"), 1);
+        assertEquals(counters.getDeletedEntityCount("a"), 0);
+        assertTrue(counters.getAndResetModified());
+        assertFalse(counters.getAndResetModified());
+    }
+
+    @Test
+    public void testRecount() {
+        AtlasIndexQuery activeQuery  = mock(AtlasIndexQuery.class);
+        AtlasIndexQuery deletedQuery = mock(AtlasIndexQuery.class);
+
+        when(activeQuery.vertexTotals()).thenReturn(5L);
+        when(deletedQuery.vertexTotals()).thenReturn(1L);
+        when(mockGraph.indexQuery(anyString(), anyString())).thenReturn(activeQuery);
+        when(mockGraph.indexQuery(anyString(), contains("DELETED"))).thenReturn(deletedQuery);
+
+        counters.entityCreated("a");
+
+        AtlasMetrics metrics = metricsService.getMetrics(true);
+
+        assertTrue(counters.isInitialized());
+        assertEquals(counters.getActiveEntityCount("a"), 5);
+        assertEquals(counters.getDeletedEntityCount("a"), 1);
+        assertEquals(counters.getTagEntityCount("t1"), 5); // entities with t1 directly or by propagation, counted once
+        assertEquals(counters.getTaggedEntityCount(), 5);
+        assertEquals(counters.getDirectTagCount("t1"), 5);
+        assertEquals(counters.getDirectTaggedEntityCount(), 5);
+        assertEquals(metrics.getMetric("entity", "a"), 6L);
+        assertEquals(metrics.getMetric("general", "entityCountAllTypes"), 18L);
+
+        // 2 per entity-type, 2 per classification, 2 for tagged entities
+        verify(mockGraph, times(12)).indexQuery(eq("vertex_index"), anyString());
+        verify(mockGraph, times(3)).indexQuery(eq("vertex_index"), contains(" OR "));
+    }
+
+    @Test
+    public void testRecountChangedClassifications() {
+        AtlasIndexQuery         query   = mock(AtlasIndexQuery.class);
+        MetricsCounters.Updates updates = new MetricsCounters.Updates();
+
+        when(query.vertexTotals()).thenReturn(2L);
+        when(mockGraph.indexQuery(anyString(), anyString())).thenReturn(query);
+
+        counters.reset(toMap("a", 1L), toMap(), toMap("t1", 1L, "t2", 1L), 1, toMap("t1", 1L, "t2", 1L), 1);
+
+        updates.classificationAdded("t1");
+        counters.apply(updates);
+
+        metricsService.recountChangedClassifications();
+
+        assertEquals(counters.getDirectTagCount("t1"), 2);
+        assertEquals(counters.getDirectTagCount("t2"), 1);
+        assertEquals(counters.getDirectTaggedEntityCount(), 2);
+        assertEquals(counters.getTagEntityCount("t1"), 2);
+
+        // recount of t1, and of entities having a direct classification
+        verify(mockGraph, times(2)).indexQuery(eq("vertex_index"), anyString());
+
+        metricsService.recountChangedClassifications();
+
+        verify(mockGraph, times(2)).indexQuery(eq("vertex_index"), anyString());
+    }
+
+    @Test
+    public void testUpdatesAppliedOnlyOnCommit() throws Throwable {
+        final MetricsEntityChangeListener listener    = new MetricsEntityChangeListener(counters, mock(SoftDeleteHandlerV1.class));
+        GraphTransactionInterceptor       interceptor = new GraphTransactionInterceptor(mockGraph);
+        MethodInvocation                  committed   = mock(MethodInvocation.class);
+        MethodInvocation                  rolledBack  = mock(MethodInvocation.class);
+
+        when(committed.proceed()).thenAnswer(new Answer<Object>() {
             @Override
-            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
-                if (((String)invocationOnMock.getArguments()[0]).contains("count()")) {
-                    return mockCount;
-                } else {
-                    return mockMapList;
-                }
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                listener.onEntitiesAdded(Arrays.asList(new AtlasEntity("a"), new AtlasEntity("a")), false);
+
+                assertEquals(counters.getActiveEntityCount("a"), 0); // not yet committed
+
+                return null;
             }
         });
+
+        when(rolledBack.proceed()).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                listener.onEntitiesAdded(Collections.singletonList(new AtlasEntity("b")), false);
+
+                throw new RuntimeException("Simulating failure after notification");
+            }
+        });
+
+        interceptor.invoke(committed);
+
+        try {
+            interceptor.invoke(rolledBack);
+        } catch (RuntimeException excp) {
+            // expected
+        }
+
+        assertEquals(counters.getActiveEntityCount("a"), 2);
+        assertEquals(counters.getActiveEntityCount("b"), 0);
+        verify(mockGraph).rollback();
     }
 
     @Test
-    public void testGetMetrics() throws InterruptedException, AtlasBaseException {
-        assertNotNull(metricsService);
-        AtlasMetrics metrics = metricsService.getMetrics(false);
-        assertNotNull(metrics);
-        Number aCount = metrics.getMetric("entity", "a");
-        assertNotNull(aCount);
-        assertEquals(aCount, 1);
-
-        Number bCount = metrics.getMetric("entity", "b");
-        assertNotNull(bCount);
-        assertEquals(bCount, 2);
+    public void testCountersJson() {
+        counters.reset(toMap("a", 1L, "b", 2L), toMap("b", 1L), toMap("t1", 3L), 2, toMap("t1", 4L), 3);
 
-        Number cCount = metrics.getMetric("entity", "c");
-        assertNotNull(cCount);
-        assertEquals(cCount, 3);
+        MetricsCounters other = new MetricsCounters();
 
-        Number aTags = metrics.getMetric("tag", "a");
-        assertNotNull(aTags);
-        assertEquals(aTags, 1);
+        assertFalse(other.isInitialized());
 
-        Number bTags = metrics.getMetric("tag", "b");
-        assertNotNull(bTags);
-        assertEquals(bTags, 2);
+        other.fromJson(counters.toJson());
 
-        Number cTags = metrics.getMetric("tag", "c");
-        assertNotNull(cTags);
-        assertEquals(cTags, 3);
+        assertTrue(other.isInitialized());
+        assertEquals(other.getActiveEntityCounts(), counters.getActiveEntityCounts());
+        assertEquals(other.getDeletedEntityCounts(), counters.getDeletedEntityCounts());
+        assertEquals(other.getTagEntityCounts(), counters.getTagEntityCounts());
+        assertEquals(other.getTaggedEntityCount(), 2);
+        assertEquals(other.getDirectTagCounts(), counters.getDirectTagCounts());
+        assertEquals(other.getDirectTaggedEntityCount(), 3);
+    }
 
-        verify(mockGraph, atLeastOnce()).executeGremlinScript(anyString(), anyBoolean());
+    private static Map<String, Long> toMap(Object... keyValues) {
+        Map<String, Long> ret = new HashMap<>();
 
-        // Subsequent call within the cache timeout window
-        metricsService.getMetrics(false);
-        verifyZeroInteractions(mockGraph);
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            ret.put((String) keyValues[i], (Long) keyValues[i + 1]);
+        }
 
-        // Now test the cache refresh
-        Thread.sleep(6000);
-        metricsService.getMetrics(true);
-        verify(mockGraph, atLeastOnce()).executeGremlinScript(anyString(), anyBoolean());
+        return ret;
     }
 }
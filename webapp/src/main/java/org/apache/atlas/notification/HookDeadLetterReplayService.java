@@ -0,0 +1,305 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.kafka.KafkaNotification;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.NotificationInterface.NotificationType;
+import org.apache.atlas.notification.hook.HookMessageDeserializer;
+import org.apache.atlas.web.service.ServiceState;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replays messages from the hook dead-letter topic, on request from an admin - for example after fixing the type or
+ * ordering issue that caused the messages to fail. Replayed messages are published to ATLAS_HOOK topic, at a
+ * controlled rate, so they go through the usual ingestion path in NotificationHookConsumer.
+ *
+ * A replay covers messages in the dead-letter topic at the time the replay started; messages that fail again during
+ * the replay are published to the dead-letter topic by NotificationHookConsumer, and are left for a later replay.
+ * Offsets of replayed messages are committed under a separate consumer group, so a stopped replay resumes from where
+ * it stopped.
+ */
+@Component
+public class HookDeadLetterReplayService {
+    private static final Logger LOG = LoggerFactory.getLogger(HookDeadLetterReplayService.class);
+
+    public static final String REPLAY_GROUP_ID_PROPERTY = "atlas.notification.hook.dead.letter.replay.group.id";
+    public static final String REPLAY_RATE_PROPERTY     = "atlas.notification.hook.dead.letter.replay.rate";
+
+    public static final String DEFAULT_REPLAY_GROUP_ID = "atlas-dead-letter-replay";
+    public static final int    DEFAULT_REPLAY_RATE     = 100; // messages per second
+
+    private static final long POLL_TIMEOUT_MS = 1000;
+    private static final int  MAX_IDLE_POLLS  = 10;
+
+    public enum ReplayState { NOT_STARTED, RUNNING, STOPPING, COMPLETED, STOPPED, FAILED }
+
+    private final NotificationInterface notificationInterface;
+    private final ServiceState          serviceState;
+    private final String                deadLetterTopic;
+    private final String                groupId;
+    private final int                   defaultRate;
+
+    private volatile ReplayState state        = ReplayState.NOT_STARTED;
+    private volatile long        replayedCount;
+    private volatile long        skippedCount;
+    private volatile long        startTime;
+    private volatile long        endTime;
+    private volatile int         rate;
+    private volatile long        maxMessages;
+    private volatile String      error;
+    private          Thread      replayThread;
+
+    @Inject
+    public HookDeadLetterReplayService(NotificationInterface notificationInterface, ServiceState serviceState) throws AtlasException {
+        this(notificationInterface, serviceState, ApplicationProperties.get());
+    }
+
+    @VisibleForTesting
+    HookDeadLetterReplayService(NotificationInterface notificationInterface, ServiceState serviceState, Configuration configuration) {
+        this.notificationInterface = notificationInterface;
+        this.serviceState          = serviceState;
+        this.deadLetterTopic       = StringUtils.trimToNull(configuration.getString(NotificationHookConsumer.CONSUMER_DEAD_LETTER_TOPIC));
+        this.groupId               = configuration.getString(REPLAY_GROUP_ID_PROPERTY, DEFAULT_REPLAY_GROUP_ID);
+        this.defaultRate           = configuration.getInt(REPLAY_RATE_PROPERTY, DEFAULT_REPLAY_RATE);
+    }
+
+    /**
+     * Starts replay of messages in the dead-letter topic, in a background thread.
+     *
+     * @param rate        maximum number of messages to replay per second; default rate is used if 0 or less
+     * @param maxMessages maximum number of messages to replay; all messages are replayed if 0 or less
+     * @return status of the replay
+     */
+    public synchronized Map<String, Object> startReplay(int rate, long maxMessages) throws AtlasBaseException {
+        if (deadLetterTopic == null) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "dead-letter topic is not configured; set " + NotificationHookConsumer.CONSUMER_DEAD_LETTER_TOPIC);
+        }
+
+        if (!(notificationInterface instanceof KafkaNotification)) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "dead-letter replay is supported only with Kafka notification");
+        }
+
+        if (serviceState.getState() != ServiceState.ServiceStateValue.ACTIVE) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "dead-letter replay can only be started in an active Atlas server");
+        }
+
+        if (state == ReplayState.RUNNING || state == ReplayState.STOPPING) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "dead-letter replay is already in progress");
+        }
+
+        this.rate          = rate > 0 ? rate : defaultRate;
+        this.maxMessages   = maxMessages;
+        this.replayedCount = 0;
+        this.skippedCount  = 0;
+        this.startTime     = System.currentTimeMillis();
+        this.endTime       = 0;
+        this.error         = null;
+        this.state         = ReplayState.RUNNING;
+
+        replayThread = new Thread("atlas-dead-letter-replay") {
+            @Override
+            public void run() {
+                runReplay();
+            }
+        };
+
+        replayThread.setDaemon(true);
+        replayThread.start();
+
+        LOG.info("Started replay of dead-letter topic {}: rate={}/sec, maxMessages={}", deadLetterTopic, this.rate, maxMessages);
+
+        return getStatus();
+    }
+
+    /**
+     * Requests the replay in progress to stop; the replay stops after the message being replayed.
+     *
+     * @return status of the replay
+     */
+    public synchronized Map<String, Object> stopReplay() {
+        if (state == ReplayState.RUNNING) {
+            state = ReplayState.STOPPING;
+        }
+
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+
+        ret.put("topic", deadLetterTopic);
+        ret.put("state", state.name());
+        ret.put("rate", rate);
+        ret.put("maxMessages", maxMessages);
+        ret.put("replayedCount", replayedCount);
+        ret.put("skippedCount", skippedCount);
+        ret.put("startTime", startTime);
+        ret.put("endTime", endTime);
+
+        if (error != null) {
+            ret.put("error", error);
+        }
+
+        return ret;
+    }
+
+    @VisibleForTesting
+    void runReplay() {
+        KafkaConsumer             consumer     = null;
+        HookMessageDeserializer   deserializer = new HookMessageDeserializer();
+        RateLimiter               rateLimiter  = RateLimiter.create(rate);
+        Map<TopicPartition, Long> endOffsets   = null;
+        int                       idlePolls    = 0;
+        ReplayState               finalState   = ReplayState.COMPLETED;
+
+        try {
+            consumer = ((KafkaNotification) notificationInterface).createKafkaConsumer(deadLetterTopic, groupId);
+
+            while (state == ReplayState.RUNNING) {
+                if (maxMessages > 0 && replayedCount >= maxMessages) {
+                    break;
+                }
+
+                ConsumerRecords<?, ?> records = consumer.poll(POLL_TIMEOUT_MS);
+
+                if (endOffsets == null && !consumer.assignment().isEmpty()) {
+                    // messages published after this point are not replayed in this run
+                    endOffsets = new HashMap<>(consumer.endOffsets(consumer.assignment()));
+                }
+
+                if (records == null || records.isEmpty()) {
+                    if (++idlePolls >= MAX_IDLE_POLLS || (endOffsets != null && isEndReached(consumer, endOffsets))) {
+                        break;
+                    }
+
+                    continue;
+                }
+
+                idlePolls = 0;
+
+                replay(records, endOffsets, deserializer, rateLimiter, consumer);
+
+                if (endOffsets != null && isEndReached(consumer, endOffsets)) {
+                    break;
+                }
+            }
+
+            if (state == ReplayState.STOPPING) {
+                finalState = ReplayState.STOPPED;
+            }
+        } catch (Throwable t) {
+            LOG.error("Replay of dead-letter topic {} failed after replaying {} messages", deadLetterTopic, replayedCount, t);
+
+            error      = t.getMessage();
+            finalState = ReplayState.FAILED;
+        } finally {
+            if (consumer != null) {
+                try {
+                    consumer.close();
+                } catch (Exception excp) {
+                    LOG.warn("Failed to close consumer of dead-letter topic {}", deadLetterTopic, excp);
+                }
+            }
+
+            endTime = System.currentTimeMillis();
+            state   = finalState;
+
+            LOG.info("Replay of dead-letter topic {} ended: {}", deadLetterTopic, getStatus());
+        }
+    }
+
+    private void replay(ConsumerRecords<?, ?> records, Map<TopicPartition, Long> endOffsets, HookMessageDeserializer deserializer, RateLimiter rateLimiter, KafkaConsumer consumer) throws NotificationException {
+        Map<TopicPartition, OffsetAndMetadata> offsetsToCommit = new HashMap<>();
+
+        try {
+            for (ConsumerRecord<?, ?> record : records) {
+                TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                Long           endOffset = endOffsets != null ? endOffsets.get(partition) : null;
+
+                if (endOffset != null && record.offset() >= endOffset) {
+                    continue;
+                }
+
+                if (state != ReplayState.RUNNING || (maxMessages > 0 && replayedCount >= maxMessages)) {
+                    break;
+                }
+
+                Object           value         = record.value();
+                long             bufferedCount = deserializer.getSplitMessageBuffer().getBufferedCount();
+                HookNotification message       = value == null ? null : (value instanceof byte[]) ? deserializer.deserialize((byte[]) value) : deserializer.deserialize(value.toString());
+
+                if (message != null) {
+                    rateLimiter.acquire();
+
+                    notificationInterface.send(NotificationType.HOOK, Collections.singletonList(message));
+
+                    replayedCount++;
+                } else if (value == null) {
+                    skippedCount++;
+                } else if (deserializer.getSplitMessageBuffer().getBufferedCount() == bufferedCount) { // not a segment of a split message
+                    LOG.warn("Skipping message in dead-letter topic {}: partition={}, offset={} - failed to deserialize", record.topic(), record.partition(), record.offset());
+
+                    skippedCount++;
+                }
+
+                offsetsToCommit.put(partition, new OffsetAndMetadata(record.offset() + 1));
+            }
+        } finally { // commit offsets of messages replayed before a failure, so that these are not replayed again
+            if (!offsetsToCommit.isEmpty()) {
+                consumer.commitSync(offsetsToCommit);
+            }
+        }
+    }
+
+    private boolean isEndReached(KafkaConsumer consumer, Map<TopicPartition, Long> endOffsets) {
+        Set<TopicPartition> assignment = consumer.assignment();
+
+        for (TopicPartition partition : assignment) {
+            Long endOffset = endOffsets.get(partition);
+
+            if (endOffset == null || consumer.position(partition) < endOffset) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
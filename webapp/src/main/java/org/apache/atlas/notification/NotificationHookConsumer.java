@@ -28,7 +28,9 @@ import org.apache.atlas.AtlasServiceException;
 import org.apache.atlas.RequestContextV1;
 import org.apache.atlas.ha.HAConfiguration;
 import org.apache.atlas.kafka.AtlasKafkaMessage;
+import org.apache.atlas.kafka.KafkaNotification;
 import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.instance.AtlasObjectId;
@@ -54,7 +56,9 @@ import org.apache.atlas.utils.AtlasPerfTracer;
 import org.apache.atlas.web.filters.AuditFilter;
 import org.apache.atlas.web.filters.AuditFilter.AuditLog;
 import org.apache.atlas.web.service.ServiceState;
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang.StringUtils;
 import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,6 +94,23 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     public static final String CONSUMER_RETRY_INTERVAL           = "atlas.notification.consumer.retry.interval";
     public static final String CONSUMER_MIN_RETRY_INTERVAL       = "atlas.notification.consumer.min.retry.interval";
     public static final String CONSUMER_MAX_RETRY_INTERVAL       = "atlas.notification.consumer.max.retry.interval";
+    public static final String CONSUMER_BATCH_SIZE_PROPERTY      = "atlas.notification.hook.batch.size";
+    public static final String CONSUMER_BATCH_MAX_WAIT_MS        = "atlas.notification.hook.batch.max.wait.ms";
+    public static final String CONSUMER_DISPATCHER_THREADS       = "atlas.notification.hook.dispatcher.numthreads";
+    public static final String CONSUMER_DISPATCHER_MAX_PENDING   = "atlas.notification.hook.dispatcher.max.pending";
+    public static final String CONSUMER_DEAD_LETTER_TOPIC        = "atlas.notification.hook.dead.letter.topic";
+
+    // headers added to messages published to the dead-letter topic
+    public static final String DEAD_LETTER_HEADER_ERROR_CLASS        = "atlas.error.class";
+    public static final String DEAD_LETTER_HEADER_ERROR_MESSAGE      = "atlas.error.message";
+    public static final String DEAD_LETTER_HEADER_ORIGINAL_TOPIC     = "atlas.original.topic";
+    public static final String DEAD_LETTER_HEADER_ORIGINAL_PARTITION = "atlas.original.partition";
+    public static final String DEAD_LETTER_HEADER_ORIGINAL_OFFSET    = "atlas.original.offset";
+    public static final String DEAD_LETTER_HEADER_FAILED_TIME        = "atlas.failed.time";
+    public static final String DEAD_LETTER_HEADER_RETRY_COUNT        = "atlas.retry.count";
+
+    private static final int DEAD_LETTER_ERROR_MESSAGE_MAX_LENGTH = 1024;
+    private static final int DISPATCH_WAIT_TIME_MS                = 1000;
 
     public static final int SERVER_READY_WAIT_TIME_MS = 1000;
 
@@ -101,6 +122,11 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     private final int                    failedMsgCacheSize;
     private final int                    minWaitDuration;
     private final int                    maxWaitDuration;
+    private final int                    batchSize;
+    private final long                   batchMaxWaitMs;
+    private final int                    dispatcherThreads;
+    private final int                    dispatcherMaxPending;
+    private final String                 deadLetterTopic;
 
     private NotificationInterface notificationInterface;
     private ExecutorService       executors;
@@ -128,6 +154,29 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         consumerRetryInterval = applicationProperties.getInt(CONSUMER_RETRY_INTERVAL, 500);
         minWaitDuration       = applicationProperties.getInt(CONSUMER_MIN_RETRY_INTERVAL, consumerRetryInterval); // 500 ms  by default
         maxWaitDuration       = applicationProperties.getInt(CONSUMER_MAX_RETRY_INTERVAL, minWaitDuration * 60);  //  30 sec by default
+        batchMaxWaitMs        = applicationProperties.getLong(CONSUMER_BATCH_MAX_WAIT_MS, 100L);
+        dispatcherThreads     = applicationProperties.getInt(CONSUMER_DISPATCHER_THREADS, 1);    // parallel dispatch is disabled by default
+        dispatcherMaxPending  = applicationProperties.getInt(CONSUMER_DISPATCHER_MAX_PENDING, 1000);
+
+        int batchSize = applicationProperties.getInt(CONSUMER_BATCH_SIZE_PROPERTY, 1);    // batching is disabled by default
+
+        if (batchSize > 1 && dispatcherThreads > 1) {
+            LOG.warn("{}={} is ignored, as batching is not supported with {}={}; messages will be processed one at a time by dispatcher threads", CONSUMER_BATCH_SIZE_PROPERTY, batchSize, CONSUMER_DISPATCHER_THREADS, dispatcherThreads);
+
+            batchSize = 1;
+        }
+
+        this.batchSize = batchSize;
+
+        String topic = applicationProperties.getString(CONSUMER_DEAD_LETTER_TOPIC);
+
+        if (StringUtils.isNotBlank(topic) && !(notificationInterface instanceof KafkaNotification)) {
+            LOG.warn("{}={}: dead-letter topic is supported only with Kafka notification; failed messages will be logged", CONSUMER_DEAD_LETTER_TOPIC, topic);
+
+            topic = null;
+        }
+
+        deadLetterTopic = StringUtils.isNotBlank(topic) ? topic.trim() : null;
     }
 
     @Override
@@ -290,17 +339,221 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         }
     }
 
+    /**
+     * Tracks offsets of messages being processed, per partition. The offset that can be committed for a partition is
+     * its low-watermark: offset of the earliest message still being processed, or the offset following the last
+     * completed message when no message is being processed.
+     */
+    static class OffsetTracker {
+        private final Map<Integer, TreeSet<Long>> pendingOffsets   = new HashMap<>();
+        private final Map<Integer, Long>          nextOffsets      = new HashMap<>();
+        private final Map<Integer, Long>          committedOffsets = new HashMap<>();
+        private       int                         pendingCount     = 0;
+
+        public synchronized void add(int partition, long offset) {
+            TreeSet<Long> offsets = pendingOffsets.get(partition);
+
+            if (offsets == null) {
+                offsets = new TreeSet<>();
+
+                pendingOffsets.put(partition, offsets);
+            }
+
+            offsets.add(offset);
+
+            pendingCount++;
+        }
+
+        public synchronized void complete(int partition, long offset) {
+            TreeSet<Long> offsets = pendingOffsets.get(partition);
+
+            if (offsets != null && offsets.remove(offset)) {
+                Long nextOffset = nextOffsets.get(partition);
+
+                if (nextOffset == null || nextOffset <= offset) {
+                    nextOffsets.put(partition, offset + 1);
+                }
+
+                pendingCount--;
+
+                notifyAll();
+            }
+        }
+
+        /**
+         * @return offsets to commit, for partitions whose low-watermark advanced since the previous call
+         */
+        public synchronized Map<Integer, Long> getOffsetsToCommit() {
+            Map<Integer, Long> ret = new HashMap<>();
+
+            for (Map.Entry<Integer, Long> entry : nextOffsets.entrySet()) {
+                Integer       partition = entry.getKey();
+                TreeSet<Long> offsets   = pendingOffsets.get(partition);
+                Long          offset    = (offsets == null || offsets.isEmpty()) ? entry.getValue() : Math.min(offsets.first(), entry.getValue());
+                Long          committed = committedOffsets.get(partition);
+
+                if (committed == null || committed < offset) {
+                    committedOffsets.put(partition, offset);
+
+                    ret.put(partition, offset);
+                }
+            }
+
+            return ret;
+        }
+
+        public synchronized int getPendingCount() {
+            return pendingCount;
+        }
+
+        /**
+         * Waits until number of pending messages is below the given limit, or the timeout expires.
+         * @return true if number of pending messages is below the limit
+         */
+        public synchronized boolean awaitPendingBelow(int limit, long timeoutMs) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+
+            while (pendingCount >= limit) {
+                long waitTime = deadline - System.currentTimeMillis();
+
+                if (waitTime <= 0) {
+                    return false;
+                }
+
+                wait(waitTime);
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Tracks the keys of messages queued to dispatcher threads. A message is queued to the dispatcher that has pending
+     * messages with any of its keys, so that messages sharing an entity are processed in the order received. When the
+     * keys of a message are pending on more than one dispatcher, the message waits until all but one of them complete.
+     */
+    static class DispatchKeyTracker {
+        private final Map<String, Integer> keyDispatchers   = new HashMap<>();
+        private final Map<String, Integer> keyPendingCounts = new HashMap<>();
+
+        /**
+         * @return dispatcher to queue the message with the given keys to; -1 if the keys are still pending on more than
+         *         one dispatcher when the timeout expires
+         */
+        public synchronized int acquire(Set<String> keys, int defaultDispatcher, long timeoutMs) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+
+            while (true) {
+                Set<Integer> dispatchers = new HashSet<>();
+
+                for (String key : keys) {
+                    Integer dispatcher = keyDispatchers.get(key);
+
+                    if (dispatcher != null) {
+                        dispatchers.add(dispatcher);
+                    }
+                }
+
+                if (dispatchers.size() <= 1) {
+                    int ret = dispatchers.isEmpty() ? defaultDispatcher : dispatchers.iterator().next();
+
+                    for (String key : keys) {
+                        Integer count = keyPendingCounts.get(key);
+
+                        keyDispatchers.put(key, ret);
+                        keyPendingCounts.put(key, count == null ? 1 : (count + 1));
+                    }
+
+                    return ret;
+                }
+
+                long waitTime = deadline - System.currentTimeMillis();
+
+                if (waitTime <= 0) {
+                    return -1;
+                }
+
+                wait(waitTime);
+            }
+        }
+
+        public synchronized void release(Set<String> keys) {
+            for (String key : keys) {
+                Integer count = keyPendingCounts.get(key);
+
+                if (count == null || count <= 1) {
+                    keyPendingCounts.remove(key);
+                    keyDispatchers.remove(key);
+                } else {
+                    keyPendingCounts.put(key, count - 1);
+                }
+            }
+
+            notifyAll();
+        }
+
+        public synchronized int getPendingKeyCount() {
+            return keyPendingCounts.size();
+        }
+    }
+
     @VisibleForTesting
+    static class FailedMessage {
+        private final AtlasKafkaMessage<HookNotification> kafkaMsg;
+        private final Throwable                           error;
+        private final int                                 retryCount;
+        private final long                                failedTime = System.currentTimeMillis();
+
+        FailedMessage(AtlasKafkaMessage<HookNotification> kafkaMsg, Throwable error, int retryCount) {
+            this.kafkaMsg   = kafkaMsg;
+            this.error      = error;
+            this.retryCount = retryCount;
+        }
+
+        Map<String, String> getDeadLetterHeaders() {
+            Map<String, String> ret = new LinkedHashMap<>();
+
+            ret.put(DEAD_LETTER_HEADER_ERROR_CLASS, error != null ? error.getClass().getName() : "");
+            ret.put(DEAD_LETTER_HEADER_ERROR_MESSAGE, error != null ? StringUtils.abbreviate(StringUtils.defaultString(error.getMessage()), DEAD_LETTER_ERROR_MESSAGE_MAX_LENGTH) : "");
+            ret.put(DEAD_LETTER_HEADER_ORIGINAL_TOPIC, KafkaNotification.ATLAS_HOOK_TOPIC);
+            ret.put(DEAD_LETTER_HEADER_ORIGINAL_PARTITION, Integer.toString(kafkaMsg.getPartition()));
+            ret.put(DEAD_LETTER_HEADER_ORIGINAL_OFFSET, Long.toString(kafkaMsg.getOffset()));
+            ret.put(DEAD_LETTER_HEADER_FAILED_TIME, Long.toString(failedTime));
+            ret.put(DEAD_LETTER_HEADER_RETRY_COUNT, Integer.toString(retryCount));
+
+            return ret;
+        }
+    }
+
     class HookConsumer extends ShutdownableThread {
-        private final NotificationConsumer<HookNotification> consumer;
-        private final AtomicBoolean                          shouldRun      = new AtomicBoolean(false);
-        private final List<HookNotification>                 failedMessages = new ArrayList<>();
-        private final AdaptiveWaiter                         adaptiveWaiter = new AdaptiveWaiter(minWaitDuration, maxWaitDuration, minWaitDuration);
+        private final NotificationConsumer<HookNotification>          consumer;
+        private final AtomicBoolean                                   shouldRun        = new AtomicBoolean(false);
+        private final List<FailedMessage>                             failedMessages   = new ArrayList<>();
+        private final AdaptiveWaiter                                  adaptiveWaiter   = new AdaptiveWaiter(minWaitDuration, maxWaitDuration, minWaitDuration);
+        private final ExecutorService[]                               dispatchers;
+        private final OffsetTracker                                   offsetTracker;
+        private final DispatchKeyTracker                              keyTracker;
+        private final LinkedList<AtlasKafkaMessage<HookNotification>> pendingDispatch  = new LinkedList<>();
+        private       boolean                                         isConsumerPaused = false;
 
         public HookConsumer(NotificationConsumer<HookNotification> consumer) {
             super("atlas-hook-consumer-thread", false);
 
             this.consumer = consumer;
+
+            if (dispatcherThreads > 1) {
+                dispatchers   = new ExecutorService[dispatcherThreads];
+                offsetTracker = new OffsetTracker();
+                keyTracker    = new DispatchKeyTracker();
+
+                for (int i = 0; i < dispatchers.length; i++) {
+                    dispatchers[i] = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(THREADNAME_PREFIX + " dispatcher-" + i + "-%d").setDaemon(true).build());
+                }
+            } else {
+                dispatchers   = null;
+                offsetTracker = null;
+                keyTracker    = null;
+            }
         }
 
         @Override
@@ -316,10 +569,20 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             try {
                 while (shouldRun.get()) {
                     try {
-                        List<AtlasKafkaMessage<HookNotification>> messages = consumer.receive();
+                        if (isDispatcherEnabled()) {
+                            pendingDispatch.addAll(consumer.receive());
 
-                        for (AtlasKafkaMessage<HookNotification> msg : messages) {
-                            handleMessage(msg);
+                            dispatchPending();
+
+                            commitCompleted();
+                        } else if (isBatchingEnabled()) {
+                            handleMessages(receiveBatch());
+                        } else {
+                            List<AtlasKafkaMessage<HookNotification>> messages = consumer.receive();
+
+                            for (AtlasKafkaMessage<HookNotification> msg : messages) {
+                                handleMessage(msg);
+                            }
                         }
                     } catch (IllegalStateException ex) {
                         adaptiveWaiter.pause(ex);
@@ -334,6 +597,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                     }
                 }
             } finally {
+                if (isDispatcherEnabled()) {
+                    stopDispatchers();
+                }
+
                 if (consumer != null) {
                     LOG.info("closing NotificationConsumer");
 
@@ -344,6 +611,181 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             }
         }
 
+        /**
+         * Dispatches received messages in order, until too many messages are pending or a message has to wait for
+         * dispatchers to complete. The consumer is then paused, instead of blocking the consumer thread, so that it
+         * keeps polling - and stays in the consumer group - without receiving more messages; it is resumed once all
+         * received messages are dispatched.
+         */
+        @VisibleForTesting
+        void dispatchPending() throws InterruptedException {
+            while (!pendingDispatch.isEmpty()) {
+                if (!offsetTracker.awaitPendingBelow(dispatcherMaxPending, DISPATCH_WAIT_TIME_MS) || !dispatch(pendingDispatch.getFirst(), DISPATCH_WAIT_TIME_MS)) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("dispatch is blocked: pendingCount={}, undispatchedCount={}. Pausing the consumer", offsetTracker.getPendingCount(), pendingDispatch.size());
+                    }
+
+                    consumer.pause(); // pauses partitions assigned since the last pause as well
+
+                    isConsumerPaused = true;
+
+                    return;
+                }
+
+                pendingDispatch.removeFirst();
+            }
+
+            if (isConsumerPaused) {
+                consumer.resume();
+
+                isConsumerPaused = false;
+            }
+        }
+
+        /**
+         * Queues the message to a dispatcher thread selected by the keys of all entities in the message, so that
+         * messages sharing an entity are processed in the order received, while messages about different entities in
+         * the same partition can be processed in parallel.
+         * @return false if the message could not be queued, as its keys are pending on more than one dispatcher
+         */
+        @VisibleForTesting
+        boolean dispatch(final AtlasKafkaMessage<HookNotification> kafkaMsg, long waitTimeMs) throws InterruptedException {
+            final Set<String> keys  = getMessageKeys(kafkaMsg.getMessage());
+            final int         index = keyTracker.acquire(keys, keys.isEmpty() ? 0 : (Collections.min(keys).hashCode() & Integer.MAX_VALUE) % dispatchers.length, waitTimeMs);
+
+            if (index == -1) {
+                return false;
+            }
+
+            offsetTracker.add(kafkaMsg.getPartition(), kafkaMsg.getOffset());
+
+            dispatchers[index].submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        handleMessage(kafkaMsg);
+                    } catch (Throwable t) {
+                        LOG.warn("Error handling message at partition={}, offset={}", kafkaMsg.getPartition(), kafkaMsg.getOffset(), t);
+                    } finally {
+                        keyTracker.release(keys);
+                        offsetTracker.complete(kafkaMsg.getPartition(), kafkaMsg.getOffset());
+                    }
+                }
+            });            });
+
+            return true;
+        }
+
+        /**
+         * Commits the low-watermark offsets of messages processed by dispatcher threads. This must be called from the
+         * consumer thread, as Kafka consumer is not safe for multi-threaded access.
+         */
+        @VisibleForTesting
+        void commitCompleted() {
+            Map<Integer, Long> offsets = offsetTracker.getOffsetsToCommit();
+
+            if (!offsets.isEmpty()) {
+                recordFailedMessages();
+
+                for (Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+                    consumer.commit(new TopicPartition("ATLAS_HOOK", entry.getKey()), entry.getValue());
+                }
+            }
+        }
+
+        private void stopDispatchers() {
+            for (ExecutorService dispatcher : dispatchers) {
+                dispatcher.shutdown();
+            }
+
+            try {
+                for (ExecutorService dispatcher : dispatchers) {
+                    if (!dispatcher.awaitTermination(5000, TimeUnit.MILLISECONDS)) {
+                        LOG.warn("Timed out waiting for dispatcher threads to complete; {} messages are still being processed", offsetTracker.getPendingCount());
+                    }
+                }
+            } catch (InterruptedException e) {
+                LOG.warn("Interrupted while waiting for dispatcher threads to complete");
+            }
+
+            commitCompleted();
+        }
+
+        /**
+         * @return keys of all entities, including referred entities, the message creates, updates or deletes
+         */
+        @VisibleForTesting
+        Set<String> getMessageKeys(HookNotification message) {
+            Set<String> ret = new HashSet<>();
+
+            switch (message.getType()) {
+                case ENTITY_CREATE:
+                case ENTITY_FULL_UPDATE:
+                case ENTITY_CREATE_V2:
+                case ENTITY_FULL_UPDATE_V2: {
+                    AtlasEntitiesWithExtInfo entities = getEntitiesToCreateOrUpdate(message);
+
+                    if (entities != null) {
+                        ret.addAll(getEntityKeys(entities));
+                    }
+                }
+                break;
+
+                case ENTITY_PARTIAL_UPDATE: {
+                    EntityPartialUpdateRequest request = (EntityPartialUpdateRequest) message;
+
+                    ret.add(request.getTypeName() + "." + request.getAttribute() + "=" + request.getAttributeValue());
+                }
+                break;
+
+                case ENTITY_DELETE: {
+                    EntityDeleteRequest request = (EntityDeleteRequest) message;
+
+                    ret.add(request.getTypeName() + "." + request.getAttribute() + "=" + request.getAttributeValue());
+                }
+                break;
+
+                case ENTITY_PARTIAL_UPDATE_V2:
+                    addObjectIdKeys(((EntityPartialUpdateRequestV2) message).getEntityId(), ret);
+                break;
+
+                case ENTITY_DELETE_V2: {
+                    List<AtlasObjectId> entities = ((EntityDeleteRequestV2) message).getEntities();
+
+                    if (entities != null) {
+                        for (AtlasObjectId objectId : entities) {
+                            addObjectIdKeys(objectId, ret);
+                        }
+                    }
+                }
+                break;
+            }
+
+            return ret;
+        }
+
+        private void addObjectIdKeys(AtlasObjectId objectId, Set<String> keys) {
+            if (objectId == null) {
+                return;
+            }
+
+            if (objectId.getGuid() != null) {
+                keys.add(objectId.getGuid());
+            }
+
+            if (objectId.getUniqueAttributes() != null) {
+                for (Map.Entry<String, Object> entry : objectId.getUniqueAttributes().entrySet()) {
+                    if (entry.getValue() != null) {
+                        keys.add(objectId.getTypeName() + "." + entry.getKey() + "=" + entry.getValue());
+                    }
+                }
+            }
+        }
+
+        private boolean isDispatcherEnabled() {
+            return dispatchers != null;
+        }
+
         @VisibleForTesting
         void handleMessage(AtlasKafkaMessage<HookNotification> kafkaMsg) throws AtlasServiceException, AtlasException {
             AtlasPerfTracer  perf        = null;
@@ -523,9 +965,15 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
 
                             isFailedMsg = true;
 
-                            failedMessages.add(message);
+                            final boolean isFailedMsgCacheFull;
+
+                            synchronized (failedMessages) {
+                                failedMessages.add(new FailedMessage(kafkaMsg, e, maxRetries));
 
-                            if (failedMessages.size() >= failedMsgCacheSize) {
+                                isFailedMsgCacheFull = failedMessages.size() >= failedMsgCacheSize;
+                            }
+
+                            if (isFailedMsgCacheFull) {
                                 recordFailedMessages();
                             }
                             return;
@@ -548,16 +996,293 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             }
         }
 
+        /**
+         * Handles messages received in batching mode. Consecutive create/full-update messages from the same user are
+         * merged and written with a single createOrUpdate() call, i.e. in one graph transaction; other messages are
+         * handled one at a time, in order.
+         */
+        @VisibleForTesting
+        void handleMessages(List<AtlasKafkaMessage<HookNotification>> messages) throws AtlasServiceException, AtlasException {
+            List<AtlasKafkaMessage<HookNotification>> batch         = new ArrayList<>();
+            List<AtlasEntitiesWithExtInfo>            batchEntities = new ArrayList<>();
+            Set<String>                               batchKeys     = new HashSet<>();
+            String                                    batchUser     = null;
+
+            for (AtlasKafkaMessage<HookNotification> kafkaMsg : messages) {
+                HookNotification         message  = kafkaMsg.getMessage();
+                AtlasEntitiesWithExtInfo entities = isBatchable(message) ? getEntitiesToCreateOrUpdate(message) : null;
+
+                if (entities == null) { // message can't be merged with others
+                    handleMessageBatch(batch, batchEntities);
+
+                    batch.clear();
+                    batchEntities.clear();
+                    batchKeys.clear();
+
+                    handleMessage(kafkaMsg);
+
+                    continue;
+                }
+
+                Set<String> keys = getEntityKeys(entities);
+
+                if (batch.size() >= batchSize || !StringUtils.equals(batchUser, message.getUser()) || CollectionUtils.containsAny(batchKeys, keys)) {
+                    handleMessageBatch(batch, batchEntities);
+
+                    batch.clear();
+                    batchEntities.clear();
+                    batchKeys.clear();
+                }
+
+                batch.add(kafkaMsg);
+                batchEntities.add(entities);
+                batchKeys.addAll(keys);
+
+                batchUser = message.getUser();
+            }
+
+            handleMessageBatch(batch, batchEntities);
+        }
+
+        /**
+         * Writes entities in all given messages in a single createOrUpdate() call, and commits the highest offset on
+         * success. On failure, the batch is split into halves that are retried separately, so that a bad message ends up
+         * being handled by handleMessage() - with the usual retries - without failing the messages batched along with it.
+         */
+        private void handleMessageBatch(List<AtlasKafkaMessage<HookNotification>> batch, List<AtlasEntitiesWithExtInfo> batchEntities) throws AtlasServiceException, AtlasException {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            if (batch.size() == 1) {
+                handleMessage(batch.get(0));
+
+                return;
+            }
+
+            AtlasPerfTracer perf      = null;
+            long            startTime = System.currentTimeMillis();
+            boolean         isSuccess = false;
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "handleMessageBatch(size=" + batch.size() + ")");
+            }
+
+            try {
+                RequestContextV1 requestContext = RequestContextV1.get();
+
+                requestContext.setUser(batch.get(0).getMessage().getUser(), null);
+
+                AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo();
+
+                for (int i = 0; i < batch.size(); i++) {
+                    AtlasEntitiesWithExtInfo msgEntities = batchEntities != null ? batchEntities.get(i) : getEntitiesToCreateOrUpdate(batch.get(i).getMessage());
+
+                    if (msgEntities == null) {
+                        throw new IllegalStateException("failed to get entities from message " + batch.get(i).getMessage());
+                    }
+
+                    if (msgEntities.getEntities() != null) {
+                        for (AtlasEntity entity : msgEntities.getEntities()) {
+                            entities.addEntity(entity);
+                        }
+                    }
+
+                    if (msgEntities.getReferredEntities() != null) {
+                        for (Map.Entry<String, AtlasEntity> entry : msgEntities.getReferredEntities().entrySet()) {
+                            entities.addReferredEntity(entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+
+                atlasEntityStore.createOrUpdate(new AtlasEntityStream(entities), false);
+
+                isSuccess = true;
+            } catch (Throwable e) {
+                LOG.warn("Error handling batch of {} messages; will retry the messages in smaller batches", batch.size(), e);
+            } finally {
+                RequestContextV1.clear();
+
+                AtlasPerfTracer.log(perf);
+            }
+
+            if (isSuccess) {
+                long timeTaken = System.currentTimeMillis() - startTime;
+
+                for (AtlasKafkaMessage<HookNotification> kafkaMsg : batch) {
+                    AuditLog auditLog = getBatchedMessageAuditLog(kafkaMsg.getMessage());
+
+                    auditLog.setHttpStatus(SC_OK);
+                    auditLog.setTimeTaken(timeTaken);
+
+                    AuditFilter.audit(auditLog);
+                }
+
+                commit(batch);
+            } else {
+                int mid = batch.size() / 2;
+
+                // entities converted from V1 messages might have been updated by the failed attempt; these will be converted again
+                handleMessageBatch(batch.subList(0, mid), null);
+                handleMessageBatch(batch.subList(mid, batch.size()), null);
+            }
+        }
+
+        private List<AtlasKafkaMessage<HookNotification>> receiveBatch() {
+            List<AtlasKafkaMessage<HookNotification>> ret      = new ArrayList<>(consumer.receive());
+            long                                      deadline = System.currentTimeMillis() + batchMaxWaitMs;
+
+            while (!ret.isEmpty() && ret.size() < batchSize && shouldRun.get()) {
+                long timeout = deadline - System.currentTimeMillis();
+
+                if (timeout <= 0) {
+                    break;
+                }
+
+                ret.addAll(consumer.receive(timeout));
+            }
+
+            return ret;
+        }
+
+        private boolean isBatchable(HookNotification message) {
+            switch (message.getType()) {
+                case ENTITY_CREATE:
+                case ENTITY_FULL_UPDATE:
+                case ENTITY_CREATE_V2:
+                case ENTITY_FULL_UPDATE_V2:
+                    return true;
+
+                default:
+                    return false;
+            }
+        }
+
+        private AtlasEntitiesWithExtInfo getEntitiesToCreateOrUpdate(HookNotification message) {
+            AtlasEntitiesWithExtInfo ret = null;
+
+            try {
+                switch (message.getType()) {
+                    case ENTITY_CREATE:
+                        ret = instanceConverter.toAtlasEntities(((EntityCreateRequest) message).getEntities());
+                    break;
+
+                    case ENTITY_FULL_UPDATE:
+                        ret = instanceConverter.toAtlasEntities(((EntityUpdateRequest) message).getEntities());
+                    break;
+
+                    case ENTITY_CREATE_V2:
+                        ret = ((EntityCreateRequestV2) message).getEntities();
+                    break;
+
+                    case ENTITY_FULL_UPDATE_V2:
+                        ret = ((EntityUpdateRequestV2) message).getEntities();
+                    break;
+                }
+            } catch (Throwable e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("failed to get entities from message {}; it will not be batched", message.getType().name(), e);
+                }
+            }
+
+            return ret;
+        }
+
+        /**
+         * Entities that share a guid or unique-attribute value must not be written in the same transaction, as that
+         * can result in duplicate vertices; such messages are placed in separate batches.
+         */
+        private Set<String> getEntityKeys(AtlasEntitiesWithExtInfo entities) {
+            Set<String>       ret         = new HashSet<>();
+            List<AtlasEntity> allEntities = new ArrayList<>();
+
+            if (entities.getEntities() != null) {
+                allEntities.addAll(entities.getEntities());
+            }
+
+            if (entities.getReferredEntities() != null) {
+                allEntities.addAll(entities.getReferredEntities().values());
+            }
+
+            for (AtlasEntity entity : allEntities) {
+                if (entity.getGuid() != null) {
+                    ret.add(entity.getGuid());
+                }
+
+                AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
+
+                if (entityType != null) {
+                    for (String attrName : entityType.getUniqAttributes().keySet()) {
+                        Object attrValue = entity.getAttribute(attrName);
+
+                        if (attrValue != null) {
+                            ret.add(entity.getTypeName() + "." + attrName + "=" + attrValue);
+                        }
+                    }
+                }
+            }
+
+            return ret;
+        }
+
+        private AuditLog getBatchedMessageAuditLog(HookNotification message) {
+            switch (message.getType()) {
+                case ENTITY_CREATE:
+                    return new AuditLog(message.getUser(), THREADNAME_PREFIX, AtlasClient.API_V1.CREATE_ENTITY.getMethod(), AtlasClient.API_V1.CREATE_ENTITY.getNormalizedPath());
+
+                case ENTITY_CREATE_V2:
+                    return new AuditLog(message.getUser(), THREADNAME_PREFIX, AtlasClientV2.API_V2.CREATE_ENTITY.getMethod(), AtlasClientV2.API_V2.CREATE_ENTITY.getNormalizedPath());
+
+                default:
+                    return new AuditLog(message.getUser(), THREADNAME_PREFIX, AtlasClientV2.API_V2.UPDATE_ENTITY.getMethod(), AtlasClientV2.API_V2.UPDATE_ENTITY.getNormalizedPath());
+            }
+        }
+
+        private boolean isBatchingEnabled() {
+            return batchSize > 1;
+        }
+
+        /**
+         * Publishes failed messages to the dead-letter topic, if configured, else logs them to the FAILED log. This is
+         * called before committing offsets, so that a failed message is not lost if the server stops in between.
+         * Messages are published outside the lock, so that dispatcher threads adding failed messages don't block on
+         * the dead-letter topic.
+         */
         private void recordFailedMessages() {
-            //logging failed messages
-            for (HookNotification message : failedMessages) {
-                FAILED_LOG.error("[DROPPED_NOTIFICATION] {}", AbstractNotification.getMessageJson(message));
+            final List<FailedMessage> toRecord;
+
+            synchronized (failedMessages) {
+                if (failedMessages.isEmpty()) {
+                    return;
+                }
+
+                toRecord = new ArrayList<>(failedMessages);
+
+                failedMessages.clear();
             }
 
-            failedMessages.clear();
+            for (FailedMessage failedMessage : toRecord) {
+                HookNotification message = failedMessage.kafkaMsg.getMessage();
+
+                if (deadLetterTopic != null) {
+                    try {
+                        ((KafkaNotification) notificationInterface).sendToTopic(deadLetterTopic, Collections.singletonList(message), failedMessage.getDeadLetterHeaders());
+
+                        continue;
+                    } catch (Exception excp) {
+                        LOG.error("Failed to publish message at partition={}, offset={} to dead-letter topic {}", failedMessage.kafkaMsg.getPartition(), failedMessage.kafkaMsg.getOffset(), deadLetterTopic, excp);
+                    }
+                }
+
+                FAILED_LOG.error("[DROPPED_NOTIFICATION] {}", AbstractNotification.getMessageJson(message));
+            }
         }
 
         private void commit(AtlasKafkaMessage<HookNotification> kafkaMessage) {
+            if (isDispatcherEnabled()) { // offsets will be committed by the consumer thread, in commitCompleted()
+                return;
+            }
+
             recordFailedMessages();
 
             TopicPartition partition = new TopicPartition("ATLAS_HOOK", kafkaMessage.getPartition());
@@ -565,6 +1290,24 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             consumer.commit(partition, kafkaMessage.getOffset() + 1);
         }
 
+        private void commit(List<AtlasKafkaMessage<HookNotification>> kafkaMessages) {
+            recordFailedMessages();
+
+            Map<Integer, Long> partitionOffsets = new HashMap<>();
+
+            for (AtlasKafkaMessage<HookNotification> kafkaMessage : kafkaMessages) {
+                Long offset = partitionOffsets.get(kafkaMessage.getPartition());
+
+                if (offset == null || offset < kafkaMessage.getOffset()) {
+                    partitionOffsets.put(kafkaMessage.getPartition(), kafkaMessage.getOffset());
+                }
+            }
+
+            for (Map.Entry<Integer, Long> entry : partitionOffsets.entrySet()) {
+                consumer.commit(new TopicPartition("ATLAS_HOOK", entry.getKey()), entry.getValue() + 1);
+            }
+        }
+
         boolean serverAvailable(Timer timer) {
             try {
                 while (serviceState.getState() != ServiceState.ServiceStateValue.ACTIVE) {
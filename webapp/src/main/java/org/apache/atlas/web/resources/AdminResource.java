@@ -33,6 +33,7 @@ import org.apache.atlas.model.impexp.AtlasExportResult;
 import org.apache.atlas.model.impexp.AtlasImportRequest;
 import org.apache.atlas.model.impexp.AtlasImportResult;
 import org.apache.atlas.model.metrics.AtlasMetrics;
+import org.apache.atlas.notification.HookDeadLetterReplayService;
 import org.apache.atlas.repository.impexp.ExportService;
 import org.apache.atlas.repository.impexp.ImportService;
 import org.apache.atlas.repository.impexp.ZipSink;
@@ -119,6 +120,7 @@ public class AdminResource {
     private final ExportService exportService;
     private final ImportService importService;
     private final SearchTracker activeSearches;
+    private final HookDeadLetterReplayService deadLetterReplayService;
 
     static {
         try {
@@ -131,13 +133,15 @@ public class AdminResource {
     @Inject
     public AdminResource(ServiceState serviceState, MetricsService metricsService,
                          ExportService exportService, ImportService importService,
-                         SearchTracker activeSearches, AtlasTypeRegistry typeRegistry) {
+                         SearchTracker activeSearches, AtlasTypeRegistry typeRegistry,
+                         HookDeadLetterReplayService deadLetterReplayService) {
         this.serviceState               = serviceState;
         this.metricsService             = metricsService;
         this.exportService = exportService;
         this.importService = importService;
         this.activeSearches = activeSearches;
         this.typeRegistry = typeRegistry;
+        this.deadLetterReplayService = deadLetterReplayService;
         importExportOperationLock = new ReentrantLock();
     }
 
@@ -433,6 +437,39 @@ public class AdminResource {
         return null != terminate;
     }
 
+    /**
+     * Starts replay of hook notifications in the dead-letter topic, through the usual ingestion path.
+     *
+     * @param rate        maximum number of messages to replay per second
+     * @param maxMessages maximum number of messages to replay; all messages are replayed if 0
+     * @return status of the replay
+     */
+    @POST
+    @Path("notification/deadletter/replay")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public Map<String, Object> startDeadLetterReplay(@QueryParam("rate") @DefaultValue("0") int rate,
+                                                     @QueryParam("maxMessages") @DefaultValue("0") long maxMessages) throws AtlasBaseException {
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_IMPORT), "startDeadLetterReplay");
+
+        return deadLetterReplayService.startReplay(rate, maxMessages);
+    }
+
+    @GET
+    @Path("notification/deadletter/replay")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public Map<String, Object> getDeadLetterReplayStatus() {
+        return deadLetterReplayService.getStatus();
+    }
+
+    @DELETE
+    @Path("notification/deadletter/replay")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public Map<String, Object> stopDeadLetterReplay() throws AtlasBaseException {
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_IMPORT), "stopDeadLetterReplay");
+
+        return deadLetterReplayService.stopReplay();
+    }
+
     private String getEditableEntityTypes(Configuration config) {
         String ret = DEFAULT_EDITABLE_ENTITY_TYPES;
 
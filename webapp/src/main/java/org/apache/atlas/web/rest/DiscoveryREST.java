@@ -167,6 +167,10 @@ public class DiscoveryREST {
      * @param classification limit the result to only entities tagged with the given classification or or its sub-types
      * @param limit          limit the result set to only include the specified number of entries
      * @param offset         start offset of the result set (useful for pagination)
+     * @param continuationToken token returned with the previous page of results, to continue from where it ended; offset is ignored when specified. Not supported, nor returned, for classification searches that read classification vertices
+     * @param sortBy         sort the results by this attribute of the type; not supported along with query
+     * @param sortOrder      ASCENDING (default) or DESCENDING
+     * @param includeTotalCount return the total number of results; the response indicates if the count is an estimate
      * @return Search results
      * @throws AtlasBaseException
      * @HTTP 200 On successful FullText lookup with some results, might return an empty list if execution succeeded
@@ -182,7 +186,11 @@ public class DiscoveryREST {
                                               @QueryParam("classification")         String  classification,
                                               @QueryParam("excludeDeletedEntities") boolean excludeDeletedEntities,
                                               @QueryParam("limit")                  int     limit,
-                                              @QueryParam("offset")                 int     offset) throws AtlasBaseException {
+                                              @QueryParam("offset")                 int     offset,
+                                              @QueryParam("continuationToken")      String  continuationToken,
+                                              @QueryParam("sortBy")                 String  sortBy,
+                                              @QueryParam("sortOrder")              SortOrder sortOrder,
+                                              @QueryParam("includeTotalCount")      boolean includeTotalCount) throws AtlasBaseException {
         Servlets.validateQueryParamLength("typeName", typeName);
         Servlets.validateQueryParamLength("classification", classification);
         if (StringUtils.isNotEmpty(query) && query.length() > maxFullTextQueryLength) {
@@ -204,6 +212,10 @@ public class DiscoveryREST {
             searchParameters.setExcludeDeletedEntities(excludeDeletedEntities);
             searchParameters.setLimit(limit);
             searchParameters.setOffset(offset);
+            searchParameters.setContinuationToken(continuationToken);
+            searchParameters.setSortBy(sortBy);
+            searchParameters.setSortOrder(sortOrder);
+            searchParameters.setIncludeTotalCount(includeTotalCount);
 
             return atlasDiscoveryService.searchWithParameters(searchParameters);
         } finally {
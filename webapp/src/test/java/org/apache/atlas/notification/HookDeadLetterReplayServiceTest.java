@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.kafka.KafkaNotification;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.NotificationInterface.NotificationType;
+import org.apache.atlas.v1.model.instance.Referenceable;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.apache.atlas.web.service.ServiceState;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+
+public class HookDeadLetterReplayServiceTest {
+    private static final String         DLQ_TOPIC = "ATLAS_HOOK_DLQ";
+    private static final TopicPartition PARTITION = new TopicPartition(DLQ_TOPIC, 0);
+
+    @Mock
+    private KafkaNotification kafkaNotification;
+
+    @Mock
+    private KafkaConsumer kafkaConsumer;
+
+    @Mock
+    private ServiceState serviceState;
+
+    @BeforeMethod
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        when(serviceState.getState()).thenReturn(ServiceState.ServiceStateValue.ACTIVE);
+        when(kafkaNotification.createKafkaConsumer(eq(DLQ_TOPIC), anyString())).thenReturn(kafkaConsumer);
+    }
+
+    @Test(expectedExceptions = AtlasBaseException.class)
+    public void testReplayFailsWithoutDeadLetterTopic() throws Exception {
+        new HookDeadLetterReplayService(kafkaNotification, serviceState, new PropertiesConfiguration()).startReplay(0, 0);
+    }
+
+    @Test(timeOut = 10000)
+    public void testMessagesAreReplayedToHookTopic() throws Exception {
+        ConsumerRecords records = createRecords(createMessage("t1"), createMessage("t2"));
+
+        when(kafkaConsumer.poll(anyLong())).thenReturn(records);
+        when(kafkaConsumer.assignment()).thenReturn(Collections.singleton(PARTITION));
+        when(kafkaConsumer.endOffsets(anyCollection())).thenReturn(Collections.singletonMap(PARTITION, 2L));
+        when(kafkaConsumer.position(PARTITION)).thenReturn(2L);
+
+        HookDeadLetterReplayService service = createService();
+
+        service.startReplay(1000, 0);
+
+        waitForCompletion(service);
+
+        ArgumentCaptor<Map> offsets = ArgumentCaptor.forClass(Map.class);
+
+        verify(kafkaNotification, times(2)).send(eq(NotificationType.HOOK), anyList());
+        verify(kafkaConsumer).commitSync(offsets.capture());
+        verify(kafkaConsumer).close();
+
+        assertEquals(offsets.getValue().get(PARTITION), new OffsetAndMetadata(2));
+        assertEquals(service.getStatus().get("state"), HookDeadLetterReplayService.ReplayState.COMPLETED.name());
+        assertEquals(service.getStatus().get("replayedCount"), 2L);
+    }
+
+    @Test(timeOut = 10000)
+    public void testReplayStopsAtMaxMessages() throws Exception {
+        ConsumerRecords records = createRecords(createMessage("t1"), createMessage("t2"), createMessage("t3"));
+
+        when(kafkaConsumer.poll(anyLong())).thenReturn(records);
+        when(kafkaConsumer.assignment()).thenReturn(Collections.singleton(PARTITION));
+        when(kafkaConsumer.endOffsets(anyCollection())).thenReturn(Collections.singletonMap(PARTITION, 3L));
+        when(kafkaConsumer.position(PARTITION)).thenReturn(3L);
+
+        HookDeadLetterReplayService service = createService();
+
+        service.startReplay(1000, 1);
+
+        waitForCompletion(service);
+
+        ArgumentCaptor<Map> offsets = ArgumentCaptor.forClass(Map.class);
+
+        verify(kafkaNotification, times(1)).send(eq(NotificationType.HOOK), anyList());
+        verify(kafkaConsumer).commitSync(offsets.capture());
+
+        assertEquals(offsets.getValue().get(PARTITION), new OffsetAndMetadata(1));
+    }
+
+    @Test(timeOut = 10000)
+    public void testUndeserializableMessageIsSkipped() throws Exception {
+        List<ConsumerRecord> records = new ArrayList<>();
+
+        records.add(createRecord(0, getEnvelope(createMessage("t1"))));
+        records.add(createRecord(1, "not a notification message"));
+        records.add(createRecord(2, getEnvelope(createMessage("t2"))));
+
+        when(kafkaConsumer.poll(anyLong())).thenReturn(new ConsumerRecords(Collections.singletonMap(PARTITION, records)));
+        when(kafkaConsumer.assignment()).thenReturn(Collections.singleton(PARTITION));
+        when(kafkaConsumer.endOffsets(anyCollection())).thenReturn(Collections.singletonMap(PARTITION, 3L));
+        when(kafkaConsumer.position(PARTITION)).thenReturn(3L);
+
+        HookDeadLetterReplayService service = createService();
+
+        service.startReplay(1000, 0);
+
+        waitForCompletion(service);
+
+        ArgumentCaptor<Map> offsets = ArgumentCaptor.forClass(Map.class);
+
+        verify(kafkaNotification, times(2)).send(eq(NotificationType.HOOK), anyList());
+        verify(kafkaConsumer).commitSync(offsets.capture());
+
+        assertEquals(offsets.getValue().get(PARTITION), new OffsetAndMetadata(3));
+        assertEquals(service.getStatus().get("replayedCount"), 2L);
+        assertEquals(service.getStatus().get("skippedCount"), 1L);
+    }
+
+    private HookDeadLetterReplayService createService() {
+        PropertiesConfiguration configuration = new PropertiesConfiguration();
+
+        configuration.setProperty(NotificationHookConsumer.CONSUMER_DEAD_LETTER_TOPIC, DLQ_TOPIC);
+
+        return new HookDeadLetterReplayService(kafkaNotification, serviceState, configuration);
+    }
+
+    private void waitForCompletion(HookDeadLetterReplayService service) throws InterruptedException {
+        while (HookDeadLetterReplayService.ReplayState.RUNNING.name().equals(service.getStatus().get("state"))) {
+            Thread.sleep(10);
+        }
+    }
+
+    private ConsumerRecords createRecords(HookNotification... messages) {
+        List<String>         envelopes = new ArrayList<>();
+        List<ConsumerRecord> records   = new ArrayList<>();
+
+        for (HookNotification message : messages) {
+            AbstractNotification.createNotificationMessages(message, envelopes);
+        }
+
+        for (int i = 0; i < envelopes.size(); i++) {
+            records.add(new ConsumerRecord(DLQ_TOPIC, PARTITION.partition(), i, null, envelopes.get(i)));
+        }
+
+        return new ConsumerRecords(Collections.singletonMap(PARTITION, records));
+    }
+
+    private ConsumerRecord createRecord(long offset, String value) {
+        return new ConsumerRecord(DLQ_TOPIC, PARTITION.partition(), offset, null, value);
+    }
+
+    private String getEnvelope(HookNotification message) {
+        List<String> envelopes = new ArrayList<>();
+
+        AbstractNotification.createNotificationMessages(message, envelopes);
+
+        return envelopes.get(0);
+    }
+
+    private HookNotification createMessage(String name) {
+        return new EntityCreateRequest("user1", new Referenceable("hive_table", Collections.<String, Object>singletonMap("name", name)));
+    }
+}
@@ -17,13 +17,18 @@
  */
 package org.apache.atlas.notification;
 
+import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasException;
 import org.apache.atlas.AtlasServiceException;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.ha.HAConfiguration;
 import org.apache.atlas.kafka.AtlasKafkaMessage;
+import org.apache.atlas.kafka.KafkaNotification;
+import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.HookNotification.EntityCreateRequestV2;
 import org.apache.atlas.model.notification.HookNotification.HookNotificationType;
 import org.apache.atlas.notification.NotificationInterface.NotificationType;
 import org.apache.atlas.v1.model.instance.Referenceable;
@@ -36,6 +41,7 @@ import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.web.service.ServiceState;
 import org.apache.commons.configuration.Configuration;
 import org.apache.kafka.common.TopicPartition;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
@@ -46,10 +52,18 @@ import org.testng.annotations.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -151,6 +165,74 @@ public class NotificationHookConsumerTest {
         verifyZeroInteractions(consumer);
     }
 
+    @Test
+    public void testFailedMessageIsPublishedToDeadLetterTopic() throws Exception {
+        KafkaNotification        kafkaNotification = mock(KafkaNotification.class);
+        Configuration            properties        = ApplicationProperties.get();
+        NotificationHookConsumer notificationHookConsumer;
+
+        properties.setProperty(NotificationHookConsumer.CONSUMER_DEAD_LETTER_TOPIC, "ATLAS_HOOK_DLQ");
+
+        try {
+            notificationHookConsumer = new NotificationHookConsumer(kafkaNotification, atlasEntityStore, serviceState, instanceConverter, typeRegistry);
+        } finally {
+            properties.clearProperty(NotificationHookConsumer.CONSUMER_DEAD_LETTER_TOPIC);
+        }
+
+        NotificationConsumer                  consumer     = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer = notificationHookConsumer.new HookConsumer(consumer);
+        ArgumentCaptor<Map>                   headers      = ArgumentCaptor.forClass(Map.class);
+
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), anyBoolean()))
+                .thenThrow(new RuntimeException("Simulating exception in processing message"))
+                .thenThrow(new RuntimeException("Simulating exception in processing message"))
+                .thenThrow(new RuntimeException("Simulating exception in processing message"))
+                .thenReturn(mock(EntityMutationResponse.class));
+
+        hookConsumer.handleMessage(createKafkaMessage(5));
+
+        verifyZeroInteractions(kafkaNotification);
+
+        // failed messages are published before the next commit
+        hookConsumer.handleMessage(createKafkaMessage(6));
+
+        verify(kafkaNotification).sendToTopic(eq("ATLAS_HOOK_DLQ"), anyList(), headers.capture());
+        verify(consumer).commit(new TopicPartition("ATLAS_HOOK", 0), 7);
+
+        assertEquals(headers.getValue().get(NotificationHookConsumer.DEAD_LETTER_HEADER_ERROR_CLASS), RuntimeException.class.getName());
+        assertEquals(headers.getValue().get(NotificationHookConsumer.DEAD_LETTER_HEADER_ORIGINAL_PARTITION), "0");
+        assertEquals(headers.getValue().get(NotificationHookConsumer.DEAD_LETTER_HEADER_ORIGINAL_OFFSET), "5");
+    }
+
+    @Test
+    public void testBatchedMessagesAreWrittenAndCommittedOnce() throws Exception {
+        NotificationHookConsumer              notificationHookConsumer = createBatchingNotificationHookConsumer(10);
+        NotificationConsumer                  consumer                 = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(consumer);
+
+        hookConsumer.handleMessages(Arrays.asList(createKafkaMessage(1), createKafkaMessage(2), createKafkaMessage(3)));
+
+        verify(atlasEntityStore, times(1)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer, times(1)).commit(new TopicPartition("ATLAS_HOOK", 0), 4);
+    }
+
+    @Test
+    public void testFailedBatchIsSplitAndRetried() throws Exception {
+        NotificationHookConsumer              notificationHookConsumer = createBatchingNotificationHookConsumer(10);
+        NotificationConsumer                  consumer                 = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(consumer);
+
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), anyBoolean()))
+                .thenThrow(new RuntimeException("Simulating exception in processing batch"))
+                .thenReturn(mock(EntityMutationResponse.class));
+
+        hookConsumer.handleMessages(Arrays.asList(createKafkaMessage(1), createKafkaMessage(2)));
+
+        verify(atlasEntityStore, times(3)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer).commit(new TopicPartition("ATLAS_HOOK", 0), 2);
+        verify(consumer).commit(new TopicPartition("ATLAS_HOOK", 0), 3);
+    }
+
     @Test
     public void testConsumerProceedsWithFalseIfInterrupted() throws Exception {
         NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry);
@@ -320,6 +402,111 @@ public class NotificationHookConsumerTest {
         assertFalse(notificationHookConsumer.consumers.get(0).isAlive());
     }
 
+    @Test
+    public void testMessagesSharingNonFirstEntityAreDispatchedInOrder() throws Exception {
+        NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(mock(NotificationConsumer.class));
+        AtlasEntity                           db                       = createEntity("hive_db", "db-guid");
+        AtlasEntity                           table                    = createEntity("hive_table", "table-guid");
+        AtlasEntity                           column                   = createEntity("hive_column", "column-guid");
+        AtlasEntity                           process                  = createEntity("hive_process", "process-guid");
+        AtlasEntitiesWithExtInfo              tableEntities            = new AtlasEntitiesWithExtInfo(Arrays.asList(db, table));
+        AtlasEntitiesWithExtInfo              processEntities          = new AtlasEntitiesWithExtInfo(Arrays.asList(process, table));
+
+        tableEntities.addReferredEntity(column);
+
+        Set<String> tableKeys   = hookConsumer.getMessageKeys(new EntityCreateRequestV2("user", tableEntities));
+        Set<String> processKeys = hookConsumer.getMessageKeys(new EntityCreateRequestV2("user", processEntities));
+
+        assertEquals(tableKeys, new HashSet<>(Arrays.asList("db-guid", "table-guid", "column-guid")));
+        assertTrue(processKeys.contains("table-guid"));
+
+        NotificationHookConsumer.DispatchKeyTracker keyTracker = new NotificationHookConsumer.DispatchKeyTracker();
+
+        assertEquals(keyTracker.acquire(tableKeys, 0, 0), 0);
+        assertEquals(keyTracker.acquire(processKeys, 1, 0), 0); // queued behind the message sharing table-guid
+
+        keyTracker.release(tableKeys);
+
+        assertEquals(keyTracker.acquire(tableKeys, 1, 0), 0);   // table-guid is still pending on dispatcher 0
+
+        keyTracker.release(processKeys);
+        keyTracker.release(tableKeys);
+
+        assertEquals(keyTracker.getPendingKeyCount(), 0);
+    }
+
+    @Test
+    public void testMessageWithKeysPendingOnTwoDispatchersWaits() throws Exception {
+        final NotificationHookConsumer.DispatchKeyTracker keyTracker = new NotificationHookConsumer.DispatchKeyTracker();
+        final Set<String>                                 keys       = new HashSet<>(Arrays.asList("a", "b"));
+        ExecutorService                                   executor   = Executors.newSingleThreadExecutor();
+
+        keyTracker.acquire(Collections.singleton("a"), 0, 0);
+        keyTracker.acquire(Collections.singleton("b"), 1, 0);
+
+        try {
+            Future<Integer> dispatcher = executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    return keyTracker.acquire(keys, 2, 10000);
+                }
+            });
+
+            Thread.sleep(200);
+
+            assertFalse(dispatcher.isDone());
+
+            keyTracker.release(Collections.singleton("b"));
+
+            assertEquals(dispatcher.get(5, TimeUnit.SECONDS), Integer.valueOf(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAcquireTimesOutWhenKeysArePendingOnTwoDispatchers() throws Exception {
+        NotificationHookConsumer.DispatchKeyTracker keyTracker = new NotificationHookConsumer.DispatchKeyTracker();
+        Set<String>                                 keys       = new HashSet<>(Arrays.asList("a", "b"));
+
+        keyTracker.acquire(Collections.singleton("a"), 0, 0);
+        keyTracker.acquire(Collections.singleton("b"), 1, 0);
+
+        assertEquals(keyTracker.acquire(keys, 2, 50), -1);
+        assertEquals(keyTracker.getPendingKeyCount(), 2); // keys of the message that timed out are not held
+
+        keyTracker.release(Collections.singleton("a"));
+
+        assertEquals(keyTracker.acquire(keys, 2, 50), 1);
+    }
+
+    private AtlasEntity createEntity(String typeName, String guid) {
+        AtlasEntity ret = new AtlasEntity(typeName);
+
+        ret.setGuid(guid);
+
+        return ret;
+    }
+
+    private NotificationHookConsumer createBatchingNotificationHookConsumer(int batchSize) throws AtlasException {
+        Configuration applicationProperties = ApplicationProperties.get();
+
+        applicationProperties.setProperty(NotificationHookConsumer.CONSUMER_BATCH_SIZE_PROPERTY, batchSize);
+
+        try {
+            return new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry);
+        } finally {
+            applicationProperties.clearProperty(NotificationHookConsumer.CONSUMER_BATCH_SIZE_PROPERTY);
+        }
+    }
+
+    private AtlasKafkaMessage<HookNotification> createKafkaMessage(long offset) {
+        EntityCreateRequest message = new EntityCreateRequest("user", Collections.singletonList(mock(Referenceable.class)));
+
+        return new AtlasKafkaMessage<HookNotification>(message, offset, 0);
+    }
+
     private NotificationHookConsumer setupNotificationHookConsumer() throws AtlasException {
         List<NotificationConsumer<Object>> consumers                = new ArrayList();
         NotificationConsumer               notificationConsumerMock = mock(NotificationConsumer.class);
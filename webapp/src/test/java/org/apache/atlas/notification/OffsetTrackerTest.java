@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class OffsetTrackerTest {
+
+    @Test
+    public void commitsLowWatermark() {
+        NotificationHookConsumer.OffsetTracker tracker = new NotificationHookConsumer.OffsetTracker();
+
+        tracker.add(0, 10);
+        tracker.add(0, 11);
+        tracker.add(0, 12);
+
+        tracker.complete(0, 11);
+        tracker.complete(0, 12);
+
+        assertEquals(tracker.getOffsetsToCommit(), Collections.singletonMap(0, 10L)); // offset 10 is still being processed
+
+        tracker.complete(0, 10);
+
+        assertEquals(tracker.getOffsetsToCommit(), Collections.singletonMap(0, 13L));
+        assertEquals(tracker.getPendingCount(), 0);
+    }
+
+    @Test
+    public void commitsOnlyAdvancedPartitions() {
+        NotificationHookConsumer.OffsetTracker tracker = new NotificationHookConsumer.OffsetTracker();
+
+        tracker.add(0, 5);
+        tracker.add(1, 7);
+        tracker.complete(0, 5);
+        tracker.complete(1, 7);
+
+        Map<Integer, Long> offsets = tracker.getOffsetsToCommit();
+
+        assertEquals(offsets.size(), 2);
+        assertEquals(offsets.get(0), Long.valueOf(6));
+        assertEquals(offsets.get(1), Long.valueOf(8));
+
+        tracker.add(1, 8);
+        tracker.complete(1, 8);
+
+        assertEquals(tracker.getOffsetsToCommit(), Collections.singletonMap(1, 9L));
+        assertTrue(tracker.getOffsetsToCommit().isEmpty());
+    }
+
+    @Test
+    public void waitsForPendingMessages() throws InterruptedException {
+        NotificationHookConsumer.OffsetTracker tracker = new NotificationHookConsumer.OffsetTracker();
+
+        tracker.add(0, 1);
+        tracker.add(0, 2);
+
+        assertFalse(tracker.awaitPendingBelow(2, 10));
+
+        tracker.complete(0, 1);
+
+        assertTrue(tracker.awaitPendingBelow(2, 10));
+    }
+}